@@ -0,0 +1,163 @@
+/**
+ * Copyright 2016 Bartosz Schiller
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.collection.LongSparseArray;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of bitmaps evicted from the {@link CacheManager}, reused by the {@link RenderingHandler}
+ * to render the next parts instead of allocating new bitmaps.
+ * <p>
+ * Bitmaps are bucketed by size and configuration. Most parts share the same size, only the parts
+ * at the right and bottom edges of a page are smaller.
+ */
+public class BitmapPool {
+
+    private final LongSparseArray<ArrayDeque<Bitmap>> buckets = new LongSparseArray<>();
+
+    private final long maxBytes;
+
+    private long pooledBytes = 0;
+
+    private long allocationCount = 0;
+
+    private long hitCount = 0;
+
+    private long evictionCount = 0;
+
+    /**
+     * @param maxBytes the memory the pooled bitmaps can use
+     */
+    public BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get a cleared bitmap from the pool, or allocate it if none is available
+     *
+     * @throws IllegalArgumentException if the size is not valid
+     */
+    Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = poll(width, height, config);
+        if (bitmap != null) {
+            // Same state as a newly allocated bitmap
+            bitmap.eraseColor(Color.TRANSPARENT);
+            return bitmap;
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    private synchronized Bitmap poll(int width, int height, Bitmap.Config config) {
+        ArrayDeque<Bitmap> bucket = buckets.get(key(width, height, config));
+        Bitmap bitmap = bucket != null ? bucket.pollLast() : null;
+        if (bitmap != null) {
+            pooledBytes -= bitmap.getAllocationByteCount();
+            hitCount++;
+        } else {
+            allocationCount++;
+        }
+        return bitmap;
+    }
+
+    /**
+     * Give back a bitmap which is not displayed anymore, recycled if the pool is full
+     */
+    synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int size = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || size > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        while (pooledBytes + size > maxBytes && evictOne()) {
+            evictionCount++;
+        }
+
+        long key = key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+        ArrayDeque<Bitmap> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(key, bucket);
+        }
+        bucket.offerLast(bitmap);
+        pooledBytes += size;
+    }
+
+    /**
+     * Recycle the oldest bitmap of the first non empty bucket
+     */
+    private boolean evictOne() {
+        for (int i = 0; i < buckets.size(); i++) {
+            Bitmap bitmap = buckets.valueAt(i).pollFirst();
+            if (bitmap != null) {
+                pooledBytes -= bitmap.getAllocationByteCount();
+                bitmap.recycle();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recycle all the pooled bitmaps
+     */
+    synchronized void clear() {
+        for (int i = 0; i < buckets.size(); i++) {
+            for (Bitmap bitmap : buckets.valueAt(i)) {
+                bitmap.recycle();
+            }
+        }
+        buckets.clear();
+        pooledBytes = 0;
+    }
+
+    /** Number of bitmaps allocated because none was available in the pool */
+    public synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /** Number of bitmaps reused from the pool */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /** Number of pooled bitmaps recycled to stay within the memory budget */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Share of the requested bitmaps reused from the pool, between 0 and 1 */
+    public synchronized float getHitRate() {
+        long requests = hitCount + allocationCount;
+        return requests == 0 ? 0f : (float) hitCount / requests;
+    }
+
+    /** Memory used by the pooled bitmaps */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    private static long key(int width, int height, Bitmap.Config config) {
+        return ((long) width << 32) | ((long) height << 8) | config.ordinal();
+    }
+}
@@ -16,95 +16,170 @@
 package com.github.barteksc.pdfviewer;
 
 import android.graphics.RectF;
-import androidx.annotation.Nullable;
 
 import com.github.barteksc.pdfviewer.model.PagePart;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.TreeSet;
 
-import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.THUMBNAILS_CACHE_SIZE;
+import static com.github.barteksc.pdfviewer.util.Constants.PART_SIZE;
 
+/**
+ * Keeps the rendered parts within a memory budget. Evicted bitmaps go to the {@link BitmapPool}
+ * to be reused by the next renders.
+ * <p>
+ * Parts are indexed by page and bounds, so that looking them up while loading the pages
+ * takes constant time and does not allocate. The eviction order is kept apart, sorted by
+ * cache order: parts of the previous sets are evicted first, then the parts of the current one.
+ */
 class CacheManager {
 
-    private final PriorityQueue<PagePart> passiveCache;
+    /** Page relative bounds are rounded to 1/65536 of the page in the index */
+    private static final int BOUNDS_QUANTIZATION = 1 << 16;
+
+    private final Map<PartKey, CachedPart> parts = new HashMap<>();
 
-    private final PriorityQueue<PagePart> activeCache;
+    private final TreeSet<CachedPart> passiveCache;
+
+    private final TreeSet<CachedPart> activeCache;
 
     private final List<PagePart> thumbnails;
 
+    private final Map<PartKey, PagePart> thumbnailsIndex = new HashMap<>();
+
     private final Object passiveActiveLock = new Object();
 
-    private final PagePartComparator orderComparator = new PagePartComparator();
+    /** Reused to look up parts under {@link #passiveActiveLock} */
+    private final PartKey partProbe = new PartKey();
+
+    /** Reused to look up thumbnails under the {@link #thumbnails} lock */
+    private final PartKey thumbnailProbe = new PartKey();
+
+    private final CachedPartComparator orderComparator = new CachedPartComparator();
+
+    private final BitmapPool bitmapPool;
+
+    /** The memory the parts can use, thumbnails excluded */
+    private final long memoryBudget;
+
+    /** The memory used by the parts in {@link #activeCache} and {@link #passiveCache} */
+    private long cachedBytes = 0;
 
-    public CacheManager() {
-        activeCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
-        passiveCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
+    /** Distinguishes parts of the same cache order */
+    private long sequence = 0;
+
+    public CacheManager(long memoryBudget, BitmapPool bitmapPool) {
+        this.memoryBudget = memoryBudget;
+        this.bitmapPool = bitmapPool;
+        activeCache = new TreeSet<>(orderComparator);
+        passiveCache = new TreeSet<>(orderComparator);
         thumbnails = new ArrayList<>();
     }
 
+    /**
+     * The number of full size parts fitting in the memory budget
+     */
+    public int getPartsCapacity(boolean bestQuality) {
+        long partBytes = (long) (PART_SIZE * PART_SIZE) * (bestQuality ? 4 : 2);
+        return (int) Math.max(1, memoryBudget / partBytes);
+    }
+
     public void cachePart(PagePart part) {
         synchronized (passiveActiveLock) {
-            // If cache too big, remove and recycle
-            makeAFreeSpace();
+            CachedPart cached = parts.get(partProbe.set(part.getPage(), part.getPageRelativeBounds(), false));
+            if (cached != null) {
+                // Rendered twice, keep the part which may already be displayed
+                bitmapPool.put(part.getRenderedBitmap());
+                promote(cached, part.getCacheOrder());
+                return;
+            }
+
+            // If cache too big, remove and give back to the pool
+            makeAFreeSpace(part.getRenderedBitmap().getAllocationByteCount());
+            cachedBytes += part.getRenderedBitmap().getAllocationByteCount();
 
             // Then add part
-            activeCache.offer(part);
+            cached = new CachedPart(partProbe.copy(), part, sequence++);
+            parts.put(cached.key, cached);
+            cached.active = true;
+            activeCache.add(cached);
         }
     }
 
     public void makeANewSet() {
         synchronized (passiveActiveLock) {
+            for (CachedPart cached : activeCache) {
+                cached.active = false;
+            }
             passiveCache.addAll(activeCache);
             activeCache.clear();
         }
     }
 
-    private void makeAFreeSpace() {
+    private void makeAFreeSpace(long neededBytes) {
         synchronized (passiveActiveLock) {
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !passiveCache.isEmpty()) {
-                PagePart part = passiveCache.poll();
-                part.getRenderedBitmap().recycle();
+            while (cachedBytes + neededBytes > memoryBudget && !passiveCache.isEmpty()) {
+                evict(passiveCache.pollFirst());
             }
 
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !activeCache.isEmpty()) {
-                activeCache.poll().getRenderedBitmap().recycle();
+            while (cachedBytes + neededBytes > memoryBudget && !activeCache.isEmpty()) {
+                evict(activeCache.pollFirst());
             }
         }
     }
 
+    private void evict(CachedPart cached) {
+        parts.remove(cached.key);
+        cachedBytes -= cached.part.getRenderedBitmap().getAllocationByteCount();
+        bitmapPool.put(cached.part.getRenderedBitmap());
+    }
+
+    /**
+     * Move a part to the current set with a new cache order
+     */
+    private void promote(CachedPart cached, int toOrder) {
+        (cached.active ? activeCache : passiveCache).remove(cached);
+        cached.part.setCacheOrder(toOrder);
+        cached.active = true;
+        activeCache.add(cached);
+    }
+
     public void cacheThumbnail(PagePart part) {
         synchronized (thumbnails) {
-            // If cache too big, remove and recycle
+            // Add thumbnail if it doesn't exist, give back its bitmap to the pool otherwise
+            if (thumbnailsIndex.containsKey(thumbnailProbe.set(part.getPage(), part.getPageRelativeBounds(), true))) {
+                bitmapPool.put(part.getRenderedBitmap());
+                return;
+            }
+
+            // If cache too big, remove and give back to the pool
             while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE) {
-                thumbnails.remove(0).getRenderedBitmap().recycle();
+                PagePart removed = thumbnails.remove(0);
+                thumbnailsIndex.remove(new PartKey().set(removed.getPage(), removed.getPageRelativeBounds(), true));
+                bitmapPool.put(removed.getRenderedBitmap());
             }
 
             // Then add thumbnail
-            addWithoutDuplicates(thumbnails, part);
+            thumbnails.add(part);
+            thumbnailsIndex.put(new PartKey().set(part.getPage(), part.getPageRelativeBounds(), true), part);
         }
-
     }
 
     public boolean upPartIfContained(int page, RectF pageRelativeBounds, int toOrder) {
-        PagePart fakePart = new PagePart(page, null, pageRelativeBounds, false, 0);
-
-        PagePart found;
         synchronized (passiveActiveLock) {
-            if ((found = find(passiveCache, fakePart)) != null) {
-                passiveCache.remove(found);
-                found.setCacheOrder(toOrder);
-                activeCache.offer(found);
-                return true;
+            CachedPart found = parts.get(partProbe.set(page, pageRelativeBounds, false));
+            if (found == null) {
+                return false;
             }
-
-            return find(activeCache, fakePart) != null;
+            if (!found.active) {
+                promote(found, toOrder);
+            }
+            return true;
         }
     }
 
@@ -112,45 +187,21 @@ class CacheManager {
      * Return true if already contains the described PagePart
      */
     public boolean containsThumbnail(int page, RectF pageRelativeBounds) {
-        PagePart fakePart = new PagePart(page, null, pageRelativeBounds, true, 0);
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
-                if (part.equals(fakePart)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-    }
-
-    /**
-     * Add part if it doesn't exist, recycle bitmap otherwise
-     */
-    private void addWithoutDuplicates(Collection<PagePart> collection, PagePart newPart) {
-        for (PagePart part : collection) {
-            if (part.equals(newPart)) {
-                newPart.getRenderedBitmap().recycle();
-                return;
-            }
-        }
-        collection.add(newPart);
-    }
-
-    @Nullable
-    private static PagePart find(PriorityQueue<PagePart> vector, PagePart fakePart) {
-        for (PagePart part : vector) {
-            if (part.equals(fakePart)) {
-                return part;
-            }
+            return thumbnailsIndex.containsKey(thumbnailProbe.set(page, pageRelativeBounds, true));
         }
-        return null;
     }
 
     public List<PagePart> getPageParts() {
         synchronized (passiveActiveLock) {
-            List<PagePart> parts = new ArrayList<>(passiveCache);
-            parts.addAll(activeCache);
-            return parts;
+            List<PagePart> pageParts = new ArrayList<>(passiveCache.size() + activeCache.size());
+            for (CachedPart cached : passiveCache) {
+                pageParts.add(cached.part);
+            }
+            for (CachedPart cached : activeCache) {
+                pageParts.add(cached.part);
+            }
+            return pageParts;
         }
     }
 
@@ -162,30 +213,106 @@ class CacheManager {
 
     public void recycle() {
         synchronized (passiveActiveLock) {
-            for (PagePart part : passiveCache) {
-                part.getRenderedBitmap().recycle();
+            for (CachedPart cached : parts.values()) {
+                cached.part.getRenderedBitmap().recycle();
             }
+            parts.clear();
             passiveCache.clear();
-            for (PagePart part : activeCache) {
-                part.getRenderedBitmap().recycle();
-            }
             activeCache.clear();
+            cachedBytes = 0;
         }
         synchronized (thumbnails) {
             for (PagePart part : thumbnails) {
                 part.getRenderedBitmap().recycle();
             }
             thumbnails.clear();
+            thumbnailsIndex.clear();
         }
+        bitmapPool.clear();
     }
 
-    class PagePartComparator implements Comparator<PagePart> {
+    /**
+     * Index key of a part: its page, its quantized page relative bounds and whether it is a thumbnail
+     */
+    private static final class PartKey {
+
+        int page;
+
+        boolean thumbnail;
+
+        int left, top, right, bottom;
+
+        PartKey set(int page, RectF bounds, boolean thumbnail) {
+            this.page = page;
+            this.thumbnail = thumbnail;
+            this.left = quantize(bounds.left);
+            this.top = quantize(bounds.top);
+            this.right = quantize(bounds.right);
+            this.bottom = quantize(bounds.bottom);
+            return this;
+        }
+
+        PartKey copy() {
+            PartKey key = new PartKey();
+            key.page = page;
+            key.thumbnail = thumbnail;
+            key.left = left;
+            key.top = top;
+            key.right = right;
+            key.bottom = bottom;
+            return key;
+        }
+
+        private static int quantize(float value) {
+            return Math.round(value * BOUNDS_QUANTIZATION);
+        }
+
         @Override
-        public int compare(PagePart part1, PagePart part2) {
-            if (part1.getCacheOrder() == part2.getCacheOrder()) {
-                return 0;
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PartKey)) {
+                return false;
             }
-            return part1.getCacheOrder() > part2.getCacheOrder() ? 1 : -1;
+            PartKey key = (PartKey) obj;
+            return key.page == page && key.thumbnail == thumbnail
+                    && key.left == left && key.top == top
+                    && key.right == right && key.bottom == bottom;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = page;
+            result = 31 * result + (thumbnail ? 1 : 0);
+            result = 31 * result + left;
+            result = 31 * result + top;
+            result = 31 * result + right;
+            result = 31 * result + bottom;
+            return result;
+        }
+    }
+
+    private static final class CachedPart {
+
+        final PartKey key;
+
+        final PagePart part;
+
+        final long sequence;
+
+        /** True if the part belongs to the current set */
+        boolean active;
+
+        CachedPart(PartKey key, PagePart part, long sequence) {
+            this.key = key;
+            this.part = part;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class CachedPartComparator implements Comparator<CachedPart> {
+        @Override
+        public int compare(CachedPart part1, CachedPart part2) {
+            int byOrder = Integer.compare(part1.part.getCacheOrder(), part2.part.getCacheOrder());
+            return byOrder != 0 ? byOrder : Long.compare(part1.sequence, part2.sequence);
         }
     }
 
@@ -30,7 +30,6 @@ import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Handler;
-import android.os.HandlerThread;
 import com.google.android.material.textfield.TextInputLayout;
 import androidx.core.content.ContextCompat;
 import androidx.appcompat.widget.AppCompatEditText;
@@ -76,6 +75,7 @@ import com.shockwave.pdfium.util.SizeF;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -134,6 +134,15 @@ public class PDFView extends RelativeLayout {
     /** Rendered parts go to the cache manager */
     CacheManager cacheManager;
 
+    /** Bitmaps evicted from the cache manager, reused to render the next parts */
+    BitmapPool bitmapPool;
+
+    /** Rendered parts kept across openings of the document, null if not enabled */
+    PageDiskCache pageDiskCache;
+
+    /** Identifies the document in the {@link #pageDiskCache} */
+    String documentKey;
+
     /** Animation manager manage all offset and zoom animation */
     private AnimationManager animationManager;
 
@@ -171,8 +180,8 @@ public class PDFView extends RelativeLayout {
     /** ExecutorService used during the loading phase to decode a PDF document */
     private ExecutorService decodingExecutorService;
 
-    /** The thread {@link #renderingHandler} will run on */
-    private final HandlerThread renderingHandlerThread;
+    /** The worker pool {@link #renderingHandler} runs its tasks on */
+    private RenderingScheduler renderingScheduler;
     /** Handler always waiting in the background and rendering tasks */
     RenderingHandler renderingHandler;
 
@@ -243,13 +252,13 @@ public class PDFView extends RelativeLayout {
 
         pdfViewer = (PdfViewerActivity) getContext();
 
-        renderingHandlerThread = new HandlerThread("PDF renderer");
-
         if (isInEditMode()) {
             return;
         }
 
-        cacheManager = new CacheManager();
+        long cacheMemoryBudget = Util.getCacheMemoryBudget(context);
+        bitmapPool = new BitmapPool(cacheMemoryBudget / Constants.Cache.POOL_MEMORY_FRACTION);
+        cacheManager = new CacheManager(cacheMemoryBudget, bitmapPool);
         animationManager = new AnimationManager(this);
         dragPinchManager = new DragPinchManager(this, animationManager);
         pagesLoader = new PagesLoader(this);
@@ -434,13 +443,21 @@ public class PDFView extends RelativeLayout {
         // Stop tasks
         if (renderingHandler != null) {
             renderingHandler.stop();
-            renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+            renderingHandler.cancelPendingTasks();
+        }
+        if (renderingScheduler != null) {
+            renderingScheduler.shutdown();
+            renderingScheduler = null;
         }
         if (decodingExecutorService != null) {
             decodingExecutorService.shutdownNow();
         }
 
         // Clear caches
+        if (Constants.DEBUG_MODE) {
+            Log.d(TAG, "Bitmap pool: " + bitmapPool.getAllocationCount() + " allocations, "
+                    + bitmapPool.getHitCount() + " reuses, hit rate " + bitmapPool.getHitRate());
+        }
         cacheManager.recycle();
 
         if (scrollHandle != null && isScrollHandleInit) {
@@ -713,8 +730,8 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        // Cancel all current tasks
-        renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+        // Cancel all pending tasks, the ones still needed are submitted again
+        renderingHandler.cancelPendingTasks();
         cacheManager.makeANewSet();
 
         pagesLoader.loadPages();
@@ -727,10 +744,10 @@ public class PDFView extends RelativeLayout {
 
         this.pdfFile = pdfFile;
 
-        if (!renderingHandlerThread.isAlive()) {
-            renderingHandlerThread.start();
+        if (renderingScheduler == null) {
+            renderingScheduler = new RenderingScheduler(Constants.RENDERING_THREADS);
         }
-        renderingHandler = new RenderingHandler(renderingHandlerThread.getLooper(), this);
+        renderingHandler = new RenderingHandler(renderingScheduler, this);
         renderingHandler.start();
 
         if (scrollHandle != null) {
@@ -1198,6 +1215,11 @@ public class PDFView extends RelativeLayout {
         return renderDuringScale;
     }
 
+    /** Allocation counts and hit rate of the rendered parts bitmaps, for profiling */
+    public BitmapPool getBitmapPool() {
+        return bitmapPool;
+    }
+
     /** Returns null if document is not loaded */
     public PdfDocument.Meta getDocumentMeta() {
         if (pdfFile == null) {
@@ -1300,6 +1322,10 @@ public class PDFView extends RelativeLayout {
 
         private FitPolicy pageFitPolicy = FitPolicy.WIDTH;
 
+        private PageDiskCache pageDiskCache = null;
+
+        private String documentKey = null;
+
         private Configurator(DocumentSource documentSource) {
             this.documentSource = documentSource;
         }
@@ -1409,6 +1435,18 @@ public class PDFView extends RelativeLayout {
             return this;
         }
 
+        /**
+         * Keep the rendered parts on disk, so they are not rendered again when the document is reopened
+         *
+         * @param pageDiskCache the cache, shared by the documents
+         * @param documentKey   a key which changes when the document content changes
+         */
+        public Configurator diskCache(PageDiskCache pageDiskCache, String documentKey) {
+            this.pageDiskCache = pageDiskCache;
+            this.documentKey = documentKey;
+            return this;
+        }
+
         public void load() {
             PDFView.this.recycle();
             PDFView.this.callbacks.setOnLoadComplete(onLoadCompleteListener);
@@ -1430,6 +1468,15 @@ public class PDFView extends RelativeLayout {
             PDFView.this.enableAntialiasing(antialiasing);
             PDFView.this.setSpacing(spacing);
             PDFView.this.setPageFitPolicy(pageFitPolicy);
+            if (pageDiskCache != null && documentKey != null) {
+                PDFView.this.pageDiskCache = pageDiskCache;
+                // Pages are indexed in the given sequence
+                PDFView.this.documentKey = pageNumbers != null
+                        ? documentKey + Arrays.toString(pageNumbers) : documentKey;
+            } else {
+                PDFView.this.pageDiskCache = null;
+                PDFView.this.documentKey = null;
+            }
 
             PDFView.this.removeCallbacks(loadRunnable);
             PDFView.this.post(loadRunnable);
@@ -0,0 +1,277 @@
+/**
+ * Copyright 2016 Bartosz Schiller
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.RectF;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk cache of rendered parts and thumbnails, so that a document opened again is painted
+ * without rendering it.
+ * <p>
+ * Parts are stored losslessly, one file per part, named after the document fingerprint, the page,
+ * the page relative bounds and the render size, which changes with the zoom. The least recently
+ * used files are deleted when the cache exceeds its size.
+ */
+public class PageDiskCache {
+
+    private static final String TAG = PageDiskCache.class.getName();
+
+    private static final String EXTENSION = ".png";
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    /** Parts waiting to be written are copies, so their number is bounded */
+    private static final int MAX_PENDING_WRITES = 16;
+
+    private static final int BOUNDS_QUANTIZATION = 1 << 16;
+
+    private final File directory;
+
+    private final long maxBytes;
+
+    /** File name to file size, in access order */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long totalBytes = 0;
+
+    private boolean indexed = false;
+
+    private final ThreadPoolExecutor writeExecutor;
+
+    /**
+     * @param directory the folder keeping the files, owned by this cache
+     * @param maxBytes  the size the files can use
+     */
+    public PageDiskCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        writeExecutor = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(MAX_PENDING_WRITES),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "PDF disk cache writer");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        writeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get a part from the cache
+     *
+     * @param documentKey the key given to {@link PDFView.Configurator#diskCache(PageDiskCache, String)}
+     * @param inBitmap    a bitmap to decode into, or null
+     * @return the part, or null if it is not cached
+     */
+    Bitmap get(String documentKey, int page, RectF bounds, int width, int height, boolean thumbnail,
+               Bitmap.Config config, boolean annotationRendering, Bitmap inBitmap) {
+        String fileName = fileName(documentKey, page, bounds, width, height, thumbnail, config, annotationRendering);
+        synchronized (this) {
+            ensureIndexed();
+            if (entries.get(fileName) == null) {
+                return null;
+            }
+        }
+
+        File file = new File(directory, fileName);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = config;
+        options.inMutable = true;
+        options.inBitmap = inBitmap;
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeFile(file.getPath(), options);
+        } catch (IllegalArgumentException e) {
+            // inBitmap cannot be reused for this file
+            options.inBitmap = null;
+            bitmap = BitmapFactory.decodeFile(file.getPath(), options);
+        }
+
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            remove(fileName);
+            return null;
+        }
+        // Keep the access order when the index is read again
+        file.setLastModified(System.currentTimeMillis());
+        return bitmap;
+    }
+
+    /**
+     * Write a rendered part to the cache in the background, unless too many writes are pending
+     */
+    void put(String documentKey, int page, RectF bounds, boolean thumbnail,
+             boolean annotationRendering, Bitmap bitmap) {
+        final String fileName = fileName(documentKey, page, bounds, bitmap.getWidth(), bitmap.getHeight(),
+                thumbnail, bitmap.getConfig(), annotationRendering);
+        synchronized (this) {
+            ensureIndexed();
+            if (entries.containsKey(fileName)
+                    || writeExecutor.getQueue().remainingCapacity() == 0) {
+                return;
+            }
+        }
+
+        // The rendered bitmap goes back to the pool once evicted, so it cannot be written later
+        final Bitmap copy = bitmap.copy(bitmap.getConfig(), false);
+        if (copy == null) {
+            return;
+        }
+        writeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(fileName, copy);
+                copy.recycle();
+            }
+        });
+    }
+
+    private void write(String fileName, Bitmap bitmap) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File temp = new File(directory, fileName + TEMP_EXTENSION);
+        File file = new File(directory, fileName);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write " + fileName, e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+        synchronized (this) {
+            Long previous = entries.put(fileName, file.length());
+            totalBytes += file.length() - (previous != null ? previous : 0);
+            trimToSize();
+        }
+    }
+
+    private synchronized void remove(String fileName) {
+        Long size = entries.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        new File(directory, fileName).delete();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            new File(directory, eldest.getKey()).delete();
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Read the files of the directory, least recently used first. Done once, on first access.
+     */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(EXTENSION)) {
+                entries.put(file.getName(), file.length());
+                totalBytes += file.length();
+            } else {
+                // Interrupted write
+                file.delete();
+            }
+        }
+        trimToSize();
+    }
+
+    /**
+     * Size of the cached files, for profiling
+     */
+    public synchronized long getSize() {
+        ensureIndexed();
+        return totalBytes;
+    }
+
+    private static String fileName(String documentKey, int page, RectF bounds, int width, int height,
+                                   boolean thumbnail, Bitmap.Config config, boolean annotationRendering) {
+        return fingerprint(documentKey)
+                + "_" + page
+                + "_" + quantize(bounds.left) + "_" + quantize(bounds.top)
+                + "_" + quantize(bounds.right) + "_" + quantize(bounds.bottom)
+                + "_" + width + "x" + height
+                + (thumbnail ? "_t" : "_p")
+                + "_" + config.ordinal()
+                + (annotationRendering ? "_a" : "")
+                + EXTENSION;
+    }
+
+    private static int quantize(float value) {
+        return Math.round(value * BOUNDS_QUANTIZATION);
+    }
+
+    /**
+     * Short hash of the document key, as keys may be long or contain characters not allowed in files
+     */
+    private static String fingerprint(String documentKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(documentKey.getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(documentKey.hashCode());
+        }
+    }
+}
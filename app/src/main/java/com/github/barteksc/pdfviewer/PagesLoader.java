@@ -22,7 +22,6 @@ import com.github.barteksc.pdfviewer.util.MathUtils;
 import com.github.barteksc.pdfviewer.util.Util;
 import com.shockwave.pdfium.util.SizeF;
 
-import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE;
 import static com.github.barteksc.pdfviewer.util.Constants.PRELOAD_OFFSET;
 
 class PagesLoader {
@@ -39,9 +38,12 @@ class PagesLoader {
     private final int preloadOffset;
     private final Holder firstHolder = new Holder();
     private final Holder lastHolder = new Holder();
+    private final Holder firstVisibleHolder = new Holder();
+    private final Holder lastVisibleHolder = new Holder();
     private final GridSize firstGrid = new GridSize();
     private final GridSize lastGrid = new GridSize();
     private final GridSize middleGrid = new GridSize();
+    private final GridSize visibleGrid = new GridSize();
 
     private class Holder {
         int page;
@@ -120,23 +122,27 @@ class PagesLoader {
 
         getPageAndCoordsByOffset(firstHolder, firstGrid, firstXOffset, firstYOffset, false);
         getPageAndCoordsByOffset(lastHolder, lastGrid, lastXOffset, lastYOffset, true);
+        getPageAndCoordsByOffset(firstVisibleHolder, visibleGrid, -xOffset, -yOffset, false);
+        getPageAndCoordsByOffset(lastVisibleHolder, visibleGrid, -xOffset - pdfView.getWidth(),
+                -yOffset - pdfView.getHeight(), true);
 
         for (int i = firstHolder.page; i <= lastHolder.page; i++) {
             loadThumbnail(i);
         }
 
         int pagesCount = lastHolder.page - firstHolder.page + 1;
-        for (int page = firstHolder.page; page <= lastHolder.page && parts < CACHE_SIZE; page++) {
+        int partsCapacity = pdfView.cacheManager.getPartsCapacity(pdfView.isBestQuality());
+        for (int page = firstHolder.page; page <= lastHolder.page && parts < partsCapacity; page++) {
 
             if (page == firstHolder.page && pagesCount > 1) {
-                parts += loadPageEnd(firstHolder, firstGrid, CACHE_SIZE - parts);
+                parts += loadPageEnd(firstHolder, firstGrid, partsCapacity - parts);
             } else if (page == lastHolder.page && pagesCount > 1) {
-                parts += loadPageStart(lastHolder, lastGrid, CACHE_SIZE - parts);
+                parts += loadPageStart(lastHolder, lastGrid, partsCapacity - parts);
             } else if(pagesCount == 1) {
-                parts += loadPageCenter(firstHolder, lastHolder, firstGrid, CACHE_SIZE - parts);
+                parts += loadPageCenter(firstHolder, lastHolder, firstGrid, partsCapacity - parts);
             } else {
                 getPageColsRows(middleGrid, page);
-                parts += loadWholePage(page, middleGrid, CACHE_SIZE - parts);
+                parts += loadWholePage(page, middleGrid, partsCapacity - parts);
             }
         }
 
@@ -211,6 +217,22 @@ class PagesLoader {
         return loaded;
     }
 
+    /**
+     * Whether the cell is in the viewport, without the preload offset, along the scroll direction
+     */
+    private boolean isVisible(int page, int row, int col) {
+        boolean vertical = pdfView.isSwipeVertical();
+        int line = vertical ? row : col;
+        int firstLine = vertical ? firstVisibleHolder.row : firstVisibleHolder.col;
+        int lastLine = vertical ? lastVisibleHolder.row : lastVisibleHolder.col;
+        return compareCells(page, line, firstVisibleHolder.page, firstLine) >= 0
+                && compareCells(page, line, lastVisibleHolder.page, lastLine) <= 0;
+    }
+
+    private int compareCells(int page, int line, int otherPage, int otherLine) {
+        return page != otherPage ? Integer.compare(page, otherPage) : Integer.compare(line, otherLine);
+    }
+
     private boolean loadCell(int page, int row, int col, float pageRelativePartWidth, float pageRelativePartHeight) {
 
         float relX = pageRelativePartWidth * col;
@@ -234,7 +256,7 @@ class PagesLoader {
             if (!pdfView.cacheManager.upPartIfContained(page, pageRelativeBounds, cacheOrder)) {
                 pdfView.renderingHandler.addRenderingTask(page, renderWidth, renderHeight,
                         pageRelativeBounds, false, cacheOrder, pdfView.isBestQuality(),
-                        pdfView.isAnnotationRendering());
+                        pdfView.isAnnotationRendering(), isVisible(page, row, col));
             }
 
             cacheOrder++;
@@ -250,7 +272,7 @@ class PagesLoader {
         if (!pdfView.cacheManager.containsThumbnail(page, thumbnailRect)) {
             pdfView.renderingHandler.addRenderingTask(page,
                     thumbnailWidth, thumbnailHeight, thumbnailRect,
-                    true, 0, pdfView.isBestQuality(), pdfView.isAnnotationRendering());
+                    true, 0, pdfView.isBestQuality(), pdfView.isAnnotationRendering(), false);
         }
     }
 
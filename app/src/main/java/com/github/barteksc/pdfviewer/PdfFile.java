@@ -33,7 +33,11 @@ import java.util.List;
 
 class PdfFile {
 
-    private static final Object lock = new Object();
+    /**
+     * Guards {@link #openedPages} and the document, which are accessed by all the rendering workers,
+     * so that no page is opened or rendered once the document is disposed
+     */
+    private final Object lock = new Object();
     private PdfDocument pdfDocument;
     private PdfiumCore pdfiumCore;
     private int pagesCount = 0;
@@ -221,7 +225,7 @@ class PdfFile {
         }
 
         synchronized (lock) {
-            if (openedPages.indexOfKey(docPage) < 0) {
+            if (pdfDocument != null && openedPages.indexOfKey(docPage) < 0) {
                 try {
                     pdfiumCore.openPage(pdfDocument, docPage);
                     openedPages.put(docPage, true);
@@ -237,13 +241,19 @@ class PdfFile {
 
     public boolean pageHasError(int pageIndex) {
         int docPage = documentPage(pageIndex);
-        return !openedPages.get(docPage, false);
+        synchronized (lock) {
+            return !openedPages.get(docPage, false);
+        }
     }
 
     public void renderPageBitmap(Bitmap bitmap, int pageIndex, Rect bounds, boolean annotationRendering) {
         int docPage = documentPage(pageIndex);
-        pdfiumCore.renderPageBitmap(pdfDocument, bitmap, docPage,
-                bounds.left, bounds.top, bounds.width(), bounds.height(), annotationRendering);
+        synchronized (lock) {
+            if (pdfDocument != null) {
+                pdfiumCore.renderPageBitmap(pdfDocument, bitmap, docPage,
+                        bounds.left, bounds.top, bounds.width(), bounds.height(), annotationRendering);
+            }
+        }
     }
 
     public PdfDocument.Meta getMetaData() {
@@ -272,11 +282,13 @@ class PdfFile {
     }
 
     public void dispose() {
-        if (pdfiumCore != null && pdfDocument != null) {
-            pdfiumCore.closeDocument(pdfDocument);
-        }
+        synchronized (lock) {
+            if (pdfiumCore != null && pdfDocument != null) {
+                pdfiumCore.closeDocument(pdfDocument);
+            }
 
-        pdfDocument = null;
+            pdfDocument = null;
+        }
         originalUserPages = null;
     }
 
@@ -16,52 +16,65 @@
 package com.github.barteksc.pdfviewer;
 
 import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Rect;
 import android.graphics.RectF;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
 import android.util.Log;
 
 import com.github.barteksc.pdfviewer.exception.PageRenderingException;
 import com.github.barteksc.pdfviewer.model.PagePart;
 
 /**
- * A {@link Handler} that will process incoming {@link RenderingTask} messages
- * and alert {@link PDFView#onBitmapRendered(PagePart)} when the portion of the
+ * Renders {@link RenderingTask}s on the workers of a {@link RenderingScheduler}
+ * and alerts {@link PDFView#onBitmapRendered(PagePart)} when the portion of the
  * PDF is ready to render.
+ * <p>
+ * Parts in the viewport are rendered before the preloaded parts and the thumbnails.
  */
-class RenderingHandler extends Handler {
-    /**
-     * {@link Message#what} kind of message this handler processes.
-     */
-    static final int MSG_RENDER_TASK = 1;
+class RenderingHandler {
 
     private static final String TAG = RenderingHandler.class.getName();
 
-    private PDFView pdfView;
+    private final PDFView pdfView;
 
-    private RectF renderBounds = new RectF();
-    private Rect roundedRenderBounds = new Rect();
-    private Matrix renderMatrix = new Matrix();
-    private boolean running = false;
+    private final RenderingScheduler scheduler;
 
-    RenderingHandler(Looper looper, PDFView pdfView) {
-        super(looper);
+    private volatile boolean running = false;
+
+    RenderingHandler(RenderingScheduler scheduler, PDFView pdfView) {
+        this.scheduler = scheduler;
         this.pdfView = pdfView;
     }
 
-    void addRenderingTask(int page, float width, float height, RectF bounds, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
-        RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering);
-        Message msg = obtainMessage(MSG_RENDER_TASK, task);
-        sendMessage(msg);
+    void addRenderingTask(int page, float width, float height, RectF bounds, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering, boolean visible) {
+        final RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering);
+        RenderingScheduler.Priority priority;
+        if (thumbnail) {
+            priority = RenderingScheduler.Priority.THUMBNAIL;
+        } else if (visible) {
+            priority = RenderingScheduler.Priority.VISIBLE;
+        } else {
+            priority = RenderingScheduler.Priority.PRELOAD;
+        }
+        scheduler.submit(priority, new Runnable() {
+            @Override
+            public void run() {
+                render(task);
+            }
+        });
+    }
+
+    /**
+     * Drop the tasks which did not start yet, as they belong to a previous viewport
+     */
+    void cancelPendingTasks() {
+        scheduler.cancelPendingTasks();
     }
 
-    @Override
-    public void handleMessage(Message message) {
-        RenderingTask task = (RenderingTask) message.obj;
+    private void render(RenderingTask task) {
+        if (!running) {
+            return;
+        }
         try {
             final PagePart part = proceed(task);
             if (part != null) {
@@ -73,7 +86,7 @@ class RenderingHandler extends Handler {
                         }
                     });
                 } else {
-                    part.getRenderedBitmap().recycle();
+                    pdfView.bitmapPool.put(part.getRenderedBitmap());
                 }
             }
         } catch (final PageRenderingException ex) {
@@ -88,39 +101,83 @@ class RenderingHandler extends Handler {
 
     private PagePart proceed(RenderingTask renderingTask) throws PageRenderingException {
         PdfFile pdfFile = pdfView.pdfFile;
-        pdfFile.openPage(renderingTask.page);
+        if (pdfFile == null) {
+            return null;
+        }
 
         int w = Math.round(renderingTask.width);
         int h = Math.round(renderingTask.height);
+        if (w == 0 || h == 0) {
+            return null;
+        }
+        Bitmap.Config config = renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
 
-        if (w == 0 || h == 0 || pdfFile.pageHasError(renderingTask.page)) {
+        Bitmap render = getFromDiskCache(renderingTask, w, h, config);
+        if (render != null) {
+            return new PagePart(renderingTask.page, render,
+                    renderingTask.bounds, renderingTask.thumbnail,
+                    renderingTask.cacheOrder);
+        }
+
+        pdfFile.openPage(renderingTask.page);
+        if (pdfFile.pageHasError(renderingTask.page)) {
             return null;
         }
 
-        Bitmap render;
         try {
-            render = Bitmap.createBitmap(w, h, renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565);
+            render = pdfView.bitmapPool.get(w, h, config);
         } catch (IllegalArgumentException e) {
             Log.e(TAG, "Cannot create bitmap", e);
             return null;
         }
-        calculateBounds(w, h, renderingTask.bounds);
+        Rect roundedRenderBounds = calculateBounds(w, h, renderingTask.bounds);
 
         pdfFile.renderPageBitmap(render, renderingTask.page, roundedRenderBounds, renderingTask.annotationRendering);
 
+        PageDiskCache diskCache = pdfView.pageDiskCache;
+        if (diskCache != null) {
+            diskCache.put(pdfView.documentKey, renderingTask.page, renderingTask.bounds,
+                    renderingTask.thumbnail, renderingTask.annotationRendering, render);
+        }
+
         return new PagePart(renderingTask.page, render,
                 renderingTask.bounds, renderingTask.thumbnail,
                 renderingTask.cacheOrder);
     }
 
-    private void calculateBounds(int width, int height, RectF pageSliceBounds) {
-        renderMatrix.reset();
+    /**
+     * Decode the part saved by a previous rendering of the document, skipping PDFium
+     */
+    private Bitmap getFromDiskCache(RenderingTask renderingTask, int width, int height, Bitmap.Config config) {
+        PageDiskCache diskCache = pdfView.pageDiskCache;
+        if (diskCache == null) {
+            return null;
+        }
+        Bitmap inBitmap;
+        try {
+            inBitmap = pdfView.bitmapPool.get(width, height, config);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Bitmap cached = diskCache.get(pdfView.documentKey, renderingTask.page, renderingTask.bounds,
+                width, height, renderingTask.thumbnail, config, renderingTask.annotationRendering, inBitmap);
+        if (cached != inBitmap) {
+            pdfView.bitmapPool.put(inBitmap);
+        }
+        return cached;
+    }
+
+    private Rect calculateBounds(int width, int height, RectF pageSliceBounds) {
+        // Tasks run concurrently, so nothing is shared between them
+        Matrix renderMatrix = new Matrix();
         renderMatrix.postTranslate(-pageSliceBounds.left * width, -pageSliceBounds.top * height);
         renderMatrix.postScale(1 / pageSliceBounds.width(), 1 / pageSliceBounds.height());
 
-        renderBounds.set(0, 0, width, height);
+        RectF renderBounds = new RectF(0, 0, width, height);
         renderMatrix.mapRect(renderBounds);
+        Rect roundedRenderBounds = new Rect();
         renderBounds.round(roundedRenderBounds);
+        return roundedRenderBounds;
     }
 
     void stop() {
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016 Bartosz Schiller
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.barteksc.pdfviewer;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs rendering tasks on a pool of worker threads, by {@link Priority} and then in submission order.
+ * <p>
+ * Tasks still waiting when {@link #cancelPendingTasks()} is called are dropped, so that
+ * the workers do not spend time on parts the user already scrolled away from.
+ */
+class RenderingScheduler {
+
+    /** Priority of a rendering task, the first ones are run first */
+    enum Priority {
+        /** Part in the viewport */
+        VISIBLE,
+        /** Part around the viewport */
+        PRELOAD,
+        /** Low resolution page, drawn until its parts are rendered */
+        THUMBNAIL
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Incremented on each cancellation, tasks of a previous generation are stale */
+    private volatile int generation = 0;
+
+    RenderingScheduler(int workers) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PDF renderer #" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), threadFactory);
+        // Started threads take every task from the queue, so the priorities always apply
+        executor.prestartAllCoreThreads();
+    }
+
+    void submit(Priority priority, Runnable task) {
+        if (!executor.isShutdown()) {
+            executor.execute(new ScheduledTask(priority, sequence.getAndIncrement(), generation, task));
+        }
+    }
+
+    /**
+     * Drop the tasks which did not start yet. Tasks already running are completed.
+     */
+    void cancelPendingTasks() {
+        generation++;
+        executor.getQueue().clear();
+    }
+
+    int getPendingTasksCount() {
+        return executor.getQueue().size();
+    }
+
+    void shutdown() {
+        generation++;
+        executor.shutdownNow();
+    }
+
+    private final class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        private final Priority priority;
+
+        private final long sequence;
+
+        private final int generation;
+
+        private final Runnable task;
+
+        ScheduledTask(Priority priority, long sequence, int generation, Runnable task) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.generation = generation;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            // A task may have been taken from the queue right before a cancellation
+            if (generation == RenderingScheduler.this.generation) {
+                task.run();
+            }
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -32,12 +32,25 @@ public class Constants {
     /** Part of document above and below screen that should be preloaded, in dp */
     public static int PRELOAD_OFFSET = 20;
 
+    /**
+     * The number of threads rendering the parts (default 2)
+     * Pdfium is not thread safe, so native calls are serialized process wide by PdfiumCore;
+     * the second thread only prepares and delivers parts while the other one renders
+     */
+    public static int RENDERING_THREADS = 2;
+
     public static class Cache {
 
-        /** The size of the cache (number of bitmaps kept) */
-        public static int CACHE_SIZE = 120;
+        /** The share of the device memory class used to keep rendered parts (default 1/8) */
+        public static int CACHE_MEMORY_FRACTION = 8;
+
+        /** The share of the parts cache memory used to keep evicted bitmaps for reuse (default 1/4) */
+        public static int POOL_MEMORY_FRACTION = 4;
 
         public static int THUMBNAILS_CACHE_SIZE = 8;
+
+        /** The size of the rendered parts kept on disk for reopened documents, in bytes */
+        public static long DISK_CACHE_SIZE = 100L * 1024 * 1024;
     }
 
     public static class Pinch {
@@ -15,6 +15,7 @@
  */
 package com.github.barteksc.pdfviewer.util;
 
+import android.app.ActivityManager;
 import android.content.Context;
 import android.util.TypedValue;
 
@@ -24,11 +25,21 @@ import java.io.InputStream;
 
 public class Util {
     private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
+    private static final int DEFAULT_MEMORY_CLASS_MB = 64;
 
     public static int getDP(Context context, int dp) {
         return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, context.getResources().getDisplayMetrics());
     }
 
+    /**
+     * The memory granted to the rendered parts, as a share of the device memory class
+     */
+    public static long getCacheMemoryBudget(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClass = activityManager != null ? activityManager.getMemoryClass() : DEFAULT_MEMORY_CLASS_MB;
+        return memoryClass * 1024L * 1024L / Constants.Cache.CACHE_MEMORY_FRACTION;
+    }
+
     public static byte[] toByteArray(InputStream inputStream) throws IOException {
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
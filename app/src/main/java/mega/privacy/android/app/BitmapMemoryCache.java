@@ -0,0 +1,480 @@
+package mega.privacy.android.app;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * In memory cache of the thumbnails and previews displayed in lists and chats.
+ * <p>
+ * Thumbnails and previews share a budget in bytes, which scales with the memory class of the
+ * device, instead of a number of entries regardless of the bitmap sizes. Nodes known to have no
+ * bitmap are remembered for a short time in a bounded negative cache keyed by the primitive handle.
+ */
+public class BitmapMemoryCache {
+
+    /**
+     * Share of the memory class used by the cache (1/8)
+     */
+    private static final int MEMORY_CLASS_FRACTION = 8;
+
+    private static final int DEFAULT_MEMORY_CLASS_MB = 64;
+
+    /**
+     * Time a missing bitmap is remembered, after which the disk is checked again
+     */
+    static final long NEGATIVE_TTL_MILLIS = 30_000L;
+
+    /**
+     * Maximum number of missing bitmaps remembered
+     */
+    static final int NEGATIVE_CAPACITY = 1024;
+
+    private static final int TYPE_THUMBNAIL = 0;
+    private static final int TYPE_PREVIEW = 1;
+    private static final int TYPE_PATH = 2;
+
+    private static volatile BitmapMemoryCache instance;
+
+    private final BitmapLruCache cache;
+
+    private final NegativeCache thumbnailMisses;
+
+    private final NegativeCache previewMisses;
+
+    /**
+     * Key used for the lookups, so that they do not allocate
+     */
+    private final Key probe = new Key();
+
+    private final Region thumbnails = new Region(TYPE_THUMBNAIL);
+
+    private final Region previews = new Region(TYPE_PREVIEW);
+
+    private long hitCount = 0;
+
+    private long missCount = 0;
+
+    private long negativeHitCount = 0;
+
+    /**
+     * Get the cache shared by the app, sized from the memory class of the device
+     */
+    public static BitmapMemoryCache getInstance() {
+        if (instance == null) {
+            synchronized (BitmapMemoryCache.class) {
+                if (instance == null) {
+                    instance = new BitmapMemoryCache(
+                            getMemoryBudget(MegaApplication.getInstance()),
+                            NEGATIVE_TTL_MILLIS,
+                            SystemClock::elapsedRealtime
+                    );
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the memory budget of the cache, a fraction of the memory class of the device
+     *
+     * @param context Context
+     * @return The budget in bytes
+     */
+    public static long getMemoryBudget(Context context) {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClass = activityManager != null
+                ? activityManager.getMemoryClass() : DEFAULT_MEMORY_CLASS_MB;
+        return memoryClass * 1024L * 1024L / MEMORY_CLASS_FRACTION;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxBytes          Size of the bitmaps kept in memory
+     * @param negativeTtlMillis Time a missing bitmap is remembered
+     * @param clock             Monotonic time in milliseconds
+     */
+    BitmapMemoryCache(long maxBytes, long negativeTtlMillis, LongSupplier clock) {
+        cache = new BitmapLruCache((int) Math.min(maxBytes, Integer.MAX_VALUE));
+        thumbnailMisses = new NegativeCache(NEGATIVE_CAPACITY, negativeTtlMillis, clock);
+        previewMisses = new NegativeCache(NEGATIVE_CAPACITY, negativeTtlMillis, clock);
+    }
+
+    /**
+     * Thumbnails, by node handle or local path
+     */
+    public Region getThumbnails() {
+        return thumbnails;
+    }
+
+    /**
+     * Previews, by node handle or fingerprint
+     */
+    public Region getPreviews() {
+        return previews;
+    }
+
+    /**
+     * Remove all the bitmaps and the missing entries
+     */
+    public synchronized void clear() {
+        cache.evictAll();
+        thumbnailMisses.clear();
+        previewMisses.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Lookups answered by the negative cache
+     */
+    public synchronized long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * Bytes used by the cached bitmaps
+     */
+    public synchronized long getSize() {
+        return cache.size();
+    }
+
+    public synchronized long getMaxSize() {
+        return cache.maxSize();
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return "BitmapMemoryCache[size=" + cache.size() + "/" + cache.maxSize()
+                + ", hits=" + hitCount + ", misses=" + missCount
+                + ", negativeHits=" + negativeHitCount
+                + ", evictions=" + cache.evictionCount() + "]";
+    }
+
+    private synchronized Bitmap get(int type, long handle, String path) {
+        Bitmap bitmap = cache.get(probe.set(type, handle, path));
+        if (bitmap != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return bitmap;
+    }
+
+    private synchronized void put(int type, long handle, String path, Bitmap bitmap) {
+        Key key = new Key().set(type, handle, path);
+        if (bitmap == null) {
+            cache.remove(key);
+            if (path == null) {
+                misses(type).add(handle);
+            }
+        } else {
+            if (path == null) {
+                misses(type).remove(handle);
+            }
+            cache.put(key, bitmap);
+        }
+    }
+
+    private synchronized void remove(int type, long handle, String path) {
+        cache.remove(probe.set(type, handle, path));
+        if (path == null) {
+            misses(type).remove(handle);
+        }
+    }
+
+    private synchronized boolean isMissing(int type, long handle) {
+        if (misses(type).contains(handle)) {
+            negativeHitCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private NegativeCache misses(int type) {
+        return type == TYPE_PREVIEW ? previewMisses : thumbnailMisses;
+    }
+
+    /**
+     * Bitmaps of one kind, keyed by handle or by string
+     */
+    public class Region {
+
+        private final int type;
+
+        private Region(int type) {
+            this.type = type;
+        }
+
+        /**
+         * Get a bitmap
+         *
+         * @param handle Node handle
+         * @return The bitmap, null if it is not cached
+         */
+        @Nullable
+        public Bitmap get(long handle) {
+            return BitmapMemoryCache.this.get(type, handle, null);
+        }
+
+        /**
+         * Get a bitmap
+         *
+         * @param key Local path or fingerprint
+         * @return The bitmap, null if it is not cached
+         */
+        @Nullable
+        public Bitmap get(String key) {
+            return BitmapMemoryCache.this.get(TYPE_PATH + type, 0, key);
+        }
+
+        /**
+         * Put a bitmap
+         *
+         * @param handle Node handle
+         * @param bitmap The bitmap, or null if the node has none
+         */
+        public void put(long handle, @Nullable Bitmap bitmap) {
+            BitmapMemoryCache.this.put(type, handle, null, bitmap);
+        }
+
+        /**
+         * Put a bitmap
+         *
+         * @param key    Local path or fingerprint
+         * @param bitmap The bitmap
+         */
+        public void put(String key, @Nullable Bitmap bitmap) {
+            BitmapMemoryCache.this.put(TYPE_PATH + type, 0, key, bitmap);
+        }
+
+        /**
+         * Remove a bitmap, and forget it was missing
+         */
+        public void remove(long handle) {
+            BitmapMemoryCache.this.remove(type, handle, null);
+        }
+
+        /**
+         * Remove a bitmap
+         */
+        public void remove(String key) {
+            BitmapMemoryCache.this.remove(TYPE_PATH + type, 0, key);
+        }
+
+        /**
+         * Check if the bitmap is cached or recently known as missing
+         */
+        public boolean containsKey(long handle) {
+            return get(handle) != null || isMissing(handle);
+        }
+
+        /**
+         * Check if the bitmap is cached
+         */
+        public boolean containsKey(String key) {
+            return get(key) != null;
+        }
+
+        /**
+         * Check if the node was recently found without bitmap
+         */
+        public boolean isMissing(long handle) {
+            return BitmapMemoryCache.this.isMissing(type, handle);
+        }
+    }
+
+    private static class BitmapLruCache extends LruCache<Key, Bitmap> {
+
+        BitmapLruCache(int maxBytes) {
+            super(maxBytes);
+        }
+
+        @Override
+        protected int sizeOf(@NonNull Key key, @NonNull Bitmap value) {
+            return value.getAllocationByteCount();
+        }
+    }
+
+    private static final class Key {
+
+        private int type;
+
+        private long handle;
+
+        private String path;
+
+        Key set(int type, long handle, String path) {
+            this.type = type;
+            this.handle = handle;
+            this.path = path;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return type == key.type && handle == key.handle && Objects.equals(path, key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * type + Long.hashCode(handle);
+            return path != null ? 31 * result + path.hashCode() : result;
+        }
+    }
+
+    /**
+     * Set of handles with an expiry time, in open addressing arrays of primitives.
+     * When full, the expired entries are dropped, and the whole set if none expired.
+     */
+    static final class NegativeCache {
+
+        private static final long EMPTY = 0L;
+
+        private final int capacity;
+
+        private final long ttlMillis;
+
+        private final LongSupplier clock;
+
+        private final long[] keys;
+
+        /**
+         * Expiry of each key, {@link #EMPTY} for a free slot
+         */
+        private final long[] expiries;
+
+        private int size = 0;
+
+        NegativeCache(int capacity, long ttlMillis, LongSupplier clock) {
+            this.capacity = capacity;
+            this.ttlMillis = ttlMillis;
+            this.clock = clock;
+            int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            keys = new long[tableSize];
+            expiries = new long[tableSize];
+        }
+
+        void add(long key) {
+            long expiry = Math.max(clock.getAsLong() + ttlMillis, 1L);
+            int index = indexOf(key);
+            if (index >= 0) {
+                expiries[index] = expiry;
+                return;
+            }
+            if (size >= capacity) {
+                purgeExpired();
+                if (size >= capacity) {
+                    clear();
+                }
+            }
+            int slot = slot(key);
+            while (expiries[slot] != EMPTY) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            expiries[slot] = expiry;
+            size++;
+        }
+
+        boolean contains(long key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return false;
+            }
+            if (expiries[index] <= clock.getAsLong()) {
+                delete(index);
+                return false;
+            }
+            return true;
+        }
+
+        void remove(long key) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                delete(index);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(expiries, EMPTY);
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void purgeExpired() {
+            long now = clock.getAsLong();
+            for (int i = 0; i < keys.length; i++) {
+                // Deleting shifts the next entries back, so the slot is checked again
+                while (expiries[i] != EMPTY && expiries[i] <= now) {
+                    delete(i);
+                }
+            }
+        }
+
+        private int indexOf(long key) {
+            int slot = slot(key);
+            while (expiries[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        /**
+         * Remove the entry of a slot, moving back the entries probed after it
+         */
+        private void delete(int index) {
+            int mask = keys.length - 1;
+            int hole = index;
+            int slot = (index + 1) & mask;
+            while (expiries[slot] != EMPTY) {
+                int home = slot(keys[slot]);
+                // Move the entry when the hole lies between its home slot and its slot
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    keys[hole] = keys[slot];
+                    expiries[hole] = expiries[slot];
+                    hole = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            expiries[hole] = EMPTY;
+            size--;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+        }
+    }
+}
@@ -12,12 +12,11 @@ import androidx.annotation.Nullable;
 import androidx.emoji2.text.EmojiCompat;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import mega.privacy.android.app.components.twemoji.emoji.Emoji;
 import mega.privacy.android.app.components.twemoji.emoji.EmojiCategory;
@@ -28,10 +27,7 @@ public final class EmojiManager {
 
     private static final EmojiManager INSTANCE = new EmojiManager();
     private static final int GUESSED_UNICODE_AMOUNT = 3000;
-    private static final int GUESSED_TOTAL_PATTERN_LENGTH = GUESSED_UNICODE_AMOUNT * 4;
-    private static final Pattern SPACE_REMOVAL = Pattern.compile("\\s");
-    private static final Comparator<String> STRING_LENGTH_COMPARATOR =
-            (first, second) -> Integer.compare(second.length(), first.length());
+    private static final String INSTALL_THREAD_NAME = "EmojiManagerInstall";
 
     @SuppressLint("CheckResult")
     private static final EmojiReplacer DEFAULT_EMOJI_REPLACER = (context, text, emojiSize, defaultEmojiSize, fallback) -> {
@@ -81,10 +77,7 @@ public final class EmojiManager {
         }
     };
 
-    private final Map<String, Emoji> emojiMap = new LinkedHashMap<>(GUESSED_UNICODE_AMOUNT);
-    private EmojiCategory[] categories;
-    private Pattern emojiPattern;
-    private Pattern emojiRepetitivePattern;
+    private volatile FutureTask<Installation> installation;
     private EmojiReplacer emojiReplacer;
 
     private EmojiManager() {
@@ -97,57 +90,28 @@ public final class EmojiManager {
 
     //Installs the given EmojiProvider.
     // NOTE: That only one can be present at any time.
+    // The emoji index is built in a background thread, or by the first caller that needs it if
+    // that thread did not start yet.
     //param provider the provider that should be installed.
     public static void install(@NonNull final EmojiProvider provider) {
-        INSTANCE.categories = checkNotNull(provider.getCategories(), "categories == null");
-        INSTANCE.emojiMap.clear();
+        final FutureTask<Installation> task = new FutureTask<>(() -> new Installation(provider));
         INSTANCE.emojiReplacer = provider instanceof EmojiReplacer ? (EmojiReplacer) provider : DEFAULT_EMOJI_REPLACER;
-        final List<String> unicodesForPattern = new ArrayList<>(GUESSED_UNICODE_AMOUNT);
-
-
-        for (EmojiCategory category : INSTANCE.categories) {
-            final Emoji[] emojis = checkNotNull(category.getEmojis(), "emojis == null");
-
-            for (Emoji emoji : emojis) {
-                final String unicode = emoji.getUnicode();
-                final List<Emoji> variants = emoji.getVariants();
-                INSTANCE.emojiMap.put(unicode, emoji);
-                unicodesForPattern.add(unicode);
-
-                for (Emoji variant: variants) {
-                    final String variantUnicode = variant.getUnicode();
-                    INSTANCE.emojiMap.put(variantUnicode, variant);
-                    unicodesForPattern.add(variantUnicode);
-
-                }
-            }
-        }
-        if (unicodesForPattern.isEmpty()) {
-            throw new IllegalArgumentException("Your EmojiProvider must at least have one category with at least one emoji.");
-        }
-        // We need to sort the unicodes by length so the longest one gets matched first.
-        unicodesForPattern.sort(STRING_LENGTH_COMPARATOR);
-        final StringBuilder patternBuilder = new StringBuilder(GUESSED_TOTAL_PATTERN_LENGTH);
-        final int unicodesForPatternSize = unicodesForPattern.size();
-        for (int i = 0; i < unicodesForPatternSize; i++) {
-            patternBuilder.append(Pattern.quote(unicodesForPattern.get(i))).append('|');
-        }
-        final String regex = patternBuilder.deleteCharAt(patternBuilder.length() - 1).toString();
-        INSTANCE.emojiPattern = Pattern.compile(regex);
-        INSTANCE.emojiRepetitivePattern = Pattern.compile('(' + regex + ")+");
+        INSTANCE.installation = task;
+        new Thread(task, INSTALL_THREAD_NAME).start();
     }
 
     public static void destroy() {
         release();
-        INSTANCE.emojiMap.clear();
-        INSTANCE.categories = null;
-        INSTANCE.emojiPattern = null;
-        INSTANCE.emojiRepetitivePattern = null;
+        INSTANCE.installation = null;
         INSTANCE.emojiReplacer = null;
     }
 
     public static void release() {
-        for (final Emoji emoji : INSTANCE.emojiMap.values()) {
+        final FutureTask<Installation> task = INSTANCE.installation;
+        // Emojis are only in use once the installation is built.
+        if (task == null || !task.isDone()) return;
+
+        for (final Emoji emoji : INSTANCE.getInstallation().emojiMap.values()) {
             emoji.destroy();
         }
     }
@@ -158,12 +122,7 @@ public final class EmojiManager {
     }
 
     EmojiCategory[] getCategories() {
-        verifyInstalled();
-        return categories;
-    }
-
-    Pattern getEmojiRepetitivePattern() {
-        return emojiRepetitivePattern;
+        return getInstallation().categories;
     }
 
     /**
@@ -172,11 +131,7 @@ public final class EmojiManager {
     public boolean isOnlyEmojis(@Nullable final String text) {
         try {
             if (!TextUtils.isEmpty(text)) {
-                final String inputWithoutSpaces = SPACE_REMOVAL.matcher(text).replaceAll(Matcher.quoteReplacement(""));
-                return EmojiManager.getInstance()
-                        .getEmojiRepetitivePattern()
-                        .matcher(inputWithoutSpaces)
-                        .matches();
+                return getInstallation().trie.isOnlyEmojis(text);
             }
         } catch (Exception e) {
             Timber.e(e);
@@ -194,15 +149,9 @@ public final class EmojiManager {
     List<EmojiRange> findAllEmojis(@Nullable final CharSequence text) {
         final List<EmojiRange> result = new ArrayList<>();
         try {
-            verifyInstalled();
+            final EmojiTrie<Emoji> trie = getInstallation().trie;
             if (!TextUtils.isEmpty(text)) {
-                final Matcher matcher = emojiPattern.matcher(text);
-                while (matcher.find()) {
-                    final Emoji found = findEmoji(text.subSequence(matcher.start(), matcher.end()));
-                    if (found != null) {
-                        result.add(new EmojiRange(matcher.start(), matcher.end(), found));
-                    }
-                }
+                trie.findAll(text, (start, end, emoji) -> result.add(new EmojiRange(start, end, emoji)));
             }
         } catch (Exception e) {
             Timber.e(e);
@@ -213,11 +162,10 @@ public final class EmojiManager {
 
     @Nullable
     Emoji findEmoji(@NonNull final CharSequence candidate) {
-        verifyInstalled();
         // We need to call toString on the candidate, since the emojiMap may not find the requested entry otherwise, because
         // the type is different.
 
-        return emojiMap.get(candidate.toString());
+        return getInstallation().emojiMap.get(candidate.toString());
     }
 
     public Emoji getFirstEmoji(@NonNull final CharSequence candidate) {
@@ -228,8 +176,57 @@ public final class EmojiManager {
     }
 
     void verifyInstalled() {
-        if (categories == null) {
+        getInstallation();
+    }
+
+    @NonNull
+    private Installation getInstallation() {
+        final FutureTask<Installation> task = installation;
+        if (task == null) {
             throw new IllegalStateException("Please install an EmojiProvider through the EmojiManager.install() method first.");
         }
+        // Builds it in this thread if the install one did not start yet, otherwise waits for it.
+        task.run();
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Emojis of an installed EmojiProvider, indexed by unicode.
+     */
+    private static final class Installation {
+        final EmojiCategory[] categories;
+        final Map<String, Emoji> emojiMap = new LinkedHashMap<>(GUESSED_UNICODE_AMOUNT);
+        final EmojiTrie<Emoji> trie;
+
+        Installation(@NonNull final EmojiProvider provider) {
+            categories = checkNotNull(provider.getCategories(), "categories == null");
+
+            for (EmojiCategory category : categories) {
+                final Emoji[] emojis = checkNotNull(category.getEmojis(), "emojis == null");
+
+                for (Emoji emoji : emojis) {
+                    emojiMap.put(emoji.getUnicode(), emoji);
+
+                    for (Emoji variant : emoji.getVariants()) {
+                        emojiMap.put(variant.getUnicode(), variant);
+                    }
+                }
+            }
+            if (emojiMap.isEmpty()) {
+                throw new IllegalArgumentException("Your EmojiProvider must at least have one category with at least one emoji.");
+            }
+            trie = new EmojiTrie<>(emojiMap);
+        }
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import timber.log.Timber;
@@ -17,6 +18,7 @@ import timber.log.Timber;
 public final class EmojiManagerShortcodes {
     private static final String EMOJI_SHORTCODES = "emojisshortcodes/emoji.json";
     static List<EmojiShortcodes> emojiData;
+    private static volatile EmojiShortcodesIndex emojiIndex = new EmojiShortcodesIndex(Collections.emptyList());
 
     public static void initEmojiData(Context context) {
         if (emojiData == null || emojiData.size() < 1) {
@@ -24,8 +26,8 @@ public final class EmojiManagerShortcodes {
             try {
                 Gson gson = new GsonBuilder().enableComplexMapKeySerialization().setLenient().create();
                 reader = new BufferedReader(new InputStreamReader(context.getAssets().open(EMOJI_SHORTCODES)));
-                emojiData = gson.fromJson(reader, new TypeToken<ArrayList<EmojiShortcodes>>() {
-                }.getType());
+                setEmojiData(gson.fromJson(reader, new TypeToken<ArrayList<EmojiShortcodes>>() {
+                }.getType()));
             } catch (IOException | NullPointerException e) {
                 Timber.e(e);
             } finally {
@@ -39,4 +41,13 @@ public final class EmojiManagerShortcodes {
             }
         }
     }
+
+    static synchronized void setEmojiData(List<EmojiShortcodes> data) {
+        emojiData = data;
+        emojiIndex = new EmojiShortcodesIndex(data != null ? data : Collections.emptyList());
+    }
+
+    static EmojiShortcodesIndex getEmojiIndex() {
+        return emojiIndex;
+    }
 }
@@ -0,0 +1,90 @@
+package mega.privacy.android.app.components.twemoji;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Indexes of the emoji shortcodes data, to look emojis up by any of their codes with hash lookups
+ * instead of comparing the code with every emoji.
+ * <p>
+ * When several emojis have the same code, the first one of the data is returned, as the linear
+ * search did.
+ */
+final class EmojiShortcodesIndex {
+
+    private final List<EmojiShortcodes> emojis;
+
+    /**
+     * Position of the first emoji of each unicode or html entity, lowercase.
+     */
+    private final Map<String, Integer> codes;
+
+    /**
+     * Position of the first emoji of each alias.
+     */
+    private final Map<String, Integer> aliases;
+
+    private final EmojiTrie<EmojiShortcodes> unicodes;
+
+    EmojiShortcodesIndex(@NonNull final List<EmojiShortcodes> emojis) {
+        this.emojis = emojis;
+        codes = new HashMap<>(emojis.size() * 4);
+        aliases = new HashMap<>(emojis.size() * 2);
+        final Map<String, EmojiShortcodes> unicodeMap = new LinkedHashMap<>(emojis.size() * 2);
+
+        for (int i = 0; i < emojis.size(); i++) {
+            final EmojiShortcodes emoji = emojis.get(i);
+            putCode(emoji.getEmoji(), i);
+            putCode(emoji.getHexHtml(), i);
+            putCode(emoji.getDecimalHtml(), i);
+            putCode(emoji.getDecimalSurrogateHtml(), i);
+            putCode(emoji.getHexHtmlShort(), i);
+            putCode(emoji.getDecimalHtmlShort(), i);
+            if (emoji.getAliases() != null) {
+                for (String alias : emoji.getAliases()) {
+                    if (alias != null) aliases.putIfAbsent(alias, i);
+                }
+            }
+            if (emoji.getEmoji() != null && !emoji.getEmoji().isEmpty()) {
+                unicodeMap.putIfAbsent(emoji.getEmoji(), emoji);
+            }
+        }
+        unicodes = new EmojiTrie<>(unicodeMap);
+    }
+
+    /**
+     * Finds the emoji of a unicode, alias, decimal html entity or hexadecimal html entity.
+     * The unicode and html entities are compared ignoring case.
+     *
+     * @param code The code.
+     * @return The first emoji with that code, null if there is none.
+     */
+    @Nullable
+    EmojiShortcodes find(@NonNull final String code) {
+        final Integer byCode = codes.get(code.toLowerCase(Locale.ROOT));
+        final Integer byAlias = aliases.get(code);
+        if (byCode == null && byAlias == null) return null;
+
+        if (byCode == null) return emojis.get(byAlias);
+        if (byAlias == null) return emojis.get(byCode);
+        return emojis.get(Math.min(byCode, byAlias));
+    }
+
+    /**
+     * Unicodes of the emojis, to find them in a text.
+     */
+    @NonNull
+    EmojiTrie<EmojiShortcodes> getUnicodes() {
+        return unicodes;
+    }
+
+    private void putCode(@Nullable final String code, final int position) {
+        if (code != null) codes.putIfAbsent(code.toLowerCase(Locale.ROOT), position);
+    }
+}
@@ -0,0 +1,200 @@
+package mega.privacy.android.app.components.twemoji;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie of the emoji unicodes, to find the longest emoji starting at each position of a text in a
+ * single pass, without regular expression matchers.
+ * <p>
+ * The nodes are stored in flat arrays, the outgoing edges of each node being contiguous and sorted
+ * by char so they can be binary searched.
+ *
+ * @param <T> Type of the emojis.
+ */
+final class EmojiTrie<T> {
+
+    /**
+     * Receives the emojis found in a text.
+     */
+    interface OnMatch<T> {
+        void onMatch(int start, int end, @NonNull T emoji);
+    }
+
+    private static final int NO_MATCH = -1;
+
+    private static final int ROOT = 0;
+
+    private final int[] edgeStart;
+    private final int[] edgeCount;
+    private final int[] depth;
+    private final Object[] emojis;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+
+    EmojiTrie(@NonNull final Map<String, T> emojiMap) {
+        final BuildNode root = new BuildNode(0);
+        int nodeCount = 1;
+        for (final Map.Entry<String, T> entry : emojiMap.entrySet()) {
+            final String unicode = entry.getKey();
+            BuildNode node = root;
+            for (int i = 0; i < unicode.length(); i++) {
+                final char c = unicode.charAt(i);
+                BuildNode child = node.children.get(c);
+                if (child == null) {
+                    child = new BuildNode(i + 1);
+                    node.children.put(c, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            node.emoji = entry.getValue();
+        }
+
+        edgeStart = new int[nodeCount];
+        edgeCount = new int[nodeCount];
+        depth = new int[nodeCount];
+        emojis = new Object[nodeCount];
+        edgeChars = new char[nodeCount - 1];
+        edgeTargets = new int[nodeCount - 1];
+
+        final List<BuildNode> order = new ArrayList<>(nodeCount);
+        order.add(root);
+        int edge = 0;
+        for (int node = 0; node < order.size(); node++) {
+            final BuildNode buildNode = order.get(node);
+            edgeStart[node] = edge;
+            edgeCount[node] = buildNode.children.size();
+            depth[node] = buildNode.depth;
+            emojis[node] = buildNode.emoji;
+            for (final Map.Entry<Character, BuildNode> child : buildNode.children.entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = order.size();
+                order.add(child.getValue());
+                edge++;
+            }
+        }
+    }
+
+    /**
+     * Finds the emojis of a text, the longest one first when several start at the same position.
+     *
+     * @param text    The text.
+     * @param onMatch Receives the emojis found, in order.
+     */
+    @SuppressWarnings("unchecked")
+    void findAll(@NonNull final CharSequence text, @NonNull final OnMatch<T> onMatch) {
+        int start = 0;
+        while (start < text.length()) {
+            final int match = longestMatch(text, start);
+            if (match == NO_MATCH) {
+                start++;
+            } else {
+                final int end = start + depth[match];
+                onMatch.onMatch(start, end, (T) emojis[match]);
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Checks if a text is made of emojis and whitespace only, with at least one emoji.
+     * <p>
+     * Several emojis may start at the same position, so every position reached by a sequence of
+     * emojis is marked instead of only following the longest one.
+     *
+     * @param text The text.
+     * @return True if the text only contains emojis, false otherwise.
+     */
+    boolean isOnlyEmojis(@NonNull final CharSequence text) {
+        final int length = text.length();
+        final boolean[] reached = new boolean[length + 1];
+        reached[0] = true;
+        boolean hasEmoji = false;
+        for (int i = 0; i < length; i++) {
+            if (!reached[i]) continue;
+
+            if (isWhitespace(text.charAt(i))) {
+                reached[i + 1] = true;
+            } else {
+                hasEmoji = true;
+                markMatchEnds(text, i, reached);
+            }
+        }
+        return hasEmoji && reached[length];
+    }
+
+    /**
+     * Finds the longest emoji starting at a position of a text.
+     *
+     * @return The node of the longest emoji, or {@link #NO_MATCH} if no emoji starts there.
+     */
+    private int longestMatch(@NonNull final CharSequence text, final int start) {
+        int match = NO_MATCH;
+        int node = ROOT;
+        for (int i = start; i < text.length(); i++) {
+            node = child(node, text.charAt(i));
+            if (node == NO_MATCH) {
+                break;
+            }
+            if (emojis[node] != null) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Marks the end of every emoji starting at a position of a text.
+     */
+    private void markMatchEnds(@NonNull final CharSequence text, final int start, @NonNull final boolean[] ends) {
+        int node = ROOT;
+        for (int i = start; i < text.length(); i++) {
+            node = child(node, text.charAt(i));
+            if (node == NO_MATCH) {
+                return;
+            }
+            if (emojis[node] != null) {
+                ends[i + 1] = true;
+            }
+        }
+    }
+
+    private int child(final int node, final char c) {
+        int low = edgeStart[node];
+        int high = low + edgeCount[node] - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final char middleChar = edgeChars[middle];
+            if (middleChar < c) {
+                low = middle + 1;
+            } else if (middleChar > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Same whitespace as the {@code \s} regular expression class.
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r';
+    }
+
+    private static final class BuildNode {
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        final int depth;
+        Object emoji;
+
+        BuildNode(final int depth) {
+            this.depth = depth;
+        }
+    }
+}
@@ -3,16 +3,9 @@ package mega.privacy.android.app.components.twemoji;
 import com.google.code.regexp.Matcher;
 import com.google.code.regexp.Pattern;
 
-import org.hamcrest.Matchers;
-
 public class EmojiUtilsShortcodes extends AbstractEmoji {
 
-    private static final String HIGH_SURROGATE = "H";
-    private static final String HIGH_SURROGATE_FIRST = "H1";
-    private static final String HIGH_SURROGATE_SECOND = "H2";
-    private static final String LOW_SURROGATE = "L";
-    private static final String LOW_SURROGATE_FIRST = "L1";
-    private static final String LOW_SURROGATE_SECOND = "L2";
+    private static final int MAX_SURROGATE_ENTITIES = 4;
 
     /**
      * Get emoji by unicode, short code, decimal html entity or hexadecimal html
@@ -26,17 +19,7 @@ public class EmojiUtilsShortcodes extends AbstractEmoji {
         if (m.find()) {
             code = m.group(1);
         }
-        if ((EmojiManagerShortcodes.emojiData != null) && (EmojiManagerShortcodes.emojiData.size() > 0)) {
-            for (EmojiShortcodes emoji : EmojiManagerShortcodes.emojiData) {
-                if (Matchers.equalTo(code).matches(emoji.getEmoji()) || Matchers.equalToIgnoringCase(code).matches(emoji.getEmoji()) ||
-                        Matchers.equalToIgnoringCase(code).matches(emoji.getHexHtml()) || Matchers.equalToIgnoringCase(code).matches(emoji.getDecimalHtml()) ||
-                        Matchers.equalToIgnoringCase(code).matches(emoji.getDecimalSurrogateHtml()) || Matchers.equalToIgnoringCase(code).matches(emoji.getHexHtmlShort()) ||
-                        Matchers.equalToIgnoringCase(code).matches(emoji.getDecimalHtmlShort()) || Matchers.hasItem(code).matches(emoji.getAliases())) {
-                    return emoji;
-                }
-            }
-        }
-        return null;
+        return EmojiManagerShortcodes.getEmojiIndex().find(code);
     }
 
     /**
@@ -57,87 +40,82 @@ public class EmojiUtilsShortcodes extends AbstractEmoji {
      * @return emojified String
      */
     public static String emojify(String text) {
-        return emojify(text, 0);
+        if (text == null) return null;
+
+        final EmojiShortcodesIndex index = EmojiManagerShortcodes.getEmojiIndex();
+        final int length = text.length();
+        StringBuilder sb = null;
+        int[] entityEnds = null;
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = text.charAt(i);
+            int end = -1;
+            EmojiShortcodes emoji = null;
+            if (c == ':') {
+                // A short code is consumed even if it is unknown, so :p:smile: is not processed as
+                // :p followed by :smile:
+                final int wordEnd = wordEnd(text, i + 1);
+                if (wordEnd > i + 1 && wordEnd < length && text.charAt(wordEnd) == ':') {
+                    end = wordEnd + 1;
+                    emoji = index.find(text.substring(i + 1, wordEnd));
+                }
+            } else if (c == '&') {
+                // Up to four html entities may be the surrogate pairs of an emoji, try the longest
+                // sequence first and move past the first entity if none is an emoji.
+                if (entityEnds == null) entityEnds = new int[MAX_SURROGATE_ENTITIES];
+                int entities = 0;
+                int entityStart = i;
+                while (entities < MAX_SURROGATE_ENTITIES && (entityStart = htmlEntityEnd(text, entityStart)) != -1) {
+                    entityEnds[entities++] = entityStart;
+                }
+                for (int count = entities >= 4 ? 4 : entities >= 2 ? 2 : entities; count > 0 && emoji == null; count /= 2) {
+                    end = entityEnds[count - 1];
+                    emoji = index.find(text.substring(i, end));
+                }
+                if (emoji == null && entities > 0) {
+                    end = entityEnds[0];
+                }
+            }
 
+            if (emoji != null) {
+                if (sb == null) sb = new StringBuilder(length);
+                sb.append(text, copied, i).append(emoji.getEmoji());
+                copied = end;
+            }
+            i = end != -1 ? end : i + 1;
+        }
+
+        if (sb == null) return text;
+        return sb.append(text, copied, length).toString();
     }
 
-    private static String emojify(String text, int startIndex) {
-        // remove previous handle since we won't be handling emoticons
-        // emotions should be processed in second go.
-        // this will avoid conflicts with shortcodes. For Example: :p:p should
-        // not be processed as shortcode, but as emoticon
-        text = processStringWithRegex(text, shortCodeOrHtmlEntityPattern, startIndex, true);
+    /**
+     * Gets the end of the word characters starting at a position, as the {@code \w} regular
+     * expression class.
+     */
+    private static int wordEnd(String text, int start) {
+        int i = start;
+        while (i < text.length() && isWordChar(text.charAt(i))) i++;
+        return i;
+    }
 
-        return text;
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
     /**
-     * Common method used for processing the string to replace with emojis
+     * Gets the end of the html entity starting at a position.
      *
-     * @param text
-     * @param pattern
-     * @return
+     * @return the end of the entity, -1 if there is no entity at that position
      */
-    private static String processStringWithRegex(String text, Pattern pattern, int startIndex, boolean recurseEmojify) {
-        //System.out.println(text);
-        if(text == null) return null;
-        Matcher matcher = pattern.matcher(text);
-        StringBuffer sb = new StringBuffer();
-        int resetIndex = 0;
-
-        if (startIndex > 0) {
-            matcher.region(startIndex, text.length());
-        }
+    private static int htmlEntityEnd(String text, int start) {
+        if (!text.startsWith("&#", start)) return -1;
 
-        while (matcher.find()) {
-            String emojiCode = matcher.group();
-            EmojiShortcodes emoji = getEmoji(emojiCode);
-            // replace matched tokens with emojis
-
-            if (emoji != null) {
-                matcher.appendReplacement(sb, emoji.getEmoji());
-            } else {
-                if (htmlSurrogateEntityPattern2.matcher(emojiCode).matches()) {
-                    String highSurrogate1 = matcher.group(HIGH_SURROGATE_FIRST);
-                    String highSurrogate2 = matcher.group(HIGH_SURROGATE_SECOND);
-                    String lowSurrogate1 = matcher.group(LOW_SURROGATE_FIRST);
-                    String lowSurrogate2 = matcher.group(LOW_SURROGATE_SECOND);
-                    matcher.appendReplacement(sb, processStringWithRegex(highSurrogate1 + highSurrogate2, shortCodeOrHtmlEntityPattern, 0, false));
-
-                    //basically this handles &#junk1;&#10084;&#65039;&#junk2; scenario
-                    //verifies if &#junk1;&#10084; or &#junk1; are valid emojis via recursion
-                    //if not move past &#junk1; and reset the cursor to &#10084;
-                    if (sb.toString().endsWith(highSurrogate2)) {
-                        resetIndex = sb.length() - highSurrogate2.length();
-                    } else {
-                        resetIndex = sb.length();
-                    }
-                    sb.append(lowSurrogate1);
-                    sb.append(lowSurrogate2);
-                    break;
-                } else if (htmlSurrogateEntityPattern.matcher(emojiCode).matches()) {
-                    //could be individual html entities assumed as surrogate pair
-                    String highSurrogate = matcher.group(HIGH_SURROGATE);
-                    String lowSurrogate = matcher.group(LOW_SURROGATE);
-                    matcher.appendReplacement(sb, processStringWithRegex(highSurrogate, htmlEntityPattern, 0, true));
-                    resetIndex = sb.length();
-                    sb.append(lowSurrogate);
-                    break;
-                } else {
-                    matcher.appendReplacement(sb, emojiCode);
-                }
-            }
-
-        }
-
-        matcher.appendTail(sb);
+        final int wordEnd = wordEnd(text, start + 2);
+        if (wordEnd == start + 2 || wordEnd >= text.length() || text.charAt(wordEnd) != ';') return -1;
 
-        //do not recurse emojify when coming here through htmlSurrogateEntityPattern2..so we get a chance to check if the tail
-        //is part of a surrogate entity
-        if (recurseEmojify && resetIndex > 0) {
-            return emojify(sb.toString(), resetIndex);
-        }
-        return sb.toString();
+        return wordEnd + 1;
     }
 
     /**
@@ -198,17 +176,7 @@ public class EmojiUtilsShortcodes extends AbstractEmoji {
      * @return shortcodified string
      */
     public static String shortCodify(String text) {
-        String emojifiedText = emojify(text);
-
-        // the emojis
-        // could not find an ideal way to identify emojis in the passed string
-        // characters like <3 has multiple characters, but doesn't have
-        // surrogate pairs
-        // so at this point, we iterate through all the emojis and replace with
-        // short codes
-        for (EmojiShortcodes emoji : EmojiManagerShortcodes.emojiData)
-            emojifiedText = emojifiedText.replace(emoji.getEmoji(), ":" + emoji.getAliases().get(0) + ":");
-        return emojifiedText;
+        return replaceEmojis(emojify(text), true);
     }
 
     /**
@@ -219,10 +187,31 @@ public class EmojiUtilsShortcodes extends AbstractEmoji {
      * @return emoji stripped string
      */
     public static String removeAllEmojis(String emojiText) {
+        return replaceEmojis(emojiText, false);
+    }
 
-        for (EmojiShortcodes emoji : EmojiManagerShortcodes.emojiData) {
-            emojiText = emojiText.replace(emoji.getEmoji(), "");
-        }
-        return emojiText;
+    /**
+     * Replaces the emojis of a text in a single pass, the longest one first when several start at
+     * the same position.
+     *
+     * @param text       Text with emojis.
+     * @param shortCodes True to replace the emojis with their first short code, false to remove them.
+     * @return The text with the emojis replaced.
+     */
+    private static String replaceEmojis(String text, boolean shortCodes) {
+        if (text == null) return null;
+
+        final StringBuilder sb = new StringBuilder(text.length());
+        final int[] copied = {0};
+        EmojiManagerShortcodes.getEmojiIndex().getUnicodes().findAll(text, (start, end, emoji) -> {
+            sb.append(text, copied[0], start);
+            if (shortCodes) {
+                sb.append(':').append(emoji.getAliases().get(0)).append(':');
+            }
+            copied[0] = end;
+        });
+        if (copied[0] == 0) return text;
+
+        return sb.append(text, copied[0], text.length()).toString();
     }
 }
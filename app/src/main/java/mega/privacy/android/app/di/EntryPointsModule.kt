@@ -5,6 +5,7 @@ import dagger.hilt.EntryPoint
 import dagger.hilt.InstallIn
 import dagger.hilt.components.SingletonComponent
 import mega.privacy.android.data.gateway.CacheFolderGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 
 @Module
 @InstallIn(SingletonComponent::class)
@@ -25,4 +26,17 @@ class EntryPointsModule {
          */
         val cacheFolderGateway: CacheFolderGateway
     }
-}
\ No newline at end of file
+
+    /**
+     * Entry point for @PackedThumbnailGateway
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent::class)
+    interface PackedThumbnailManagerEntryPoint {
+
+        /**
+         * @PackedThumbnailGateway
+         */
+        val packedThumbnailGateway: PackedThumbnailGateway
+    }
+}
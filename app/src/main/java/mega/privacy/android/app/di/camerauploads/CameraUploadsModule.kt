@@ -0,0 +1,24 @@
+package mega.privacy.android.app.di.camerauploads
+
+import dagger.Binds
+import dagger.Module
+import dagger.hilt.InstallIn
+import dagger.hilt.components.SingletonComponent
+import mega.privacy.android.domain.usecase.camerauploads.AdaptiveCameraUploadsConcurrencyStrategy
+import mega.privacy.android.domain.usecase.camerauploads.CameraUploadsConcurrencyStrategy
+
+/**
+ * Module for camera uploads
+ */
+@Module
+@InstallIn(SingletonComponent::class)
+abstract class CameraUploadsModule {
+
+    /**
+     * Binds [CameraUploadsConcurrencyStrategy] to its adaptive implementation [AdaptiveCameraUploadsConcurrencyStrategy]
+     * @param strategy [AdaptiveCameraUploadsConcurrencyStrategy]
+     * @return default [CameraUploadsConcurrencyStrategy]
+     */
+    @Binds
+    abstract fun bindCameraUploadsConcurrencyStrategy(strategy: AdaptiveCameraUploadsConcurrencyStrategy): CameraUploadsConcurrencyStrategy
+}
@@ -231,7 +231,12 @@ enum class AppFeatures(override val description: String, private val defaultValu
     ShowStringsForNewFeatures(
         "Show strings for new features (meetings and VPN)",
         false
-    );
+    ),
+
+    /**
+     * Keep the thumbnails in the packed thumbnail store instead of one file per thumbnail
+     */
+    PackedThumbnailStore("Keep the thumbnails in the packed thumbnail store", false);
 
     companion object : FeatureFlagValueProvider {
         override suspend fun isEnabled(feature: Feature) =
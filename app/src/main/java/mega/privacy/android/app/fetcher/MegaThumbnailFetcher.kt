@@ -1,5 +1,6 @@
 package mega.privacy.android.app.fetcher
 
+import android.content.Context
 import android.webkit.MimeTypeMap
 import coil.ImageLoader
 import coil.decode.DataSource
@@ -8,10 +9,18 @@ import coil.fetch.FetchResult
 import coil.fetch.Fetcher
 import coil.fetch.SourceResult
 import coil.request.Options
+import mega.privacy.android.app.featuretoggle.AppFeatures
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
+import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetPackedThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import okio.Buffer
 import okio.Path.Companion.toOkioPath
+import okio.Source
+import okio.Timeout
+import okio.buffer
+import java.nio.ByteBuffer
 import javax.inject.Inject
 
 /**
@@ -21,12 +30,28 @@ internal class MegaThumbnailFetcher(
     private val request: ThumbnailRequest,
     private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
     private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
+    private val context: Context,
+    private val isPrefetch: Boolean = false,
+    private val getPackedThumbnailUseCase: suspend () -> GetPackedThumbnailUseCase? = { null },
 ) : Fetcher {
     override suspend fun fetch(): FetchResult {
+        getPackedThumbnailUseCase()
+            ?.invoke(request.id.longValue, request.isPublicNode, isPrefetch)
+            ?.let { thumbnail ->
+                return SourceResult(
+                    source = ImageSource(
+                        source = ByteBufferSource(thumbnail).buffer(),
+                        context = context,
+                    ),
+                    mimeType = PACKED_THUMBNAIL_MIME_TYPE,
+                    dataSource = DataSource.DISK
+                )
+            }
+
         val file = if (request.isPublicNode) {
-            getPublicNodeThumbnailUseCase.get()(request.id.longValue, true)
+            getPublicNodeThumbnailUseCase.get()(request.id.longValue, true, isPrefetch)
         } else {
-            getThumbnailUseCase.get()(request.id.longValue, true)
+            getThumbnailUseCase.get()(request.id.longValue, true, isPrefetch)
         } ?: throw NullPointerException("Thumbnail file is null")
         return SourceResult(
             source = ImageSource(file = file.toOkioPath()),
@@ -35,25 +60,76 @@ internal class MegaThumbnailFetcher(
         )
     }
 
+    /**
+     * Source reading the thumbnail bytes straight from the buffer of the packed thumbnail store,
+     * so they are streamed to the decoder without being copied to the heap first
+     */
+    private class ByteBufferSource(private val buffer: ByteBuffer) : Source {
+        override fun read(sink: Buffer, byteCount: Long): Long {
+            if (!buffer.hasRemaining()) return -1
+            val count = minOf(byteCount, buffer.remaining().toLong()).toInt()
+            val limit = buffer.limit()
+            buffer.limit(buffer.position() + count)
+            sink.write(buffer)
+            buffer.limit(limit)
+            return count.toLong()
+        }
+
+        override fun timeout() = Timeout.NONE
+
+        override fun close() {}
+    }
+
+    companion object {
+        /**
+         * Parameter of the image requests prefetching thumbnails not on screen yet, so they are
+         * downloaded after the ones on screen
+         */
+        const val PREFETCH_PARAMETER = "mega_thumbnail_prefetch"
+
+        private const val PACKED_THUMBNAIL_MIME_TYPE = "image/jpeg"
+    }
+
     /**
      * Factory
      */
     class Factory @Inject constructor(
         private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
         private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
+        private val getPackedThumbnailUseCase: dagger.Lazy<GetPackedThumbnailUseCase>,
+        private val getFeatureFlagValueUseCase: dagger.Lazy<GetFeatureFlagValueUseCase>,
     ) : Fetcher.Factory<ThumbnailRequest> {
 
+        @Volatile
+        private var isPackedThumbnailStoreEnabled: Boolean? = null
+
         override fun create(
             data: ThumbnailRequest,
             options: Options,
             imageLoader: ImageLoader,
         ): Fetcher? {
             if (!isApplicable(data)) return null
-            return MegaThumbnailFetcher(data, getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+            return MegaThumbnailFetcher(
+                request = data,
+                getThumbnailUseCase = getThumbnailUseCase,
+                getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase,
+                context = options.context,
+                isPrefetch = options.parameters.value<Boolean>(PREFETCH_PARAMETER) == true,
+                getPackedThumbnailUseCase = {
+                    if (isPackedThumbnailStoreEnabled()) getPackedThumbnailUseCase.get() else null
+                },
+            )
         }
 
+        /**
+         * The feature flag is read once, instead of once per thumbnail
+         */
+        private suspend fun isPackedThumbnailStoreEnabled() = isPackedThumbnailStoreEnabled
+            ?: getFeatureFlagValueUseCase.get()(AppFeatures.PackedThumbnailStore)
+                .also { isPackedThumbnailStoreEnabled = it }
+
         private fun isApplicable(data: ThumbnailRequest): Boolean {
             return data.id.longValue > 0
         }
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import android.os.Bundle
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import androidx.recyclerview.widget.RecyclerView
 import dagger.hilt.android.AndroidEntryPoint
 import mega.privacy.android.app.R
 import mega.privacy.android.app.arch.extensions.collectFlow
@@ -51,6 +52,14 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
 
         setupFlow()
         binding.transfersListView.adapter = adapter
+        binding.transfersListView.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
+                val lastVisiblePosition = mLayoutManager.findLastVisibleItemPosition()
+                if (dy > 0 && lastVisiblePosition >= adapter.itemCount - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMoreCompletedTransfers()
+                }
+            }
+        })
     }
 
     private fun setupFlow() {
@@ -60,9 +69,14 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
             }
         }
         viewLifecycleOwner.collectFlow(viewModel.completedTransfers) { completedTransfers ->
+            val isNewFirstItem =
+                adapter.currentList.firstOrNull()?.id != completedTransfers.firstOrNull()?.id
             adapter.submitList(completedTransfers) {
                 // List Adapter doesn't auto move to top when new item inserted, we need to use this callback to scroll to top
-                binding.transfersListView.scrollToPosition(0)
+                // A loaded page is added at the end, so the list is only scrolled when the first item changes
+                if (isNewFirstItem) {
+                    binding.transfersListView.scrollToPosition(0)
+                }
             }
             setEmptyView(completedTransfers.size)
         }
@@ -87,6 +101,10 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
     }
 
     companion object {
+        /**
+         * Number of items from the end of the list at which the next page is loaded
+         */
+        private const val LOAD_MORE_THRESHOLD = 5
 
         /**
          * Generate a new instance for [CompletedTransfersFragment]
@@ -4,6 +4,7 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
@@ -11,6 +12,7 @@ import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.flatMapLatest
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
@@ -46,6 +48,7 @@ import javax.inject.Inject
 /**
  * The logic regarding transfers UI
  */
+@OptIn(ExperimentalCoroutinesApi::class)
 @HiltViewModel
 class TransfersViewModel @Inject constructor(
     private val transfersManagement: TransfersManagement,
@@ -111,6 +114,11 @@ class TransfersViewModel @Inject constructor(
      */
     val completedTransfers = _completedTransfers.asStateFlow()
 
+    /**
+     * Number of completed transfers loaded, increased a page at a time on scroll
+     */
+    private val completedTransfersLimit = MutableStateFlow(COMPLETED_TRANSFERS_PAGE_SIZE)
+
     private var transferCallback = 0L
     private var currentTab = TransfersTab.NONE
     private var previousTab = TransfersTab.NONE
@@ -146,7 +154,8 @@ class TransfersViewModel @Inject constructor(
                 }
         }
         viewModelScope.launch {
-            getAllCompletedTransfersUseCase(MAX_TRANSFERS)
+            completedTransfersLimit
+                .flatMapLatest { getAllCompletedTransfersUseCase(it) }
                 .catch {
                     Timber.e(it)
                 }.collect { completedTransfers ->
@@ -369,6 +378,19 @@ class TransfersViewModel @Inject constructor(
             }
     }
 
+    /**
+     * Loads the next page of completed transfers, if all the transfers of the current page are loaded
+     */
+    fun loadMoreCompletedTransfers() {
+        completedTransfersLimit.update { limit ->
+            if (_completedTransfers.value.size < limit) {
+                limit
+            } else {
+                (limit + COMPLETED_TRANSFERS_PAGE_SIZE).coerceAtMost(MAX_TRANSFERS)
+            }
+        }
+    }
+
     /**
      * Get the completed transfers
      *
@@ -462,5 +484,10 @@ class TransfersViewModel @Inject constructor(
 
     companion object {
         const val MAX_TRANSFERS = 100
+
+        /**
+         * Number of completed transfers loaded at a time
+         */
+        const val COMPLETED_TRANSFERS_PAGE_SIZE = 25
     }
 }
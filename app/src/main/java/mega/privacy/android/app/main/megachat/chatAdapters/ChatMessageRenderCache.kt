@@ -0,0 +1,145 @@
+package mega.privacy.android.app.main.megachat.chatAdapters
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.launch
+
+/**
+ * Cache of the rendered content of the chat messages.
+ *
+ * The messages around the ones being bound are rendered in the background, so binding a message
+ * only looks its content up. An entry is only valid for the content it was rendered from, so
+ * edited messages are rendered again, and the whole cache is dropped when the style changes.
+ *
+ * @property scope Scope of the background rendering
+ * @property dispatcher Dispatcher of the background rendering
+ * @property maxSize Maximum number of rendered messages kept
+ * @property render Renders the content of a message
+ */
+class ChatMessageRenderCache(
+    private val scope: CoroutineScope,
+    private val dispatcher: CoroutineDispatcher,
+    private val maxSize: Int = DEFAULT_MAX_SIZE,
+    private val render: (String) -> RenderedMessage,
+) {
+
+    /**
+     * Rendered content of a message
+     *
+     * @property content Content with the emoji short codes converted
+     * @property text Text to show, formatted if the content has no url
+     * @property hasUrl True if the content has an url
+     * @property isOnlyEmojis True if the content only has emojis
+     * @property numEmojis Number of emojis of the content
+     */
+    data class RenderedMessage(
+        val content: String,
+        val text: CharSequence?,
+        val hasUrl: Boolean,
+        val isOnlyEmojis: Boolean,
+        val numEmojis: Int,
+    )
+
+    /**
+     * Message to render
+     *
+     * @property msgId Message identifier
+     * @property content Raw content of the message
+     */
+    data class Message(val msgId: Long, val content: String)
+
+    private class Entry(val rawContent: String, val rendered: RenderedMessage)
+
+    private val entries = object : LinkedHashMap<Long, Entry>(maxSize, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Long, Entry>?) =
+            size > maxSize
+    }
+
+    @Volatile
+    private var style = 0
+
+    private var prefetchJob: Job? = null
+
+    /**
+     * Number of messages rendered when bound, because they were not prefetched
+     */
+    @Volatile
+    var misses = 0
+        private set
+
+    /**
+     * Sets the style the messages are rendered with, as the theme and text size, dropping the
+     * messages rendered with another style
+     *
+     * @param style Key of the style
+     */
+    fun setStyle(style: Int) = synchronized(entries) {
+        if (this.style != style) {
+            this.style = style
+            entries.clear()
+        }
+    }
+
+    /**
+     * Gets the rendered content of a message, rendering it if it was not prefetched
+     *
+     * @param msgId Message identifier
+     * @param content Raw content of the message
+     */
+    fun get(msgId: Long, content: String): RenderedMessage {
+        getCached(msgId, content)?.let { return it }
+
+        val renderStyle = style
+        return render(content).also {
+            misses++
+            put(msgId, content, it, renderStyle)
+        }
+    }
+
+    /**
+     * Renders in the background the messages not rendered yet, replacing the previous prefetch
+     *
+     * @param messages Messages around the ones being bound
+     */
+    fun prefetch(messages: List<Message>) {
+        prefetchJob?.cancel()
+        val renderStyle = style
+        prefetchJob = scope.launch(dispatcher) {
+            messages.forEach { (msgId, content) ->
+                ensureActive()
+                if (getCached(msgId, content) == null) {
+                    put(msgId, content, render(content), renderStyle)
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all the rendered messages
+     */
+    fun clear() = synchronized(entries) {
+        prefetchJob?.cancel()
+        entries.clear()
+    }
+
+    private fun getCached(msgId: Long, content: String) = synchronized(entries) {
+        entries[msgId]?.takeIf { it.rawContent == content }?.rendered
+    }
+
+    /**
+     * Keeps a rendered message, unless the style changed while it was rendered
+     */
+    private fun put(msgId: Long, content: String, rendered: RenderedMessage, renderStyle: Int) =
+        synchronized(entries) {
+            if (style == renderStyle) entries[msgId] = Entry(content, rendered)
+        }
+
+    companion object {
+        /**
+         * Default maximum number of rendered messages kept
+         */
+        const val DEFAULT_MAX_SIZE = 500
+    }
+}
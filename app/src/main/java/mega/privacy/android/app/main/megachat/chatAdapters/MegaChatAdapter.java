@@ -122,6 +122,7 @@ import android.widget.SeekBar;
 import android.widget.TextView;
 
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelKt;
 import androidx.exifinterface.media.ExifInterface;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.SimpleItemAnimator;
@@ -149,6 +150,7 @@ import java.util.regex.Matcher;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import kotlin.Unit;
+import kotlinx.coroutines.Dispatchers;
 import mega.privacy.android.app.LegacyDatabaseHandler;
 import mega.privacy.android.app.MegaApplication;
 import mega.privacy.android.app.MimeTypeList;
@@ -237,6 +239,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
     private final static int INVALID_INFO = -1;
 
     private final static int LAYOUT_WIDTH = 330;
+    private final static int PREFETCH_DISTANCE = 30;
     private static int REACTION_SPACE = 8;
 
     Context context;
@@ -261,6 +264,9 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
     private ChatViewModel viewModel;
 
+    private final ChatMessageRenderCache renderCache;
+    private int lastPrefetchPosition = INVALID_POSITION;
+
     private long myUserHandle = -1;
 
     DisplayMetrics outMetrics;
@@ -642,6 +648,9 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         this.getAvatarUseCase = getAvatarUseCase;
         this.getNodeUseCase = getNodeUseCase;
         this.viewModel =  viewModel;
+        this.renderCache = new ChatMessageRenderCache(ViewModelKt.getViewModelScope(viewModel),
+                Dispatchers.getDefault(), ChatMessageRenderCache.DEFAULT_MAX_SIZE,
+                MegaChatAdapter::renderMessage);
         this.megaApi = MegaApplication.getInstance().getMegaApi();
         this.megaChatApi = MegaApplication.getInstance().getMegaChatApi();
         this.dbH = MegaApplication.getInstance().getDbH();
@@ -1724,6 +1733,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
     public void onBindViewHolderMessage(RecyclerView.ViewHolder holder, int position) {
         Timber.d("Position: %s", position);
+        prefetchRenderedMessages(position);
 
         ((ViewHolderMessageChat) holder).itemLayout.setVisibility(View.VISIBLE);
         RelativeLayout.LayoutParams paramsDefault = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
@@ -3464,17 +3474,14 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             holder.ownManagementMessageLayout.setVisibility(View.GONE);
             holder.contentOwnMessageLayout.setVisibility(View.VISIBLE);
 
-            String messageContent = "";
-
-            if (message.getContent() != null) {
-                messageContent = converterShortCodes(message.getContent());
-            }
+            ChatMessageRenderCache.RenderedMessage renderedMessage = getRenderedMessage(message);
+            String messageContent = renderedMessage.getContent();
 
             int lastPosition = messages.size();
 
             if (lastPosition == position) {
 
-                if (MegaChatApi.hasUrl(messageContent)) {
+                if (renderedMessage.getHasUrl()) {
                     if (((ChatActivity) context).checkMegaLink(message) == -1) {
                         Timber.d("Is a link - not from MEGA");
                         if (viewModel.isShowRichLinkWarning()) {
@@ -3610,7 +3617,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                 edited.setSpan(new android.text.style.StyleSpan(Typeface.ITALIC), 0, edited.length(), Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
                 holder.contentOwnMessageText.append(edited);
 
-                checkEmojiSize(messageContent, holder.contentOwnMessageText);
+                checkEmojiSize(renderedMessage, holder.contentOwnMessageText);
 
                 if (isOnline(context)) {
                     if (isMultipleSelect()) {
@@ -3677,15 +3684,11 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                     holder.retryAlert.setVisibility(View.GONE);
                 }
 
-                checkEmojiSize(messageContent, holder.contentOwnMessageText);
+                checkEmojiSize(renderedMessage, holder.contentOwnMessageText);
                 ((ViewHolderMessageChat) holder).contentOwnMessageText.setTextColor(Color.WHITE);
                 ((ViewHolderMessageChat) holder).contentOwnMessageText.setLinkTextColor(Color.WHITE);
 
-                if (!MegaChatApi.hasUrl(messageContent)) {
-                    holder.contentOwnMessageText.setText(getFormattedText(messageContent));
-                } else {
-                    holder.contentOwnMessageText.setText(messageContent);
-                }
+                holder.contentOwnMessageText.setText(renderedMessage.getText());
 
                 if (isOnline(context)) {
                     if (isMultipleSelect()) {
@@ -3735,10 +3738,8 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
                 holder.layoutAvatarMessages.setVisibility(View.GONE);
             }
 
-            String messageContent = "";
-            if (message.getContent() != null) {
-                messageContent = converterShortCodes(message.getContent());
-            }
+            ChatMessageRenderCache.RenderedMessage renderedMessage = getRenderedMessage(message);
+            String messageContent = renderedMessage.getContent();
 
             if (message.isEdited()) {
                 Timber.d("Message is edited");
@@ -3826,17 +3827,13 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
                 ((ViewHolderMessageChat) holder).contentContactMessageContactLayout.setVisibility(View.GONE);
 
-                checkEmojiSize(messageContent, holder.contentContactMessageText);
+                checkEmojiSize(renderedMessage, holder.contentContactMessageText);
 
                 //Color always status SENT
                 ((ViewHolderMessageChat) holder).contentContactMessageText.setTextColor(ContextCompat.getColor(context, R.color.grey_087_white));
                 ((ViewHolderMessageChat) holder).contentContactMessageText.setLinkTextColor(ContextCompat.getColor(context, R.color.grey_087_white));
 
-                if (!MegaChatApi.hasUrl(messageContent)) {
-                    holder.contentContactMessageText.setText(getFormattedText(messageContent));
-                } else {
-                    holder.contentContactMessageText.setText(messageContent);
-                }
+                holder.contentContactMessageText.setText(renderedMessage.getText());
 
                 if (isOnline(context)) {
                     if (isMultipleSelect()) {
@@ -3858,9 +3855,78 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         checkReactionsInMessage(position, holder, chatRoom.getChatId(), androidMessage);
     }
 
+    /**
+     * Gets the rendered content of a normal message, from the render cache if it was prefetched.
+     *
+     * @param message The message.
+     * @return The rendered content.
+     */
+    private ChatMessageRenderCache.RenderedMessage getRenderedMessage(MegaChatMessage message) {
+        Configuration configuration = context.getResources().getConfiguration();
+        renderCache.setStyle(31 * Float.floatToIntBits(configuration.fontScale)
+                + (configuration.uiMode & Configuration.UI_MODE_NIGHT_MASK));
+
+        String content = message.getContent();
+        return renderCache.get(message.getMsgId(), content != null ? content : "");
+    }
+
+    /**
+     * Renders in the background the normal messages around a position which are not rendered yet,
+     * so binding them neither converts the short codes nor formats the text nor looks for emojis.
+     *
+     * @param position Position of the adapter being bound.
+     */
+    private void prefetchRenderedMessages(int position) {
+        if (messages == null || (lastPrefetchPosition != INVALID_POSITION
+                && Math.abs(position - lastPrefetchPosition) < PREFETCH_DISTANCE / 2)) {
+            return;
+        }
+
+        lastPrefetchPosition = position;
+        int index = position - 1;
+        int from = Math.max(0, index - PREFETCH_DISTANCE);
+        int to = Math.min(messages.size(), index + PREFETCH_DISTANCE + 1);
+        List<ChatMessageRenderCache.Message> toRender = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            AndroidMegaChatMessage androidMessage = messages.get(i);
+            MegaChatMessage message = androidMessage != null ? androidMessage.getMessage() : null;
+            if (message != null && message.getType() == MegaChatMessage.TYPE_NORMAL
+                    && !message.isDeleted() && message.getContent() != null) {
+                toRender.add(new ChatMessageRenderCache.Message(message.getMsgId(), message.getContent()));
+            }
+        }
+
+        renderCache.prefetch(toRender);
+    }
+
+    /**
+     * Renders the content of a normal message. Called off the main thread when prefetching.
+     *
+     * @param rawContent The content of the message.
+     * @return The rendered content.
+     */
+    private static ChatMessageRenderCache.RenderedMessage renderMessage(String rawContent) {
+        String content = converterShortCodes(rawContent);
+        boolean hasUrl = MegaChatApi.hasUrl(content);
+        boolean isOnlyEmojis = EmojiManager.getInstance().isOnlyEmojis(content);
+        int numEmojis = isOnlyEmojis ? EmojiManager.getInstance().getNumEmojis(content) : 0;
+
+        return new ChatMessageRenderCache.RenderedMessage(content,
+                hasUrl ? content : getFormattedText(content), hasUrl, isOnlyEmojis, numEmojis);
+    }
+
+    private void checkEmojiSize(ChatMessageRenderCache.RenderedMessage message, EmojiTextView textView) {
+        checkEmojiSize(message.isOnlyEmojis(), message.getNumEmojis(), textView);
+    }
+
     private void checkEmojiSize(String message, EmojiTextView textView) {
-        if (EmojiManager.getInstance().isOnlyEmojis(message)) {
-            int numEmojis = EmojiManager.getInstance().getNumEmojis(message);
+        boolean isOnlyEmojis = EmojiManager.getInstance().isOnlyEmojis(message);
+        checkEmojiSize(isOnlyEmojis,
+                isOnlyEmojis ? EmojiManager.getInstance().getNumEmojis(message) : 0, textView);
+    }
+
+    private void checkEmojiSize(boolean isOnlyEmojis, int numEmojis, EmojiTextView textView) {
+        if (isOnlyEmojis) {
             textView.setLineSpacing(1, 1.2f);
             switch (numEmojis) {
                 case 1: {
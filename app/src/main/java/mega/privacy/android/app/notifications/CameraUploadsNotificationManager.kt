@@ -122,6 +122,8 @@ class CameraUploadsNotificationManager @Inject constructor(
                 currentFileIndex = cameraUploadsStatusInfo.currentFileIndex,
                 totalCount = cameraUploadsStatusInfo.totalCount,
             )
+
+            is CameraUploadsStatusInfo.PreparationMetrics -> Unit
         }
     }
 
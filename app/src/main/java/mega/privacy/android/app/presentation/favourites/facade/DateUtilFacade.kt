@@ -15,4 +15,7 @@ class DateUtilFacade @Inject constructor() : DateUtilWrapper {
         LocalDateTime.ofInstant(Instant.ofEpochSecond(seconds), ZoneId.systemDefault())
     )
 
+    override fun toEpoch(dateTime: LocalDateTime): Long =
+        dateTime.atZone(ZoneId.systemDefault()).toEpochSecond()
+
 }
\ No newline at end of file
@@ -28,10 +28,12 @@ import androidx.appcompat.app.AlertDialog
 import androidx.core.content.ContextCompat
 import androidx.core.view.isVisible
 import androidx.lifecycle.lifecycleScope
+import com.github.barteksc.pdfviewer.PageDiskCache
 import com.github.barteksc.pdfviewer.listener.OnLoadCompleteListener
 import com.github.barteksc.pdfviewer.listener.OnPageChangeListener
 import com.github.barteksc.pdfviewer.listener.OnPageErrorListener
 import com.github.barteksc.pdfviewer.scroll.DefaultScrollHandle
+import com.github.barteksc.pdfviewer.util.Constants as PdfConstants
 import com.google.android.material.dialog.MaterialAlertDialogBuilder
 import com.shockwave.pdfium.PdfDocument.Bookmark
 import dagger.hilt.android.AndroidEntryPoint
@@ -61,6 +63,7 @@ import mega.privacy.android.app.utils.AlertDialogUtil.dismissAlertDialogIfExists
 import mega.privacy.android.app.utils.AlertDialogUtil.isAlertDialogShown
 import mega.privacy.android.app.utils.AlertsAndWarnings.showSaveToDeviceConfirmDialog
 import mega.privacy.android.app.utils.AlertsAndWarnings.showTakenDownAlert
+import mega.privacy.android.app.utils.CacheFolderManager
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.LinksUtil
@@ -99,6 +102,7 @@ import nz.mega.sdk.MegaUser
 import nz.mega.sdk.MegaUserAlert
 import timber.log.Timber
 import java.io.File
+import java.util.zip.CRC32
 import javax.inject.Inject
 
 /**
@@ -393,6 +397,7 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
                             .spacing(10) // in dp
                             .onPageError(this@PdfViewerActivity)
                             .password(password)
+                            .diskCache(documentPageDiskCache, getStreamDocumentKey(pdfStreamData))
                             .load()
                     } catch (e: Exception) {
                         Timber.w("Exception loading PDF as stream", e)
@@ -709,12 +714,43 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
                 .spacing(10) // in dp
                 .onPageError(this)
                 .password(password)
+                .diskCache(documentPageDiskCache, getLocalDocumentKey(uri))
                 .load()
         } catch (e: Exception) {
             e.printStackTrace()
         }
     }
 
+    /**
+     * [pageDiskCache] if the pages of the document can be kept on disk. Pages of password protected
+     * documents are not, as they could be read from there without the password.
+     */
+    private val documentPageDiskCache: PageDiskCache?
+        get() = pageDiskCache.takeIf { password == null }
+
+    /**
+     * Key of a local document in [pageDiskCache], which changes when the file is modified
+     */
+    private fun getLocalDocumentKey(uri: Uri?): String? {
+        uri ?: return null
+        if (uri.scheme == "file") {
+            val file = uri.path?.let { File(it) }?.takeIf { it.exists() } ?: return null
+            return "${file.absolutePath}:${file.length()}:${file.lastModified()}"
+        }
+        val size = runCatching {
+            contentResolver.query(uri, arrayOf(OpenableColumns.SIZE), null, null, null)?.use {
+                if (it.moveToFirst()) it.getLong(0) else null
+            }
+        }.getOrNull() ?: return null
+        return "$uri:$size"
+    }
+
+    /**
+     * Key of a streamed document in [pageDiskCache], derived from its content
+     */
+    private fun getStreamDocumentKey(data: ByteArray): String =
+        "stream:${data.size}:${CRC32().apply { update(data) }.value}"
+
     private fun download() {
         lifecycleScope.launch {
             if (startDownloadViewModel.shouldDownloadWithDownloadWorker()) {
@@ -1757,5 +1793,14 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
          */
         @JvmField
         var loading = true
+
+        /**
+         * Rendered pages of the documents opened before, shared by the viewers
+         */
+        private val pageDiskCache: PageDiskCache? by lazy {
+            CacheFolderManager.getCacheFolder(CacheFolderManager.PDF_PAGES_FOLDER)?.let {
+                PageDiskCache(it, PdfConstants.Cache.DISK_CACHE_SIZE)
+            }
+        }
     }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import androidx.compose.ui.semantics.semantics
 import androidx.compose.ui.semantics.testTagsAsResourceId
 import androidx.compose.ui.unit.dp
 import mega.privacy.android.app.presentation.data.NodeUIItem
+import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
 import mega.privacy.android.feature.sync.ui.mapper.FileTypeIconMapper
@@ -58,6 +59,16 @@ fun <T : TypedNode> NodeGridView(
     listContentPadding: PaddingValues = PaddingValues(0.dp),
     fileTypeIconMapper: FileTypeIconMapper,
 ) {
+    val headerCount = if (showSortOrder || showChangeViewType) 1 else 0
+    PrefetchNextThumbnails(
+        gridState = gridState,
+        itemCount = nodeUIItems.size + headerCount,
+        thumbnailData = { index ->
+            nodeUIItems.getOrNull(index - headerCount)
+                ?.takeIf { !it.isInvisible && it.node is FileNode }
+                ?.let { ThumbnailRequest(it.node.id, isPublicNode) }
+        },
+    )
     LazyVerticalGrid(
         state = gridState,
         columns = GridCells.Fixed(spanCount),
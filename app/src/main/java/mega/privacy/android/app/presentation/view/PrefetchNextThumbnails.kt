@@ -0,0 +1,70 @@
+package mega.privacy.android.app.presentation.view
+
+import androidx.compose.foundation.lazy.grid.LazyGridState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
+import androidx.compose.ui.platform.LocalContext
+import coil.imageLoader
+import coil.request.CachePolicy
+import coil.request.Disposable
+import coil.request.ImageRequest
+import kotlinx.coroutines.flow.distinctUntilChangedBy
+import kotlinx.coroutines.flow.filterNotNull
+import mega.privacy.android.app.fetcher.MegaThumbnailFetcher
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
+
+/**
+ * Prefetches the thumbnails of the screen after the visible one, each time a new screen is
+ * reached. The prefetches are downloaded after the visible thumbnails, and the ones not started
+ * yet are dropped when the next screen is prefetched or the grid leaves the composition.
+ *
+ * @param gridState the state of the grid
+ * @param itemCount the number of items of the grid
+ * @param thumbnailData the thumbnail request of the item at a grid index, null if it has none
+ */
+@Composable
+internal fun PrefetchNextThumbnails(
+    gridState: LazyGridState,
+    itemCount: Int,
+    thumbnailData: (index: Int) -> ThumbnailRequest?,
+) {
+    val context = LocalContext.current
+    val currentThumbnailData by rememberUpdatedState(thumbnailData)
+
+    LaunchedEffect(gridState, itemCount) {
+        var prefetches = emptyList<Disposable>()
+        try {
+            snapshotFlow {
+                val visibleItems = gridState.layoutInfo.visibleItemsInfo
+                visibleItems.lastOrNull()?.let { it.index to visibleItems.size }
+            }.filterNotNull()
+                // Prefetch again only when a new screen is reached
+                .distinctUntilChangedBy { (lastVisible, visibleCount) -> lastVisible / visibleCount }
+                .collect { (lastVisible, visibleCount) ->
+                    prefetches.forEach { it.dispose() }
+                    val start = lastVisible + 1
+                    val end = minOf(start + visibleCount, itemCount)
+                    prefetches = (start until end).mapNotNull { index ->
+                        currentThumbnailData(index)?.let { data ->
+                            context.imageLoader.enqueue(
+                                ImageRequest.Builder(context)
+                                    .data(data)
+                                    .memoryCachePolicy(CachePolicy.DISABLED)
+                                    .setParameter(
+                                        key = MegaThumbnailFetcher.PREFETCH_PARAMETER,
+                                        value = true,
+                                        memoryCacheKey = null,
+                                    )
+                                    .build()
+                            )
+                        }
+                    }
+                }
+        } finally {
+            prefetches.forEach { it.dispose() }
+        }
+    }
+}
@@ -46,6 +46,11 @@ object CacheFolderManager {
      */
     const val CHAT_TEMPORARY_FOLDER = "chatTempMEGA"
 
+    /**
+     * PDF_PAGES_FOLDER
+     */
+    const val PDF_PAGES_FOLDER = "pdfPagesMEGA"
+
     /**
      * CacheFolder Gateway
      */
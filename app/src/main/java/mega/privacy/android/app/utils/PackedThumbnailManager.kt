@@ -0,0 +1,39 @@
+package mega.privacy.android.app.utils
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import dagger.hilt.android.EntryPointAccessors
+import kotlinx.coroutines.runBlocking
+import mega.privacy.android.app.MegaApplication
+import mega.privacy.android.app.di.EntryPointsModule
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
+
+/**
+ * Packed thumbnail store access for the screens reading the thumbnails as bitmaps, as the
+ * thumbnails moved to the store no longer have a file
+ */
+object PackedThumbnailManager {
+
+    /**
+     * Packed thumbnail Gateway
+     */
+    private val packedThumbnailGateway: PackedThumbnailGateway by lazy {
+        EntryPointAccessors.fromApplication(
+            MegaApplication.getInstance(),
+            EntryPointsModule.PackedThumbnailManagerEntryPoint::class.java
+        ).packedThumbnailGateway
+    }
+
+    /**
+     * Get a thumbnail from the packed thumbnail store
+     *
+     * @param handle Node handle
+     * @return The decoded thumbnail, or null if it is not in the store
+     */
+    @JvmStatic
+    fun getThumbnail(handle: Long): Bitmap? {
+        val thumbnail = runBlocking { packedThumbnailGateway.getThumbnail(handle) } ?: return null
+        val bytes = ByteArray(thumbnail.remaining()).also { thumbnail.get(it) }
+        return BitmapFactory.decodeByteArray(bytes, 0, bytes.size)
+    }
+}
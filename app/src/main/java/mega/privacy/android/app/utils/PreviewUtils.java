@@ -14,7 +14,7 @@ import android.view.Display;
 import java.io.File;
 
 import mega.privacy.android.app.MegaApplication;
-import mega.privacy.android.app.PreviewCache;
+import mega.privacy.android.app.BitmapMemoryCache;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaNode;
 import timber.log.Timber;
@@ -25,7 +25,7 @@ public class PreviewUtils {
     private static MegaApiAndroid megaApi = MegaApplication.getInstance().getMegaApi();
 
     public static File previewDir;
-    public static PreviewCache previewCache = new PreviewCache();
+    public static BitmapMemoryCache.Region previewCache = BitmapMemoryCache.getInstance().getPreviews();
 
     //10mb
     private static final long THRESHOLD = 10 * 1024 * 1024;
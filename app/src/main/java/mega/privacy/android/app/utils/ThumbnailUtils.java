@@ -41,7 +41,7 @@ import java.io.IOException;
 import mega.privacy.android.app.FileDocument;
 import mega.privacy.android.app.MimeTypeList;
 import mega.privacy.android.app.R;
-import mega.privacy.android.app.ThumbnailCache;
+import mega.privacy.android.app.BitmapMemoryCache;
 import mega.privacy.android.app.main.adapters.FileStorageAdapter;
 import mega.privacy.android.app.main.adapters.FileStorageAdapter.ViewHolderFileStorage;
 import mega.privacy.android.app.main.adapters.MegaExplorerAdapter;
@@ -66,8 +66,8 @@ import timber.log.Timber;
  */
 public class ThumbnailUtils {
     public static File thumbDir;
-    public static ThumbnailCache thumbnailCache = new ThumbnailCache();
-    public static ThumbnailCache thumbnailCachePath = new ThumbnailCache(1);
+    public static BitmapMemoryCache.Region thumbnailCache = BitmapMemoryCache.getInstance().getThumbnails();
+    public static BitmapMemoryCache.Region thumbnailCachePath = thumbnailCache;
     public static Boolean isDeviceMemoryLow = false;
 
     public static Bitmap getRoundedRectBitmap(Context context, final Bitmap bitmap, final int pixels) {
@@ -540,16 +540,23 @@ public class ThumbnailUtils {
         File thumbDir = getThumbFolder(context);
         if (node != null) {
             File thumb = new File(thumbDir, node.getBase64Handle() + ".jpg");
-            Bitmap bitmap;
+            // The thumbnails moved to the packed thumbnail store have no file anymore
+            Bitmap packed = thumb.exists() ? null : PackedThumbnailManager.getThumbnail(node.getHandle());
+            // The thumbnail may have been downloaded since it was missing, by writers which do not
+            // go through the cache, so the miss is only trusted while there is still no thumbnail
+            if (thumbnailCache.isMissing(node.getHandle()) && !thumb.exists() && packed == null) {
+                return null;
+            }
+            Bitmap bitmap = packed;
             if (thumb.exists() && thumb.length() > 0) {
                 bitmap = getBitmapForCache(thumb, context);
                 if (bitmap == null) {
                     thumb.delete();
-                } else {
-                    thumbnailCache.put(node.getHandle(), bitmap);
                 }
             }
-            return thumbnailCache.get(node.getHandle());
+            // Also remembers a missing thumbnail, so it is not looked for again until there is one
+            thumbnailCache.put(node.getHandle(), bitmap);
+            return bitmap;
         }
         return null;
     }
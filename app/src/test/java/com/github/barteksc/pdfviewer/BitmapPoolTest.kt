@@ -0,0 +1,83 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.Bitmap
+import android.graphics.RectF
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.github.barteksc.pdfviewer.model.PagePart
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class BitmapPoolTest {
+
+    private val partBytes = PART_SIZE * PART_SIZE * 2L
+
+    private fun createPart() = Bitmap.createBitmap(PART_SIZE, PART_SIZE, Bitmap.Config.RGB_565)
+
+    @Test
+    fun `test that a bitmap given back is reused for the same size`() {
+        val underTest = BitmapPool(partBytes * 4)
+        val bitmap = createPart()
+
+        underTest.put(bitmap)
+
+        assertThat(underTest.get(PART_SIZE, PART_SIZE, Bitmap.Config.RGB_565)).isSameInstanceAs(bitmap)
+        assertThat(underTest.hitCount).isEqualTo(1)
+        assertThat(underTest.allocationCount).isEqualTo(0)
+        assertThat(underTest.pooledBytes).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a bitmap is allocated when none of the size is available`() {
+        val underTest = BitmapPool(partBytes * 4)
+        val bitmap = createPart()
+        underTest.put(bitmap)
+
+        val actual = underTest.get(PART_SIZE, PART_SIZE / 2, Bitmap.Config.RGB_565)
+        underTest.get(PART_SIZE, PART_SIZE, Bitmap.Config.RGB_565)
+
+        assertThat(actual).isNotSameInstanceAs(bitmap)
+        assertThat(underTest.allocationCount).isEqualTo(1)
+        assertThat(underTest.hitRate).isEqualTo(0.5f)
+    }
+
+    @Test
+    fun `test that the oldest bitmaps are recycled to stay within the memory budget`() {
+        val underTest = BitmapPool(partBytes * 2)
+        val bitmaps = List(3) { createPart() }
+
+        bitmaps.forEach { underTest.put(it) }
+
+        assertThat(bitmaps.first().isRecycled).isTrue()
+        assertThat(bitmaps.drop(1).none { it.isRecycled }).isTrue()
+        assertThat(underTest.evictionCount).isEqualTo(1)
+        assertThat(underTest.pooledBytes).isEqualTo(partBytes * 2)
+    }
+
+    @Test
+    fun `test that the parts evicted from the cache are given to the pool`() {
+        val bitmapPool = BitmapPool(partBytes * 4)
+        val underTest = CacheManager(partBytes * 2, bitmapPool)
+
+        repeat(3) { underTest.cachePart(createPagePart(it)) }
+
+        assertThat(underTest.pageParts.map { it.page }).containsExactly(1, 2)
+        assertThat(bitmapPool.pooledBytes).isEqualTo(partBytes)
+    }
+
+    @Test
+    fun `test that the parts capacity follows the memory budget`() {
+        val underTest = CacheManager(partBytes * 10, BitmapPool(0))
+
+        assertThat(underTest.getPartsCapacity(false)).isEqualTo(10)
+        assertThat(underTest.getPartsCapacity(true)).isEqualTo(5)
+    }
+
+    private fun createPagePart(page: Int) =
+        PagePart(page, createPart(), RectF(0f, 0f, 1f, 1f), false, page)
+
+    companion object {
+        private const val PART_SIZE = 256
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.Bitmap
+import android.graphics.RectF
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.github.barteksc.pdfviewer.model.PagePart
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class CacheManagerTest {
+
+    /** Parts only need a size to be cached, they can share the same bitmap */
+    private val bitmap = Bitmap.createBitmap(1, 1, Bitmap.Config.RGB_565)
+
+    private val partBytes = bitmap.allocationByteCount.toLong()
+
+    private fun bounds(index: Int) = RectF(0f, index / 10f, 1f, (index + 1) / 10f)
+
+    private fun createPagePart(page: Int, index: Int, cacheOrder: Int, thumbnail: Boolean = false) =
+        PagePart(page, bitmap, bounds(index), thumbnail, cacheOrder)
+
+    @Test
+    fun `test that a part of a previous set is promoted to the current set when contained`() {
+        val underTest = CacheManager(partBytes * 2, BitmapPool(0))
+        underTest.cachePart(createPagePart(page = 0, index = 0, cacheOrder = 1))
+        underTest.makeANewSet()
+        underTest.cachePart(createPagePart(page = 0, index = 1, cacheOrder = 1))
+
+        assertThat(underTest.upPartIfContained(0, bounds(0), 2)).isTrue()
+        underTest.cachePart(createPagePart(page = 1, index = 0, cacheOrder = 3))
+
+        // the part with the lowest order of the current set is evicted, as no previous set is left
+        assertThat(underTest.pageParts.map { it.page to it.cacheOrder })
+            .containsExactly(0 to 2, 1 to 3)
+    }
+
+    @Test
+    fun `test that a part not cached is not contained`() {
+        val underTest = CacheManager(partBytes * 2, BitmapPool(0))
+        underTest.cachePart(createPagePart(page = 0, index = 0, cacheOrder = 1))
+
+        assertThat(underTest.upPartIfContained(0, bounds(1), 2)).isFalse()
+        assertThat(underTest.upPartIfContained(1, bounds(0), 2)).isFalse()
+    }
+
+    @Test
+    fun `test that a part rendered twice is cached once`() {
+        val underTest = CacheManager(partBytes * 4, BitmapPool(0))
+
+        underTest.cachePart(createPagePart(page = 0, index = 0, cacheOrder = 1))
+        underTest.cachePart(createPagePart(page = 0, index = 0, cacheOrder = 1))
+
+        assertThat(underTest.pageParts).hasSize(1)
+    }
+
+    @Test
+    fun `test that thumbnails are looked up by page and bounds`() {
+        val underTest = CacheManager(partBytes, BitmapPool(0))
+        val thumbnailBounds = RectF(0f, 0f, 1f, 1f)
+
+        underTest.cacheThumbnail(PagePart(3, bitmap, thumbnailBounds, true, 0))
+
+        assertThat(underTest.containsThumbnail(3, RectF(0f, 0f, 1f, 1f))).isTrue()
+        assertThat(underTest.containsThumbnail(4, thumbnailBounds)).isFalse()
+    }
+}
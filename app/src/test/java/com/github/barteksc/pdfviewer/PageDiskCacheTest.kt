@@ -0,0 +1,142 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.Bitmap
+import android.graphics.Color
+import android.graphics.RectF
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.annotation.GraphicsMode
+import java.io.File
+
+@RunWith(AndroidJUnit4::class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+class PageDiskCacheTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val directory: File by lazy { File(temporaryFolder.root, "pages") }
+
+    private val bounds = RectF(0f, 0f, 0.5f, 0.5f)
+
+    private fun createPart(color: Int = Color.RED) =
+        Bitmap.createBitmap(PART_SIZE, PART_SIZE, Bitmap.Config.ARGB_8888).apply {
+            eraseColor(color)
+        }
+
+    private fun PageDiskCache.put(
+        page: Int,
+        bitmap: Bitmap = createPart(),
+        documentKey: String = DOCUMENT_KEY,
+    ) = put(documentKey, page, bounds, false, false, bitmap)
+
+    private fun PageDiskCache.get(
+        page: Int,
+        documentKey: String = DOCUMENT_KEY,
+        partBounds: RectF = bounds,
+        size: Int = PART_SIZE,
+    ): Bitmap? = get(
+        documentKey, page, partBounds, size, size, false, Bitmap.Config.ARGB_8888, false, null
+    )
+
+    private fun PageDiskCache.putAndWait(page: Int, bitmap: Bitmap = createPart()) {
+        put(page, bitmap)
+        waitUntil { get(page) != null }
+    }
+
+    /**
+     * Parts are written in the background
+     */
+    private fun waitUntil(condition: () -> Boolean) {
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+        while (!condition()) {
+            check(System.currentTimeMillis() < deadline) { "Part not written in time" }
+            Thread.sleep(10)
+        }
+    }
+
+    @Test
+    fun `test that a part put is read back`() {
+        val underTest = PageDiskCache(directory, Long.MAX_VALUE)
+
+        underTest.putAndWait(page = 0, bitmap = createPart(Color.BLUE))
+
+        val actual = underTest.get(page = 0)
+        assertThat(actual?.width).isEqualTo(PART_SIZE)
+        assertThat(actual?.height).isEqualTo(PART_SIZE)
+        assertThat(actual?.getPixel(0, 0)).isEqualTo(Color.BLUE)
+    }
+
+    @Test
+    fun `test that a part is only read back for the same document, page, bounds and size`() {
+        val underTest = PageDiskCache(directory, Long.MAX_VALUE)
+
+        underTest.putAndWait(page = 0)
+
+        assertThat(underTest.get(page = 1)).isNull()
+        assertThat(underTest.get(page = 0, documentKey = "other")).isNull()
+        assertThat(underTest.get(page = 0, partBounds = RectF(0.5f, 0f, 1f, 0.5f))).isNull()
+        assertThat(underTest.get(page = 0, size = PART_SIZE * 2)).isNull()
+    }
+
+    @Test
+    fun `test that the parts are read back by a cache opened again`() {
+        PageDiskCache(directory, Long.MAX_VALUE).putAndWait(page = 0)
+
+        val underTest = PageDiskCache(directory, Long.MAX_VALUE)
+
+        assertThat(underTest.get(page = 0)).isNotNull()
+        assertThat(underTest.size).isGreaterThan(0L)
+    }
+
+    @Test
+    fun `test that the least recently used parts are deleted when the cache is full`() {
+        val partBytes = PageDiskCache(File(temporaryFolder.root, "size"), Long.MAX_VALUE).run {
+            putAndWait(page = 0)
+            size
+        }
+        val underTest = PageDiskCache(directory, partBytes * 2)
+        underTest.putAndWait(page = 0)
+        underTest.putAndWait(page = 1)
+        underTest.get(page = 0)
+
+        underTest.put(page = 2)
+        waitUntil { underTest.get(page = 2) != null }
+
+        assertThat(underTest.get(page = 1)).isNull()
+        assertThat(underTest.get(page = 0)).isNotNull()
+        assertThat(underTest.size).isAtMost(partBytes * 2)
+    }
+
+    @Test
+    fun `test that interrupted writes are deleted when the cache is opened`() {
+        directory.mkdirs()
+        val interrupted = File(directory, "part.png.tmp").apply { writeBytes(ByteArray(10)) }
+
+        val underTest = PageDiskCache(directory, Long.MAX_VALUE)
+
+        assertThat(underTest.size).isEqualTo(0L)
+        assertThat(interrupted.exists()).isFalse()
+    }
+
+    @Test
+    fun `test that a part which cannot be decoded is removed`() {
+        val underTest = PageDiskCache(directory, Long.MAX_VALUE)
+        underTest.putAndWait(page = 0)
+        directory.listFiles().orEmpty().forEach { it.writeBytes(ByteArray(10)) }
+
+        assertThat(underTest.get(page = 0)).isNull()
+        assertThat(directory.listFiles().orEmpty()).isEmpty()
+        assertThat(underTest.size).isEqualTo(0L)
+    }
+
+    companion object {
+        private const val DOCUMENT_KEY = "document"
+        private const val PART_SIZE = 16
+        private const val TIMEOUT_MILLIS = 5_000L
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.barteksc.pdfviewer
+
+import com.github.barteksc.pdfviewer.RenderingScheduler.Priority
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class RenderingSchedulerTest {
+
+    @Test
+    fun `test that visible parts are rendered before preloaded parts and thumbnails`() {
+        val underTest = RenderingScheduler(1)
+        val rendered = Collections.synchronizedList(mutableListOf<String>())
+        val workerBusy = CountDownLatch(1)
+        val done = CountDownLatch(4)
+
+        underTest.submit(Priority.VISIBLE) { workerBusy.await() }
+        underTest.submit(Priority.THUMBNAIL) { rendered.add("thumbnail"); done.countDown() }
+        underTest.submit(Priority.PRELOAD) { rendered.add("preload"); done.countDown() }
+        underTest.submit(Priority.VISIBLE) { rendered.add("visible 1"); done.countDown() }
+        underTest.submit(Priority.VISIBLE) { rendered.add("visible 2"); done.countDown() }
+        workerBusy.countDown()
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(rendered)
+            .containsExactly("visible 1", "visible 2", "preload", "thumbnail")
+            .inOrder()
+        underTest.shutdown()
+    }
+
+    @Test
+    fun `test that pending tasks are dropped when cancelled`() {
+        val underTest = RenderingScheduler(1)
+        val rendered = Collections.synchronizedList(mutableListOf<String>())
+        val workerBusy = CountDownLatch(1)
+        val done = CountDownLatch(1)
+
+        underTest.submit(Priority.VISIBLE) { workerBusy.await() }
+        underTest.submit(Priority.VISIBLE) { rendered.add("stale") }
+        underTest.cancelPendingTasks()
+        underTest.submit(Priority.VISIBLE) { rendered.add("current"); done.countDown() }
+        workerBusy.countDown()
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(rendered).containsExactly("current")
+        underTest.shutdown()
+    }
+}
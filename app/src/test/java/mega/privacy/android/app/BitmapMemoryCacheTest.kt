@@ -0,0 +1,130 @@
+package mega.privacy.android.app
+
+import android.graphics.Bitmap
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class BitmapMemoryCacheTest {
+
+    private var now = 1_000L
+
+    private val bitmapBytes = BITMAP_SIZE * BITMAP_SIZE * 4L
+
+    private fun createBitmap() =
+        Bitmap.createBitmap(BITMAP_SIZE, BITMAP_SIZE, Bitmap.Config.ARGB_8888)
+
+    private fun createCache(maxBytes: Long = bitmapBytes * 3) =
+        BitmapMemoryCache(maxBytes, TTL) { now }
+
+    @Test
+    fun `test that the least recently used bitmaps are evicted when over the byte budget`() {
+        val underTest = createCache()
+        val thumbnails = underTest.thumbnails
+        (1L..3L).forEach { thumbnails.put(it, createBitmap()) }
+        thumbnails.get(1L)
+
+        thumbnails.put(4L, createBitmap())
+
+        assertThat(thumbnails.get(1L)).isNotNull()
+        assertThat(thumbnails.get(2L)).isNull()
+        assertThat(underTest.evictionCount).isEqualTo(1)
+        assertThat(underTest.size).isEqualTo(bitmapBytes * 3)
+    }
+
+    @Test
+    fun `test that thumbnails and previews share the budget without sharing keys`() {
+        val underTest = createCache()
+        val thumbnail = createBitmap()
+        val preview = createBitmap()
+
+        underTest.thumbnails.put(1L, thumbnail)
+        underTest.previews.put(1L, preview)
+        underTest.thumbnails.put("/path", createBitmap())
+
+        assertThat(underTest.thumbnails.get(1L)).isSameInstanceAs(thumbnail)
+        assertThat(underTest.previews.get(1L)).isSameInstanceAs(preview)
+        assertThat(underTest.previews.get("/path")).isNull()
+        assertThat(underTest.size).isEqualTo(bitmapBytes * 3)
+    }
+
+    @Test
+    fun `test that hits and misses are counted`() {
+        val underTest = createCache()
+        underTest.thumbnails.put(1L, createBitmap())
+
+        underTest.thumbnails.get(1L)
+        underTest.thumbnails.get(2L)
+
+        assertThat(underTest.hitCount).isEqualTo(1)
+        assertThat(underTest.missCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that a missing bitmap is remembered until the ttl expires`() {
+        val thumbnails = createCache().thumbnails
+
+        thumbnails.put(1L, null)
+
+        assertThat(thumbnails.isMissing(1L)).isTrue()
+        assertThat(thumbnails.containsKey(1L)).isTrue()
+        now += TTL
+        assertThat(thumbnails.isMissing(1L)).isFalse()
+    }
+
+    @Test
+    fun `test that putting a bitmap clears the missing entry`() {
+        val thumbnails = createCache().thumbnails
+        thumbnails.put(1L, null)
+
+        thumbnails.put(1L, createBitmap())
+
+        assertThat(thumbnails.isMissing(1L)).isFalse()
+        assertThat(thumbnails.get(1L)).isNotNull()
+    }
+
+    @Test
+    fun `test that the negative cache stays bounded`() {
+        val misses = BitmapMemoryCache.NegativeCache(16, TTL) { now }
+
+        (0L until 1000L).forEach { misses.add(it) }
+
+        assertThat(misses.size()).isAtMost(16)
+        assertThat(misses.contains(999L)).isTrue()
+    }
+
+    @Test
+    fun `test that expired entries are dropped before the negative cache is cleared`() {
+        val misses = BitmapMemoryCache.NegativeCache(16, TTL) { now }
+        (0L until 8L).forEach { misses.add(it) }
+        now += TTL / 2
+        (8L until 16L).forEach { misses.add(it) }
+        now += TTL / 2
+
+        misses.add(16L)
+
+        assertThat(misses.size()).isEqualTo(9)
+        (8L..16L).forEach { assertThat(misses.contains(it)).isTrue() }
+    }
+
+    @Test
+    fun `test that removed handles are no longer found after collisions`() {
+        val misses = BitmapMemoryCache.NegativeCache(64, TTL) { now }
+        val handles = (0L until 64L).map { it shl 32 }
+        handles.forEach { misses.add(it) }
+
+        handles.filterIndexed { index, _ -> index % 2 == 0 }.forEach { misses.remove(it) }
+
+        handles.forEachIndexed { index, handle ->
+            assertThat(misses.contains(handle)).isEqualTo(index % 2 == 1)
+        }
+        assertThat(misses.size()).isEqualTo(32)
+    }
+
+    companion object {
+        private const val BITMAP_SIZE = 10
+        private const val TTL = 30_000L
+    }
+}
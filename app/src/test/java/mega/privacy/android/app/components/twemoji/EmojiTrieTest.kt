@@ -0,0 +1,117 @@
+package mega.privacy.android.app.components.twemoji
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.components.twemoji.emoji.Emoji
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.regex.Pattern
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmojiTrieTest {
+
+    private val emojiMap = LinkedHashMap<String, Emoji>().apply {
+        TwitterEmojiProvider().categories.forEach { category ->
+            category.emojis.forEach { emoji ->
+                put(emoji.unicode, emoji)
+                emoji.variants.forEach { put(it.unicode, it) }
+            }
+        }
+    }
+
+    private val underTest = EmojiTrie<Emoji>(emojiMap)
+
+    // The regular expressions EmojiManager used before
+    private val regex = emojiMap.keys.sortedByDescending { it.length }
+        .joinToString("|") { Pattern.quote(it) }
+    private val emojiPattern = Pattern.compile(regex)
+    private val emojiRepetitivePattern = Pattern.compile("($regex)+")
+    private val spaceRemoval = Pattern.compile("\\s")
+
+    private val thumbsUp = String(intArrayOf(0x1F44D), 0, 1)
+    private val thumbsUpDark = String(intArrayOf(0x1F44D, 0x1F3FF), 0, 2)
+    private val flagSpain = String(intArrayOf(0x1F1EA, 0x1F1F8), 0, 2)
+
+    @Test
+    fun `test that the longest emoji is found at each position`() {
+        val text = "Great $thumbsUpDark$thumbsUp and $flagSpain!"
+
+        val result = findAll(text)
+
+        assertThat(result.map { text.substring(it.start, it.end) })
+            .containsExactly(thumbsUpDark, thumbsUp, flagSpain).inOrder()
+        assertThat(result.map { it.emoji }).containsExactly(
+            emojiMap[thumbsUpDark],
+            emojiMap[thumbsUp],
+            emojiMap[flagSpain],
+        ).inOrder()
+    }
+
+    @Test
+    fun `test that no emoji is found in plain text`() {
+        val result = findAll("Hello world")
+
+        assertThat(result).isEmpty()
+    }
+
+    @Test
+    fun `test that texts of emojis and whitespace only are detected`() {
+        assertThat(underTest.isOnlyEmojis("$thumbsUp $flagSpain\n$thumbsUpDark")).isTrue()
+        assertThat(underTest.isOnlyEmojis("$thumbsUp ok")).isFalse()
+        assertThat(underTest.isOnlyEmojis(" \t ")).isFalse()
+        assertThat(underTest.isOnlyEmojis("${thumbsUp.first()}")).isFalse()
+    }
+
+    @Test
+    fun `test that the results match the previous regular expressions`() {
+        corpus().forEach { text ->
+            val result = findAll(text)
+            assertThat(result.map { it.start to it.end }).isEqualTo(findAllWithRegex(text))
+            assertThat(underTest.isOnlyEmojis(text)).isEqualTo(isOnlyEmojisWithRegex(text))
+        }
+    }
+
+    private fun findAll(text: String) = mutableListOf<EmojiRange>().also { result ->
+        underTest.findAll(text) { start, end, emoji -> result.add(EmojiRange(start, end, emoji)) }
+    }
+
+    private fun findAllWithRegex(text: String): List<Pair<Int, Int>> {
+        val matcher = emojiPattern.matcher(text)
+        return buildList {
+            while (matcher.find()) add(matcher.start() to matcher.end())
+        }
+    }
+
+    private fun isOnlyEmojisWithRegex(text: String) =
+        emojiRepetitivePattern.matcher(spaceRemoval.matcher(text).replaceAll("")).matches()
+
+    /**
+     * Chat messages of different lengths, mixing words, emojis and reactions only made of emojis
+     */
+    private fun corpus(): List<String> {
+        val random = Random(42)
+        val emojis = emojiMap.keys.toList()
+        val words = listOf(
+            "ok", "thanks", "see", "you", "tomorrow", "the", "meeting", "is", "at", "10:00",
+            "lol", "sure", "https://mega.nz/file/abc#key", "photo", "sent", "¿qué", "tal?",
+        )
+        return List(MESSAGES) { index ->
+            val onlyEmojis = index % 5 == 0
+            val tokens = random.nextInt(1, if (index % 20 == 0) 200 else 20)
+            buildString {
+                repeat(tokens) {
+                    if (it > 0 && random.nextInt(4) > 0) append(' ')
+                    if (onlyEmojis || random.nextInt(6) == 0) {
+                        append(emojis[random.nextInt(emojis.size)])
+                    } else {
+                        append(words[random.nextInt(words.size)])
+                    }
+                }
+            }
+        }
+    }
+
+    companion object {
+        private const val MESSAGES = 5_000
+    }
+}
@@ -0,0 +1,144 @@
+package mega.privacy.android.app.components.twemoji
+
+import com.google.common.truth.Truth.assertThat
+import com.google.gson.Gson
+import com.google.gson.reflect.TypeToken
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.io.File
+import java.util.regex.Pattern
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmojiUtilsShortcodesTest {
+
+    private val emojiData: List<EmojiShortcodes> = File(EMOJI_DATA).reader().use {
+        Gson().fromJson(it, object : TypeToken<ArrayList<EmojiShortcodes>>() {}.type)
+    }
+
+    private val smile = String(intArrayOf(0x1F604), 0, 1)
+    private val boy = String(intArrayOf(0x1F466), 0, 1)
+    private val family = String(intArrayOf(0x1F468, 0x200D, 0x1F469, 0x200D, 0x1F466), 0, 5)
+
+    @BeforeEach
+    fun setUp() {
+        EmojiManagerShortcodes.setEmojiData(emojiData)
+    }
+
+    @AfterAll
+    fun tearDown() {
+        EmojiManagerShortcodes.setEmojiData(null)
+    }
+
+    @Test
+    fun `test that emojis are found by unicode and alias`() {
+        assertThat(EmojiUtilsShortcodes.getEmoji(smile)?.aliases).containsExactly("smile")
+        assertThat(EmojiUtilsShortcodes.getEmoji("smile")?.emoji).isEqualTo(smile)
+        assertThat(EmojiUtilsShortcodes.getEmoji(":smile:")?.emoji).isEqualTo(smile)
+        assertThat(EmojiUtilsShortcodes.getEmoji("not_an_emoji")).isNull()
+    }
+
+    @Test
+    fun `test that the first emoji of the data is found as the linear search did`() {
+        emojiData.flatMap { it.aliases + it.emoji }.forEach { code ->
+            assertThat(EmojiUtilsShortcodes.getEmoji(code)).isSameInstanceAs(findLinear(code))
+        }
+    }
+
+    @Test
+    fun `test that emojis are found by html entity`() {
+        val json = """[{"emoji":"$smile","aliases":["smile"],"hexHtml":"&#x1f604;","decimalHtml":"&#128516;"}]"""
+        EmojiManagerShortcodes.setEmojiData(
+            Gson().fromJson(json, object : TypeToken<ArrayList<EmojiShortcodes>>() {}.type)
+        )
+
+        assertThat(EmojiUtilsShortcodes.getEmoji("&#X1F604;")?.emoji).isEqualTo(smile)
+        assertThat(EmojiUtilsShortcodes.emojify("a &#128516; b &#1;")).isEqualTo("a $smile b &#1;")
+    }
+
+    @Test
+    fun `test that emojify replaces the known short codes only`() {
+        assertThat(EmojiUtilsShortcodes.emojify("Hi :smile: :unknown: :boy:!"))
+            .isEqualTo("Hi $smile :unknown: $boy!")
+        assertThat(EmojiUtilsShortcodes.emojify(":p:smile:")).isEqualTo(":p:smile:")
+        assertThat(EmojiUtilsShortcodes.emojify("no codes here")).isEqualTo("no codes here")
+        assertThat(EmojiUtilsShortcodes.emojify(null)).isNull()
+    }
+
+    @Test
+    fun `test that short codify keeps joined emojis together`() {
+        assertThat(EmojiUtilsShortcodes.shortCodify("$family and $boy :smile:"))
+            .isEqualTo(":family_man_woman_boy: and :boy: :smile:")
+    }
+
+    @Test
+    fun `test that remove all emojis removes joined emojis`() {
+        assertThat(EmojiUtilsShortcodes.removeAllEmojis("a$family b$boy$smile c"))
+            .isEqualTo("a b c")
+    }
+
+    @Test
+    fun `test that emojify matches the previous regular expression on a chat history`() {
+        chatHistory().forEach { message ->
+            assertThat(EmojiUtilsShortcodes.emojify(message)).isEqualTo(emojifyWithRegex(message))
+        }
+    }
+
+    /**
+     * What getEmoji did before, comparing the code with every emoji
+     */
+    private fun findLinear(code: String) = emojiData.firstOrNull { emoji ->
+        listOfNotNull(
+            emoji.emoji,
+            emoji.hexHtml,
+            emoji.decimalHtml,
+            emoji.decimalSurrogateHtml,
+            emoji.hexHtmlShort,
+            emoji.decimalHtmlShort,
+        ).any { it.equals(code, ignoreCase = true) } || code in emoji.aliases
+    }
+
+    /**
+     * What emojify did before for the short codes, with a regular expression and linear lookups
+     */
+    private fun emojifyWithRegex(text: String): String {
+        val matcher = shortCodeOrHtmlEntity.matcher(text)
+        val sb = StringBuffer()
+        while (matcher.find()) {
+            val code = matcher.group()
+            val emoji = if (code.startsWith(":")) findLinear(code.trim(':')) else findLinear(code)
+            matcher.appendReplacement(sb, emoji?.emoji ?: code)
+        }
+        return matcher.appendTail(sb).toString()
+    }
+
+    /**
+     * Chat messages, contact names and attachment names with some short codes
+     */
+    private fun chatHistory(): List<String> {
+        val random = Random(42)
+        val aliases = emojiData.flatMap { it.aliases }.filter { it.matches(Regex("\\w+")) }
+        val words = listOf(
+            "hi", "see", "you", "at", "10:30", "the", "report.pdf", "thanks", "&amp;", "a:b",
+            "IMG_2024.jpg", "John", "meeting", "https://mega.nz/chat/abc", ":not_a_code:",
+        )
+        return List(MESSAGES) {
+            val tokens = random.nextInt(1, 30)
+            (0 until tokens).joinToString(" ") {
+                if (random.nextInt(8) == 0) {
+                    ":${aliases[random.nextInt(aliases.size)]}:"
+                } else {
+                    words[random.nextInt(words.size)]
+                }
+            }
+        }
+    }
+
+    companion object {
+        private const val EMOJI_DATA = "src/main/assets/emojisshortcodes/emoji.json"
+        private const val MESSAGES = 10_000
+        private val shortCodeOrHtmlEntity = Pattern.compile(":\\w+:|&#\\w+;")
+    }
+}
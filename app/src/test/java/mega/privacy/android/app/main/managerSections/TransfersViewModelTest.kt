@@ -33,6 +33,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.RegisterExtension
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -160,7 +161,7 @@ internal class TransfersViewModelTest {
         runTest {
             val completedTransfer = mock<CompletedTransfer>()
             val completedTransfers = listOf(completedTransfer)
-            whenever(getAllCompletedTransfersUseCase(TransfersViewModel.MAX_TRANSFERS)).thenReturn(
+            whenever(getAllCompletedTransfersUseCase(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE)).thenReturn(
                 flowOf(completedTransfers)
             )
             initViewModel()
@@ -170,6 +171,38 @@ internal class TransfersViewModelTest {
             }
         }
 
+    @Test
+    fun `test that the next page of completed transfers is loaded when the current page is full`() =
+        runTest {
+            val pageSize = TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE
+            val firstPage = List(pageSize) { mock<CompletedTransfer>() }
+            val secondPage = firstPage + mock<CompletedTransfer>()
+            whenever(getAllCompletedTransfersUseCase(pageSize)).thenReturn(flowOf(firstPage))
+            whenever(getAllCompletedTransfersUseCase(pageSize * 2)).thenReturn(flowOf(secondPage))
+            initViewModel()
+            advanceUntilIdle()
+
+            underTest.loadMoreCompletedTransfers()
+            advanceUntilIdle()
+
+            assertThat(underTest.completedTransfers.value).isEqualTo(secondPage)
+        }
+
+    @Test
+    fun `test that no more completed transfers are loaded when the current page is not full`() =
+        runTest {
+            val pageSize = TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE
+            whenever(getAllCompletedTransfersUseCase(pageSize))
+                .thenReturn(flowOf(listOf(mock())))
+            initViewModel()
+            advanceUntilIdle()
+
+            underTest.loadMoreCompletedTransfers()
+            advanceUntilIdle()
+
+            verify(getAllCompletedTransfersUseCase, never()).invoke(pageSize * 2)
+        }
+
     @Test
     fun `test that deleteCompletedTransferUseCase invoke success when deleteCompletedTransfer is called`() =
         runTest {
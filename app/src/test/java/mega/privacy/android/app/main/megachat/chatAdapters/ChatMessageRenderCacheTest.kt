@@ -0,0 +1,121 @@
+package mega.privacy.android.app.main.megachat.chatAdapters
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.components.twemoji.EmojiUtilsShortcodes
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChatMessageRenderCacheTest {
+
+    private var renders = 0
+
+    private val render: (String) -> ChatMessageRenderCache.RenderedMessage = { raw ->
+        renders++
+        val content = EmojiUtilsShortcodes.emojify(raw)
+        val hasUrl = urlRegex.containsMatchIn(content)
+        ChatMessageRenderCache.RenderedMessage(
+            content = content,
+            text = if (hasUrl) content else content.trim(),
+            hasUrl = hasUrl,
+            isOnlyEmojis = false,
+            numEmojis = EmojiUtilsShortcodes.countEmojis(content),
+        )
+    }
+
+    private fun TestScope.initUnderTest(maxSize: Int = ChatMessageRenderCache.DEFAULT_MAX_SIZE) =
+        ChatMessageRenderCache(
+            scope = this,
+            dispatcher = StandardTestDispatcher(testScheduler),
+            maxSize = maxSize,
+            render = render,
+        ).also { renders = 0 }
+
+    @Test
+    fun `test that prefetched messages are not rendered when bound`() = runTest {
+        val underTest = initUnderTest()
+        underTest.prefetch(messages(10))
+        advanceUntilIdle()
+
+        messages(10).forEach { (msgId, content) -> underTest.get(msgId, content) }
+
+        assertThat(renders).isEqualTo(10)
+        assertThat(underTest.misses).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that an edited message is rendered again`() = runTest {
+        val underTest = initUnderTest()
+        val original = underTest.get(1L, "hello https://mega.nz")
+
+        val edited = underTest.get(1L, "hello again")
+
+        assertThat(original.hasUrl).isTrue()
+        assertThat(edited.content).isEqualTo("hello again")
+        assertThat(edited.hasUrl).isFalse()
+        assertThat(renders).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that changing the style drops the rendered messages`() = runTest {
+        val underTest = initUnderTest()
+        underTest.setStyle(1)
+        underTest.get(1L, "hello")
+        underTest.get(1L, "hello")
+
+        underTest.setStyle(2)
+        underTest.get(1L, "hello")
+
+        assertThat(renders).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that a prefetch rendered with a previous style is not kept`() = runTest {
+        val underTest = initUnderTest()
+        underTest.setStyle(1)
+        underTest.prefetch(messages(5))
+        underTest.setStyle(2)
+        advanceUntilIdle()
+
+        messages(5).forEach { (msgId, content) -> underTest.get(msgId, content) }
+
+        assertThat(underTest.misses).isEqualTo(5)
+    }
+
+    @Test
+    fun `test that the least recently used messages are evicted`() = runTest {
+        val underTest = initUnderTest(maxSize = 2)
+        underTest.get(1L, "one")
+        underTest.get(2L, "two")
+        underTest.get(1L, "one")
+        underTest.get(3L, "three")
+
+        underTest.get(1L, "one")
+        underTest.get(2L, "two")
+
+        assertThat(underTest.misses).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that a new prefetch replaces the previous one`() = runTest {
+        val underTest = initUnderTest()
+        underTest.prefetch(messages(5))
+        underTest.prefetch(messages(2))
+        advanceUntilIdle()
+
+        assertThat(renders).isEqualTo(2)
+    }
+
+    private fun messages(count: Int) =
+        List(count) { ChatMessageRenderCache.Message(it.toLong(), "message $it :smile:") }
+
+    companion object {
+        private val urlRegex = Regex("https?://\\S+")
+    }
+}
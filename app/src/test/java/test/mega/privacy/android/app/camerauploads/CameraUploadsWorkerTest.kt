@@ -15,11 +15,13 @@ import androidx.work.impl.utils.taskexecutor.WorkManagerTaskExecutor
 import androidx.work.workDataOf
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.channelFlow
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
@@ -219,6 +221,11 @@ class CameraUploadsWorkerTest {
     private val primaryLocalPath = "primaryPath"
     private val tempPath = "tempPath"
 
+    /**
+     * Records collected by the upload use case, once prepared by the worker
+     */
+    private var preparedRecords: List<CameraUploadsRecord>? = null
+
 
     @Before
     fun setUp() {
@@ -337,6 +344,8 @@ class CameraUploadsWorkerTest {
 
 
         // mock upload process
+        whenever(doesCameraUploadsRecordExistsInTargetNodeUseCase(any(), any(), any(), any()))
+            .thenReturn(emptyFlow())
         whenever(createCameraUploadTemporaryRootDirectoryUseCase()).thenReturn(tempPath)
         whenever(getUploadFolderHandleUseCase(CameraUploadFolderType.Primary))
             .thenReturn(primaryNodeHandle)
@@ -355,19 +364,34 @@ class CameraUploadsWorkerTest {
             whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(list)
             whenever(
                 renameCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
+                    eq(list),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    any(),
                 )
             ).thenReturn(list)
             whenever(
                 doesCameraUploadsRecordExistsInTargetNodeUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
+                    eq(list),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    any(),
                 )
-            ).thenReturn(list)
+            ).thenReturn(flowOf(list))
             whenever(extractGpsCoordinatesUseCase(list)).thenReturn(list)
+            whenever(
+                uploadCameraUploadsRecordsUseCase(
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
+                )
+            ).thenAnswer {
+                val records = it.getArgument<Flow<CameraUploadsRecord>>(0)
+                flow<CameraUploadsTransferProgress> {
+                    preparedRecords = records.toList()
+                }
+            }
         }
 
     @Test
@@ -426,9 +450,13 @@ class CameraUploadsWorkerTest {
             inOrder.verify(processCameraUploadsMediaUseCase).invoke(tempPath)
             inOrder.verify(getPendingCameraUploadsRecordsUseCase).invoke()
             inOrder.verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
-                .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
-            inOrder.verify(renameCameraUploadsRecordsUseCase)
-                .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
+                .invoke(eq(list), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)), any())
+            inOrder.verify(renameCameraUploadsRecordsUseCase).invoke(
+                eq(list),
+                eq(NodeId(primaryNodeHandle)),
+                eq(NodeId(secondaryNodeHandle)),
+                any(),
+            )
             inOrder.verify(extractGpsCoordinatesUseCase).invoke(list)
         }
 
@@ -449,10 +477,14 @@ class CameraUploadsWorkerTest {
 
             inOrder.verify(processCameraUploadsMediaUseCase).invoke(tempPath)
             inOrder.verify(getPendingCameraUploadsRecordsUseCase).invoke()
-            inOrder.verify(renameCameraUploadsRecordsUseCase, never())
-                .invoke(any(), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)))
+            inOrder.verify(renameCameraUploadsRecordsUseCase, never()).invoke(
+                any(),
+                eq(NodeId(primaryNodeHandle)),
+                eq(NodeId(secondaryNodeHandle)),
+                any(),
+            )
             inOrder.verify(doesCameraUploadsRecordExistsInTargetNodeUseCase, never())
-                .invoke(any(), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)))
+                .invoke(any(), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)), any())
             inOrder.verify(extractGpsCoordinatesUseCase, never()).invoke(any())
         }
 
@@ -500,8 +532,7 @@ class CameraUploadsWorkerTest {
 
         underTest.doWork()
 
-        verify(uploadCameraUploadsRecordsUseCase)
-            .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle), tempPath)
+        assertThat(preparedRecords).isEqualTo(list)
     }
 
     @Test
@@ -549,10 +580,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val currentTime = 10000L
@@ -624,10 +655,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -667,10 +698,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -707,10 +738,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val currentTime = 10000L
@@ -778,10 +809,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterCompressionProgressEventData = workDataOf(
@@ -827,10 +858,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterInsufficientStorageEventData = workDataOf(
@@ -872,10 +903,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterInsufficientStorageEventData = workDataOf(
@@ -909,10 +940,10 @@ class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -946,7 +977,7 @@ class CameraUploadsWorkerTest {
             underTest.doWork()
 
             verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
-                .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
+                .invoke(eq(expected), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)), any())
         }
 
     @Test
@@ -979,7 +1010,7 @@ class CameraUploadsWorkerTest {
             val expected = list.filter { it.type == CameraUploadsRecordType.TYPE_PHOTO }
             verify(underTest).setProgress(workDataOf(STATUS_INFO to COMPRESSION_ERROR))
             verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
-                .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
+                .invoke(eq(expected), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)), any())
         }
 
     @Test
@@ -1009,7 +1040,7 @@ class CameraUploadsWorkerTest {
             underTest.doWork()
 
             verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
-                .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
+                .invoke(eq(expected), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)), any())
         }
 
     @Test
@@ -1443,10 +1474,10 @@ class CameraUploadsWorkerTest {
             whenever(getTransferByTagUseCase(uploadTag)).thenReturn(transfer)
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -1,8 +1,12 @@
 package test.mega.privacy.android.app.fetcher
 
+import android.content.Context
+import coil.fetch.SourceResult
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.app.fetcher.MegaThumbnailFetcher
 import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailRequest
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetPackedThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
 import org.junit.jupiter.api.BeforeAll
@@ -10,17 +14,24 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
 import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
+import java.io.File
+import java.nio.ByteBuffer
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class MegaThumbnailFetcherTest {
     private val request: ThumbnailRequest = mock()
     private val getThumbnailUseCase: GetThumbnailUseCase = mock()
     private val getPublicNodeThumbnailUseCase: GetPublicNodeThumbnailUseCase = mock()
+    private val getPackedThumbnailUseCase: GetPackedThumbnailUseCase = mock()
+    private val context: Context = mock()
     private lateinit var underTest: MegaThumbnailFetcher
 
     @BeforeAll
@@ -28,7 +39,8 @@ class MegaThumbnailFetcherTest {
         underTest = MegaThumbnailFetcher(
             request,
             { getThumbnailUseCase },
-            { getPublicNodeThumbnailUseCase }
+            { getPublicNodeThumbnailUseCase },
+            context,
         )
     }
 
@@ -36,14 +48,16 @@ class MegaThumbnailFetcherTest {
     fun resetMocks() = reset(
         request,
         getThumbnailUseCase,
-        getPublicNodeThumbnailUseCase
+        getPublicNodeThumbnailUseCase,
+        getPackedThumbnailUseCase,
+        context,
     )
 
     @Test
     fun `test that throw NullPointerException when fetch cloud drive node and getThumbnailUseCase returns null`() =
         runTest {
             whenever(request.isPublicNode).thenReturn(true)
-            whenever(getPublicNodeThumbnailUseCase(any(), any())).thenReturn(null)
+            whenever(getPublicNodeThumbnailUseCase(any(), any(), any())).thenReturn(null)
             assertThrows<NullPointerException> { underTest.fetch() }
             verifyNoInteractions(getThumbnailUseCase)
         }
@@ -52,8 +66,66 @@ class MegaThumbnailFetcherTest {
     fun `test that throw NullPointerException when fetch public node and getPublicNodeThumbnailUseCase returns null`() =
         runTest {
             whenever(request.isPublicNode).thenReturn(false)
-            whenever(getThumbnailUseCase(any(), any())).thenReturn(null)
+            whenever(getThumbnailUseCase(any(), any(), any())).thenReturn(null)
             assertThrows<NullPointerException> { underTest.fetch() }
             verifyNoInteractions(getPublicNodeThumbnailUseCase)
         }
-}
\ No newline at end of file
+
+    @Test
+    fun `test that prefetch requests are passed to getThumbnailUseCase`() = runTest {
+        whenever(request.isPublicNode).thenReturn(false)
+        whenever(getThumbnailUseCase(any(), any(), any())).thenReturn(null)
+        val prefetcher = MegaThumbnailFetcher(
+            request,
+            { getThumbnailUseCase },
+            { getPublicNodeThumbnailUseCase },
+            context,
+            isPrefetch = true,
+        )
+
+        assertThrows<NullPointerException> { prefetcher.fetch() }
+        verify(getThumbnailUseCase).invoke(any(), eq(true), eq(true))
+    }
+
+    @Test
+    fun `test that the packed thumbnail is read when the packed thumbnail store is enabled`(
+        @TempDir cacheDir: File,
+    ) = runTest {
+        val bytes = byteArrayOf(1, 2, 3)
+        whenever(request.isPublicNode).thenReturn(false)
+        whenever(context.cacheDir).thenReturn(cacheDir)
+        whenever(getPackedThumbnailUseCase(any(), any(), any()))
+            .thenReturn(ByteBuffer.wrap(bytes).asReadOnlyBuffer())
+        val fetcher = MegaThumbnailFetcher(
+            request,
+            { getThumbnailUseCase },
+            { getPublicNodeThumbnailUseCase },
+            context,
+            getPackedThumbnailUseCase = { getPackedThumbnailUseCase },
+        )
+
+        val result = fetcher.fetch() as SourceResult
+
+        assertThat(result.mimeType).isEqualTo("image/jpeg")
+        assertThat(result.source.source().readByteArray()).isEqualTo(bytes)
+        verifyNoInteractions(getThumbnailUseCase)
+    }
+
+    @Test
+    fun `test that the thumbnail file is read when the packed thumbnail cannot be got`() =
+        runTest {
+            whenever(request.isPublicNode).thenReturn(false)
+            whenever(getPackedThumbnailUseCase(any(), any(), any())).thenReturn(null)
+            whenever(getThumbnailUseCase(any(), any(), any())).thenReturn(null)
+            val fetcher = MegaThumbnailFetcher(
+                request,
+                { getThumbnailUseCase },
+                { getPublicNodeThumbnailUseCase },
+                context,
+                getPackedThumbnailUseCase = { getPackedThumbnailUseCase },
+            )
+
+            assertThrows<NullPointerException> { fetcher.fetch() }
+            verify(getThumbnailUseCase).invoke(any(), eq(true), eq(false))
+        }
+}
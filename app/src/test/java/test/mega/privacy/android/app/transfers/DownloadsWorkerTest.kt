@@ -55,6 +55,7 @@ import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
@@ -214,21 +215,32 @@ class DownloadsWorkerTest {
     }
 
     @Test
-    fun `test that notification is updated when transfer totals are updated`() = runTest {
-        val initial: ActiveTransferTotals = mockActiveTransferTotals(false)
-        val transferTotals = (0..10).map {
-            mockActiveTransferTotals(false)
-        }.plus(mockActiveTransferTotals(true))
-        commonStub(
-            initialTransferTotals = initial,
-            transferTotals = transferTotals,
-        )
-        underTest.doWork()
-        verify(downloadNotificationMapper, atLeastOnce()).invoke(initial, false)
-        transferTotals.forEach {
-            verify(downloadNotificationMapper).invoke(it, false)
+    fun `test that notification is updated with the latest transfer totals when transfer totals are updated`() =
+        runTest {
+            val initial: ActiveTransferTotals = mockActiveTransferTotals(false)
+            val transferTotals = (0..10).map {
+                mockActiveTransferTotals(false)
+            }.plus(mockActiveTransferTotals(true))
+            commonStub(
+                initialTransferTotals = initial,
+                transferTotals = transferTotals,
+            )
+            underTest.doWork()
+            verify(downloadNotificationMapper, atLeastOnce()).invoke(initial, false)
+            verify(downloadNotificationMapper).invoke(transferTotals.last(), false)
+        }
+
+    @Test
+    fun `test that transfer totals received faster than the update interval are coalesced`() =
+        runTest {
+            val transferTotals = (0..10).map {
+                mockActiveTransferTotals(false)
+            }.plus(mockActiveTransferTotals(true))
+            commonStub(transferTotals = transferTotals)
+            underTest.doWork()
+            verify(downloadNotificationMapper, never()).invoke(transferTotals[5], false)
+            verify(downloadNotificationMapper).invoke(transferTotals.last(), false)
         }
-    }
 
     @Test
     fun `test that overQuotaNotificationBuilder is invoked when transfers finishes with incomplete transfers and over quota true`() =
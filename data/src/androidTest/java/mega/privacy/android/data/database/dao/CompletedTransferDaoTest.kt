@@ -203,4 +203,43 @@ class CompletedTransferDaoTest {
 
         assertThat(completedTransferDao.getCompletedTransfersCount()).isEqualTo(expected)
     }
+
+    @Test
+    fun test_that_getLatest_returns_the_last_inserted_items_first() = runTest {
+        insertTransfers(10)
+
+        val actual = completedTransferDao.getLatestCompletedTransfers(3).first()
+
+        assertThat(actual.map { it.fileName }).containsExactly("10.jpg", "9.jpg", "8.jpg")
+            .inOrder()
+    }
+
+    @Test
+    fun test_that_deleteOldest_keeps_the_last_inserted_items() = runTest {
+        insertTransfers(10)
+
+        val deleted = completedTransferDao.deleteOldestCompletedTransfers(4)
+
+        assertThat(deleted).isEqualTo(6)
+        assertThat(completedTransferDao.getAllCompletedTransfers().first().map { it.fileName })
+            .containsExactly("7.jpg", "8.jpg", "9.jpg", "10.jpg")
+    }
+
+    private suspend fun insertTransfers(count: Int) = (1..count).forEach {
+        completedTransferDao.insertOrUpdateCompletedTransfer(
+            CompletedTransferEntity(
+                fileName = "$it.jpg",
+                type = "1",
+                state = "6",
+                size = "3.57 MB",
+                handle = "27169983390750",
+                path = "Cloud drive/Camera uploads",
+                isOffline = "false",
+                timestamp = "1684228012974",
+                error = "No error",
+                originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/$it.jpg",
+                parentHandle = "11622336899311",
+            )
+        )
+    }
 }
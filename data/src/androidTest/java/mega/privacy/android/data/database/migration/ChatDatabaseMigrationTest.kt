@@ -0,0 +1,67 @@
+package mega.privacy.android.data.database.migration
+
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import mega.privacy.android.data.database.chat.ChatDatabase
+import mega.privacy.android.data.database.converter.TypedMessageEntityConverters
+import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.IOException
+
+@RunWith(AndroidJUnit4::class)
+class ChatDatabaseMigrationTest {
+    private val testDatabaseName = "chat-migration-test"
+    private val converters = TypedMessageEntityConverters()
+
+    @get:Rule
+    val helper: MigrationTestHelper = MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(),
+        ChatDatabase::class.java,
+        emptyList(),
+        FrameworkSQLiteOpenHelperFactory(),
+    )
+
+    @Test
+    @Throws(IOException::class)
+    fun migrate1To2() {
+        helper.createDatabase(testDatabaseName, 1).apply {
+            execSQL(
+                """
+                INSERT INTO typed_messages VALUES (
+                    1, 2, 'SERVER_RECEIVED', 3, 4, 5, 'NORMAL', 1, 6, 'Hi', 0, 0, 1, 1, 0, 7,
+                    'STANDARD', 'INVALID_FORMAT', 2, '8,9', 'John,Jane', 'john@mega.nz,jane@mega.nz',
+                    '', 0, 0, 'INVALID', 10, 'CONTENT', 1, 1, 'Hi', ?, 1
+                )
+                """.trimIndent(),
+                arrayOf(
+                    """{"reaction":"a","count":2,"userHandles":[8,9],"hasMe":true};""" +
+                            """{"reaction":"b","count":1,"userHandles":[8],"hasMe":false}"""
+                )
+            )
+            close()
+        }
+
+        val db = helper.runMigrationsAndValidate(testDatabaseName, 2, true, *ChatDatabase.MIGRATIONS)
+        db.query("SELECT userHandles, userNames, userEmails, reactions FROM typed_messages").use {
+            it.moveToFirst()
+            assert(it.count == 1)
+            assert(converters.convertToLongList(it.getString(0)) == listOf(8L, 9L))
+            assert(converters.convertToStringList(it.getString(1)) == listOf("John", "Jane"))
+            assert(
+                converters.convertToStringList(it.getString(2))
+                        == listOf("john@mega.nz", "jane@mega.nz")
+            )
+            assert(
+                converters.convertToMessageReactionList(it.getString(3)) == listOf(
+                    Reaction("a", 2, listOf(8L, 9L), true),
+                    Reaction("b", 1, listOf(8L), false),
+                )
+            )
+            assert(!it.getString(3).startsWith("{"))
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package mega.privacy.android.data.facade
+
+import android.content.ContentProvider
+import android.content.ContentValues
+import android.content.Context
+import android.content.ContextWrapper
+import android.content.Intent
+import android.content.pm.ProviderInfo
+import android.database.Cursor
+import android.database.sqlite.SQLiteDatabase
+import android.net.Uri
+import android.os.Bundle
+import android.provider.MediaStore
+import android.test.mock.MockContentResolver
+import android.util.Log
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import kotlin.system.measureNanoTime
+
+/**
+ * Benchmark comparing a full scan with an incremental scan of [CameraUploadsMediaFacade]
+ * on a synthetic media store of [MEDIA_COUNT] rows
+ */
+@RunWith(AndroidJUnit4::class)
+class CameraUploadsMediaFacadeBenchmarkTest {
+
+    private lateinit var provider: SyntheticMediaStoreProvider
+    private lateinit var underTest: CameraUploadsMediaFacade
+
+    private val uri = MediaStore.Images.Media.EXTERNAL_CONTENT_URI
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        provider = SyntheticMediaStoreProvider().apply {
+            attachInfo(context, ProviderInfo().apply { authority = MediaStore.AUTHORITY })
+            insertMedia(MEDIA_COUNT)
+        }
+        val contentResolver = MockContentResolver(context).apply {
+            addProvider(MediaStore.AUTHORITY, provider)
+        }
+        underTest = CameraUploadsMediaFacade(
+            context = object : ContextWrapper(context) {
+                override fun getContentResolver() = contentResolver
+            }
+        )
+    }
+
+    @After
+    fun tearDown() {
+        provider.shutdown()
+    }
+
+    @Test
+    fun test_that_an_incremental_scan_is_faster_than_a_full_scan() = runBlocking {
+        val selectionQuery = underTest.getMediaSelectionQuery(PARENT_PATH)
+        val initialScan = underTest.scanMedia(uri, selectionQuery, null)
+        assertThat(initialScan.media).hasSize(MEDIA_COUNT)
+
+        provider.insertMedia(NEW_MEDIA_COUNT)
+
+        val fullScanTimes = (1..ITERATIONS).map {
+            measureNanoTime {
+                assertThat(underTest.scanMedia(uri, selectionQuery, null).media)
+                    .hasSize(MEDIA_COUNT + NEW_MEDIA_COUNT)
+            }
+        }
+        val incrementalScanTimes = (1..ITERATIONS).map {
+            measureNanoTime {
+                assertThat(underTest.scanMedia(uri, selectionQuery, initialScan.watermark).media)
+                    .hasSize(NEW_MEDIA_COUNT)
+            }
+        }
+
+        val fullScanMedian = fullScanTimes.sorted()[ITERATIONS / 2]
+        val incrementalScanMedian = incrementalScanTimes.sorted()[ITERATIONS / 2]
+        Log.i(
+            TAG,
+            "Full scan: ${fullScanMedian / 1_000_000} ms, " +
+                    "incremental scan: ${incrementalScanMedian / 1_000_000} ms " +
+                    "($MEDIA_COUNT rows, $NEW_MEDIA_COUNT new)"
+        )
+        assertThat(incrementalScanMedian).isLessThan(fullScanMedian)
+    }
+
+    /**
+     * Media store provider backed by an in-memory database, exposing the columns used by
+     * [CameraUploadsMediaFacade]
+     */
+    private class SyntheticMediaStoreProvider : ContentProvider() {
+        private lateinit var database: SQLiteDatabase
+        private var mediaCount = 0L
+
+        override fun onCreate(): Boolean {
+            database = SQLiteDatabase.create(null).apply {
+                execSQL(
+                    "CREATE TABLE media (" +
+                            "${MediaStore.MediaColumns._ID} INTEGER PRIMARY KEY, " +
+                            "${MediaStore.MediaColumns.DISPLAY_NAME} TEXT, " +
+                            "${MediaStore.MediaColumns.DATA} TEXT, " +
+                            "${MediaStore.MediaColumns.DATE_ADDED} INTEGER, " +
+                            "${MediaStore.MediaColumns.DATE_MODIFIED} INTEGER, " +
+                            "${MediaStore.MediaColumns.VOLUME_NAME} TEXT, " +
+                            "${MediaStore.MediaColumns.GENERATION_MODIFIED} INTEGER)"
+                )
+                execSQL("CREATE INDEX generation_index ON media (${MediaStore.MediaColumns.GENERATION_MODIFIED})")
+                execSQL("CREATE INDEX date_added_index ON media (${MediaStore.MediaColumns.DATE_ADDED})")
+                execSQL("CREATE INDEX date_modified_index ON media (${MediaStore.MediaColumns.DATE_MODIFIED})")
+            }
+            return true
+        }
+
+        fun insertMedia(count: Int) {
+            database.beginTransaction()
+            try {
+                repeat(count) {
+                    mediaCount++
+                    database.insert("media", null, ContentValues().apply {
+                        put(MediaStore.MediaColumns._ID, mediaCount)
+                        put(MediaStore.MediaColumns.DISPLAY_NAME, "IMG_$mediaCount.jpg")
+                        put(MediaStore.MediaColumns.DATA, "${PARENT_PATH}IMG_$mediaCount.jpg")
+                        put(MediaStore.MediaColumns.DATE_ADDED, BASE_DATE + mediaCount)
+                        put(MediaStore.MediaColumns.DATE_MODIFIED, BASE_DATE + mediaCount)
+                        put(MediaStore.MediaColumns.VOLUME_NAME, MediaStore.VOLUME_EXTERNAL_PRIMARY)
+                        put(MediaStore.MediaColumns.GENERATION_MODIFIED, mediaCount)
+                    })
+                }
+                database.setTransactionSuccessful()
+            } finally {
+                database.endTransaction()
+            }
+        }
+
+        override fun query(
+            uri: Uri,
+            projection: Array<out String>?,
+            selection: String?,
+            selectionArgs: Array<out String>?,
+            sortOrder: String?,
+        ): Cursor = database.query("media", projection, selection, selectionArgs, null, null, sortOrder)
+
+        override fun call(method: String, arg: String?, extras: Bundle?): Bundle =
+            Bundle().apply { putString(Intent.EXTRA_TEXT, VOLUME_VERSION) }
+
+        override fun shutdown() {
+            database.close()
+        }
+
+        override fun getType(uri: Uri): String? = null
+
+        override fun insert(uri: Uri, values: ContentValues?): Uri? = null
+
+        override fun delete(uri: Uri, selection: String?, selectionArgs: Array<out String>?) = 0
+
+        override fun update(
+            uri: Uri,
+            values: ContentValues?,
+            selection: String?,
+            selectionArgs: Array<out String>?,
+        ) = 0
+    }
+
+    companion object {
+        private const val TAG = "CameraUploadsMediaFacadeBenchmark"
+        private const val MEDIA_COUNT = 100_000
+        private const val NEW_MEDIA_COUNT = 100
+        private const val ITERATIONS = 5
+        private const val BASE_DATE = 1_600_000_000L
+        private const val PARENT_PATH = "/storage/emulated/0/DCIM/Camera/"
+        private const val VOLUME_VERSION = "version"
+    }
+}
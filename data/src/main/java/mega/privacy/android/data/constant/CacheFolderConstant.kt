@@ -35,4 +35,14 @@ object CacheFolderConstant {
      * Camera Uploads Cache Folder
      */
     const val CAMERA_UPLOADS_CACHE_FOLDER = "cu"
-}
\ No newline at end of file
+
+    /**
+     * Timeline index Folder
+     */
+    const val TIMELINE_FOLDER = "timelineMEGA"
+
+    /**
+     * Packed thumbnails Folder
+     */
+    const val PACKED_THUMBNAIL_FOLDER = "thumbnailsPackedMEGA"
+}
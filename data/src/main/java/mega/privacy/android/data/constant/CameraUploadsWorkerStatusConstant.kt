@@ -65,6 +65,11 @@ object CameraUploadsWorkerStatusConstant {
      */
     const val FOLDER_UNAVAILABLE = "folder_unavailable"
 
+    /**
+     * PREPARATION_METRICS key
+     */
+    const val PREPARATION_METRICS = "preparation_metrics"
+
     /**
      * TOTAL_UPLOADED key
      */
@@ -115,4 +120,19 @@ object CameraUploadsWorkerStatusConstant {
      * FINISHED_REASON key
      */
     const val FINISHED_REASON = "finished_reason"
+
+    /**
+     * TIME_TO_FIRST_RECORD key
+     */
+    const val TIME_TO_FIRST_RECORD = "time_to_first_record"
+
+    /**
+     * TOTAL_PREPARED key
+     */
+    const val TOTAL_PREPARED = "total_prepared"
+
+    /**
+     * STAGE_DURATION key prefix, followed by the name of the preparation stage
+     */
+    const val STAGE_DURATION = "stage_duration_"
 }
@@ -10,27 +10,45 @@ import javax.inject.Singleton
 
 /**
  * Decrypt the data encrypted by EncryptData
+ *
+ * Each thread keeps its own initialised cipher, as the cipher is back to its initial state after
+ * each value.
  */
 @Suppress("RedundantSuspendModifier")
 @Singleton
 class DecryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    @Named("aes_key") aesKey: ByteArray,
 ) {
+    private val keySpec = SecretKeySpec(aesKey, "AES")
+
+    private val cipher = ThreadLocal.withInitial {
+        Cipher.getInstance("AES").apply { init(Cipher.DECRYPT_MODE, keySpec) }
+    }
+
     /**
      * Invoke
      * @param data encrypted String
      * @return decrypted data
      */
-    suspend operator fun invoke(data: String?) = data?.let {
-        runCatching {
-            val encoded = Base64.decode(data, Base64.DEFAULT)
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec)
-            val original = cipher.doFinal(encoded)
-            String(original)
-        }.onFailure {
-            Timber.e(it, "Error decrypting DB field")
-        }.getOrNull()
-    }
-}
\ No newline at end of file
+    suspend operator fun invoke(data: String?) = data?.let { decrypt(it) }
+
+    /**
+     * Decrypt a list of values in one pass
+     * @param data encrypted Strings
+     * @return decrypted data, in the same order, null for the values that cannot be decrypted
+     */
+    suspend operator fun invoke(data: List<String?>): List<String?> =
+        data.map { value -> value?.let { decrypt(it) } }
+
+    /**
+     * The cipher is fetched for each value, as it is replaced after a failure
+     */
+    private fun decrypt(data: String) = runCatching {
+        val encoded = Base64.decode(data, Base64.DEFAULT)
+        String(cipher.get().doFinal(encoded))
+    }.onFailure {
+        // The cipher state is unknown after a failure
+        cipher.remove()
+        Timber.e(it, "Error decrypting DB field")
+    }.getOrNull()
+}
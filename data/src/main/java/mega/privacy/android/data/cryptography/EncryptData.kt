@@ -10,26 +10,45 @@ import javax.inject.Singleton
 
 /**
  * Class to encrypt given value
+ *
+ * Each thread keeps its own initialised cipher, as the cipher is back to its initial state after
+ * each value.
  */
 @Suppress("RedundantSuspendModifier")
 @Singleton
 class EncryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    @Named("aes_key") aesKey: ByteArray,
 ) {
+    private val keySpec = SecretKeySpec(aesKey, "AES")
+
+    private val cipher = ThreadLocal.withInitial {
+        Cipher.getInstance("AES").apply { init(Cipher.ENCRYPT_MODE, keySpec) }
+    }
+
     /**
      * Invoke
      * @param data string to be encrypted
      * @return encrypted value
      */
-    suspend operator fun invoke(data: String?) = data?.let {
-        runCatching {
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.ENCRYPT_MODE, skeySpec)
-            val encrypted = cipher.doFinal(it.toByteArray())
-            Base64.encodeToString(encrypted, Base64.DEFAULT)
-        }.onFailure {
-            Timber.e(it, "Error encrypting DB field")
-        }.getOrNull()
-    }
-}
\ No newline at end of file
+    suspend operator fun invoke(data: String?) = data?.let { encrypt(it) }
+
+    /**
+     * Encrypt a list of values in one pass
+     * @param data strings to be encrypted
+     * @return encrypted values, in the same order, null for the values that cannot be encrypted
+     */
+    suspend operator fun invoke(data: List<String?>): List<String?> =
+        data.map { value -> value?.let { encrypt(it) } }
+
+    /**
+     * The cipher is fetched for each value, as it is replaced after a failure
+     */
+    private fun encrypt(data: String) = runCatching {
+        val encrypted = cipher.get().doFinal(data.toByteArray())
+        Base64.encodeToString(encrypted, Base64.DEFAULT)
+    }.onFailure {
+        // The cipher state is unknown after a failure
+        cipher.remove()
+        Timber.e(it, "Error encrypting DB field")
+    }.getOrNull()
+}
@@ -4,7 +4,10 @@ import android.content.Context
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
 import androidx.sqlite.db.SupportSQLiteOpenHelper
+import mega.privacy.android.data.database.converter.TypedMessageColumnCodec
 import mega.privacy.android.data.database.dao.ChatMessageMetaDao
 import mega.privacy.android.data.database.dao.ChatNodeDao
 import mega.privacy.android.data.database.dao.PendingMessageDao
@@ -38,7 +41,7 @@ const val CHAT_DATABASE_NAME = "chat_database"
         PendingMessageEntity::class,
         NodeMessageCrossRef::class,
     ],
-    version = 1,
+    version = 2,
 )
 abstract class ChatDatabase : RoomDatabase() {
 
@@ -70,7 +73,39 @@ abstract class ChatDatabase : RoomDatabase() {
             context,
             ChatDatabase::class.java,
             CHAT_DATABASE_NAME
-        ).openHelperFactory(factory).build()
+        ).addMigrations(*MIGRATIONS)
+            .openHelperFactory(factory)
+            .build()
+
+        private val MIGRATION_1_2 = object : Migration(1, 2) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Re-encode the user names, user emails and reactions of the typed messages,
+                // from comma joined strings and JSON to the length prefixed encoding
+                database.query("SELECT messageId, userNames, userEmails, reactions FROM typed_messages")
+                    .use { cursor ->
+                        while (cursor.moveToNext()) {
+                            val userNames = TypedMessageColumnCodec.encodeStrings(
+                                TypedMessageColumnCodec.decodeStrings(cursor.getString(1).orEmpty())
+                            )
+                            val userEmails = TypedMessageColumnCodec.encodeStrings(
+                                TypedMessageColumnCodec.decodeStrings(cursor.getString(2).orEmpty())
+                            )
+                            val reactions = TypedMessageColumnCodec.encodeReactions(
+                                TypedMessageColumnCodec.decodeReactions(cursor.getString(3).orEmpty())
+                            )
+                            database.execSQL(
+                                "UPDATE typed_messages SET userNames = ?, userEmails = ?, reactions = ? WHERE messageId = ?",
+                                arrayOf(userNames, userEmails, reactions, cursor.getLong(0))
+                            )
+                        }
+                    }
+            }
+        }
+
+        /**
+         * Migrations of the chat database
+         */
+        val MIGRATIONS = arrayOf<Migration>(MIGRATION_1_2)
     }
 
     fun inMemoryInit(context: Context): ChatDatabase =
@@ -0,0 +1,213 @@
+package mega.privacy.android.data.database.converter
+
+import com.google.gson.Gson
+import mega.privacy.android.domain.entity.chat.ChatMessageChange
+import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
+import timber.log.Timber
+
+/**
+ * Codec of the list columns of the typed messages.
+ *
+ * Strings are length prefixed instead of joined by a separator, so names containing commas are
+ * kept, and reactions are written and parsed by hand instead of with reflective JSON. Encoded
+ * values start with [HEADER] and the [VERSION] of the encoding, values without it are decoded
+ * with the legacy encoding.
+ */
+internal object TypedMessageColumnCodec {
+
+    /**
+     * Version of the encoding
+     */
+    const val VERSION = '2'
+
+    private const val HEADER = '\u001E'
+    private const val LENGTH_SEPARATOR = ':'
+    private const val FIELD_SEPARATOR = ','
+    private const val REACTION_SEPARATOR = ';'
+    private const val LEGACY_SEPARATOR = ","
+    private const val LEGACY_REACTION_SEPARATOR = ";"
+
+    private val legacyGson by lazy { Gson() }
+
+    private val chatMessageChanges = ChatMessageChange.entries.associateBy { it.name }
+
+    /**
+     * Encodes a list of strings
+     */
+    fun encodeStrings(list: List<String>): String {
+        if (list.isEmpty()) return ""
+
+        return buildString(list.sumOf { it.length + 4 } + 2) {
+            appendHeader()
+            list.forEach { appendLengthPrefixed(it) }
+        }
+    }
+
+    /**
+     * Decodes a list of strings, in the current or in the legacy encoding
+     */
+    fun decodeStrings(string: String): List<String> {
+        if (string.isBlank()) return emptyList()
+        if (!string.hasHeader()) return string.split(LEGACY_SEPARATOR)
+
+        val reader = Reader(string)
+        val list = ArrayList<String>()
+        return decode(list) {
+            while (!reader.isAtEnd) list.add(reader.readLengthPrefixed())
+        }
+    }
+
+    /**
+     * Encodes a list of longs, joined by commas
+     */
+    fun encodeLongs(list: List<Long>): String = list.joinToString(separator = LEGACY_SEPARATOR)
+
+    /**
+     * Decodes a list of longs joined by commas, skipping the invalid ones
+     */
+    fun decodeLongs(string: String): List<Long> {
+        val list = ArrayList<Long>()
+        var start = 0
+        while (start <= string.length) {
+            val end = string.indexOf(FIELD_SEPARATOR, start).takeIf { it >= 0 } ?: string.length
+            parseLong(string, start, end)?.let { list.add(it) }
+            start = end + 1
+        }
+        return list
+    }
+
+    /**
+     * Decodes a list of chat message changes joined by commas, skipping the unknown ones
+     */
+    fun decodeChatMessageChanges(string: String): List<ChatMessageChange> =
+        string.split(LEGACY_SEPARATOR).mapNotNull { chatMessageChanges[it] }
+
+    /**
+     * Encodes a list of reactions
+     */
+    fun encodeReactions(list: List<Reaction>): String {
+        if (list.isEmpty()) return ""
+
+        return buildString {
+            appendHeader()
+            list.forEach { reaction ->
+                appendLengthPrefixed(reaction.reaction)
+                appendField(reaction.count.toLong())
+                appendField(if (reaction.hasMe) 1L else 0L)
+                appendField(reaction.userHandles.size.toLong())
+                reaction.userHandles.forEach { appendField(it) }
+                append(REACTION_SEPARATOR)
+            }
+        }
+    }
+
+    /**
+     * Decodes a list of reactions, in the current or in the legacy encoding
+     */
+    fun decodeReactions(string: String): List<Reaction> {
+        if (string.isBlank()) return emptyList()
+        val list = ArrayList<Reaction>()
+        if (!string.hasHeader()) {
+            return decode(list) {
+                string.split(LEGACY_REACTION_SEPARATOR).mapNotNullTo(list) {
+                    legacyGson.fromJson(it, Reaction::class.java)
+                }
+            }
+        }
+
+        val reader = Reader(string)
+        return decode(list) {
+            while (!reader.isAtEnd) {
+                val reaction = reader.readLengthPrefixed()
+                val count = reader.readField().toInt()
+                val hasMe = reader.readField() == 1L
+                val handleCount = reader.readField().toInt()
+                require(handleCount in 0..string.length) { "Invalid handle count $handleCount" }
+                val userHandles = List(handleCount) { reader.readField() }
+                reader.skip(REACTION_SEPARATOR)
+                list.add(Reaction(reaction, count, userHandles, hasMe))
+            }
+        }
+    }
+
+    private fun String.hasHeader() = length >= 2 && this[0] == HEADER && this[1] == VERSION
+
+    private fun StringBuilder.appendHeader() {
+        append(HEADER)
+        append(VERSION)
+    }
+
+    private fun StringBuilder.appendLengthPrefixed(value: String) {
+        append(value.length)
+        append(LENGTH_SEPARATOR)
+        append(value)
+    }
+
+    private fun StringBuilder.appendField(value: Long) {
+        append(value)
+        append(FIELD_SEPARATOR)
+    }
+
+    /**
+     * Decodes into a list, keeping what was decoded before the value turned out to be invalid
+     */
+    private inline fun <T> decode(list: List<T>, block: () -> Unit): List<T> {
+        try {
+            block()
+        } catch (e: RuntimeException) {
+            Timber.w(e, "Invalid typed message column")
+        }
+        return list
+    }
+
+    /**
+     * Same as [String.toLongOrNull] on a range of a string, without creating the substring
+     */
+    private fun parseLong(string: String, start: Int, end: Int): Long? {
+        if (start >= end) return null
+
+        val negative = string[start] == '-'
+        var index = if (negative || string[start] == '+') start + 1 else start
+        if (index == end) return null
+
+        val limit = if (negative) Long.MIN_VALUE else -Long.MAX_VALUE
+        val multiplyLimit = limit / 10
+        var result = 0L
+        while (index < end) {
+            val digit = string[index++] - '0'
+            if (digit !in 0..9 || result < multiplyLimit) return null
+            result *= 10
+            if (result < limit + digit) return null
+            result -= digit
+        }
+        return if (negative) result else -result
+    }
+
+    private class Reader(private val string: String) {
+        private var position = 2
+
+        val isAtEnd get() = position >= string.length
+
+        fun readLengthPrefixed(): String {
+            val length = readLong(LENGTH_SEPARATOR).toInt()
+            return string.substring(position, position + length).also { position += length }
+        }
+
+        fun readField() = readLong(FIELD_SEPARATOR)
+
+        fun skip(separator: Char) {
+            require(string[position] == separator) { "Expected $separator at $position" }
+            position++
+        }
+
+        private fun readLong(separator: Char): Long {
+            val end = string.indexOf(separator, position)
+            require(end >= 0) { "Expected $separator after $position" }
+            val value = requireNotNull(parseLong(string, position, end)) {
+                "Invalid number at $position"
+            }
+            position = end + 1
+            return value
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package mega.privacy.android.data.database.converter
 
 import androidx.room.TypeConverter
-import com.google.gson.Gson
 import mega.privacy.android.domain.entity.chat.ChatMessageChange
 import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
 import javax.inject.Inject
@@ -20,7 +19,7 @@ class TypedMessageEntityConverters @Inject constructor() {
      * @return String.
      */
     @TypeConverter
-    fun convertFromLongList(list: List<Long>): String = list.joinToString(separator = ",")
+    fun convertFromLongList(list: List<Long>): String = TypedMessageColumnCodec.encodeLongs(list)
 
     /**
      * Convert a string to a list of longs.
@@ -29,8 +28,7 @@ class TypedMessageEntityConverters @Inject constructor() {
      * @return List of longs.
      */
     @TypeConverter
-    fun convertToLongList(string: String): List<Long> =
-        string.split(",").mapNotNull { it.toLongOrNull() }
+    fun convertToLongList(string: String): List<Long> = TypedMessageColumnCodec.decodeLongs(string)
 
     /**
      * Convert a list of strings to a string.
@@ -39,7 +37,8 @@ class TypedMessageEntityConverters @Inject constructor() {
      * @return String.
      */
     @TypeConverter
-    fun convertFromStringList(list: List<String>): String = list.joinToString(separator = ",")
+    fun convertFromStringList(list: List<String>): String =
+        TypedMessageColumnCodec.encodeStrings(list)
 
     /**
      * Convert a string to a list of strings.
@@ -49,7 +48,7 @@ class TypedMessageEntityConverters @Inject constructor() {
      */
     @TypeConverter
     fun convertToStringList(string: String): List<String> =
-        string.takeUnless { it.isBlank() }?.split(",") ?: emptyList()
+        TypedMessageColumnCodec.decodeStrings(string)
 
     /**
      * Convert a list of chat message changes to a string.
@@ -70,7 +69,7 @@ class TypedMessageEntityConverters @Inject constructor() {
      */
     @TypeConverter
     fun convertToChatMessageChangeList(string: String): List<ChatMessageChange> =
-        string.split(",").mapNotNull { runCatching { ChatMessageChange.valueOf(it) }.getOrNull() }
+        TypedMessageColumnCodec.decodeChatMessageChanges(string)
 
     /**
      * Convert a [Duration] to Long.
@@ -98,7 +97,7 @@ class TypedMessageEntityConverters @Inject constructor() {
      */
     @TypeConverter
     fun convertFromMessageReactionList(list: List<Reaction>): String =
-        list.joinToString(";") { Gson().toJson(it) }
+        TypedMessageColumnCodec.encodeReactions(list)
 
     /**
      * Convert String to a list of [Reaction]
@@ -108,7 +107,5 @@ class TypedMessageEntityConverters @Inject constructor() {
      */
     @TypeConverter
     fun convertToMessageReactionList(string: String): List<Reaction> =
-        string.split(";").mapNotNull {
-            Gson().fromJson(it, Reaction::class.java)
-        }
+        TypedMessageColumnCodec.decodeReactions(string)
 }
\ No newline at end of file
@@ -12,6 +12,14 @@ internal interface CompletedTransferDao {
     @Query("SELECT * FROM completedtransfers")
     fun getAllCompletedTransfers(): Flow<List<CompletedTransferEntity>>
 
+    /**
+     * Get the latest completed transfers, in insertion order, the most recent first
+     *
+     * @param size the maximum number of transfers
+     */
+    @Query("SELECT * FROM completedtransfers ORDER BY id DESC LIMIT :size")
+    fun getLatestCompletedTransfers(size: Int): Flow<List<CompletedTransferEntity>>
+
     @Query("SELECT * FROM completedtransfers WHERE transferstate IN(:states)")
     fun getCompletedTransfersByState(states: List<String>): List<CompletedTransferEntity>
 
@@ -27,6 +35,15 @@ internal interface CompletedTransferDao {
     @Query("DELETE FROM completedtransfers WHERE id IN(:ids)")
     suspend fun deleteCompletedTransferByIds(ids: List<Int>)
 
+    /**
+     * Delete the completed transfers older than the latest ones, in insertion order
+     *
+     * @param rowsToKeep the number of latest transfers to keep
+     * @return the number of deleted transfers
+     */
+    @Query("DELETE FROM completedtransfers WHERE id NOT IN (SELECT id FROM completedtransfers ORDER BY id DESC LIMIT :rowsToKeep)")
+    suspend fun deleteOldestCompletedTransfers(rowsToKeep: Int): Int
+
     @Query("SELECT COUNT(id) FROM completedtransfers")
     suspend fun getCompletedTransfersCount(): Int
 }
@@ -22,9 +22,12 @@ import mega.privacy.android.data.facade.MegaChatApiFacade
 import mega.privacy.android.data.facade.MegaLocalRoomFacade
 import mega.privacy.android.data.facade.MegaLocalStorageFacade
 import mega.privacy.android.data.facade.NotificationsFacade
+import mega.privacy.android.data.facade.OfflineNodeIndexFacade
+import mega.privacy.android.data.facade.PackedThumbnailFacade
 import mega.privacy.android.data.facade.PermissionFacade
 import mega.privacy.android.data.facade.SDCardFacade
 import mega.privacy.android.data.facade.TelephonyFacade
+import mega.privacy.android.data.facade.TimelineIndexFacade
 import mega.privacy.android.data.facade.VerifyPurchaseFacade
 import mega.privacy.android.data.facade.VideoCompressionFacade
 import mega.privacy.android.data.facade.WorkManagerGatewayImpl
@@ -52,9 +55,12 @@ import mega.privacy.android.data.gateway.MediaRecorderGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
 import mega.privacy.android.data.gateway.NotificationsGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.data.gateway.PermissionGateway
 import mega.privacy.android.data.gateway.SDCardGateway
 import mega.privacy.android.data.gateway.TelephonyGateway
+import mega.privacy.android.data.gateway.TimelineIndexGateway
 import mega.privacy.android.data.gateway.VerifyPurchaseGateway
 import mega.privacy.android.data.gateway.VideoCompressorGateway
 import mega.privacy.android.data.gateway.WorkManagerGateway
@@ -301,4 +307,13 @@ internal abstract class GatewayModule {
 
     @Binds
     abstract fun bindContactGateway(implementation: ContactGatewayImpl): ContactGateway
+
+    @Binds
+    abstract fun bindTimelineIndexGateway(implementation: TimelineIndexFacade): TimelineIndexGateway
+
+    @Binds
+    abstract fun bindOfflineNodeIndexGateway(implementation: OfflineNodeIndexFacade): OfflineNodeIndexGateway
+
+    @Binds
+    abstract fun bindPackedThumbnailGateway(implementation: PackedThumbnailFacade): PackedThumbnailGateway
 }
@@ -7,9 +7,13 @@ import android.net.Uri
 import android.os.Build
 import android.os.Bundle
 import android.provider.MediaStore
+import androidx.annotation.RequiresApi
 import dagger.hilt.android.qualifiers.ApplicationContext
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaVolumeWatermark
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import timber.log.Timber
 import javax.inject.Inject
 import kotlin.math.max
@@ -26,21 +30,28 @@ internal class CameraUploadsMediaFacade @Inject constructor(
      */
     private val debugSizeLimitation: Int? = null
 
-    override suspend fun getMediaList(
+    override suspend fun scanMedia(
         uri: Uri,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia> = runCatching {
+        watermark: CameraUploadsMediaWatermark?,
+    ): CameraUploadsMediaScan = runCatching {
         val isVideo = uri.isVideoUri()
-        createMediaCursor(uri, selectionQuery, isVideo)?.use { cursor ->
-            Timber.d("Extract ${cursor.count} Media from Cursor")
-            cursor.extractMedia(isVideo)
-        } ?: run {
+        val validWatermark = watermark?.takeIf { it.selection == selectionQuery }
+        val validVolumes = validWatermark?.getValidVolumes().orEmpty()
+        val selection = validWatermark?.let {
+            getIncrementalSelectionQuery(selectionQuery, it, validVolumes)
+        } ?: selectionQuery
+        createMediaCursor(uri, selection, isVideo)
+            ?.use { cursor ->
+                Timber.d("Extract ${cursor.count} Media from Cursor, incremental: ${validWatermark != null}, volumes: ${validVolumes.keys}")
+                cursor.extractMediaScan(isVideo, selectionQuery, validWatermark, validVolumes)
+            } ?: run {
             Timber.d("Extract 0 Media - Cursor is NULL")
-            emptyList()
+            CameraUploadsMediaScan(media = emptyList(), watermark = null)
         }
     }.getOrElse {
         Timber.e(it)
-        emptyList()
+        CameraUploadsMediaScan(media = emptyList(), watermark = null)
     }
 
     override fun getMediaSelectionQuery(parentPath: String): String =
@@ -59,6 +70,92 @@ internal class CameraUploadsMediaFacade @Inject constructor(
         MediaStore.MediaColumns.DATA,
     )
 
+    /**
+     *  Return the column of the media store to retrieve data from, including the columns
+     *  required to compute the scan watermark
+     *
+     *  @return an array of strings representing a column of the media store
+     */
+    @RequiresApi(Build.VERSION_CODES.R)
+    private fun getProjectionWithGeneration(isVideo: Boolean) = getProjection(isVideo) + arrayOf(
+        MediaStore.MediaColumns.VOLUME_NAME,
+        MediaStore.MediaColumns.GENERATION_MODIFIED,
+    )
+
+    /**
+     * Get the volumes of the watermark that can be scanned incrementally
+     * The position reached in a volume is not valid anymore if the volume was reset since the last scan
+     *
+     * @return the valid volume positions, by volume name
+     */
+    private fun CameraUploadsMediaWatermark.getValidVolumes(): Map<String, CameraUploadsMediaVolumeWatermark> =
+        volumes.filter { (volumeName, volume) -> volume.version == getVolumeVersion(volumeName) }
+
+    /**
+     * Get the selection query to retrieve only the media added or modified since the watermark
+     *
+     * The media store generation of each volume is used when the watermark has volume positions.
+     * The volumes without a valid position are fully scanned. Otherwise, the dates and media id
+     * are used, including the last second seen since dates have a precision of a second.
+     * The media already retrieved are filtered out afterwards by the existing records
+     *
+     * @param selectionQuery the selection query of the current scan
+     * @param watermark the watermark reached by the previous scan
+     * @param validVolumes the valid volume positions of the watermark, by volume name
+     * @return the incremental selection query, null if none of the volumes can be scanned incrementally
+     */
+    private fun getIncrementalSelectionQuery(
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaWatermark,
+        validVolumes: Map<String, CameraUploadsMediaVolumeWatermark>,
+    ): String? {
+        val incrementalSelection = when {
+            watermark.volumes.isEmpty() ->
+                "(${MediaStore.MediaColumns.DATE_ADDED} >= ${watermark.lastModified}" +
+                        " OR ${MediaStore.MediaColumns.DATE_MODIFIED} >= ${watermark.lastModified}" +
+                        " OR ${MediaStore.MediaColumns._ID} > ${watermark.lastMediaId})"
+
+            validVolumes.isEmpty() || Build.VERSION.SDK_INT < Build.VERSION_CODES.R -> return null
+            else -> getVolumesIncrementalSelection(validVolumes)
+        }
+        return selectionQuery?.let { "($it) AND $incrementalSelection" } ?: incrementalSelection
+    }
+
+    /**
+     * Get the selection of the media modified after the generation reached in each valid volume,
+     * and of all the media of the other volumes
+     *
+     * @param validVolumes the valid volume positions, by volume name
+     * @return the selection
+     */
+    @RequiresApi(Build.VERSION_CODES.R)
+    private fun getVolumesIncrementalSelection(
+        validVolumes: Map<String, CameraUploadsMediaVolumeWatermark>,
+    ): String {
+        val volumeName = MediaStore.MediaColumns.VOLUME_NAME
+        val volumeSelections = validVolumes.map { (name, volume) ->
+            "($volumeName = ${name.toSqlString()}" +
+                    " AND ${MediaStore.MediaColumns.GENERATION_MODIFIED} > ${volume.generation})"
+        }
+        val otherVolumesSelection =
+            "$volumeName NOT IN (${validVolumes.keys.joinToString { it.toSqlString() }})"
+        return (volumeSelections + otherVolumesSelection).joinToString(" OR ", "(", ")")
+    }
+
+    private fun String.toSqlString() = "'${replace("'", "''")}'"
+
+    /**
+     * Get the opaque version of a media store volume
+     * The version changes when the volume is reset, invalidating the generations
+     *
+     * @param volumeName the name of the volume
+     * @return the version of the volume, null if not available
+     */
+    private fun getVolumeVersion(volumeName: String): String? =
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            runCatching { MediaStore.getVersion(context, volumeName) }.getOrNull()
+        } else null
+
     /**
      * Create the cursor to use for querying the media store
      *
@@ -70,9 +167,14 @@ internal class CameraUploadsMediaFacade @Inject constructor(
     private fun createMediaCursor(
         uri: Uri,
         selectionQuery: String?,
-        isVideo: Boolean
+        isVideo: Boolean,
     ): Cursor? {
-        val projection = getProjection(isVideo)
+        val projection =
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                getProjectionWithGeneration(isVideo)
+            } else {
+                getProjection(isVideo)
+            }
         return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
             val args = Bundle().apply {
                 val sortOrder = MediaStore.MediaColumns.DATE_MODIFIED + " ASC "
@@ -91,45 +193,70 @@ internal class CameraUploadsMediaFacade @Inject constructor(
     }
 
     /**
-     * Extract the media list using the cursor
+     * Extract the media list using the cursor, and compute the watermark reached
      *
      * @param isVideo true if the type of media retrieved is
-     * @return a Queue of [CameraUploadsMedia]
+     * @param selectionQuery the selection query of the scan
+     * @param watermark the watermark the scan started from, null for a full scan
+     * @param validVolumes the valid volume positions of the watermark, by volume name
+     * @return a [CameraUploadsMediaScan]
      */
-    private fun Cursor.extractMedia(isVideo: Boolean): List<CameraUploadsMedia> =
-        ArrayList<CameraUploadsMedia>().apply {
-            if (moveToFirst()) {
-                do {
-                    val mediaId =
-                        getLongValue(if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID)
-                    val displayName = getStringValue(MediaStore.MediaColumns.DISPLAY_NAME)
-                    val filePath = getStringValue(MediaStore.MediaColumns.DATA)
-                    val addedDate = getLongValue(MediaStore.MediaColumns.DATE_ADDED) * 1000
-                    val modifiedDate = getLongValue(MediaStore.MediaColumns.DATE_MODIFIED) * 1000
-                    val timestamp = max(addedDate, modifiedDate)
-
-                    val cameraUploadsMedia = CameraUploadsMedia(
-                        mediaId = mediaId,
-                        displayName = displayName,
-                        filePath = filePath,
-                        timestamp = timestamp
-                    )
-                    add(cameraUploadsMedia)
-                } while (moveToNext())
-            }
-            close()
-        }.toList()
+    private fun Cursor.extractMediaScan(
+        isVideo: Boolean,
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaWatermark?,
+        validVolumes: Map<String, CameraUploadsMediaVolumeWatermark>,
+    ): CameraUploadsMediaScan {
+        val idColumn =
+            getColumnIndexOrThrow(if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID)
+        val displayNameColumn = getColumnIndexOrThrow(MediaStore.MediaColumns.DISPLAY_NAME)
+        val filePathColumn = getColumnIndexOrThrow(MediaStore.MediaColumns.DATA)
+        val addedDateColumn = getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_ADDED)
+        val modifiedDateColumn = getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_MODIFIED)
+        val volumeNameColumn = getColumnIndex(MediaStore.MediaColumns.VOLUME_NAME)
+        val generationColumn = getColumnIndex(MediaStore.MediaColumns.GENERATION_MODIFIED)
 
-    /**
-     *  Get the string value of a cursor column index
-     */
-    private fun Cursor.getStringValue(key: String) = getString(getColumnIndexOrThrow(key))
+        // The volumes without a valid position were fully scanned, and start again from zero
+        val generations = validVolumes.mapValuesTo(HashMap()) { it.value.generation }
+        var lastModified = watermark?.lastModified ?: 0L
+        var lastMediaId = watermark?.lastMediaId ?: 0L
 
-    /**
-     *  Get the long value of a cursor column index
-     */
-    private fun Cursor.getLongValue(key: String) = getLong(getColumnIndexOrThrow(key))
+        val media = ArrayList<CameraUploadsMedia>(count)
+        while (moveToNext()) {
+            val mediaId = getLong(idColumn)
+            val date = max(getLong(addedDateColumn), getLong(modifiedDateColumn))
+            media.add(
+                CameraUploadsMedia(
+                    mediaId = mediaId,
+                    displayName = getString(displayNameColumn),
+                    filePath = getString(filePathColumn),
+                    timestamp = date * 1000,
+                )
+            )
+            lastMediaId = max(lastMediaId, mediaId)
+            lastModified = max(lastModified, date)
+            if (volumeNameColumn != -1 && generationColumn != -1) {
+                getString(volumeNameColumn)?.let { volumeName ->
+                    val generation = getLong(generationColumn)
+                    generations[volumeName] = max(generations[volumeName] ?: 0L, generation)
+                }
+            }
+        }
 
+        val volumes = generations.mapNotNull { (volumeName, generation) ->
+            val version = validVolumes[volumeName]?.version ?: getVolumeVersion(volumeName)
+            version?.let { volumeName to CameraUploadsMediaVolumeWatermark(it, generation) }
+        }.toMap()
+        return CameraUploadsMediaScan(
+            media = media,
+            watermark = CameraUploadsMediaWatermark(
+                selection = selectionQuery,
+                volumes = volumes,
+                lastModified = lastModified,
+                lastMediaId = lastMediaId,
+            ),
+        )
+    }
 
     /**
      * Check if the uri corresponds to an uri of type video or not
@@ -132,12 +132,12 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override fun getAllCompletedTransfers(size: Int?) =
-        completedTransferDao.getAllCompletedTransfers()
+        (size?.let { completedTransferDao.getLatestCompletedTransfers(it) }
+            ?: completedTransferDao.getAllCompletedTransfers())
             .map { list ->
-                list.map { completedTransferModelMapper(it) }
-                    .toMutableList()
-                    .apply { sortWith(compareByDescending { it.timestamp }) }
-                    .let { if (size != null) it.take(size) else it }
+                // Only the loaded rows are sorted, the latest rows are selected by insertion order
+                completedTransferModelMapper(list)
+                    .sortedWith(compareByDescending { it.timestamp })
             }
 
     override suspend fun addCompletedTransfer(transfer: CompletedTransfer) {
@@ -151,16 +151,17 @@ internal class MegaLocalRoomFacade @Inject constructor(
         completedTransferDao.deleteAllCompletedTransfers()
 
     override suspend fun getCompletedTransfersByState(states: List<Int>): List<CompletedTransfer> {
-        val encryptedStates = states.mapNotNull { encryptData(it.toString()) }
-        return completedTransferDao.getCompletedTransfersByState(encryptedStates)
-            .map { entity -> completedTransferModelMapper(entity) }
+        val encryptedStates = encryptData(states.map { it.toString() }).filterNotNull()
+        return completedTransferModelMapper(
+            completedTransferDao.getCompletedTransfersByState(encryptedStates)
+        )
     }
 
     override suspend fun deleteCompletedTransfersByState(states: List<Int>): List<CompletedTransfer> {
-        val encryptedStates = states.mapNotNull { encryptData(it.toString()) }
+        val encryptedStates = encryptData(states.map { it.toString() }).filterNotNull()
         val entities = completedTransferDao.getCompletedTransfersByState(encryptedStates)
         deleteCompletedTransferBatch(entities.mapNotNull { it.id })
-        return entities.map { entity -> completedTransferModelMapper(entity) }
+        return completedTransferModelMapper(entities)
     }
 
     override suspend fun deleteCompletedTransfer(completedTransfer: CompletedTransfer) {
@@ -172,16 +173,7 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun deleteOldestCompletedTransfers() {
         val count = completedTransferDao.getCompletedTransfersCount()
         if (count > MAX_COMPLETED_TRANSFER_ROWS) {
-            val transfers = completedTransferDao.getAllCompletedTransfers().first()
-                .map { completedTransferModelMapper(it) }
-            val deletedTransfers =
-                transfers.sortedWith(compareByDescending { it.timestamp })
-                    .drop(MAX_COMPLETED_TRANSFER_ROWS)
-                    .mapNotNull { it.id }
-
-            if (deletedTransfers.isNotEmpty()) {
-                deleteCompletedTransferBatch(deletedTransfers)
-            }
+            completedTransferDao.deleteOldestCompletedTransfers(MAX_COMPLETED_TRANSFER_ROWS)
         }
     }
 
@@ -382,11 +374,11 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun clearOffline() = offlineDao.deleteAllOffline()
 
     override fun monitorOfflineUpdates() = offlineDao.monitorOffline()
-        .map { it.map { offlineEntity -> offlineModelMapper(offlineEntity) } }
+        .map { offlineModelMapper(it) }
 
 
     override suspend fun getAllOfflineInfo() =
-        offlineDao.getOfflineFiles()?.map { offlineModelMapper(it) }
+        offlineDao.getOfflineFiles()?.let { offlineModelMapper(it) }
 
     override suspend fun removeOfflineInformation(nodeId: String) {
         encryptData(nodeId)?.let {
@@ -395,7 +387,7 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override suspend fun getOfflineInfoByParentId(parentId: Int): List<Offline>? =
-        offlineDao.getOfflineByParentId(parentId)?.map {
+        offlineDao.getOfflineByParentId(parentId)?.let {
             offlineModelMapper(it)
         }
 
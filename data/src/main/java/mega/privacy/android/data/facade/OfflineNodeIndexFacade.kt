@@ -0,0 +1,94 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.database.dao.OfflineDao
+import mega.privacy.android.data.database.entity.OfflineEntity
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
+import mega.privacy.android.data.mapper.offline.OfflineModelMapper
+import mega.privacy.android.data.model.node.OfflineNodes
+import mega.privacy.android.domain.entity.Offline
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * [OfflineNodeIndexGateway] implementation following the changes of the offline table.
+ *
+ * The table is observed from the first request on. On each change, only the rows added or
+ * modified since the previous version of the table are decrypted again. If the table cannot be
+ * observed, the requests waiting for the index get an empty one and the next request observes the
+ * table again.
+ */
+@Singleton
+internal class OfflineNodeIndexFacade @Inject constructor(
+    private val offlineDao: OfflineDao,
+    private val offlineModelMapper: OfflineModelMapper,
+    @ApplicationScope private val appScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) : OfflineNodeIndexGateway {
+
+    /**
+     * Decrypted rows of the last version of the table, by row id.
+     * Only used from the sequential updates of [offlineNodes].
+     */
+    private var decryptedRows: Map<Int, DecryptedRow> = emptyMap()
+
+    private val offlineNodesMutex = Mutex()
+    private var offlineNodes: StateFlow<OfflineNodes?>? = null
+
+    /**
+     * Set when the observation of the table failed, so that the next request starts it again
+     */
+    @Volatile
+    private var isObservationFailed = false
+
+    override suspend fun getOfflineNodes(): OfflineNodes = offlineNodesMutex.withLock {
+        offlineNodes?.takeUnless { isObservationFailed } ?: run {
+            isObservationFailed = false
+            monitorOfflineNodes().also { offlineNodes = it }
+        }
+    }.filterNotNull().first()
+
+    private fun monitorOfflineNodes(): StateFlow<OfflineNodes?> =
+        offlineDao.monitorOffline()
+            .map { updateIndex(it) }
+            .catch {
+                Timber.e(it, "Offline table cannot be observed")
+                isObservationFailed = true
+                emit(OfflineNodes.EMPTY)
+            }
+            .flowOn(ioDispatcher)
+            .stateIn(appScope, SharingStarted.Eagerly, null)
+
+    private suspend fun updateIndex(entities: List<OfflineEntity>): OfflineNodes {
+        val previousRows = decryptedRows
+        val rows = HashMap<Int, DecryptedRow>(entities.size)
+        val nodes = ArrayList<Pair<Long, Offline>>(entities.size)
+        var decryptedCount = 0
+        entities.forEach { entity ->
+            val id = entity.id ?: return@forEach
+            val row = previousRows[id]?.takeIf { it.entity == entity }
+                ?: DecryptedRow(entity, offlineModelMapper(entity)).also { decryptedCount++ }
+            rows[id] = row
+            row.offline.handle.toLongOrNull()?.let { nodes.add(it to row.offline) }
+        }
+        decryptedRows = rows
+        Timber.d("Offline index updated: %d nodes, %d decrypted", nodes.size, decryptedCount)
+        return OfflineNodes(nodes)
+    }
+
+    private class DecryptedRow(val entity: OfflineEntity, val offline: Offline)
+}
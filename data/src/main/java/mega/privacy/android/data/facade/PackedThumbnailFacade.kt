@@ -0,0 +1,329 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.util.TreeMap
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * [PackedThumbnailGateway] implementation appending the thumbnails to segment files of the cache
+ * folder, read through memory mappings.
+ *
+ * Each segment starts with the format version, followed by records of the node handle, the
+ * length and the thumbnail bytes. Removals are records with a negative length. The index of the
+ * records is kept in memory, each location packed in a long, and rebuilt from the segments when
+ * the store is opened. The oldest segment is compacted into the last one once more than half of
+ * its bytes are replaced or removed, and the oldest segments are dropped once the store is bigger
+ * than [maxSize]. Only the oldest segment is compacted or dropped, as the removals are dropped
+ * with it and they hide the records of the older segments.
+ */
+@Singleton
+internal class PackedThumbnailFacade(
+    private val cacheGateway: CacheGateway,
+    private val ioDispatcher: CoroutineDispatcher,
+    private val segmentSize: Int,
+    private val maxSize: Long,
+) : PackedThumbnailGateway {
+
+    @Inject
+    constructor(
+        cacheGateway: CacheGateway,
+        @IoDispatcher ioDispatcher: CoroutineDispatcher,
+    ) : this(cacheGateway, ioDispatcher, SEGMENT_SIZE, MAX_SIZE)
+
+    private class Segment(val id: Int, val file: File, var size: Long) {
+        var liveBytes = 0L
+        var buffer: MappedByteBuffer? = null
+    }
+
+    private val mutex = Mutex()
+    private var folder: File? = null
+    private val segments = TreeMap<Int, Segment>()
+    private val index = HashMap<Long, Long>()
+    private var channel: FileChannel? = null
+
+    init {
+        require(segmentSize in RECORD_OFFSET + RECORD_HEADER_SIZE..MAX_OFFSET) {
+            "Invalid segment size $segmentSize"
+        }
+    }
+
+    override suspend fun getThumbnail(handle: Long): ByteBuffer? = withStore(write = false) {
+        read(handle)
+    }
+
+    override suspend fun putThumbnail(handle: Long, file: File): ByteBuffer? {
+        val bytes = withContext(ioDispatcher) {
+            try {
+                file.readBytes()
+            } catch (e: IOException) {
+                Timber.w(e, "Thumbnail cannot be read")
+                null
+            }
+        }?.takeIf { it.isNotEmpty() && it.size <= segmentSize - RECORD_OFFSET - RECORD_HEADER_SIZE }
+            ?: return null
+
+        return withStore(write = true) {
+            store(handle, bytes)
+            compact()
+            evict()
+            read(handle)
+        }
+    }
+
+    override suspend fun removeThumbnail(handle: Long) {
+        withStore(write = true) {
+            if (index.containsKey(handle)) {
+                append(handle, null)
+                record(segments.lastEntry().value, handle, null)
+                compact()
+            }
+        }
+    }
+
+    override suspend fun clear() {
+        withContext(ioDispatcher) {
+            mutex.withLock { reset() }
+        }
+    }
+
+    /**
+     * Runs a block on the opened store. Writes check first that the folder still exists, as it is
+     * deleted when the cache is cleared, while reads keep reading the mapped segments meanwhile.
+     */
+    private suspend fun <T> withStore(write: Boolean, block: () -> T?): T? =
+        withContext(ioDispatcher) {
+            mutex.withLock {
+                try {
+                    if (folder?.takeIf { !write || it.exists() } == null) {
+                        reset()
+                        folder = cacheGateway.getOrCreateCacheFolder(
+                            CacheFolderConstant.PACKED_THUMBNAIL_FOLDER
+                        )?.also { load(it) } ?: return@withLock null
+                    }
+                    block()
+                } catch (e: IOException) {
+                    Timber.w(e, "Packed thumbnail store cannot be used")
+                    reset()
+                    null
+                }
+            }
+        }
+
+    private fun load(folder: File) {
+        folder.listFiles()
+            ?.mapNotNull { file ->
+                file.name.removeSuffix(SEGMENT_EXTENSION).toIntOrNull()
+                    ?.takeIf { file.name.endsWith(SEGMENT_EXTENSION) }
+                    ?.let { Segment(it, file, file.length()) }
+            }
+            ?.sortedBy { it.id }
+            ?.forEach { segment ->
+                if (segment.size < RECORD_OFFSET || segment.map().getInt(0) != VERSION) {
+                    segment.file.delete()
+                } else {
+                    segments[segment.id] = segment
+                    scan(segment)
+                }
+            }
+        channel = segments.lastEntry()?.value?.let { RandomAccessFile(it.file, "rw").channel }
+    }
+
+    /**
+     * Indexes the records of a segment, truncating the incomplete record written last if any
+     */
+    private fun scan(segment: Segment) {
+        val buffer = segment.map()
+        var position = RECORD_OFFSET
+        while (position + RECORD_HEADER_SIZE <= segment.size) {
+            val handle = buffer.getLong(position)
+            val length = buffer.getInt(position + Long.SIZE_BYTES)
+            val offset = position + RECORD_HEADER_SIZE
+            if (length > segment.size - offset) break
+
+            val location = length.takeIf { it >= 0 }?.let { location(segment.id, offset, it) }
+            record(segment, handle, location)
+            position = offset + maxOf(length, 0)
+        }
+        if (position < segment.size) {
+            RandomAccessFile(segment.file, "rw").use { it.setLength(position.toLong()) }
+            segment.size = position.toLong()
+            segment.buffer = null
+        }
+    }
+
+    private fun read(handle: Long): ByteBuffer? {
+        val location = index[handle] ?: return null
+        val segment = segments[segmentOf(location)] ?: return null
+        val offset = offsetOf(location)
+        val end = offset + lengthOf(location)
+        val buffer = segment.buffer?.takeIf { it.capacity() >= end } ?: segment.map()
+        return buffer.duplicate().apply {
+            position(offset)
+            limit(end)
+        }.slice().asReadOnlyBuffer()
+    }
+
+    /**
+     * Points the index entry of a handle to a record, updating the live bytes of the segments
+     */
+    private fun record(segment: Segment, handle: Long, location: Long?) {
+        index.remove(handle)?.let { previous ->
+            segments[segmentOf(previous)]?.let { it.liveBytes -= lengthOf(previous) }
+        }
+        if (location != null) {
+            index[handle] = location
+            segment.liveBytes += lengthOf(location)
+        }
+    }
+
+    private fun store(handle: Long, bytes: ByteArray) {
+        val offset = append(handle, bytes)
+        record(segments.lastEntry().value, handle, location(segments.lastKey(), offset, bytes.size))
+    }
+
+    /**
+     * Appends a record to the last segment, creating a new one if it does not fit
+     *
+     * @return the offset of the record bytes in the segment
+     */
+    private fun append(handle: Long, bytes: ByteArray?): Int {
+        val recordSize = RECORD_HEADER_SIZE + (bytes?.size ?: 0)
+        val segment = segments.lastEntry()?.value
+            ?.takeIf { channel != null && it.size + recordSize <= segmentSize }
+            ?: createSegment()
+        val record = ByteBuffer.allocate(recordSize)
+            .putLong(handle)
+            .putInt(bytes?.size ?: REMOVED_LENGTH)
+            .apply { bytes?.let { put(it) } }
+        write(record, segment.size)
+        return (segment.size + RECORD_HEADER_SIZE).toInt().also { segment.size += recordSize }
+    }
+
+    private fun createSegment(): Segment {
+        val id = segments.lastEntry()?.key?.plus(1) ?: 0
+        if (id > MAX_SEGMENT_ID) {
+            // Segment ids are never reused while the store is kept, so start again empty
+            val currentFolder = folder
+            reset()
+            folder = currentFolder
+            return createSegment()
+        }
+        channel?.close()
+        val file = File(requireNotNull(folder), "$id$SEGMENT_EXTENSION")
+        channel = RandomAccessFile(file, "rw").apply { setLength(0) }.channel
+        write(ByteBuffer.allocate(RECORD_OFFSET).putInt(VERSION), 0L)
+        return Segment(id, file, RECORD_OFFSET.toLong()).also { segments[id] = it }
+    }
+
+    private fun write(buffer: ByteBuffer, position: Long) {
+        val channel = requireNotNull(channel)
+        buffer.flip()
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position())
+        }
+    }
+
+    /**
+     * Moves the live records of the oldest segment to the last segment while it is mostly
+     * replaced or removed
+     */
+    private fun compact() {
+        while (segments.size > 1) {
+            val oldest = segments.firstEntry().value
+            if (oldest.liveBytes * 2 >= oldest.size - RECORD_OFFSET) return
+
+            index.filterValues { segmentOf(it) == oldest.id }.keys.forEach { handle ->
+                read(handle)?.let { buffer ->
+                    store(handle, ByteArray(buffer.remaining()).also { buffer.get(it) })
+                }
+            }
+            delete(oldest)
+        }
+    }
+
+    /**
+     * Drops the oldest segments until the store is not bigger than [maxSize]
+     */
+    private fun evict() {
+        while (segments.size > 1 && segments.values.sumOf { it.size } > maxSize) {
+            val oldest = segments.firstEntry().value
+            index.values.removeAll { segmentOf(it) == oldest.id }
+            delete(oldest)
+        }
+    }
+
+    private fun delete(segment: Segment) {
+        segments.remove(segment.id)
+        segment.buffer = null
+        segment.file.delete()
+    }
+
+    private fun reset() {
+        channel?.close()
+        channel = null
+        segments.values.forEach { it.file.delete() }
+        segments.clear()
+        index.clear()
+        folder = null
+    }
+
+    /**
+     * Maps the segment, after it grew past the previous mapping. The buffers handed out keep the
+     * previous mappings alive.
+     */
+    private fun Segment.map(): MappedByteBuffer =
+        RandomAccessFile(file, "r").use {
+            it.channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+        }.also { buffer = it }
+
+    private fun location(segment: Int, offset: Int, length: Int) =
+        (segment.toLong() shl SEGMENT_SHIFT) or
+                (offset.toLong() shl OFFSET_SHIFT) or
+                length.toLong()
+
+    private fun segmentOf(location: Long) = (location ushr SEGMENT_SHIFT).toInt()
+
+    private fun offsetOf(location: Long) =
+        ((location ushr OFFSET_SHIFT) and MAX_OFFSET.toLong()).toInt()
+
+    private fun lengthOf(location: Long) = (location and MAX_OFFSET.toLong()).toInt()
+
+    companion object {
+        /**
+         * Size of the segment files
+         */
+        const val SEGMENT_SIZE = 4 * 1024 * 1024
+
+        /**
+         * Maximum size of the store
+         */
+        const val MAX_SIZE = 128L * 1024 * 1024
+
+        private const val SEGMENT_EXTENSION = ".pack"
+        private const val VERSION = 1
+        private const val RECORD_OFFSET = Int.SIZE_BYTES
+        private const val RECORD_HEADER_SIZE = Long.SIZE_BYTES + Int.SIZE_BYTES
+        private const val REMOVED_LENGTH = -1
+
+        // Locations are packed as 16 bits of segment id, 24 bits of offset and 24 bits of length
+        private const val OFFSET_SHIFT = 24
+        private const val SEGMENT_SHIFT = 48
+        private const val MAX_OFFSET = (1 shl 24) - 1
+        private const val MAX_SEGMENT_ID = (1 shl 16) - 1
+    }
+}
@@ -0,0 +1,168 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.TimelineIndexGateway
+import mega.privacy.android.data.model.photos.TimelineIndexEntry
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * [TimelineIndexGateway] implementation keeping the index in a binary file of the cache folder.
+ *
+ * The file starts with a header (format version, user handle and entry count), followed by the
+ * distinct mime type and extension pairs, referenced by index from the entries.
+ */
+@Singleton
+internal class TimelineIndexFacade @Inject constructor(
+    private val cacheGateway: CacheGateway,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) : TimelineIndexGateway {
+
+    override suspend fun getTimelineIndex(userHandle: Long): List<TimelineIndexEntry>? =
+        withContext(ioDispatcher) {
+            val file = getIndexFile()?.takeIf { it.exists() } ?: return@withContext null
+            try {
+                DataInputStream(BufferedInputStream(file.inputStream(), BUFFER_SIZE)).use {
+                    it.readIndex(userHandle)
+                }
+            } catch (e: IOException) {
+                Timber.w(e, "Timeline index cannot be read")
+                file.delete()
+                null
+            }
+        }
+
+    override suspend fun setTimelineIndex(userHandle: Long, entries: List<TimelineIndexEntry>) =
+        withContext(ioDispatcher) {
+            val file = getIndexFile() ?: return@withContext
+            val temp = File(file.parentFile, file.name + TEMP_EXTENSION)
+            try {
+                DataOutputStream(BufferedOutputStream(temp.outputStream(), BUFFER_SIZE)).use {
+                    it.writeIndex(userHandle, entries)
+                }
+                if (!temp.renameTo(file)) {
+                    temp.delete()
+                }
+            } catch (e: IOException) {
+                Timber.w(e, "Timeline index cannot be written")
+                temp.delete()
+            }
+        }
+
+    override suspend fun clearTimelineIndex() {
+        withContext(ioDispatcher) {
+            getIndexFile()?.delete()
+        }
+    }
+
+    private suspend fun getIndexFile() =
+        cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.TIMELINE_FOLDER)
+            ?.let { File(it, INDEX_FILE_NAME) }
+
+    private fun DataOutputStream.writeIndex(userHandle: Long, entries: List<TimelineIndexEntry>) {
+        val types = LinkedHashMap<Pair<String, String>, Int>()
+        entries.forEach { types.getOrPut(it.mimeType to it.extension) { types.size } }
+
+        writeInt(VERSION)
+        writeLong(userHandle)
+        writeInt(types.size)
+        types.keys.forEach { (mimeType, extension) ->
+            writeUTF(mimeType)
+            writeUTF(extension)
+        }
+        writeInt(entries.size)
+        entries.forEach { entry ->
+            var flags = 0
+            if (entry.isVideo) flags = flags or FLAG_VIDEO
+            if (entry.isFavourite) flags = flags or FLAG_FAVOURITE
+            if (entry.isTakenDown) flags = flags or FLAG_TAKEN_DOWN
+            if (entry.thumbnailFileName != null) flags = flags or FLAG_THUMBNAIL
+            if (entry.previewFileName != null) flags = flags or FLAG_PREVIEW
+            if (entry.previewFileName == entry.thumbnailFileName) {
+                flags = flags or FLAG_PREVIEW_SAME_NAME
+            }
+            writeByte(flags)
+            writeLong(entry.id)
+            writeLong(entry.parentId)
+            writeUTF(entry.name)
+            writeLong(entry.creationTime)
+            writeLong(entry.modificationTime)
+            writeLong(entry.size)
+            writeInt(types.getValue(entry.mimeType to entry.extension))
+            writeInt(entry.duration)
+            entry.thumbnailFileName?.let { writeUTF(it) }
+            if (flags and FLAG_PREVIEW_SAME_NAME == 0) {
+                entry.previewFileName?.let { writeUTF(it) }
+            }
+        }
+    }
+
+    private fun DataInputStream.readIndex(userHandle: Long): List<TimelineIndexEntry>? {
+        if (readInt() != VERSION || readLong() != userHandle) return null
+
+        val types = List(readInt()) { readUTF() to readUTF() }
+        val count = readInt()
+        return ArrayList<TimelineIndexEntry>(count).apply {
+            repeat(count) {
+                val flags = readByte().toInt()
+                val id = readLong()
+                val parentId = readLong()
+                val name = readUTF()
+                val creationTime = readLong()
+                val modificationTime = readLong()
+                val size = readLong()
+                val (mimeType, extension) = types[readInt()]
+                val duration = readInt()
+                val thumbnailFileName = if (flags and FLAG_THUMBNAIL != 0) readUTF() else null
+                val previewFileName = when {
+                    flags and FLAG_PREVIEW_SAME_NAME != 0 -> thumbnailFileName
+                    flags and FLAG_PREVIEW != 0 -> readUTF()
+                    else -> null
+                }
+                add(
+                    TimelineIndexEntry(
+                        id = id,
+                        parentId = parentId,
+                        name = name,
+                        isVideo = flags and FLAG_VIDEO != 0,
+                        isFavourite = flags and FLAG_FAVOURITE != 0,
+                        isTakenDown = flags and FLAG_TAKEN_DOWN != 0,
+                        creationTime = creationTime,
+                        modificationTime = modificationTime,
+                        size = size,
+                        mimeType = mimeType,
+                        extension = extension,
+                        duration = duration,
+                        thumbnailFileName = thumbnailFileName,
+                        previewFileName = previewFileName,
+                    )
+                )
+            }
+        }
+    }
+
+    companion object {
+        private const val INDEX_FILE_NAME = "timeline.idx"
+        private const val TEMP_EXTENSION = ".tmp"
+        private const val VERSION = 1
+        private const val BUFFER_SIZE = 64 * 1024
+
+        private const val FLAG_VIDEO = 1
+        private const val FLAG_FAVOURITE = 1 shl 1
+        private const val FLAG_TAKEN_DOWN = 1 shl 2
+        private const val FLAG_THUMBNAIL = 1 shl 3
+        private const val FLAG_PREVIEW = 1 shl 4
+        private const val FLAG_PREVIEW_SAME_NAME = 1 shl 5
+    }
+}
@@ -1,7 +1,8 @@
 package mega.privacy.android.data.gateway
 
 import android.net.Uri
-import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 
 /**
  * Camera Upload Media Files Gateway
@@ -9,17 +10,22 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 interface CameraUploadsMediaGateway {
 
     /**
-     * Get the media queue for a given media type
+     * Get the media added or modified since the given watermark for a given media type
+     *
+     * A full scan is performed if the watermark is null, or if it was computed for a different
+     * selection query or volume version
      *
      * @param uri different media store file type
      * @param selectionQuery db query
+     * @param watermark the watermark reached by the previous scan
      *
-     * @return list of camera upload media
+     * @return the [CameraUploadsMediaScan] containing the media and the new watermark
      */
-    suspend fun getMediaList(
+    suspend fun scanMedia(
         uri: Uri,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia>
+        watermark: CameraUploadsMediaWatermark?,
+    ): CameraUploadsMediaScan
 
     /**
      * Get the selection query to filter the media based on the parent path
@@ -113,7 +113,8 @@ interface MegaLocalRoomGateway {
     /**
      * Get all completed transfers
      *
-     * @param size the limit size of the list. If null, the limit does not apply
+     * @param size the limit size of the list, the most recently added transfers are kept.
+     * If null, the limit does not apply
      */
     fun getAllCompletedTransfers(size: Int? = null): Flow<List<CompletedTransfer>>
 
@@ -0,0 +1,19 @@
+package mega.privacy.android.data.gateway
+
+import mega.privacy.android.data.model.node.OfflineNodes
+
+/**
+ * Gateway to the in memory index of the nodes available offline
+ */
+interface OfflineNodeIndexGateway {
+
+    /**
+     * Get the nodes available offline
+     *
+     * The index is loaded from the offline table the first time, then kept in sync with its
+     * changes, so the table is not read again when listing nodes.
+     *
+     * @return the nodes available offline, keyed by node handle
+     */
+    suspend fun getOfflineNodes(): OfflineNodes
+}
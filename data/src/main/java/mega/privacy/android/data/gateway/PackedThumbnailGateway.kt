@@ -0,0 +1,39 @@
+package mega.privacy.android.data.gateway
+
+import java.io.File
+import java.nio.ByteBuffer
+
+/**
+ * Gateway to the packed thumbnail store, the thumbnails kept together in a few large files of the
+ * cache folder instead of one file each
+ */
+interface PackedThumbnailGateway {
+    /**
+     * Get a thumbnail
+     *
+     * @param handle Node handle
+     * @return A read only buffer of the thumbnail bytes, or null if the thumbnail is not stored
+     */
+    suspend fun getThumbnail(handle: Long): ByteBuffer?
+
+    /**
+     * Store a thumbnail, replacing the one already stored for the node
+     *
+     * @param handle Node handle
+     * @param file Thumbnail file
+     * @return A read only buffer of the stored bytes, or null if the thumbnail cannot be stored
+     */
+    suspend fun putThumbnail(handle: Long, file: File): ByteBuffer?
+
+    /**
+     * Remove a thumbnail
+     *
+     * @param handle Node handle
+     */
+    suspend fun removeThumbnail(handle: Long)
+
+    /**
+     * Remove all the thumbnails
+     */
+    suspend fun clear()
+}
@@ -0,0 +1,29 @@
+package mega.privacy.android.data.gateway
+
+import mega.privacy.android.data.model.photos.TimelineIndexEntry
+
+/**
+ * Gateway to the timeline index, the media nodes of the timeline persisted between app starts
+ */
+interface TimelineIndexGateway {
+    /**
+     * Read the timeline index
+     *
+     * @param userHandle Handle of the current user
+     * @return The entries, or null if no index of the user exists or it cannot be read
+     */
+    suspend fun getTimelineIndex(userHandle: Long): List<TimelineIndexEntry>?
+
+    /**
+     * Replace the timeline index
+     *
+     * @param userHandle Handle of the current user
+     * @param entries All the media nodes of the timeline
+     */
+    suspend fun setTimelineIndex(userHandle: Long, entries: List<TimelineIndexEntry>)
+
+    /**
+     * Delete the timeline index
+     */
+    suspend fun clearTimelineIndex()
+}
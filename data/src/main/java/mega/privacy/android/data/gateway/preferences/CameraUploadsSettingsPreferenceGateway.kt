@@ -1,5 +1,7 @@
 package mega.privacy.android.data.gateway.preferences
 
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
+
 /**
  * CameraUploads Settings Preference Gateway
  *
@@ -175,6 +177,22 @@ interface CameraUploadsSettingsPreferenceGateway {
      */
     suspend fun setUploadsByWifi(wifiOnly: Boolean)
 
+    /**
+     * Get the media store watermark reached by the last scan
+     *
+     * @param key the key identifying the scanned folder and media type
+     * @return the saved [CameraUploadsMediaWatermark], null if none
+     */
+    suspend fun getMediaWatermark(key: String): CameraUploadsMediaWatermark?
+
+    /**
+     * Set the media store watermark reached by the last scan
+     *
+     * @param key the key identifying the scanned folder and media type
+     * @param watermark the [CameraUploadsMediaWatermark] to save, null to remove it
+     */
+    suspend fun setMediaWatermark(key: String, watermark: CameraUploadsMediaWatermark?)
+
     /**
      * Clear preferences
      */
@@ -14,11 +14,15 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLDER_UNAVAILABLE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.NOT_ENOUGH_STORAGE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.OUT_OF_SPACE
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PREPARATION_METRICS
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PROGRESS
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STAGE_DURATION
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.START
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STATUS_INFO
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STORAGE_OVER_QUOTA
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TIME_TO_FIRST_RECORD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_COUNT
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_PREPARED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_TO_UPLOAD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED_BYTES
@@ -26,6 +30,7 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTA
 import mega.privacy.android.domain.entity.Progress
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsFinishedReason
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsPreparationStage
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
 import timber.log.Timber
@@ -124,6 +129,22 @@ class CameraUploadsStatusInfoMapper @Inject constructor() {
                     CameraUploadsStatusInfo.NotEnoughStorage
                 }
 
+                PREPARATION_METRICS -> {
+                    runCatching {
+                        with(progress) {
+                            CameraUploadsStatusInfo.PreparationMetrics(
+                                stageDurations = CameraUploadsPreparationStage.entries
+                                    .associateWith { getLong("$STAGE_DURATION${it.name}", 0L) },
+                                timeToFirstRecord = getLong(TIME_TO_FIRST_RECORD, -1L)
+                                    .takeIf { it >= 0 },
+                                totalPrepared = getInt(TOTAL_PREPARED, 0),
+                            )
+                        }
+                    }.onFailure {
+                        Timber.e(it)
+                    }.getOrNull()
+                }
+
                 FOLDER_UNAVAILABLE -> {
                     val folderType = CameraUploadFolderType.entries[progress.getInt(
                         FOLDER_TYPE,
@@ -1,8 +1,7 @@
 package mega.privacy.android.data.mapper.node
 
+import mega.privacy.android.data.constant.FileConstant.JPG_EXTENSION
 import mega.privacy.android.data.extensions.getFileName
-import mega.privacy.android.data.extensions.getPreviewFileName
-import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
@@ -37,66 +36,73 @@ internal class FileNodeMapper @Inject constructor(
      *
      * @param megaNode
      * @param requireSerializedData
+     * @param fields the fields to read, the others keep their empty value
      * @return
      */
     suspend operator fun invoke(
         megaNode: MegaNode,
         requireSerializedData: Boolean,
-        offline: Offline?
-    ): FileNode = DefaultFileNode(
-        id = NodeId(megaNode.handle),
-        name = megaNode.name,
-        size = megaNode.size,
-        label = megaNode.label,
-        parentId = NodeId(megaNode.parentHandle),
-        base64Id = megaNode.base64Handle,
-        restoreId = NodeId(megaNode.restoreHandle).takeIf {
-            it.longValue != MegaApiJava.INVALID_HANDLE
-        },
-        creationTime = megaNode.creationTime,
-        modificationTime = megaNode.modificationTime,
-        thumbnailPath = getThumbnailCacheFilePath(
-            megaNode,
-            cacheGateway.getThumbnailCacheFolder()
-        ),
-        previewPath = getPreviewCacheFilePath(
-            megaNode,
-            cacheGateway.getPreviewCacheFolder()
-        ),
-        fullSizePath = getFullSizeCacheFilePath(
-            megaNode,
-            cacheGateway.getFullSizeCacheFolder()
-        ),
-        type = fileTypeInfoMapper(megaNode),
-        isFavourite = megaNode.isFavourite,
-        isMarkedSensitive = megaNode.isMarkedSensitive,
-        exportedData = megaNode.takeIf { megaNode.isExported }?.let {
-            ExportedData(it.publicLink, it.publicLinkCreationTime)
-        },
-        isTakenDown = megaNode.isTakenDown,
-        isIncomingShare = megaNode.isInShare,
-        fingerprint = megaNode.fingerprint,
-        originalFingerprint = megaNode.originalFingerprint,
-        isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
-        hasThumbnail = megaNode.hasThumbnail(),
-        hasPreview = megaNode.hasPreview(),
-        serializedData = if (requireSerializedData) megaNode.serialize() else null,
-        isAvailableOffline = offline?.let { offlineAvailabilityMapper(megaNode, it) } ?: false,
-        versionCount = (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0)
-    )
-
-    private fun getThumbnailCacheFilePath(megaNode: MegaNode, thumbnailFolder: File?): String? =
-        thumbnailFolder?.let {
-            "$it${File.separator}${megaNode.getThumbnailFileName()}"
-        }?.takeUnless { megaNode.isFolder }
+        offline: Offline?,
+        fields: Set<NodeField> = NodeField.ALL,
+    ): FileNode {
+        val base64Handle = megaNode.base64Handle
+        // Resolved for every node, as the folders are created again after clearing the cache
+        val cacheFolderPaths = if (NodeField.CachePaths in fields) getCacheFolderPaths() else null
+        // Thumbnails and previews are both cached as the node handle with the jpg extension
+        val thumbnailFileName = "$base64Handle$JPG_EXTENSION"
+        return DefaultFileNode(
+            id = NodeId(megaNode.handle),
+            name = megaNode.name,
+            size = megaNode.size,
+            label = megaNode.label,
+            parentId = NodeId(megaNode.parentHandle),
+            base64Id = base64Handle,
+            restoreId = NodeId(megaNode.restoreHandle).takeIf {
+                it.longValue != MegaApiJava.INVALID_HANDLE
+            },
+            creationTime = megaNode.creationTime,
+            modificationTime = megaNode.modificationTime,
+            thumbnailPath = cacheFolderPaths?.thumbnail?.let {
+                "$it${File.separator}$thumbnailFileName"
+            },
+            previewPath = cacheFolderPaths?.preview?.let {
+                "$it${File.separator}$thumbnailFileName"
+            },
+            fullSizePath = cacheFolderPaths?.fullSize?.let {
+                "$it${File.separator}${megaNode.getFileName()}"
+            },
+            type = fileTypeInfoMapper(megaNode),
+            isFavourite = megaNode.isFavourite,
+            isMarkedSensitive = megaNode.isMarkedSensitive,
+            exportedData = megaNode.takeIf { megaNode.isExported }?.let {
+                ExportedData(it.publicLink, it.publicLinkCreationTime)
+            },
+            isTakenDown = megaNode.isTakenDown,
+            isIncomingShare = megaNode.isInShare,
+            fingerprint = megaNode.fingerprint,
+            originalFingerprint = megaNode.originalFingerprint,
+            isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
+            hasThumbnail = megaNode.hasThumbnail(),
+            hasPreview = megaNode.hasPreview(),
+            serializedData = if (requireSerializedData) megaNode.serialize() else null,
+            isAvailableOffline = offline?.let { offlineAvailabilityMapper(megaNode, it) } ?: false,
+            versionCount = if (NodeField.VersionCount in fields) {
+                (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0)
+            } else {
+                0
+            },
+        )
+    }
 
-    private fun getPreviewCacheFilePath(megaNode: MegaNode, previewFolder: File?): String? =
-        previewFolder?.let {
-            "$it${File.separator}${megaNode.getPreviewFileName()}"
-        }?.takeUnless { megaNode.isFolder }
+    private suspend fun getCacheFolderPaths() = CacheFolderPaths(
+        thumbnail = cacheGateway.getThumbnailCacheFolder()?.path,
+        preview = cacheGateway.getPreviewCacheFolder()?.path,
+        fullSize = cacheGateway.getFullSizeCacheFolder()?.path,
+    )
 
-    private fun getFullSizeCacheFilePath(megaNode: MegaNode, tempFolder: File?): String? =
-        tempFolder?.let {
-            "$it${File.separator}${megaNode.getFileName()}"
-        }?.takeUnless { megaNode.isFolder }
+    private data class CacheFolderPaths(
+        val thumbnail: String?,
+        val preview: String?,
+        val fullSize: String?,
+    )
 }
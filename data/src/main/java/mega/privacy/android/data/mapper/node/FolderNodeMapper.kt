@@ -26,13 +26,15 @@ internal class FolderNodeMapper @Inject constructor(
      *
      * @param megaNode
      * @param requireSerializedData
+     * @param fields the fields to read, the others keep their empty value
      * @return
      */
     suspend operator fun invoke(
         megaNode: MegaNode,
         fromFolderLink: Boolean,
         requireSerializedData: Boolean,
-        isAvailableOffline: Boolean
+        isAvailableOffline: Boolean,
+        fields: Set<NodeField> = NodeField.ALL,
     ): FolderNode = DefaultFolderNode(
         id = NodeId(megaNode.handle),
         name = megaNode.name,
@@ -42,30 +44,37 @@ internal class FolderNodeMapper @Inject constructor(
         restoreId = NodeId(megaNode.restoreHandle).takeIf {
             it.longValue != MegaApiJava.INVALID_HANDLE
         },
-        childFolderCount = if (fromFolderLink)
-            megaApiFolderGateway.getNumChildFolders(megaNode)
-        else
-            megaApiGateway.getNumChildFolders(megaNode),
-        childFileCount = if (fromFolderLink)
-            megaApiFolderGateway.getNumChildFiles(megaNode)
-        else
-            megaApiGateway.getNumChildFiles(megaNode),
+        childFolderCount = when {
+            NodeField.ChildCounts !in fields -> 0
+            fromFolderLink -> megaApiFolderGateway.getNumChildFolders(megaNode)
+            else -> megaApiGateway.getNumChildFolders(megaNode)
+        },
+        childFileCount = when {
+            NodeField.ChildCounts !in fields -> 0
+            fromFolderLink -> megaApiFolderGateway.getNumChildFiles(megaNode)
+            else -> megaApiGateway.getNumChildFiles(megaNode)
+        },
         isFavourite = megaNode.isFavourite,
         isMarkedSensitive = megaNode.isMarkedSensitive,
         exportedData = megaNode.takeIf { megaNode.isExported }?.let {
             ExportedData(it.publicLink, it.publicLinkCreationTime)
         },
         isTakenDown = megaNode.isTakenDown,
-        isInRubbishBin = megaApiGateway.isInRubbish(megaNode),
+        isInRubbishBin = NodeField.RubbishBin in fields && megaApiGateway.isInRubbish(megaNode),
         isIncomingShare = megaNode.isInShare,
         isShared = megaNode.isOutShare,
-        isPendingShare = megaApiGateway.isPendingShare(megaNode),
+        isPendingShare = NodeField.PendingShare in fields &&
+                megaApiGateway.isPendingShare(megaNode),
         device = megaNode.deviceId,
         isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
         creationTime = megaNode.creationTime,
         fetchChildren = fetChildrenMapper(megaNode),
         serializedData = if (requireSerializedData) megaNode.serialize() else null,
         isAvailableOffline = isAvailableOffline,
-        versionCount = (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0)
+        versionCount = if (NodeField.VersionCount in fields) {
+            (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0)
+        } else {
+            0
+        },
     )
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package mega.privacy.android.data.mapper.node
+
+/**
+ * Node fields needing a call to the SDK or the file system besides reading the node.
+ *
+ * The node mappers read the requested fields when mapping the node. The fields left out keep
+ * their empty value: zero counts, false flags and no cache paths.
+ */
+internal enum class NodeField {
+    /**
+     * File and folder version count
+     */
+    VersionCount,
+
+    /**
+     * Folder child folder and file counts
+     */
+    ChildCounts,
+
+    /**
+     * Whether a folder is in the rubbish bin
+     */
+    RubbishBin,
+
+    /**
+     * Whether a folder is a pending share
+     */
+    PendingShare,
+
+    /**
+     * File thumbnail, preview and full size cache paths
+     */
+    CachePaths;
+
+    companion object {
+        /**
+         * All the fields, for nodes shown or opened
+         */
+        val ALL: Set<NodeField> = entries.toSet()
+
+        /**
+         * None of the fields, for nodes only looked up by their identity and location
+         */
+        val IDENTITY: Set<NodeField> = emptySet()
+    }
+}
@@ -21,24 +21,28 @@ internal class NodeMapper @Inject constructor(
      * @param megaNode  Mega node to map
      * @param fromFolderLink    If the node mapping is from folder link
      * @param requireSerializedData To se the serializedData only when required and not always
+     * @param fields    The fields to read, the others keep their empty value
      */
     suspend operator fun invoke(
         megaNode: MegaNode,
         fromFolderLink: Boolean = false,
         requireSerializedData: Boolean = false,
         offline: Offline? = null,
+        fields: Set<NodeField> = NodeField.ALL,
     ) = if (megaNode.isFolder) {
         folderNodeMapper(
             megaNode = megaNode,
             fromFolderLink = fromFolderLink,
             requireSerializedData = requireSerializedData,
-            isAvailableOffline = offline != null
+            isAvailableOffline = offline != null,
+            fields = fields,
         )
     } else {
         fileNodeMapper(
             megaNode = megaNode,
             requireSerializedData = requireSerializedData,
-            offline = offline
+            offline = offline,
+            fields = fields,
         )
     }
 }
\ No newline at end of file
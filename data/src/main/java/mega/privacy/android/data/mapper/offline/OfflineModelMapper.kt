@@ -8,15 +8,43 @@ import javax.inject.Inject
 internal class OfflineModelMapper @Inject constructor(
     private val decryptData: DecryptData,
 ) {
-    suspend operator fun invoke(offlineEntity: OfflineEntity) = Offline(
-        id = offlineEntity.id ?: -1,
-        handle = decryptData(offlineEntity.encryptedHandle).orEmpty(),
-        path = decryptData(offlineEntity.encryptedPath).orEmpty(),
-        name = decryptData(offlineEntity.encryptedName).orEmpty(),
-        parentId = offlineEntity.parentId ?: -1,
-        type = decryptData(offlineEntity.encryptedType).orEmpty(),
-        origin = offlineEntity.incoming ?: -1,
-        handleIncoming = decryptData(offlineEntity.encryptedIncomingHandle).orEmpty(),
-        lastModifiedTime = offlineEntity.lastModifiedTime ?: 0
+    suspend operator fun invoke(offlineEntity: OfflineEntity) =
+        offlineEntity.toModel(offlineEntity.encryptedFields().map { decryptData(it) }, 0)
+
+    /**
+     * Map a list of entities, decrypting the fields of all the rows in one pass
+     */
+    suspend operator fun invoke(offlineEntities: List<OfflineEntity>): List<Offline> {
+        val fields = decryptData(offlineEntities.flatMap { it.encryptedFields() })
+        return offlineEntities.mapIndexed { index, offlineEntity ->
+            offlineEntity.toModel(fields, index * FIELD_COUNT)
+        }
+    }
+
+    /**
+     * Create the model from the decrypted fields of the entity, starting at the offset
+     */
+    private fun OfflineEntity.toModel(fields: List<String?>, offset: Int) = Offline(
+        id = id ?: -1,
+        handle = fields[offset].orEmpty(),
+        path = fields[offset + 1].orEmpty(),
+        name = fields[offset + 2].orEmpty(),
+        parentId = parentId ?: -1,
+        type = fields[offset + 3].orEmpty(),
+        origin = incoming ?: -1,
+        handleIncoming = fields[offset + 4].orEmpty(),
+        lastModifiedTime = lastModifiedTime ?: 0
     )
-}
\ No newline at end of file
+
+    private fun OfflineEntity.encryptedFields() = listOf(
+        encryptedHandle,
+        encryptedPath,
+        encryptedName,
+        encryptedType,
+        encryptedIncomingHandle,
+    )
+
+    companion object {
+        private const val FIELD_COUNT = 5
+    }
+}
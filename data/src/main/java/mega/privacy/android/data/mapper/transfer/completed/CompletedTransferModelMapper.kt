@@ -8,18 +8,51 @@ import javax.inject.Inject
 internal class CompletedTransferModelMapper @Inject constructor(
     private val decryptData: DecryptData,
 ) {
-    suspend operator fun invoke(entity: CompletedTransferEntity) = CompletedTransfer(
-        id = entity.id,
-        fileName = decryptData(entity.fileName).orEmpty(),
-        type = decryptData(entity.type)?.toIntOrNull() ?: -1,
-        state = decryptData(entity.state)?.toIntOrNull() ?: -1,
-        size = decryptData(entity.size).orEmpty(),
-        handle = decryptData(entity.handle)?.toLongOrNull() ?: -1L,
-        path = decryptData(entity.path).orEmpty(),
-        isOffline = decryptData(entity.isOffline)?.toBooleanStrictOrNull(),
-        timestamp = decryptData(entity.timestamp)?.toLongOrNull() ?: -1L,
-        error = decryptData(entity.error),
-        originalPath = decryptData(entity.originalPath).orEmpty(),
-        parentHandle = decryptData(entity.parentHandle)?.toLongOrNull() ?: -1L,
+    suspend operator fun invoke(entity: CompletedTransferEntity) =
+        entity.toModel(entity.encryptedFields().map { decryptData(it) }, 0)
+
+    /**
+     * Map a list of entities, decrypting the fields of all the rows in one pass
+     */
+    suspend operator fun invoke(entities: List<CompletedTransferEntity>): List<CompletedTransfer> {
+        val fields = decryptData(entities.flatMap { it.encryptedFields() })
+        return entities.mapIndexed { index, entity -> entity.toModel(fields, index * FIELD_COUNT) }
+    }
+
+    /**
+     * Create the model from the decrypted fields of the entity, starting at the offset
+     */
+    private fun CompletedTransferEntity.toModel(fields: List<String?>, offset: Int) =
+        CompletedTransfer(
+            id = id,
+            fileName = fields[offset].orEmpty(),
+            type = fields[offset + 1]?.toIntOrNull() ?: -1,
+            state = fields[offset + 2]?.toIntOrNull() ?: -1,
+            size = fields[offset + 3].orEmpty(),
+            handle = fields[offset + 4]?.toLongOrNull() ?: -1L,
+            path = fields[offset + 5].orEmpty(),
+            isOffline = fields[offset + 6]?.toBooleanStrictOrNull(),
+            timestamp = fields[offset + 7]?.toLongOrNull() ?: -1L,
+            error = fields[offset + 8],
+            originalPath = fields[offset + 9].orEmpty(),
+            parentHandle = fields[offset + 10]?.toLongOrNull() ?: -1L,
+        )
+
+    private fun CompletedTransferEntity.encryptedFields() = listOf(
+        fileName,
+        type,
+        state,
+        size,
+        handle,
+        path,
+        isOffline,
+        timestamp,
+        error,
+        originalPath,
+        parentHandle,
     )
+
+    companion object {
+        private const val FIELD_COUNT = 11
+    }
 }
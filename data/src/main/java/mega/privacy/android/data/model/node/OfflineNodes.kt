@@ -0,0 +1,64 @@
+package mega.privacy.android.data.model.node
+
+import mega.privacy.android.domain.entity.Offline
+
+/**
+ * Immutable offline information of the nodes available offline, keyed by node handle.
+ *
+ * The handles are kept in an open addressing table of primitive longs, so looking up the nodes of
+ * a list neither boxes the handles nor builds strings from them.
+ */
+class OfflineNodes internal constructor(offlineNodes: Collection<Pair<Long, Offline>>) {
+
+    private val handles: LongArray
+
+    private val values: Array<Offline?>
+
+    /**
+     * Number of nodes available offline
+     */
+    val size: Int
+
+    init {
+        var tableSize = MIN_TABLE_SIZE
+        while (tableSize < offlineNodes.size * 2) tableSize *= 2
+        handles = LongArray(tableSize)
+        values = arrayOfNulls(tableSize)
+
+        var count = 0
+        offlineNodes.forEach { (handle, offline) ->
+            val slot = findSlot(handle)
+            if (values[slot] == null) count++
+            handles[slot] = handle
+            values[slot] = offline
+        }
+        size = count
+    }
+
+    /**
+     * Get the offline information of a node
+     *
+     * @param handle Node handle
+     * @return The offline information, null if the node is not available offline
+     */
+    operator fun get(handle: Long): Offline? = values[findSlot(handle)]
+
+    private fun findSlot(handle: Long): Int {
+        val mask = handles.size - 1
+        val hash = handle * -0x61c8864680b583ebL
+        var slot = (hash xor (hash ushr 32)).toInt() and mask
+        while (values[slot] != null && handles[slot] != handle) {
+            slot = (slot + 1) and mask
+        }
+        return slot
+    }
+
+    companion object {
+        private const val MIN_TABLE_SIZE = 16
+
+        /**
+         * No node available offline
+         */
+        val EMPTY = OfflineNodes(emptyList())
+    }
+}
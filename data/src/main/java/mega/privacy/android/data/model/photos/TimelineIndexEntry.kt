@@ -0,0 +1,36 @@
+package mega.privacy.android.data.model.photos
+
+/**
+ * Media node of the timeline, as persisted in the timeline index
+ *
+ * @property id Node handle
+ * @property parentId Parent node handle
+ * @property name Node name
+ * @property isVideo True for a video, false for an image
+ * @property isFavourite True if the node is a favourite
+ * @property isTakenDown True if the node is taken down
+ * @property creationTime Creation time, in seconds since epoch
+ * @property modificationTime Modification time, in seconds since epoch
+ * @property size Size in bytes
+ * @property mimeType Mime type
+ * @property extension File extension
+ * @property duration Duration of a video, in seconds
+ * @property thumbnailFileName Name of the thumbnail in the thumbnail cache folder
+ * @property previewFileName Name of the preview in the preview cache folder
+ */
+data class TimelineIndexEntry(
+    val id: Long,
+    val parentId: Long,
+    val name: String,
+    val isVideo: Boolean,
+    val isFavourite: Boolean,
+    val isTakenDown: Boolean,
+    val creationTime: Long,
+    val modificationTime: Long,
+    val size: Long,
+    val mimeType: String,
+    val extension: String,
+    val duration: Int,
+    val thumbnailFileName: String?,
+    val previewFileName: String?,
+)
@@ -9,10 +9,13 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.flow.map
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.extensions.monitor
 import mega.privacy.android.data.gateway.preferences.CameraUploadsSettingsPreferenceGateway
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import javax.inject.Inject
 import javax.inject.Named
 
@@ -277,6 +280,28 @@ internal class CameraUploadsSettingsPreferenceDataStore(
         }
     }
 
+    override suspend fun getMediaWatermark(key: String): CameraUploadsMediaWatermark? {
+        return getPreferenceFlow().monitor(getMediaWatermarkKey(key))
+            .map { value ->
+                decryptData(value)?.let {
+                    runCatching { Json.decodeFromString<CameraUploadsMediaWatermark>(it) }.getOrNull()
+                }
+            }.firstOrNull()
+    }
+
+    override suspend fun setMediaWatermark(key: String, watermark: CameraUploadsMediaWatermark?) {
+        val encryptedValue = encryptData(watermark?.let { Json.encodeToString(it) })
+        editPreferences {
+            if (encryptedValue == null) {
+                it.remove(getMediaWatermarkKey(key))
+            } else {
+                it[getMediaWatermarkKey(key)] = encryptedValue
+            }
+        }
+    }
+
+    private fun getMediaWatermarkKey(key: String) = stringPreferencesKey("mediaWatermarkKey_$key")
+
     override suspend fun clearPreferences() {
         editPreferences {
             it.clear()
@@ -2,7 +2,7 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.audios.TypedAudioNodeMapper
@@ -26,7 +26,7 @@ internal class AudioSectionRepositoryImpl @Inject constructor(
     private val fileNodeMapper: FileNodeMapper,
     private val typedAudioNodeMapper: TypedAudioNodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineNodeIndexGateway: OfflineNodeIndexGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : AudioSectionRepository {
     override suspend fun getAllAudios(order: SortOrder): List<TypedAudioNode> =
@@ -41,7 +41,7 @@ internal class AudioSectionRepositoryImpl @Inject constructor(
             ).map { megaNode ->
                 typedAudioNodeMapper(
                     fileNode = megaNode.convertToFileNode(
-                        offlineItems?.get(megaNode.handle.toString())
+                        offlineItems[megaNode.handle]
                     ),
                     duration = megaNode.duration,
                 )
@@ -49,7 +49,7 @@ internal class AudioSectionRepositoryImpl @Inject constructor(
         }
 
     private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
+        offlineNodeIndexGateway.getOfflineNodes()
 
     private suspend fun MegaNode.convertToFileNode(offline: Offline?) = fileNodeMapper(
         megaNode = this, requireSerializedData = false, offline = offline
@@ -3,6 +3,7 @@ package mega.privacy.android.data.repository
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.CacheFolderGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.CacheRepository
 import java.io.File
@@ -13,6 +14,7 @@ import javax.inject.Inject
  */
 internal class CacheRepositoryImpl @Inject constructor(
     private val cacheFolderGateway: CacheFolderGateway,
+    private val packedThumbnailGateway: PackedThumbnailGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : CacheRepository {
     override suspend fun getCacheSize(): Long = withContext(ioDispatcher) {
@@ -20,6 +22,7 @@ internal class CacheRepositoryImpl @Inject constructor(
     }
 
     override suspend fun clearCache() = withContext(ioDispatcher) {
+        packedThumbnailGateway.clear()
         cacheFolderGateway.clearCache()
     }
 
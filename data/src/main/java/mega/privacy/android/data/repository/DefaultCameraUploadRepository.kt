@@ -40,7 +40,8 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
-import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
@@ -219,18 +220,45 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         )
     }
 
-    override suspend fun getMediaList(
+    override suspend fun scanMedia(
         mediaStoreFileType: MediaStoreFileType,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia> = withContext(ioDispatcher) {
-        val queue = cameraUploadsMediaGateway.getMediaList(
+        watermark: CameraUploadsMediaWatermark?,
+    ): CameraUploadsMediaScan = withContext(ioDispatcher) {
+        val scan = cameraUploadsMediaGateway.scanMedia(
             mediaStoreFileTypeUriMapper(mediaStoreFileType),
-            selectionQuery
+            selectionQuery,
+            watermark,
         )
-        Timber.d("$mediaStoreFileType count from media store database: ${queue.size}")
-        queue
+        Timber.d("$mediaStoreFileType count from media store database since watermark: ${scan.media.size}")
+        scan
     }
 
+    override suspend fun getMediaWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): CameraUploadsMediaWatermark? = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.getMediaWatermark(
+            getMediaWatermarkKey(folderType, mediaStoreFileType)
+        )
+    }
+
+    override suspend fun setMediaWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: CameraUploadsMediaWatermark?,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.setMediaWatermark(
+            getMediaWatermarkKey(folderType, mediaStoreFileType),
+            watermark,
+        )
+    }
+
+    private fun getMediaWatermarkKey(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ) = "${folderType.name}_${mediaStoreFileType.name}"
+
     override suspend fun isChargingRequiredForVideoCompression() = withContext(ioDispatcher) {
         cameraUploadsSettingsPreferenceGateway.isChargingRequiredForVideoCompression()
     }
@@ -614,6 +642,16 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         folderTypes: List<CameraUploadFolderType>,
     ) = withContext(ioDispatcher) {
         megaLocalRoomGateway.deleteCameraUploadsRecords(folderTypes)
+        // The records are used to filter out the media already retrieved,
+        // the next scan must retrieve all the media again
+        folderTypes.forEach { folderType ->
+            MediaStoreFileType.entries.forEach { mediaStoreFileType ->
+                cameraUploadsSettingsPreferenceGateway.setMediaWatermark(
+                    getMediaWatermarkKey(folderType, mediaStoreFileType),
+                    null,
+                )
+            }
+        }
     }
 
     private companion object {
@@ -11,6 +11,7 @@ import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.preferences.AppPreferencesGateway
@@ -48,6 +49,7 @@ internal class DefaultMediaPlayerRepository @Inject constructor(
     private val megaApi: MegaApiGateway,
     private val megaApiFolder: MegaApiFolderGateway,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineNodeIndexGateway: OfflineNodeIndexGateway,
     private val dbHandler: DatabaseHandler,
     private val fileNodeMapper: FileNodeMapper,
     private val typedAudioNodeMapper: TypedAudioNodeMapper,
@@ -320,7 +322,7 @@ internal class DefaultMediaPlayerRepository @Inject constructor(
         return handles.mapNotNull { handle ->
             megaApi.getMegaNodeByHandle(handle)
         }.map { node ->
-            convertToTypedAudioNode(node = node, offline = offlineMap?.get(node.handle.toString()))
+            convertToTypedAudioNode(node = node, offline = offlineMap[node.handle])
         }
     }
 
@@ -329,12 +331,12 @@ internal class DefaultMediaPlayerRepository @Inject constructor(
         return handles.mapNotNull { handle ->
             megaApi.getMegaNodeByHandle(handle)
         }.map { node ->
-            convertToTypedVideoNode(node = node, offline = offlineMap?.get(node.handle.toString()))
+            convertToTypedVideoNode(node = node, offline = offlineMap[node.handle])
         }
     }
 
     private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
+        offlineNodeIndexGateway.getOfflineNodes()
 
     override suspend fun getVideoNodeByHandle(handle: Long, attemptFromFolderApi: Boolean) =
         withContext(ioDispatcher) {
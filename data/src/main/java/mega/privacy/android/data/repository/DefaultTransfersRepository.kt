@@ -14,22 +14,16 @@ import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.combine
-import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.firstOrNull
-import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.extensions.getRequestListener
-import mega.privacy.android.data.extensions.isBackgroundTransfer
 import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.DeviceGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
@@ -40,7 +34,6 @@ import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaTransferListenerInterface
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
-import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
 import mega.privacy.android.data.mapper.transfer.CompletedTransferMapper
 import mega.privacy.android.data.mapper.transfer.PausedTransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferAppDataStringMapper
@@ -104,6 +97,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     private val megaNodeMapper: MegaNodeMapper,
     private val sdCardGateway: SDCardGateway,
     private val deviceGateway: DeviceGateway,
+    private val pendingTransfersCounter: PendingTransfersCounter,
 ) : TransferRepository {
 
     private val monitorPausedTransfers = MutableStateFlow(false)
@@ -111,8 +105,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     /**
      * to store current transferred bytes in memory instead of in database
      */
-    private val transferredBytesFlows =
-        HashMap<TransferType, MutableStateFlow<Map<Int, Long>>>()
+    private val transferredBytes = TransferType.entries.associateWith { TransferredBytes() }
 
     init {
         //pause transfers if db indicates it should be paused
@@ -261,86 +254,42 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
     }
 
-    private suspend fun getUploadTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
-        megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)
-    }
-
-    private suspend fun getDownloadTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
-        megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)
-    }
+    override suspend fun getNumPendingDownloadsNonBackground(): Int =
+        pendingTransfersCounter.getCounts().downloadsNonBackground
 
-    override suspend fun getNumPendingDownloadsNonBackground(): Int = withContext(ioDispatcher) {
-        getDownloadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isBackgroundTransfer()
-        }
-    }
+    override suspend fun getNumPendingUploads(): Int =
+        pendingTransfersCounter.getCounts().uploads
 
-    override suspend fun getNumPendingUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer -> !transfer.isFinished }
-    }
-
-    override suspend fun getNumPendingGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingGeneralUploads() =
+        pendingTransfersCounter.getCounts().generalUploads
 
-    override suspend fun getNumPendingCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isCUUpload()
-        }
-    }
+    override suspend fun getNumPendingCameraUploads() =
+        pendingTransfersCounter.getCounts().cameraUploads
 
-    override suspend fun getNumPendingChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingChatUploads() =
+        pendingTransfersCounter.getCounts().chatUploads
 
-    override suspend fun getNumPendingTransfers(): Int = withContext(ioDispatcher) {
-        getNumPendingDownloadsNonBackground() + getNumPendingUploads()
-    }
+    override suspend fun getNumPendingTransfers(): Int =
+        pendingTransfersCounter.getCounts().let { it.downloadsNonBackground + it.uploads }
 
     override suspend fun isCompletedTransfersEmpty(): Boolean = withContext(ioDispatcher) {
         megaLocalRoomGateway.getCompletedTransfersCount() == 0
     }
 
-    override suspend fun getNumPendingPausedUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-        }
-    }
+    override suspend fun getNumPendingPausedUploads(): Int =
+        pendingTransfersCounter.getCounts().pausedUploads
 
-    override suspend fun getNumPendingPausedGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-                    && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingPausedGeneralUploads() =
+        pendingTransfersCounter.getCounts().pausedGeneralUploads
 
-    override suspend fun getNumPendingPausedCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isCUUpload()
-        }
-    }
-
-    override suspend fun getNumPendingPausedChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingPausedCameraUploads() =
+        pendingTransfersCounter.getCounts().pausedCameraUploads
 
+    override suspend fun getNumPendingPausedChatUploads() =
+        pendingTransfersCounter.getCounts().pausedChatUploads
 
     override suspend fun getNumPendingNonBackgroundPausedDownloads(): Int =
-        withContext(ioDispatcher) {
-            getDownloadTransfers().count { transfer ->
-                !transfer.isFinished && !transfer.isBackgroundTransfer() && transfer.state == MegaTransfer.STATE_PAUSED
-            }
-        }
+        pendingTransfersCounter.getCounts().pausedDownloadsNonBackground
 
     override fun monitorTransferEvents(): Flow<TransferEvent> =
         merge(
@@ -549,14 +498,12 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
 
     override suspend fun updateTransferredBytes(transfer: Transfer) {
-        transferredBytesFlow(transfer.transferType).update {
-            it + (transfer.tag to transfer.transferredBytes)
-        }
+        transferredBytes(transfer.transferType).put(transfer.tag, transfer.transferredBytes)
     }
 
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
-            transferredBytesFlow(transferType).value = mapOf()
+            transferredBytes(transferType).clear()
             megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
         }
 
@@ -566,22 +513,20 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
 
     override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
-        flow {
-            val transferredBytesFlow = transferredBytesFlow(transferType)
-            emitAll(
-                megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
-                    .combine(transferredBytesFlow) { activeTransfers, transferredBytes ->
-                        activeTransferTotalsMapper(transferType, activeTransfers, transferredBytes)
-                    }
-            )
-        }.cancellable()
+        megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
+            .combine(
+                transferredBytes(transferType)
+                    .sampledSnapshots(TRANSFERRED_BYTES_SAMPLE_PERIOD_MILLIS)
+            ) { activeTransfers, transferredBytes ->
+                activeTransferTotalsMapper(transferType, activeTransfers, transferredBytes)
+            }.cancellable()
 
     override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals =
         withContext(ioDispatcher) {
             activeTransferTotalsMapper(
                 type = transferType,
                 list = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType),
-                transferredBytes = transferredBytesFlow(transferType).value
+                transferredBytes = transferredBytes(transferType).snapshot()
             )
         }
 
@@ -702,23 +647,15 @@ internal class DefaultTransfersRepository @Inject constructor(
     )
     override suspend fun getTotalDownloads() = megaApiGateway.totalDownloads
 
-    private val transferredBytesFlowMutex = Mutex()
-    private suspend fun transferredBytesFlow(transferType: TransferType): MutableStateFlow<Map<Int, Long>> {
-        transferredBytesFlowMutex.withLock {
-            return transferredBytesFlows[transferType]
-                ?: MutableStateFlow<Map<Int, Long>>(mapOf()).also {
-                    transferredBytesFlows[transferType] = it
-                }
-        }
-    }
+    private fun transferredBytes(transferType: TransferType) =
+        transferredBytes.getValue(transferType)
 
     companion object {
         internal const val TRANSFERS_SD_TEMPORARY_FOLDER = "transfersSdTempMEGA"
+
+        /**
+         * Minimum period between two transferred bytes updates of the active transfer totals
+         */
+        private const val TRANSFERRED_BYTES_SAMPLE_PERIOD_MILLIS = 250L
     }
 }
-
-private fun MegaTransfer.isCUUpload() =
-    this.appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
-
-private fun MegaTransfer.isChatUpload() =
-    this.appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
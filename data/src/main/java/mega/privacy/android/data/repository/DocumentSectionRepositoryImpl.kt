@@ -2,7 +2,7 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
@@ -21,7 +21,7 @@ import javax.inject.Inject
 internal class DocumentSectionRepositoryImpl @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
     private val sortOrderIntMapper: SortOrderIntMapper,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineNodeIndexGateway: OfflineNodeIndexGateway,
     private val nodeMapper: NodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
@@ -38,13 +38,13 @@ internal class DocumentSectionRepositoryImpl @Inject constructor(
             ).map { megaNode ->
                 convertToUnTypedNode(
                     node = megaNode,
-                    offline = offlineItems?.get(megaNode.handle.toString())
+                    offline = offlineItems[megaNode.handle]
                 )
             }
         }
 
     private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
+        offlineNodeIndexGateway.getOfflineNodes()
 
     private suspend fun convertToUnTypedNode(
         node: MegaNode,
@@ -8,6 +8,7 @@ import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
@@ -19,6 +20,7 @@ import mega.privacy.android.data.extensions.toException
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.api.MegaChatApiGateway
@@ -33,6 +35,7 @@ import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
+import mega.privacy.android.data.mapper.node.NodeField
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.node.NodeShareKeyResultMapper
 import mega.privacy.android.data.mapper.node.label.NodeLabelIntMapper
@@ -40,6 +43,7 @@ import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
 import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.NodeLabel
@@ -48,6 +52,7 @@ import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.node.TypedFolderNode
@@ -112,6 +117,7 @@ internal class NodeRepositoryImpl @Inject constructor(
     private val nodeShareKeyResultMapper: NodeShareKeyResultMapper,
     private val accessPermissionIntMapper: AccessPermissionIntMapper,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineNodeIndexGateway: OfflineNodeIndexGateway,
     private val megaNodeMapper: MegaNodeMapper,
     private val nodeLabelIntMapper: NodeLabelIntMapper,
 ) : NodeRepository {
@@ -268,7 +274,7 @@ internal class NodeRepositoryImpl @Inject constructor(
                     .map {
                         convertToUnTypedNode(
                             node = it,
-                            offline = offlineNodes?.get(it.handle.toString())
+                            offline = offlineNodes[it.handle],
                         )
                     }
             } ?: throw SynchronisationException("Non null node found be null when fetched from api")
@@ -301,13 +307,13 @@ internal class NodeRepositoryImpl @Inject constructor(
 
     private suspend fun mapMegaNodesToUnTypedNodes(
         childList: List<MegaNode>,
-        offlineItems: Map<String, Offline>?,
+        offlineItems: OfflineNodes,
     ): List<UnTypedNode> = coroutineScope {
         childList.map { megaNode ->
             async {
                 convertToUnTypedNode(
                     node = megaNode,
-                    offline = offlineItems?.get(megaNode.handle.toString())
+                    offline = offlineItems[megaNode.handle],
                 )
             }
         }.awaitAll()
@@ -722,6 +728,87 @@ internal class NodeRepositoryImpl @Inject constructor(
             }
     }
 
+    override fun getNodesByFingerprints(
+        lookups: List<NodeFingerprintLookup>,
+        chunkSize: Int,
+    ): Flow<List<UnTypedNode?>> = flow {
+        // Each target folder is listed once for all the lookups, whatever its size
+        val parentIndexes = lookups.mapTo(LinkedHashSet()) { it.parentNodeId }
+            .mapNotNull { parentNodeId ->
+                megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue)
+                    ?.let { parentNodeId to getChildrenFingerprintIndex(it) }
+            }.toMap()
+        val indexMatches = lookups.map { lookup ->
+            parentIndexes[lookup.parentNodeId]?.let { index ->
+                index.byOriginalFingerprint[lookup.originalFingerprint]
+                    ?: index.byFingerprint[lookup.originalFingerprint]
+                    ?: lookup.generatedFingerprint?.let { index.byFingerprint[it] }
+            }
+        }
+
+        // The lookups not found in their folder are resolved in the whole account in one pass
+        val nodesByOriginalFingerprint = HashMap<String, MegaNode?>()
+        val nodesByFingerprint = HashMap<String, MegaNode?>()
+
+        suspend fun findByOriginalFingerprint(originalFingerprint: String): MegaNode? =
+            if (nodesByOriginalFingerprint.containsKey(originalFingerprint)) {
+                nodesByOriginalFingerprint[originalFingerprint]
+            } else {
+                megaApiGateway.getNodesByOriginalFingerprint(originalFingerprint, null)
+                    ?.takeIf { it.size() > 0 }?.get(0)
+                    .also { nodesByOriginalFingerprint[originalFingerprint] = it }
+            }
+
+        suspend fun findByFingerprint(fingerprint: String): MegaNode? =
+            if (nodesByFingerprint.containsKey(fingerprint)) {
+                nodesByFingerprint[fingerprint]
+            } else {
+                megaApiGateway.getNodeByFingerprintAndParentNode(fingerprint, null)
+                    .also { nodesByFingerprint[fingerprint] = it }
+            }
+
+        val accountMatches = lookups.filterIndexed { position, _ -> indexMatches[position] == null }
+            .associate { lookup ->
+                val megaNode = findByOriginalFingerprint(lookup.originalFingerprint)
+                    ?: findByFingerprint(lookup.originalFingerprint)
+                    ?: lookup.generatedFingerprint?.let { findByFingerprint(it) }
+                (lookup.originalFingerprint to lookup.generatedFingerprint) to megaNode
+            }
+        Timber.d("Indexed ${parentIndexes.size} folders, searched ${accountMatches.size} of ${lookups.size} fingerprint lookups in the account")
+
+        lookups.indices.chunked(chunkSize).forEach { chunk ->
+            emit(chunk.map { position ->
+                val lookup = lookups[position]
+                val megaNode = indexMatches[position]
+                    ?: accountMatches[lookup.originalFingerprint to lookup.generatedFingerprint]
+                // Only the identity and the parent of the found nodes are used by the lookups
+                megaNode?.let {
+                    nodeMapper(
+                        megaNode = it,
+                        offline = getOfflineNode(it.handle),
+                        fields = NodeField.IDENTITY,
+                    )
+                }
+            })
+        }
+    }.flowOn(ioDispatcher)
+
+    private suspend fun getChildrenFingerprintIndex(parentNode: MegaNode): ChildrenFingerprintIndex {
+        val byFingerprint = HashMap<String, MegaNode>()
+        val byOriginalFingerprint = HashMap<String, MegaNode>()
+        megaApiGateway.getChildrenByNode(parentNode).forEach { child ->
+            if (child.isFolder) return@forEach
+            child.fingerprint?.let { byFingerprint.putIfAbsent(it, child) }
+            child.originalFingerprint?.let { byOriginalFingerprint.putIfAbsent(it, child) }
+        }
+        return ChildrenFingerprintIndex(byFingerprint, byOriginalFingerprint)
+    }
+
+    private class ChildrenFingerprintIndex(
+        val byFingerprint: Map<String, MegaNode>,
+        val byOriginalFingerprint: Map<String, MegaNode>,
+    )
+
     override suspend fun getNodeByFingerprint(fingerprint: String) =
         withContext(ioDispatcher) {
             megaApiGateway.getNodeByFingerprint(fingerprint)
@@ -802,7 +889,7 @@ internal class NodeRepositoryImpl @Inject constructor(
         return handles.mapNotNull { handle ->
             megaApiGateway.getMegaNodeByHandle(handle)
         }.map { node ->
-            convertToUnTypedNode(node = node, offline = offlineMap?.get(node.handle.toString()))
+            convertToUnTypedNode(node = node, offline = offlineMap[node.handle])
         }
     }
 
@@ -992,7 +1079,7 @@ internal class NodeRepositoryImpl @Inject constructor(
         }
 
     private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
+        offlineNodeIndexGateway.getOfflineNodes()
 
     private suspend fun getOfflineNode(handle: Long) =
         megaLocalRoomGateway.getOfflineInformation(handle)
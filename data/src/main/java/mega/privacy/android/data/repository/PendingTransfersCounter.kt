@@ -0,0 +1,279 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.extensions.isBackgroundTransfer
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.model.RequestEvent
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaRequest
+import nz.mega.sdk.MegaTransfer
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Counts the pending transfers of each category.
+ *
+ * The counts are updated on each SDK transfer event, from the category and paused state of the
+ * transfer, instead of getting and filtering all the SDK transfers each time they are needed.
+ * They are reconciled with the SDK transfers on first use, after transfers are paused or resumed
+ * globally, and periodically to correct any missed event. The events received while the SDK
+ * transfers are read are replayed on top of them, as the transfers read may predate them.
+ */
+@Singleton
+internal class PendingTransfersCounter @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    @ApplicationScope private val scope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Pending transfers count of each category
+     *
+     * @property downloadsNonBackground pending downloads that are not background transfers
+     * @property pausedDownloadsNonBackground paused pending downloads that are not background transfers
+     * @property uploads pending uploads
+     * @property generalUploads pending uploads that are not camera or chat uploads
+     * @property cameraUploads pending camera uploads
+     * @property chatUploads pending chat uploads
+     * @property pausedUploads paused pending uploads
+     * @property pausedGeneralUploads paused pending uploads that are not camera or chat uploads
+     * @property pausedCameraUploads paused pending camera uploads
+     * @property pausedChatUploads paused pending chat uploads
+     */
+    data class Counts(
+        val downloadsNonBackground: Int = 0,
+        val pausedDownloadsNonBackground: Int = 0,
+        val uploads: Int = 0,
+        val generalUploads: Int = 0,
+        val cameraUploads: Int = 0,
+        val chatUploads: Int = 0,
+        val pausedUploads: Int = 0,
+        val pausedGeneralUploads: Int = 0,
+        val pausedCameraUploads: Int = 0,
+        val pausedChatUploads: Int = 0,
+    )
+
+    /**
+     * Categories of the pending transfers, keyed by transfer tag
+     */
+    private val categories = HashMap<Int, Int>()
+
+    private val counters = IntArray(COUNTERS)
+
+    /**
+     * Number of reconciliations reading the SDK transfers
+     */
+    private var reconciliations = 0
+
+    /**
+     * Categories set by the events received while [reconciliations] is not 0, as pairs of
+     * transfer tag and category, in the order received
+     */
+    private val pendingEvents = ArrayList<Pair<Int, Int>>()
+
+    private val _counts = MutableStateFlow<Counts?>(null)
+
+    private val isMonitoring = AtomicBoolean(false)
+
+    /**
+     * Pending transfers count, null until the first reconciliation with the SDK transfers
+     */
+    val counts: StateFlow<Counts?> = _counts.asStateFlow()
+
+    /**
+     * Get the current pending transfers count
+     */
+    suspend fun getCounts(): Counts {
+        startMonitoring()
+        return _counts.value ?: reconcile()
+    }
+
+    /**
+     * Replace the counts with the ones of the SDK transfers
+     */
+    suspend fun reconcile(): Counts = withContext(ioDispatcher) {
+        synchronized(this@PendingTransfersCounter) { reconciliations++ }
+        try {
+            val downloads = megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)
+            val uploads = megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)
+            synchronized(this@PendingTransfersCounter) {
+                categories.clear()
+                counters.fill(0)
+                downloads.forEach { update(it.tag, it.category(MegaTransfer.TYPE_DOWNLOAD)) }
+                uploads.forEach { update(it.tag, it.category(MegaTransfer.TYPE_UPLOAD)) }
+                pendingEvents.forEach { (tag, category) -> update(tag, category) }
+                publish()
+            }
+        } finally {
+            synchronized(this@PendingTransfersCounter) {
+                if (--reconciliations == 0) pendingEvents.clear()
+            }
+        }
+    }
+
+    private fun startMonitoring() {
+        if (!isMonitoring.compareAndSet(false, true)) return
+
+        scope.launch(ioDispatcher) {
+            flow { emitAll(megaApiGateway.globalTransfer) }
+                .catch { Timber.e(it) }
+                .collect { onTransferEvent(it) }
+        }
+        scope.launch(ioDispatcher) {
+            flow { emitAll(megaApiGateway.globalRequestEvents) }
+                .catch { Timber.e(it) }
+                .collect { onRequestEvent(it) }
+        }
+        scope.launch(ioDispatcher) {
+            while (true) {
+                delay(RECONCILIATION_PERIOD_MILLIS)
+                runCatching { reconcile() }.onFailure { Timber.e(it) }
+            }
+        }
+    }
+
+    private fun onTransferEvent(event: GlobalTransfer) {
+        val transfer = event.transfer
+        val category =
+            if (event is GlobalTransfer.OnTransferFinish) NONE else transfer.category(transfer.type)
+        synchronized(this) {
+            if (updateFromEvent(transfer.tag, category)) publish()
+        }
+    }
+
+    private suspend fun onRequestEvent(event: RequestEvent) {
+        if (event !is RequestEvent.OnRequestFinish || event.error.errorCode != MegaError.API_OK) return
+        when (event.request.type) {
+            MegaRequest.TYPE_PAUSE_TRANSFER -> synchronized(this) {
+                val tag = event.request.transferTag
+                val category = categories[tag] ?: return
+                val paused = if (event.request.flag) category or PAUSED else category and PAUSED.inv()
+                if (updateFromEvent(tag, paused)) publish()
+            }
+
+            MegaRequest.TYPE_PAUSE_TRANSFERS -> reconcile()
+        }
+    }
+
+    /**
+     * Set the category of a transfer from an event, keeping it to be replayed by the
+     * reconciliations reading the SDK transfers
+     *
+     * @return true if the counts changed
+     */
+    private fun updateFromEvent(tag: Int, category: Int): Boolean {
+        if (reconciliations > 0) pendingEvents.add(tag to category)
+        return update(tag, category)
+    }
+
+    /**
+     * Set the category of a transfer, [NONE] if it is not pending
+     *
+     * @return true if the counts changed
+     */
+    private fun update(tag: Int, category: Int): Boolean {
+        val previous = categories[tag] ?: NONE
+        if (previous == category) return false
+
+        count(previous, -1)
+        count(category, 1)
+        if (category == NONE) categories.remove(tag) else categories[tag] = category
+        return true
+    }
+
+    private fun count(category: Int, delta: Int) {
+        if (category == NONE) return
+
+        val paused = category and PAUSED != 0
+        if (category and DOWNLOAD != 0) {
+            counters[DOWNLOADS_NON_BACKGROUND] += delta
+            if (paused) counters[PAUSED_DOWNLOADS_NON_BACKGROUND] += delta
+            return
+        }
+        counters[UPLOADS] += delta
+        if (paused) counters[PAUSED_UPLOADS] += delta
+        val (counter, pausedCounter) = when {
+            category and CAMERA_UPLOAD != 0 -> CAMERA_UPLOADS to PAUSED_CAMERA_UPLOADS
+            category and CHAT_UPLOAD != 0 -> CHAT_UPLOADS to PAUSED_CHAT_UPLOADS
+            else -> GENERAL_UPLOADS to PAUSED_GENERAL_UPLOADS
+        }
+        counters[counter] += delta
+        if (paused) counters[pausedCounter] += delta
+    }
+
+    private fun publish() = Counts(
+        downloadsNonBackground = counters[DOWNLOADS_NON_BACKGROUND],
+        pausedDownloadsNonBackground = counters[PAUSED_DOWNLOADS_NON_BACKGROUND],
+        uploads = counters[UPLOADS],
+        generalUploads = counters[GENERAL_UPLOADS],
+        cameraUploads = counters[CAMERA_UPLOADS],
+        chatUploads = counters[CHAT_UPLOADS],
+        pausedUploads = counters[PAUSED_UPLOADS],
+        pausedGeneralUploads = counters[PAUSED_GENERAL_UPLOADS],
+        pausedCameraUploads = counters[PAUSED_CAMERA_UPLOADS],
+        pausedChatUploads = counters[PAUSED_CHAT_UPLOADS],
+    ).also { _counts.value = it }
+
+    /**
+     * Category of a transfer of the given type, [NONE] if it is not counted
+     */
+    private fun MegaTransfer.category(type: Int): Int {
+        if (isFinished) return NONE
+        val paused = if (state == MegaTransfer.STATE_PAUSED) PAUSED else 0
+        return when (type) {
+            MegaTransfer.TYPE_DOWNLOAD -> if (isBackgroundTransfer()) NONE else DOWNLOAD or paused
+            MegaTransfer.TYPE_UPLOAD -> when {
+                isCUUpload() -> UPLOAD or CAMERA_UPLOAD or paused
+                isChatUpload() -> UPLOAD or CHAT_UPLOAD or paused
+                else -> UPLOAD or paused
+            }
+
+            else -> NONE
+        }
+    }
+
+    companion object {
+        private const val RECONCILIATION_PERIOD_MILLIS = 60_000L
+
+        private const val NONE = 0
+        private const val DOWNLOAD = 1
+        private const val UPLOAD = 1 shl 1
+        private const val CAMERA_UPLOAD = 1 shl 2
+        private const val CHAT_UPLOAD = 1 shl 3
+        private const val PAUSED = 1 shl 4
+
+        private const val DOWNLOADS_NON_BACKGROUND = 0
+        private const val PAUSED_DOWNLOADS_NON_BACKGROUND = 1
+        private const val UPLOADS = 2
+        private const val GENERAL_UPLOADS = 3
+        private const val CAMERA_UPLOADS = 4
+        private const val CHAT_UPLOADS = 5
+        private const val PAUSED_UPLOADS = 6
+        private const val PAUSED_GENERAL_UPLOADS = 7
+        private const val PAUSED_CAMERA_UPLOADS = 8
+        private const val PAUSED_CHAT_UPLOADS = 9
+        private const val COUNTERS = 10
+    }
+}
+
+private fun MegaTransfer.isCUUpload() =
+    this.appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
+
+private fun MegaTransfer.isChatUpload() =
+    this.appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
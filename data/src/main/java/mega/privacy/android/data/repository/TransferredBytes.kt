@@ -0,0 +1,130 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onStart
+import kotlinx.coroutines.flow.sample
+
+/**
+ * Transferred bytes of the active transfers, keyed by transfer tag.
+ *
+ * Each transfer update is stored in place in an open addressing table of primitive tags and
+ * bytes, so it does not allocate or copy the other transfers. Readers get snapshots, built at
+ * most once per sample period.
+ */
+internal class TransferredBytes {
+
+    private var tags = IntArray(INITIAL_TABLE_SIZE)
+
+    private var bytes = LongArray(INITIAL_TABLE_SIZE)
+
+    private var used = BooleanArray(INITIAL_TABLE_SIZE)
+
+    private var size = 0
+
+    private val updates = MutableSharedFlow<Unit>(
+        replay = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST,
+    )
+
+    /**
+     * Set the transferred bytes of a transfer
+     */
+    fun put(tag: Int, transferredBytes: Long) {
+        synchronized(this) {
+            if ((size + 1) * 2 > tags.size) {
+                rehash(tags.size * 2)
+            }
+            val slot = findSlot(tag)
+            if (!used[slot]) {
+                used[slot] = true
+                tags[slot] = tag
+                size++
+            }
+            bytes[slot] = transferredBytes
+        }
+        updates.tryEmit(Unit)
+    }
+
+    /**
+     * Get the transferred bytes of a transfer, null if there is no update for it
+     */
+    operator fun get(tag: Int): Long? = synchronized(this) {
+        val slot = findSlot(tag)
+        if (used[slot]) bytes[slot] else null
+    }
+
+    /**
+     * Remove all the transfers
+     */
+    fun clear() {
+        synchronized(this) {
+            tags = IntArray(INITIAL_TABLE_SIZE)
+            bytes = LongArray(INITIAL_TABLE_SIZE)
+            used = BooleanArray(INITIAL_TABLE_SIZE)
+            size = 0
+        }
+        updates.tryEmit(Unit)
+    }
+
+    /**
+     * Copy of the transferred bytes of all the transfers
+     */
+    fun snapshot(): Map<Int, Long> = synchronized(this) {
+        HashMap<Int, Long>(size * 2).also { snapshot ->
+            for (slot in tags.indices) {
+                if (used[slot]) snapshot[tags[slot]] = bytes[slot]
+            }
+        }
+    }
+
+    /**
+     * Snapshots of the transferred bytes, the current one first and then at most one per period
+     * while there are updates
+     *
+     * @param periodMillis the sample period in milliseconds
+     */
+    @OptIn(FlowPreview::class)
+    fun sampledSnapshots(periodMillis: Long): Flow<Map<Int, Long>> =
+        updates.sample(periodMillis)
+            .onStart { emit(Unit) }
+            .map { snapshot() }
+
+    private fun findSlot(tag: Int): Int {
+        val mask = tags.size - 1
+        var slot = hash(tag) and mask
+        while (used[slot] && tags[slot] != tag) {
+            slot = (slot + 1) and mask
+        }
+        return slot
+    }
+
+    private fun rehash(tableSize: Int) {
+        val oldTags = tags
+        val oldBytes = bytes
+        val oldUsed = used
+        tags = IntArray(tableSize)
+        bytes = LongArray(tableSize)
+        used = BooleanArray(tableSize)
+        for (index in oldTags.indices) {
+            if (oldUsed[index]) {
+                val slot = findSlot(oldTags[index])
+                used[slot] = true
+                tags[slot] = oldTags[index]
+                bytes[slot] = oldBytes[index]
+            }
+        }
+    }
+
+    private fun hash(tag: Int): Int {
+        val hash = tag * -0x61c88647
+        return hash xor (hash ushr 16)
+    }
+
+    companion object {
+        private const val INITIAL_TABLE_SIZE = 64
+    }
+}
@@ -11,7 +11,7 @@ import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.extensions.getRequestListener
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.CreateSetElementListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
@@ -23,6 +23,7 @@ import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.videos.TypedVideoNodeMapper
 import mega.privacy.android.data.mapper.videosection.VideoPlaylistMapper
 import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
@@ -51,7 +52,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
     private val fileNodeMapper: FileNodeMapper,
     private val typedVideoNodeMapper: TypedVideoNodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineNodeIndexGateway: OfflineNodeIndexGateway,
     private val userSetMapper: UserSetMapper,
     private val videoPlaylistMapper: VideoPlaylistMapper,
     private val nodeRepository: NodeRepository,
@@ -72,7 +73,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
             ).map { megaNode ->
                 typedVideoNodeMapper(
                     fileNode = megaNode.convertToFileNode(
-                        offlineItems?.get(megaNode.handle.toString())
+                        offlineItems[megaNode.handle]
                     ),
                     duration = megaNode.duration,
                 )
@@ -80,7 +81,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         }
 
     private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
+        offlineNodeIndexGateway.getOfflineNodes()
 
     private suspend fun MegaNode.convertToFileNode(offline: Offline?) = fileNodeMapper(
         megaNode = this, requireSerializedData = false, offline = offline
@@ -122,7 +123,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         )
     }
 
-    private suspend fun UserSet.toVideoPlaylist(offlineMap: Map<String, Offline>?): VideoPlaylist {
+    private suspend fun UserSet.toVideoPlaylist(offlineMap: OfflineNodes): VideoPlaylist {
         val elementList = megaApiGateway.getSetElements(sid = id)
         val videoNodeList = (0 until elementList.size()).mapNotNull { index ->
             val element = elementList[index]
@@ -132,7 +133,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
             megaApiGateway.getMegaNodeByHandle(element.node())?.let { megaNode ->
                 typedVideoNodeMapper(
                     fileNode = megaNode.convertToFileNode(
-                        offlineMap?.get(megaNode.handle.toString())
+                        offlineMap[megaNode.handle]
                     ),
                     duration = megaNode.duration,
                     elementID = element.id()
@@ -27,6 +27,7 @@ import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.api.MegaChatApiGateway
@@ -151,6 +152,7 @@ internal class DefaultAccountRepository @Inject constructor(
     private val chatPreferencesGateway: ChatPreferencesGateway,
     private val callsPreferencesGateway: CallsPreferencesGateway,
     private val cacheGateway: CacheGateway,
+    private val packedThumbnailGateway: PackedThumbnailGateway,
     private val accountPreferencesGateway: AccountPreferencesGateway,
     private val passwordStrengthMapper: PasswordStrengthMapper,
     private val appEventGateway: AppEventGateway,
@@ -707,6 +709,7 @@ internal class DefaultAccountRepository @Inject constructor(
     }
 
     override suspend fun clearAppDataAndCache() = withContext(ioDispatcher) {
+        packedThumbnailGateway.clear()
         with(cacheGateway) {
             clearCacheDirectory()
             clearAppData()
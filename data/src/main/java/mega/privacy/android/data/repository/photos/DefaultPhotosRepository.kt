@@ -4,17 +4,23 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.extensions.decodeBase64
@@ -27,6 +33,7 @@ import mega.privacy.android.data.extensions.getValueFor
 import mega.privacy.android.data.extensions.toException
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
+import mega.privacy.android.data.gateway.TimelineIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.api.MegaChatApiGateway
@@ -36,6 +43,7 @@ import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.ImageMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.VideoMapper
+import mega.privacy.android.data.mapper.getFileTypeInfoForExtension
 import mega.privacy.android.data.mapper.node.ImageNodeFileMapper
 import mega.privacy.android.data.mapper.node.ImageNodeMapper
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
@@ -43,6 +51,7 @@ import mega.privacy.android.data.mapper.photos.ContentConsumptionMegaStringMapMa
 import mega.privacy.android.data.mapper.photos.MegaStringMapSensitivesMapper
 import mega.privacy.android.data.mapper.photos.MegaStringMapSensitivesRetriever
 import mega.privacy.android.data.mapper.photos.TimelineFilterPreferencesJSONMapper
+import mega.privacy.android.data.model.photos.TimelineIndexEntry
 import mega.privacy.android.data.wrapper.DateUtilWrapper
 import mega.privacy.android.domain.entity.ImageFileTypeInfo
 import mega.privacy.android.domain.entity.Offline
@@ -67,7 +76,9 @@ import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
+import timber.log.Timber
 import java.io.File
+import java.util.concurrent.atomic.AtomicBoolean
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.resume
@@ -97,6 +108,7 @@ internal class DefaultPhotosRepository @Inject constructor(
     private val cameraUploadsSettingsPreferenceGateway: CameraUploadsSettingsPreferenceGateway,
     private val sortOrderIntMapper: SortOrderIntMapper,
     private val megaNodeMapper: MegaNodeMapper,
+    private val timelineIndexGateway: TimelineIndexGateway,
 ) : PhotosRepository {
     @Volatile
     private var isInitialized: Boolean = false
@@ -109,21 +121,45 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     private val imageNodesFlow: MutableStateFlow<List<ImageNode>?> = MutableStateFlow(null)
 
-    private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
+    private val mediaIndex = MediaIndex()
 
-    private val imageNodesCache: MutableMap<NodeId, ImageNode> = mutableMapOf()
+    /**
+     * True once the index holds the searched nodes, and not only the timeline index
+     */
+    @Volatile
+    private var isMediaIndexComplete = false
+
+    /**
+     * Version of the index the image nodes were last published for
+     */
+    private var imageNodesVersion = -1L
+
+    /**
+     * Number of collectors of [monitorImageNodes], guarded by [imageNodesMutex] with the decision
+     * to publish or drop the image nodes
+     */
+    private var imageNodesCollectors = 0
+
+    private val imageNodesMutex = Mutex()
 
     @Volatile
     private var offlineNodesCache: Map<String, Offline> = mapOf()
 
-    private val photosDispatcher: CoroutineDispatcher = ioDispatcher.limitedParallelism(1)
-
-    private val imageNodesDispatcher: CoroutineDispatcher = ioDispatcher.limitedParallelism(1)
+    private val mediaDispatcher: CoroutineDispatcher = ioDispatcher.limitedParallelism(1)
 
     private var populateNodesJob: Job? = null
 
     private var monitorNodeUpdatesJob: Job? = null
 
+    private var saveTimelineIndexJob: Job? = null
+
+    /**
+     * True while a save of the timeline index waits for its delay
+     */
+    private val isTimelineIndexSavePending = AtomicBoolean(false)
+
+    private val saveTimelineIndexMutex = Mutex()
+
     private val constraints: List<suspend (Node) -> Boolean> = listOf(
         ::checkMediaNode,
         ::checkCloudDriveNode,
@@ -162,10 +198,60 @@ internal class DefaultPhotosRepository @Inject constructor(
     private fun populateNodes() {
         populateNodesJob?.cancel()
         populateNodesJob = appScope.launch {
+            val startTime = System.currentTimeMillis()
+            loadTimelineIndex(startTime)
+
+            // The index may miss the changes made while the app was not running
             val (imageNodes, videoNodes) = fetchNodes()
 
-            updatePhotos(imageNodes, videoNodes)
-            updateImageNodes(imageNodes, videoNodes)
+            updateMedia(imageNodes, videoNodes, startTime)
+        }
+    }
+
+    /**
+     * Publish the photos of the timeline index, so the timeline is displayed before the
+     * media nodes are searched
+     */
+    private suspend fun loadTimelineIndex(startTime: Long) {
+        val entries = runCatching {
+            timelineIndexGateway.getTimelineIndex(megaApiFacade.myUserHandle)
+        }.getOrNull()
+        if (entries.isNullOrEmpty()) return
+
+        val photos = entries.mapNotNull { mapTimelineIndexEntryToPhoto(it) }
+        withContext(mediaDispatcher) {
+            if (photosFlow.value != null) return@withContext
+
+            photos.forEach { mediaIndex.put(it.id, MediaIndex.Entry(photo = it, megaNode = null)) }
+
+            val newPhotos = mediaIndex.photos()
+            photosFlow.update { newPhotos }
+            Timber.d(
+                "Timeline loaded from index: %d photos in %d ms",
+                newPhotos.size,
+                System.currentTimeMillis() - startTime,
+            )
+        }
+    }
+
+    /**
+     * Save the timeline index after a delay, unless a save is already pending. The pending save
+     * reads the index when its delay ends, so it also saves the later changes. It is not postponed,
+     * otherwise a steady stream of node updates would never be saved.
+     */
+    private fun scheduleTimelineIndexSave(delayMillis: Long) {
+        if (!isTimelineIndexSavePending.compareAndSet(false, true)) return
+        saveTimelineIndexJob = appScope.launch {
+            delay(delayMillis)
+            saveTimelineIndexMutex.withLock {
+                isTimelineIndexSavePending.set(false)
+                val entries = withContext(mediaDispatcher) {
+                    mediaIndex.photos().map { it.toTimelineIndexEntry() }
+                }
+                runCatching {
+                    timelineIndexGateway.setTimelineIndex(megaApiFacade.myUserHandle, entries)
+                }.onFailure { Timber.w(it, "Timeline index not saved") }
+            }
         }
     }
 
@@ -208,46 +294,62 @@ internal class DefaultPhotosRepository @Inject constructor(
                 && node.hasThumbnail()
     }
 
-    private fun updatePhotos(
+    private fun updateMedia(
         imageNodes: List<MegaNode>,
         videoNodes: List<MegaNode>,
+        startTime: Long,
     ) = appScope.launch {
-        val photos = awaitAll(
-            async { imageNodes.map { mapMegaNodeToImage(it) } },
-            async { videoNodes.map { mapMegaNodeToVideo(it) } },
+        val entries = awaitAll(
+            async { imageNodes.map { it.handle to MediaIndex.Entry(mapMegaNodeToImage(it), it) } },
+            async { videoNodes.map { it.handle to MediaIndex.Entry(mapMegaNodeToVideo(it), it) } },
         ).flatten()
 
-        withContext(photosDispatcher) {
-            photosCache.clear()
-            photosCache.putAll(photos.associateBy { NodeId(it.id) })
+        withContext(mediaDispatcher) {
+            mediaIndex.replaceAll(entries)
+            isMediaIndexComplete = true
 
-            val newPhotos = photosCache.values.toList()
+            val newPhotos = mediaIndex.photos()
             photosFlow.update { newPhotos }
-        }
-    }
-
-    private fun updateImageNodes(
-        imageNodes: List<MegaNode>,
-        videoNodes: List<MegaNode>,
-    ) = appScope.launch {
-        val nodes = (imageNodes + videoNodes).map { node ->
-            imageNodeMapper(
-                megaNode = node,
-                requireSerializedData = true,
-                offline = offlineNodesCache[node.handle.toString()],
-                numVersion = megaApiFacade::getNumVersions
+            Timber.d(
+                "Timeline loaded from search: %d photos in %d ms",
+                newPhotos.size,
+                System.currentTimeMillis() - startTime,
             )
         }
+        publishImageNodes()
+        scheduleTimelineIndexSave(delayMillis = 0L)
+    }
 
-        withContext(imageNodesDispatcher) {
-            imageNodesCache.clear()
-            imageNodesCache.putAll(nodes.associateBy { it.id })
+    /**
+     * Publish the image nodes of the index, creating the missing ones.
+     *
+     * Image nodes are only created while [monitorImageNodes] is collected. The last published list
+     * is dropped when its last collector stops, and rebuilt on the next collection.
+     */
+    private suspend fun publishImageNodes() = imageNodesMutex.withLock {
+        withContext(mediaDispatcher) {
+            if (!isMediaIndexComplete || imageNodesCollectors == 0) return@withContext
+            if (imageNodesVersion == mediaIndex.version && imageNodesFlow.value != null) {
+                return@withContext
+            }
 
-            val newNodes = imageNodesCache.values.toList()
+            val newNodes = mediaIndex.entries().mapNotNull { getOrCreateImageNode(it) }
+            imageNodesVersion = mediaIndex.version
             imageNodesFlow.update { newNodes }
         }
     }
 
+    private suspend fun getOrCreateImageNode(entry: MediaIndex.Entry): ImageNode? {
+        entry.imageNode?.let { return it }
+        val megaNode = entry.megaNode ?: getMegaNode(NodeId(entry.photo.id)) ?: return null
+        return imageNodeMapper(
+            megaNode = megaNode,
+            requireSerializedData = true,
+            offline = offlineNodesCache[megaNode.handle.toString()],
+            numVersion = megaApiFacade::getNumVersions
+        ).also { entry.imageNode = it }
+    }
+
     private fun monitorNodeUpdates() {
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = nodeRepository.monitorNodeUpdates()
@@ -256,70 +358,69 @@ internal class DefaultPhotosRepository @Inject constructor(
     }
 
     private suspend fun handleNodeUpdate(nodeUpdate: NodeUpdate) {
+        val version = mediaIndex.version
         for (node in nodeUpdate.changes.keys) {
             val isPotentialNode = constraints.all { it(node) }
 
-            refreshPhotos(node, isPotentialNode)
-            refreshImageNodes(node, isPotentialNode)
+            refreshMedia(node, isPotentialNode)
         }
+        // Nothing to publish when none of the nodes is a media node
+        if (mediaIndex.version == version) return
 
-        withContext(photosDispatcher) {
-            val newPhotos = photosCache.values.toList()
+        withContext(mediaDispatcher) {
+            val newPhotos = mediaIndex.photos()
             photosFlow.update { newPhotos }
         }
+        publishImageNodes()
 
-        withContext(imageNodesDispatcher) {
-            val newNodes = imageNodesCache.values.toList()
-            imageNodesFlow.update { newNodes }
-        }
+        scheduleTimelineIndexSave(delayMillis = TIMELINE_INDEX_SAVE_DELAY_MILLIS)
     }
 
-    private suspend fun refreshPhotos(
+    private suspend fun refreshMedia(
         node: Node,
         isPotentialNode: Boolean,
-    ) = withContext(photosDispatcher) {
+    ) = withContext(mediaDispatcher) {
         if (!isPotentialNode) {
-            photosCache.remove(node.id)
+            mediaIndex.remove(node.id.longValue)
             return@withContext
         }
 
-        val photo = getMegaNode(nodeId = node.id)?.let { megaNode ->
+        val entry = getMegaNode(nodeId = node.id)?.let { megaNode ->
             if (isImageNodeValid(megaNode)) {
-                mapMegaNodeToImage(megaNode)
+                MediaIndex.Entry(mapMegaNodeToImage(megaNode), megaNode)
             } else if (isVideoNodeValid(megaNode)) {
-                mapMegaNodeToVideo(megaNode)
+                MediaIndex.Entry(mapMegaNodeToVideo(megaNode), megaNode)
             } else {
                 null
             }
         }
 
-        if (photo == null) {
-            photosCache.remove(node.id)
+        if (entry == null) {
+            mediaIndex.remove(node.id.longValue)
         } else {
-            photosCache[NodeId(photo.id)] = photo
+            mediaIndex.put(node.id.longValue, entry)
         }
     }
 
-    private suspend fun refreshImageNodes(
-        node: Node,
-        isPotentialNode: Boolean,
-    ) = withContext(imageNodesDispatcher) {
-        if (!isPotentialNode) {
-            imageNodesCache.remove(node.id)
-            return@withContext
-        }
-
-        val imageNode = fetchImageNode(nodeId = node.id)
-        if (imageNode == null) {
-            imageNodesCache.remove(node.id)
-        } else {
-            imageNodesCache[imageNode.id] = imageNode
+    override fun monitorImageNodes(): Flow<List<ImageNode>> = flow {
+        // The collector is counted before the image nodes are published, so they are only dropped
+        // once it stops, and never while it waits for them
+        imageNodesMutex.withLock { imageNodesCollectors++ }
+        try {
+            publishImageNodes()
+            emitAll(imageNodesFlow.filterNotNull())
+        } finally {
+            withContext(NonCancellable) {
+                imageNodesMutex.withLock {
+                    if (--imageNodesCollectors == 0) {
+                        imageNodesFlow.value = null
+                        imageNodesVersion = -1L
+                    }
+                }
+            }
         }
     }
 
-    override fun monitorImageNodes(): Flow<List<ImageNode>> = imageNodesFlow
-        .filterNotNull()
-
     private suspend fun checkMediaNode(node: Node): Boolean {
         return node is FileNode && (node.type is ImageFileTypeInfo || node.type is VideoFileTypeInfo)
     }
@@ -353,7 +454,7 @@ internal class DefaultPhotosRepository @Inject constructor(
     }
 
     override suspend fun getPhotoFromNodeID(nodeId: NodeId, albumPhotoId: AlbumPhotoId?): Photo? {
-        return when (val photo = photosCache[nodeId]) {
+        return when (val photo = mediaIndex[nodeId.longValue]?.photo) {
             is Photo.Image -> {
                 photo.copy(albumPhotoId = albumPhotoId?.id)
             }
@@ -608,30 +709,82 @@ internal class DefaultPhotosRepository @Inject constructor(
             megaNode.isTakenDown,
         )
 
-    private suspend fun getThumbnailCacheFilePath(megaNode: MegaNode): String? {
+    /**
+     * Convert the timeline index entry to Photo
+     * @return Photo, or null if the file type of the entry no longer maps to a photo
+     */
+    private suspend fun mapTimelineIndexEntryToPhoto(entry: TimelineIndexEntry): Photo? {
+        val fileType = getFileTypeInfoForExtension(
+            mimeType = entry.mimeType,
+            extension = entry.extension,
+            duration = entry.duration,
+        )
+        if (entry.isVideo && fileType !is VideoFileTypeInfo) return null
+        if (!entry.isVideo && fileType !is ImageFileTypeInfo) return null
+
+        val mapper = if (entry.isVideo) videoMapper else imageMapper
+        return mapper(
+            entry.id,
+            null,
+            entry.parentId,
+            entry.name,
+            entry.isFavourite,
+            dateUtilFacade.fromEpoch(entry.creationTime),
+            dateUtilFacade.fromEpoch(entry.modificationTime),
+            entry.thumbnailFileName?.let { getCacheFilePath(getThumbnailFolderPath(), it) },
+            entry.previewFileName?.let { getCacheFilePath(getPreviewFolderPath(), it) },
+            fileType,
+            entry.size,
+            entry.isTakenDown,
+        )
+    }
+
+    private fun Photo.toTimelineIndexEntry() = TimelineIndexEntry(
+        id = id,
+        parentId = parentId,
+        name = name,
+        isVideo = this is Photo.Video,
+        isFavourite = isFavourite,
+        isTakenDown = isTakenDown,
+        creationTime = dateUtilFacade.toEpoch(creationTime),
+        modificationTime = dateUtilFacade.toEpoch(modificationTime),
+        size = size,
+        mimeType = fileTypeInfo.mimeType,
+        extension = fileTypeInfo.extension,
+        duration = (fileTypeInfo as? VideoFileTypeInfo)?.duration?.inWholeSeconds?.toInt() ?: 0,
+        thumbnailFileName = thumbnailFilePath?.let { File(it).name },
+        previewFileName = previewFilePath?.let { File(it).name },
+    )
+
+    private suspend fun getThumbnailCacheFilePath(megaNode: MegaNode): String? =
+        getCacheFilePath(getThumbnailFolderPath(), megaNode.getThumbnailFileName())
+
+    private suspend fun getPreviewCacheFilePath(megaNode: MegaNode): String? =
+        getCacheFilePath(getPreviewFolderPath(), megaNode.getPreviewFileName())
+
+    private fun getCacheFilePath(folderPath: String?, fileName: String): String? =
+        folderPath?.let { "$it${File.separator}$fileName" }
+
+    private suspend fun getThumbnailFolderPath(): String? {
         if (thumbnailFolderPath == null) {
             thumbnailFolderPath =
                 cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER)?.path
         }
-        return thumbnailFolderPath?.let {
-            "$it${File.separator}${megaNode.getThumbnailFileName()}"
-        }
+        return thumbnailFolderPath
     }
 
-    private suspend fun getPreviewCacheFilePath(megaNode: MegaNode): String? {
+    private suspend fun getPreviewFolderPath(): String? {
         if (previewFolderPath == null) {
             previewFolderPath =
                 cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.PREVIEW_FOLDER)?.path
         }
-        return previewFolderPath?.let {
-            "$it${File.separator}${megaNode.getPreviewFileName()}"
-        }
+        return previewFolderPath
     }
 
     override suspend fun getPhotosByIds(ids: List<NodeId>): List<Photo> =
         withContext(ioDispatcher) {
             ids.mapNotNull { id ->
-                val cache = photosCache[id]
+                val cache = mediaIndex[id.longValue]?.photo
                 if (cache != null) {
                     cache
                 } else {
@@ -791,7 +944,8 @@ internal class DefaultPhotosRepository @Inject constructor(
     }
 
     override suspend fun getImageNode(nodeId: NodeId): ImageNode? {
-        return imageNodesCache[nodeId]
+        val entry = mediaIndex[nodeId.longValue] ?: return null
+        return withContext(ioDispatcher) { getOrCreateImageNode(entry) }
     }
 
     override suspend fun getMediaDiscoveryNodes(
@@ -975,11 +1129,24 @@ internal class DefaultPhotosRepository @Inject constructor(
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = null
 
+        saveTimelineIndexJob?.cancel()
+        saveTimelineIndexJob = null
+        isTimelineIndexSavePending.set(false)
+        appScope.launch { timelineIndexGateway.clearTimelineIndex() }
+
         offlineNodesCache = mapOf()
-        photosCache.clear()
-        imageNodesCache.clear()
+        mediaIndex.clear()
+        isMediaIndexComplete = false
+        imageNodesVersion = -1L
 
         photosFlow.value = null
         imageNodesFlow.value = null
     }
+
+    companion object {
+        /**
+         * Delay grouping the node updates in one write of the timeline index
+         */
+        private const val TIMELINE_INDEX_SAVE_DELAY_MILLIS = 5_000L
+    }
 }
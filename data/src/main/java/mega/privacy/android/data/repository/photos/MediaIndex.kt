@@ -0,0 +1,243 @@
+package mega.privacy.android.data.repository.photos
+
+import mega.privacy.android.domain.entity.node.ImageNode
+import mega.privacy.android.domain.entity.photos.Photo
+import nz.mega.sdk.MegaNode
+
+/**
+ * Media nodes of the timeline, keyed by node handle.
+ *
+ * Each node is kept once, as its [Photo], and its [ImageNode] is only created when needed.
+ * Entries are kept in insertion order in a dense array, and found by handle through an open
+ * addressing table of primitive handles. Removed entries leave a hole in the dense array,
+ * compacted once half of it is holes.
+ *
+ * The [version] changes on every modification, so the snapshots are only built once per version.
+ */
+internal class MediaIndex {
+
+    /**
+     * Media node
+     *
+     * @property photo Photo of the node
+     * @property megaNode The node, null when the entry comes from the timeline index
+     */
+    class Entry(
+        val photo: Photo,
+        val megaNode: MegaNode?,
+    ) {
+        /**
+         * Image node, created on demand
+         */
+        @Volatile
+        var imageNode: ImageNode? = null
+    }
+
+    private var keys = LongArray(INITIAL_TABLE_SIZE)
+
+    /**
+     * Position of the key in [entries], [EMPTY] for a free slot
+     */
+    private var positions = IntArray(INITIAL_TABLE_SIZE) { EMPTY }
+
+    private var entries = arrayOfNulls<Entry>(INITIAL_TABLE_SIZE / 2)
+
+    private var handles = LongArray(INITIAL_TABLE_SIZE / 2)
+
+    /**
+     * Length of the dense array, including the holes
+     */
+    private var length = 0
+
+    /**
+     * Number of entries
+     */
+    @get:Synchronized
+    var size = 0
+        private set
+
+    /**
+     * Incremented on each modification
+     */
+    @get:Synchronized
+    var version = 0L
+        private set
+
+    private var photosSnapshot: List<Photo> = emptyList()
+
+    private var photosSnapshotVersion = 0L
+
+    /**
+     * Get the entry of a node
+     */
+    @Synchronized
+    operator fun get(handle: Long): Entry? {
+        val slot = findSlot(handle)
+        return if (positions[slot] == EMPTY) null else entries[positions[slot]]
+    }
+
+    /**
+     * Add or replace the entry of a node, keeping the position of a replaced entry
+     */
+    @Synchronized
+    fun put(handle: Long, entry: Entry) {
+        version++
+        val slot = findSlot(handle)
+        if (positions[slot] != EMPTY) {
+            entries[positions[slot]] = entry
+            return
+        }
+        if (length == entries.size) {
+            grow()
+            return put(handle, entry)
+        }
+        keys[slot] = handle
+        positions[slot] = length
+        entries[length] = entry
+        handles[length] = handle
+        length++
+        size++
+    }
+
+    /**
+     * Remove the entry of a node
+     *
+     * @return True if the node was in the index
+     */
+    @Synchronized
+    fun remove(handle: Long): Boolean {
+        val slot = findSlot(handle)
+        val position = positions[slot]
+        if (position == EMPTY) return false
+
+        version++
+        entries[position] = null
+        deleteSlot(slot)
+        size--
+        if (length - size > length / 2) {
+            rebuild(keys.size)
+        }
+        return true
+    }
+
+    /**
+     * Replace all the entries
+     */
+    @Synchronized
+    fun replaceAll(newEntries: List<Pair<Long, Entry>>) {
+        clear()
+        rebuild(tableSizeFor(newEntries.size))
+        newEntries.forEach { (handle, entry) -> put(handle, entry) }
+    }
+
+    /**
+     * Remove all the entries
+     */
+    @Synchronized
+    fun clear() {
+        version++
+        entries.fill(null)
+        positions.fill(EMPTY)
+        length = 0
+        size = 0
+    }
+
+    /**
+     * Photos of all the entries, in insertion order
+     */
+    @Synchronized
+    fun photos(): List<Photo> {
+        if (photosSnapshotVersion != version) {
+            photosSnapshot = buildList(size) { forEachEntry { add(it.photo) } }
+            photosSnapshotVersion = version
+        }
+        return photosSnapshot
+    }
+
+    /**
+     * All the entries, in insertion order
+     */
+    @Synchronized
+    fun entries(): List<Entry> = buildList(size) { forEachEntry { add(it) } }
+
+    private inline fun forEachEntry(action: (Entry) -> Unit) {
+        for (position in 0 until length) {
+            entries[position]?.let(action)
+        }
+    }
+
+    /**
+     * Slot of the handle, or the free slot where it would be inserted
+     */
+    private fun findSlot(handle: Long): Int {
+        val mask = keys.size - 1
+        var slot = hash(handle) and mask
+        while (positions[slot] != EMPTY && keys[slot] != handle) {
+            slot = (slot + 1) and mask
+        }
+        return slot
+    }
+
+    /**
+     * Free a slot, moving back the keys probed after it
+     */
+    private fun deleteSlot(index: Int) {
+        val mask = keys.size - 1
+        var hole = index
+        var slot = (index + 1) and mask
+        while (positions[slot] != EMPTY) {
+            val home = hash(keys[slot]) and mask
+            if (((slot - home) and mask) >= ((slot - hole) and mask)) {
+                keys[hole] = keys[slot]
+                positions[hole] = positions[slot]
+                hole = slot
+            }
+            slot = (slot + 1) and mask
+        }
+        positions[hole] = EMPTY
+    }
+
+    private fun grow() = rebuild(keys.size * 2)
+
+    /**
+     * Compact the dense array and rehash it in a table of the given size
+     */
+    private fun rebuild(tableSize: Int) {
+        val newEntries = arrayOfNulls<Entry>(tableSize / 2)
+        val newHandles = LongArray(tableSize / 2)
+        var newLength = 0
+        for (position in 0 until length) {
+            val entry = entries[position] ?: continue
+            newEntries[newLength] = entry
+            newHandles[newLength] = handles[position]
+            newLength++
+        }
+
+        keys = LongArray(tableSize)
+        positions = IntArray(tableSize) { EMPTY }
+        entries = newEntries
+        handles = newHandles
+        length = newLength
+        for (position in 0 until newLength) {
+            val slot = findSlot(newHandles[position])
+            keys[slot] = newHandles[position]
+            positions[slot] = position
+        }
+    }
+
+    private fun hash(handle: Long): Int {
+        val hash = handle * -0x61c8864680b583ebL
+        return (hash xor (hash ushr 32)).toInt()
+    }
+
+    private fun tableSizeFor(count: Int): Int {
+        var tableSize = INITIAL_TABLE_SIZE
+        while (tableSize / 2 < count) tableSize *= 2
+        return tableSize
+    }
+
+    companion object {
+        private const val EMPTY = -1
+        private const val INITIAL_TABLE_SIZE = 64
+    }
+}
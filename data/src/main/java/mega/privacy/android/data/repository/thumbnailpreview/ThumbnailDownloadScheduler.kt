@@ -0,0 +1,167 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.util.TreeSet
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Schedules the thumbnail downloads from the SDK.
+ *
+ * Requests for a thumbnail already queued or being downloaded wait for that download instead of
+ * starting another one. The thumbnails of the nodes of a folder link are downloaded apart from the
+ * ones of the account, as the same handle can be downloaded from both. Only [maxInFlight] downloads are sent to the SDK at a time, the most
+ * recent requests first, as they are the ones on screen when scrolling fast, and prefetch requests
+ * after all the others. Queued requests are dropped once all their callers are cancelled, so the
+ * thumbnails of the items scrolled off screen are never sent to the SDK.
+ */
+@Singleton
+internal class ThumbnailDownloadScheduler(
+    private val scope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher,
+    private val maxInFlight: Int,
+) {
+
+    @Inject
+    constructor(
+        @ApplicationScope scope: CoroutineScope,
+        @IoDispatcher ioDispatcher: CoroutineDispatcher,
+    ) : this(scope, ioDispatcher, MAX_IN_FLIGHT)
+
+    /**
+     * Scheduler metrics
+     *
+     * @property hits requests that joined a download already queued or in flight
+     * @property misses requests that queued a new download
+     * @property cancels downloads dropped from the queue before being sent to the SDK
+     * @property queued downloads waiting to be sent to the SDK
+     * @property inFlight downloads sent to the SDK and not finished yet
+     */
+    data class Metrics(
+        val hits: Long,
+        val misses: Long,
+        val cancels: Long,
+        val queued: Int,
+        val inFlight: Int,
+    )
+
+    private data class Key(val handle: Long, val isPublic: Boolean)
+
+    private class Download(
+        val key: Key,
+        val download: suspend () -> File?,
+        var isPrefetch: Boolean,
+        var sequence: Long,
+    ) {
+        val result = CompletableDeferred<File?>()
+        var waiters = 1
+        var isStarted = false
+    }
+
+    private val lock = Any()
+    private val downloads = HashMap<Key, Download>()
+    private val queue = TreeSet(
+        compareBy<Download> { it.isPrefetch }.thenByDescending { it.sequence }
+    )
+    private var inFlight = 0
+    private var sequence = 0L
+    private var hits = 0L
+    private var misses = 0L
+    private var cancels = 0L
+
+    /**
+     * Current metrics, logged each time all the downloads are finished
+     */
+    val metrics: Metrics
+        get() = synchronized(lock) { Metrics(hits, misses, cancels, queue.size, inFlight) }
+
+    /**
+     * Downloads a thumbnail, or waits for the download of that thumbnail already requested
+     *
+     * @param handle Node handle
+     * @param isPublic True if the node is downloaded from a folder link
+     * @param isPrefetch True if the thumbnail is not on screen yet
+     * @param download Downloads the thumbnail from the SDK
+     * @return the thumbnail file
+     */
+    suspend fun download(
+        handle: Long,
+        isPublic: Boolean,
+        isPrefetch: Boolean,
+        download: suspend () -> File?,
+    ): File? {
+        val key = Key(handle, isPublic)
+        val scheduled = synchronized(lock) {
+            downloads[key]?.also {
+                hits++
+                it.waiters++
+                if (!it.isStarted) {
+                    queue.remove(it)
+                    it.isPrefetch = it.isPrefetch && isPrefetch
+                    it.sequence = ++sequence
+                    queue.add(it)
+                }
+            } ?: Download(key, download, isPrefetch, ++sequence).also {
+                misses++
+                downloads[key] = it
+                queue.add(it)
+            }
+        }
+        startDownloads()
+
+        try {
+            return scheduled.result.await()
+        } catch (e: CancellationException) {
+            synchronized(lock) {
+                scheduled.waiters--
+                if (scheduled.waiters == 0 && !scheduled.isStarted && queue.remove(scheduled)) {
+                    cancels++
+                    downloads.remove(key)
+                    scheduled.result.cancel()
+                }
+            }
+            throw e
+        }
+    }
+
+    private fun startDownloads() {
+        while (true) {
+            val next = synchronized(lock) {
+                if (inFlight >= maxInFlight) return
+                queue.pollFirst()?.also {
+                    it.isStarted = true
+                    inFlight++
+                } ?: return
+            }
+            scope.launch(ioDispatcher) {
+                val result = runCatching { next.download() }
+                val isIdle = synchronized(lock) {
+                    inFlight--
+                    downloads.remove(next.key)
+                    downloads.isEmpty()
+                }
+                if (isIdle) Timber.d("Thumbnail downloads finished: %s", metrics)
+                result.fold(
+                    onSuccess = { next.result.complete(it) },
+                    onFailure = { next.result.completeExceptionally(it) }
+                )
+                startDownloads()
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * Maximum number of thumbnail downloads sent to the SDK at a time
+         */
+        const val MAX_IN_FLIGHT = 6
+    }
+}
@@ -9,6 +9,7 @@ import mega.privacy.android.data.extensions.getPreviewFileName
 import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
@@ -21,6 +22,7 @@ import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import timber.log.Timber
 import java.io.File
+import java.nio.ByteBuffer
 import javax.inject.Inject
 
 internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
@@ -30,6 +32,8 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     private val cacheGateway: CacheGateway,
     private val stringWrapper: StringWrapper,
     private val megaNodeMapper: MegaNodeMapper,
+    private val thumbnailDownloadScheduler: ThumbnailDownloadScheduler,
+    private val packedThumbnailGateway: PackedThumbnailGateway,
 ) : ThumbnailPreviewRepository {
 
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
@@ -37,52 +41,79 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             cacheGateway.getCacheFile(
                 CacheFolderConstant.THUMBNAIL_FOLDER,
                 getThumbnailOrPreviewFileName(handle)
-            )?.takeIf { it.exists() }
+            )?.takeIf { it.exists() || unpackThumbnail(handle, it) }
         }
 
     override suspend fun getPublicNodeThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
             megaApiFolder.getMegaNodeByHandle(handle)?.run {
                 getThumbnailFile(this).takeIf {
-                    it?.exists() ?: false
+                    it?.let { file -> file.exists() || unpackThumbnail(handle, file) } ?: false
                 }
             }
         }
 
+    /**
+     * Move a thumbnail from the packed thumbnail store back to its file, for the callers needing
+     * a file, so that it is never kept twice
+     *
+     * @return true if the thumbnail was in the store and is now in the file
+     */
+    private suspend fun unpackThumbnail(handle: Long, file: File): Boolean {
+        val thumbnail = packedThumbnailGateway.getThumbnail(handle) ?: return false
+        val isUnpacked = runCatching {
+            file.outputStream().channel.use { channel ->
+                while (thumbnail.hasRemaining()) channel.write(thumbnail)
+            }
+        }.onFailure {
+            Timber.w(it, "Packed thumbnail cannot be written to its file")
+            file.delete()
+        }.isSuccess
+        if (isUnpacked) packedThumbnailGateway.removeThumbnail(handle)
+        return isUnpacked
+    }
+
     private suspend fun getThumbnailFile(node: MegaNode): File? =
         cacheGateway.getCacheFile(
             CacheFolderConstant.THUMBNAIL_FOLDER,
             "${node.base64Handle}${FileConstant.JPG_EXTENSION}"
         )
 
-    override suspend fun getThumbnailFromServer(handle: Long): File? =
-        withContext(ioDispatcher) {
-            megaApi.getMegaNodeByHandle(handle)?.let { node ->
-                if (!node.hasThumbnail()) return@withContext null
-                getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getThumbnailFromServer") {
-                            thumbnail
+    override suspend fun getThumbnailFromServer(handle: Long, isPrefetch: Boolean): File? =
+        thumbnailDownloadScheduler.download(handle, isPublic = false, isPrefetch = isPrefetch) {
+            withContext(ioDispatcher) {
+                megaApi.getMegaNodeByHandle(handle)?.let { node ->
+                    if (!node.hasThumbnail()) return@withContext null
+                    getThumbnailFile(node)?.let { thumbnail ->
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApi.removeRequestListener(listener)
+                            }
                         }
-                        megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
                     }
                 }
             }
         }
 
-    override suspend fun getPublicNodeThumbnailFromServer(handle: Long): File? =
-        withContext(ioDispatcher) {
-            megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
-                getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener =
-                            continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
-                                thumbnail
+    override suspend fun getPublicNodeThumbnailFromServer(handle: Long, isPrefetch: Boolean): File? =
+        thumbnailDownloadScheduler.download(handle, isPublic = true, isPrefetch = isPrefetch) {
+            withContext(ioDispatcher) {
+                megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
+                    getThumbnailFile(node)?.let { thumbnail ->
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApiFolder.removeRequestListener(listener)
                             }
-                        megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation {
-                            megaApiFolder.removeRequestListener(listener)
                         }
                     }
                 }
@@ -96,6 +127,14 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         )
 
 
+    override suspend fun getPackedThumbnail(handle: Long): ByteBuffer? =
+        packedThumbnailGateway.getThumbnail(handle)
+
+    override suspend fun packThumbnail(handle: Long, file: File): ByteBuffer? =
+        packedThumbnailGateway.putThumbnail(handle, file)?.also {
+            withContext(ioDispatcher) { file.delete() }
+        }
+
     override suspend fun getPreviewFromLocal(typedNode: TypedNode): File? =
         withContext(ioDispatcher) {
             runCatching {
@@ -253,6 +292,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
 
 
     override suspend fun createThumbnail(handle: Long, file: File) = withContext(ioDispatcher) {
+        packedThumbnailGateway.removeThumbnail(handle)
         val thumbnailFileName = getThumbnailOrPreviewFileName(handle)
         val thumbnailFile = getThumbnailFile(thumbnailFileName)
         requireNotNull(thumbnailFile)
@@ -276,6 +316,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         }
 
     override suspend fun deleteThumbnail(handle: Long) = withContext(ioDispatcher) {
+        packedThumbnailGateway.removeThumbnail(handle)
         val thumbnailFileName = getThumbnailOrPreviewFileName(handle)
         getThumbnailFile(thumbnailFileName)?.takeIf { it.exists() }?.delete()
     }
@@ -68,6 +68,20 @@ abstract class AbstractTransfersWorker(
      */
     open val finalNotificationId: Int? = 0
 
+    /**
+     * Minimum interval between two progress updates, the updates received meanwhile are coalesced
+     */
+    open val progressUpdateIntervalMillis = DEFAULT_PROGRESS_UPDATE_INTERVAL_MILLIS
+
+    /**
+     * Counters of the progress updates, for diagnostics
+     */
+    internal val progressUpdateCounters = ProgressUpdateCounters()
+
+    private var lastProgressPercent: Int? = null
+
+    private var lastNotificationContent: NotificationContent? = null
+
     /**
      * Create the update Notification to show worker progress
      */
@@ -116,14 +130,20 @@ abstract class AbstractTransfersWorker(
         onStart()
         monitorOngoingActiveTransfersUseCase(type)
             .catch { Timber.e("${this@AbstractTransfersWorker::class.java.simpleName}error: $it") }
+            .throttleLatest(progressUpdateIntervalMillis, progressUpdateCounters)
             .onEach { (transferTotals, paused, _) ->
                 //set progress percent as worker progress
-                setProgress(workDataOf(PROGRESS to transferTotals.transferProgress.floatValue))
+                val progress = transferTotals.transferProgress
+                if (progress.intValue != lastProgressPercent) {
+                    lastProgressPercent = progress.intValue
+                    setProgress(workDataOf(PROGRESS to progress.floatValue))
+                }
                 //update the notification
-                notify(createUpdateNotification(transferTotals, paused))
+                notifyIfChanged(createUpdateNotification(transferTotals, paused), paused)
                 Timber.d("${this@AbstractTransfersWorker::class.java.simpleName}${if (paused) "(paused) " else ""} Notification update (${transferTotals.transferProgress.intValue}):${transferTotals.hasOngoingTransfers()}")
             }
             .last().let { (lastActiveTransferTotals, _, overQuota) ->
+                Timber.d("${this@AbstractTransfersWorker::class.java.simpleName} Progress updates $progressUpdateCounters")
                 stopService(monitorJob)
                 if (lastActiveTransferTotals.hasCompleted()) {
                     Timber.d("${this@AbstractTransfersWorker::class.java.simpleName} Finished Successful: $lastActiveTransferTotals")
@@ -184,9 +204,19 @@ abstract class AbstractTransfersWorker(
         clearActiveTransfersIfFinishedUseCase(type)
     }
 
+    /**
+     * Posts the update notification, unless its visible content is the same as the last posted one
+     */
     @SuppressLint("MissingPermission")
-    private suspend fun notify(notification: Notification) {
+    private suspend fun notifyIfChanged(notification: Notification, paused: Boolean) {
+        val content = NotificationContent(notification, paused)
+        if (content == lastNotificationContent) {
+            progressUpdateCounters.onSkipped()
+            return
+        }
         if (areNotificationsEnabledUseCase()) {
+            lastNotificationContent = content
+            progressUpdateCounters.onPosted()
             notificationManager.notify(
                 updateNotificationId,
                 notification,
@@ -235,9 +265,41 @@ abstract class AbstractTransfersWorker(
          */
         const val PROGRESS = "Progress"
         private const val NOTIFICATION_STORAGE_OVERQUOTA = 14
+
+        /**
+         * Default minimum interval between two progress updates, as the system also rate limits
+         * the notification updates of the app
+         */
+        const val DEFAULT_PROGRESS_UPDATE_INTERVAL_MILLIS = 500L
     }
 }
 
+/**
+ * Visible content of a notification, to know if it needs to be posted again
+ */
+private data class NotificationContent(
+    val title: String?,
+    val text: String?,
+    val subText: String?,
+    val bigText: String?,
+    val progress: Int,
+    val progressMax: Int,
+    val indeterminate: Boolean,
+    val paused: Boolean,
+) {
+    constructor(notification: Notification, paused: Boolean) : this(
+        title = notification.extras?.getCharSequence(Notification.EXTRA_TITLE)?.toString(),
+        text = notification.extras?.getCharSequence(Notification.EXTRA_TEXT)?.toString(),
+        subText = notification.extras?.getCharSequence(Notification.EXTRA_SUB_TEXT)?.toString(),
+        bigText = notification.extras?.getCharSequence(Notification.EXTRA_BIG_TEXT)?.toString(),
+        progress = notification.extras?.getInt(Notification.EXTRA_PROGRESS) ?: 0,
+        progressMax = notification.extras?.getInt(Notification.EXTRA_PROGRESS_MAX) ?: 0,
+        indeterminate = notification.extras
+            ?.getBoolean(Notification.EXTRA_PROGRESS_INDETERMINATE) ?: false,
+        paused = paused,
+    )
+}
+
 /**
  * Interface to inject the set foreground method, used for testing
  */
@@ -12,6 +12,7 @@ import dagger.assisted.Assisted
 import dagger.assisted.AssistedInject
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.NonCancellable
 import kotlinx.coroutines.async
@@ -20,11 +21,19 @@ import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.firstOrNull
+import kotlinx.coroutines.flow.flatMapConcat
+import kotlinx.coroutines.flow.flatMapMerge
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onCompletion
+import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Mutex
@@ -44,11 +53,15 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLDER_UNAVAILABLE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.NOT_ENOUGH_STORAGE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.OUT_OF_SPACE
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PREPARATION_METRICS
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PROGRESS
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STAGE_DURATION
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.START
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STATUS_INFO
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STORAGE_OVER_QUOTA
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TIME_TO_FIRST_RECORD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_COUNT
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_PREPARED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_TO_UPLOAD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED_BYTES
@@ -60,6 +73,7 @@ import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsFinishedReason
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsPreparationStage
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRestartMode
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
@@ -124,6 +138,9 @@ import mega.privacy.android.domain.usecase.workers.ScheduleCameraUploadUseCase
 import timber.log.Timber
 import java.time.Instant
 import java.util.Hashtable
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.TimeSource
+import kotlin.time.measureTimedValue
 
 /**
  * Worker to run Camera Uploads
@@ -189,6 +206,9 @@ class CameraUploadsWorker @AssistedInject constructor(
     companion object {
         private const val LOW_BATTERY_LEVEL = 20
         private const val ON_TRANSFER_UPDATE_REFRESH_MILLIS = 1000
+        private const val PREPARATION_CHUNK_SIZE = 50
+        private const val PREPARATION_BUFFER_CAPACITY = 4
+        private const val GPS_COORDINATES_CONCURRENCY = 2
     }
 
     /**
@@ -238,6 +258,12 @@ class CameraUploadsWorker @AssistedInject constructor(
      */
     private var totalVideoSize = 0L
 
+    /**
+     * Cumulated time in milliseconds spent in each stage of the preparation of the records
+     */
+    private val preparationStageDurations =
+        CameraUploadsPreparationStage.entries.associateWith { AtomicLong() }
+
     /**
      * Job to monitor upload pause flow
      */
@@ -708,71 +734,148 @@ class CameraUploadsWorker @AssistedInject constructor(
      * Get pending records from the database and populate them with required information for upload
      * - Retrieve the pending camera uploads records from the database
      * - Filter the camera uploads based on video compression size condition
-     * - Rename the camera uploads records
      * - Check the existence of a node corresponding to the [CameraUploadsRecord]
+     * - Rename the camera uploads records
      * - Extract the gps coordinates and set in the respective [CameraUploadsRecord]
      *
+     * The filter needs the whole list to compute the total size of the videos. The next stages
+     * are chained as a flow processing the records in chunks, with a bounded buffer between each
+     * stage, so that the upload can start as soon as the first chunk is ready.
+     * The existence check runs over all the records at once, so that the target folders are
+     * indexed once, and emits each chunk as soon as it is checked.
+     * The renaming is kept sequential because the names generated depend on the previous ones.
+     *
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
-     * @return the list of pending [CameraUploadsRecord] to upload
+     * @return the flow of pending [CameraUploadsRecord] to upload, null if there are none
      */
     //@Karma
+    @OptIn(ExperimentalCoroutinesApi::class)
     private suspend fun getAndPrepareRecords(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord>? {
+    ): Flow<CameraUploadsRecord>? {
         Timber.d("Get Pending Files from Database")
-        return getPendingCameraUploadsRecords()
-            .takeIf { it.isNotEmpty() }
-            ?.let { pendingRecords ->
-                Timber.d("Check compression requirements for ${pendingRecords.size} files")
-                filterCameraUploadsRecords(pendingRecords)
+        val preparationStart = TimeSource.Monotonic.markNow()
+        val pendingRecords = getPendingCameraUploadsRecords().takeIf { it.isNotEmpty() } ?: run {
+            Timber.d("No pending files to upload")
+            return null
+        }
+
+        Timber.d("Check compression requirements for ${pendingRecords.size} files")
+        val filteredRecords = measurePreparationStage(CameraUploadsPreparationStage.Filter) {
+            filterCameraUploadsRecords(pendingRecords)
+        }
+
+        Timber.d("Prepare ${filteredRecords.size} files")
+        val generatedFileNames = mutableMapOf<CameraUploadFolderType, MutableSet<String>>()
+        var timeToFirstRecord: Long? = null
+        var existsInTargetNodeCount = 0
+        var existsInCloudDriveCount = 0
+        var doesNotExistInCloudDriveCount = 0
+
+        return getExistenceInTargetNode(
+            filteredRecords,
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+        )
+            .measurePreparationStage(CameraUploadsPreparationStage.ExistenceCheck)
+            .buffer(PREPARATION_BUFFER_CAPACITY)
+            .map { recordsWithExistenceInTargetNode ->
+                measurePreparationStage(CameraUploadsPreparationStage.Rename) {
+                    renameCameraUploadsRecords(
+                        recordsWithExistenceInTargetNode,
+                        primaryUploadNodeId,
+                        secondaryUploadNodeId,
+                        generatedFileNames,
+                    )
+                }
             }
-            ?.let { filteredRecords ->
-                Timber.d("Retrieve existence in target node for ${filteredRecords.size} files")
-                getExistenceInTargetNode(
-                    filteredRecords,
-                    primaryUploadNodeId,
-                    secondaryUploadNodeId
-                )
+            .buffer(PREPARATION_BUFFER_CAPACITY)
+            .flatMapMerge(GPS_COORDINATES_CONCURRENCY) { renamedRecordsWithExistenceInTargetNode ->
+                flow {
+                    emit(
+                        measurePreparationStage(CameraUploadsPreparationStage.GpsCoordinates) {
+                            getGpsCoordinates(renamedRecordsWithExistenceInTargetNode)
+                        }
+                    )
+                }
             }
-            ?.let { recordsWithExistenceInTargetNode ->
-                Timber.d("Check renaming for ${recordsWithExistenceInTargetNode.size} files")
-                renameCameraUploadsRecords(
-                    recordsWithExistenceInTargetNode,
-                    primaryUploadNodeId,
-                    secondaryUploadNodeId,
-                )
+            .buffer(PREPARATION_BUFFER_CAPACITY)
+            .flatMapConcat { it.asFlow() }
+            .onEach { record ->
+                if (timeToFirstRecord == null) {
+                    timeToFirstRecord = preparationStart.elapsedNow().inWholeMilliseconds
+                }
+                // The files found only in the rubbish bin are uploaded again
+                when {
+                    record.existsInTargetNode == true -> existsInTargetNodeCount++
+                    record.existsInTargetNode == false && record.existingNodeId != null ->
+                        existsInCloudDriveCount++
+
+                    else -> doesNotExistInCloudDriveCount++
+                }
             }
-            ?.let { renamedRecordsWithExistenceInTargetNode ->
-                Timber.d("Retrieve gps coordinates for ${renamedRecordsWithExistenceInTargetNode.size} files")
-                getGpsCoordinates(renamedRecordsWithExistenceInTargetNode)
-            }.also {
-                val existsInTargetNodeCount =
-                    it?.filter { record -> record.existsInTargetNode == true }?.size
-                val existsInCloudDriveCount =
-                    it?.filter { record -> record.existsInTargetNode == false && record.existingNodeId != null }?.size
-                val doesNotExistInCloudDriveCount =
-                    it?.filter { record -> record.existingNodeId == null }?.size
+            .onCompletion { throwable ->
+                if (throwable != null) return@onCompletion
                 Timber.d("$existsInTargetNodeCount files already exist in target node")
                 Timber.d("$existsInCloudDriveCount files already exists in cloud drive")
                 Timber.d("$doesNotExistInCloudDriveCount files does not exist in target node")
-                if (it == null) Timber.d("No pending files to upload")
+                sendPreparationMetricsStatus(
+                    timeToFirstRecord = timeToFirstRecord,
+                    totalPrepared = existsInTargetNodeCount + existsInCloudDriveCount + doesNotExistInCloudDriveCount,
+                )
             }
     }
 
+    /**
+     * Execute a stage of the preparation of the records and add its duration to
+     * [preparationStageDurations]
+     *
+     * @param stage the [CameraUploadsPreparationStage] executed
+     * @param block the stage to execute
+     * @return the result of the stage
+     */
+    private inline fun <T> measurePreparationStage(
+        stage: CameraUploadsPreparationStage,
+        block: () -> T,
+    ): T {
+        val (result, duration) = measureTimedValue(block)
+        preparationStageDurations.getValue(stage).addAndGet(duration.inWholeMilliseconds)
+        return result
+    }
+
+    /**
+     * Add the time spent producing each item of the flow to the duration of a stage of the
+     * preparation of the records in [preparationStageDurations]
+     *
+     * @param stage the [CameraUploadsPreparationStage] producing the items
+     * @return the measured flow
+     */
+    private fun <T> Flow<T>.measurePreparationStage(
+        stage: CameraUploadsPreparationStage,
+    ): Flow<T> = flow {
+        var mark = TimeSource.Monotonic.markNow()
+        collect {
+            preparationStageDurations.getValue(stage)
+                .addAndGet(mark.elapsedNow().inWholeMilliseconds)
+            emit(it)
+            mark = TimeSource.Monotonic.markNow()
+        }
+    }
+
     /**
      * Upload the [CameraUploadsRecord]
      * The upload function will trigger a flow that is collected to handle the progress update
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      */
     //@Karma
     private suspend fun uploadFiles(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
@@ -833,20 +936,22 @@ class CameraUploadsWorker @AssistedInject constructor(
         records: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
+        generatedFileNames: MutableMap<CameraUploadFolderType, MutableSet<String>>,
     ): List<CameraUploadsRecord> =
         renameCameraUploadsRecordsUseCase(
             records,
             primaryUploadNodeId,
             secondaryUploadNodeId,
+            generatedFileNames,
         )
 
     /**
      * Get the existence of a node corresponding to the [CameraUploadsRecord] in the
      * target node or other node
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return the flow of the [CameraUploadsRecord] checked, by chunks of [PREPARATION_CHUNK_SIZE]
      */
-    private suspend fun getExistenceInTargetNode(
+    private fun getExistenceInTargetNode(
         records: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
@@ -854,6 +959,7 @@ class CameraUploadsWorker @AssistedInject constructor(
         records,
         primaryUploadNodeId,
         secondaryUploadNodeId,
+        PREPARATION_CHUNK_SIZE,
     )
 
     /**
@@ -867,19 +973,19 @@ class CameraUploadsWorker @AssistedInject constructor(
     /**
      * Upload the camera uploads records
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      * @return a flow of [CameraUploadsTransferProgress]
      */
     private fun uploadCameraUploadsRecords(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> {
-        Timber.d("Start uploading ${records.size} files")
+        Timber.d("Start uploading files as they are prepared")
         return uploadCameraUploadsRecordsUseCase(
             records,
             primaryUploadNodeId,
@@ -1450,6 +1556,27 @@ class CameraUploadsWorker @AssistedInject constructor(
         }
     }
 
+    /**
+     *  Notify observers of the time spent preparing the records to upload
+     */
+    private suspend fun sendPreparationMetricsStatus(timeToFirstRecord: Long?, totalPrepared: Int) {
+        Timber.d("Preparation of $totalPrepared files: first file ready after $timeToFirstRecord ms, stage durations $preparationStageDurations")
+        runCatching {
+            setProgress(
+                workDataOf(
+                    STATUS_INFO to PREPARATION_METRICS,
+                    TIME_TO_FIRST_RECORD to (timeToFirstRecord ?: -1L),
+                    TOTAL_PREPARED to totalPrepared,
+                    *preparationStageDurations.map { (stage, duration) ->
+                        "$STAGE_DURATION${stage.name}" to duration.get()
+                    }.toTypedArray(),
+                )
+            )
+        }.onFailure {
+            Timber.w(it)
+        }
+    }
+
     /**
      *  Notify observers that the Camera Uploads has started
      */
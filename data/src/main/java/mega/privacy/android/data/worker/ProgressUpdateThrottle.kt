@@ -0,0 +1,87 @@
+package mega.privacy.android.data.worker
+
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.onEach
+
+/**
+ * Counters of the progress updates of a worker, for diagnostics
+ */
+internal class ProgressUpdateCounters {
+    /**
+     * Updates received from the monitored flow
+     */
+    @Volatile
+    var received = 0
+        private set
+
+    /**
+     * Updates published, after coalescing
+     */
+    @Volatile
+    var published = 0
+        private set
+
+    /**
+     * Notifications posted
+     */
+    @Volatile
+    var posted = 0
+        private set
+
+    /**
+     * Notifications not posted because the visible content did not change
+     */
+    @Volatile
+    var skipped = 0
+        private set
+
+    /**
+     * Updates dropped while coalescing
+     */
+    val dropped get() = received - published
+
+    fun onReceived() {
+        received++
+    }
+
+    fun onPublished() {
+        published++
+    }
+
+    fun onPosted() {
+        posted++
+    }
+
+    fun onSkipped() {
+        skipped++
+    }
+
+    override fun toString() =
+        "received: $received, dropped: $dropped, posted: $posted, skipped: $skipped"
+}
+
+/**
+ * Coalesces the values to emit at most one every [intervalMillis].
+ *
+ * A value is emitted as soon as it is received if the interval since the previous emission has
+ * elapsed. The values received while waiting for the next frame are dropped except the latest one,
+ * which is always emitted, including when the flow completes.
+ *
+ * @param intervalMillis the minimum interval between two emitted values
+ * @param counters to count the received and emitted values
+ */
+internal fun <T> Flow<T>.throttleLatest(
+    intervalMillis: Long,
+    counters: ProgressUpdateCounters,
+): Flow<T> = flow {
+    onEach { counters.onReceived() }
+        .conflate()
+        .collect {
+            counters.onPublished()
+            emit(it)
+            delay(intervalMillis)
+        }
+}
@@ -12,4 +12,10 @@ interface DateUtilWrapper {
      * @return LocalDateTime
      */
     fun fromEpoch(seconds: Long): LocalDateTime
+
+    /**
+     * Inverse of [fromEpoch]
+     * @return seconds since epoch
+     */
+    fun toEpoch(dateTime: LocalDateTime): Long
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.MockedStatic
+import org.mockito.Mockito.mockStatic
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DecryptDataTest {
+
+    private val aesKey = ByteArray(16) { it.toByte() }
+
+    private val encryptData = EncryptData(aesKey)
+
+    private val underTest = DecryptData(aesKey)
+
+    private lateinit var base64Mock: MockedStatic<Base64>
+
+    @BeforeAll
+    fun setUp() {
+        base64Mock = mockStatic(Base64::class.java)
+        base64Mock.`when`<String> { Base64.encodeToString(anyOrNull(), any()) }.thenAnswer {
+            java.util.Base64.getMimeEncoder().encodeToString(it.arguments[0] as ByteArray)
+        }
+        base64Mock.`when`<ByteArray> { Base64.decode(anyOrNull<String>(), any()) }.thenAnswer {
+            java.util.Base64.getMimeDecoder().decode(it.arguments[0] as String)
+        }
+    }
+
+    @AfterAll
+    fun tearDown() {
+        base64Mock.close()
+    }
+
+    @Test
+    fun `test that an encrypted value is decrypted back`() = runTest {
+        val encrypted = encryptData("value")
+
+        assertThat(encrypted).isNotEqualTo("value")
+        assertThat(underTest(encrypted)).isEqualTo("value")
+        assertThat(underTest(encryptData("other value"))).isEqualTo("other value")
+    }
+
+    @Test
+    fun `test that a list of values is decrypted in order`() = runTest {
+        val values = listOf("first", null, "", "third")
+
+        val encrypted = encryptData(values)
+
+        assertThat(encrypted[1]).isNull()
+        assertThat(underTest(encrypted)).containsExactlyElementsIn(values).inOrder()
+    }
+
+    @Test
+    fun `test that a value which cannot be decrypted does not affect the next values`() = runTest {
+        val encrypted = encryptData(listOf("first", "second"))
+
+        val actual = underTest(listOf(encrypted[0], "bm90IGVuY3J5cHRlZA==", encrypted[1]))
+
+        assertThat(actual).containsExactly("first", null, "second").inOrder()
+    }
+
+    @Test
+    fun `test that the rows are decrypted as with a new cipher for each field`() = runTest {
+        val fields = encryptData(List(ROWS * FIELDS_PER_ROW) { "field value $it" })
+
+        assertThat(underTest(fields)).isEqualTo(decryptWithNewCiphers(fields))
+    }
+
+    @Test
+    fun `test that the values after a failure are decrypted with a new cipher`() = runTest {
+        val encrypted = encryptData(listOf("first", "second"))
+        val truncated = java.util.Base64.getMimeEncoder().encodeToString(
+            java.util.Base64.getMimeDecoder().decode(encrypted[1]).copyOf(8)
+        )
+
+        val actual = underTest(listOf(encrypted[0], truncated, encrypted[1], encrypted[0]))
+
+        assertThat(actual).containsExactly("first", null, "second", "first").inOrder()
+    }
+
+    /**
+     * How the fields were decrypted before, with a new cipher for each field
+     */
+    private fun decryptWithNewCiphers(fields: List<String?>) = fields.map { field ->
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.DECRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        String(cipher.doFinal(Base64.decode(field, Base64.DEFAULT)))
+    }
+
+    companion object {
+        private const val ROWS = 100
+        private const val FIELDS_PER_ROW = 11
+    }
+}
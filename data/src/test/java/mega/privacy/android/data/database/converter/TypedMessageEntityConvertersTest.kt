@@ -1,7 +1,9 @@
 package mega.privacy.android.data.database.converter
 
 import com.google.common.truth.Truth.assertThat
+import com.google.gson.Gson
 import mega.privacy.android.domain.entity.chat.ChatMessageChange
+import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
 import org.junit.jupiter.api.Test
 
 class TypedMessageEntityConvertersTest {
@@ -37,13 +39,19 @@ class TypedMessageEntityConvertersTest {
     }
 
     @Test
-    internal fun `test that convertFromStringList returns a string with the strings separated by commas`() {
-        val list = listOf("1", "2", "3")
-        val expected = "1,2,3"
+    internal fun `test that convertFromStringList keeps the strings containing commas`() {
+        val list = listOf("Doe, John", "", "3")
 
-        val actual = underTest.convertFromStringList(list)
+        val actual = underTest.convertToStringList(underTest.convertFromStringList(list))
 
-        assertThat(actual).isEqualTo(expected)
+        assertThat(actual).isEqualTo(list)
+    }
+
+    @Test
+    internal fun `test that convertFromStringList returns an empty string for an empty list`() {
+        val actual = underTest.convertFromStringList(emptyList())
+
+        assertThat(actual).isEmpty()
     }
 
     @Test
@@ -95,4 +103,52 @@ class TypedMessageEntityConvertersTest {
         assertThat(actual).isEmpty()
     }
 
-}
\ No newline at end of file
+    @Test
+    internal fun `test that convertToLongList skips the invalid longs`() {
+        val string = "1,,-2,abc,9223372036854775807,9223372036854775808,+3"
+
+        val actual = underTest.convertToLongList(string)
+
+        assertThat(actual).isEqualTo(listOf(1L, -2L, Long.MAX_VALUE, 3L))
+    }
+
+    @Test
+    internal fun `test that convertToMessageReactionList returns the reactions converted by convertFromMessageReactionList`() {
+        val list = listOf(
+            Reaction("\uD83D\uDC4D", 2, listOf(1L, -1L), true),
+            Reaction(";,:{}", 0, emptyList(), false),
+        )
+
+        val actual = underTest.convertToMessageReactionList(
+            underTest.convertFromMessageReactionList(list)
+        )
+
+        assertThat(actual).isEqualTo(list)
+    }
+
+    @Test
+    internal fun `test that convertToMessageReactionList returns the reactions in the legacy encoding`() {
+        val list = listOf(
+            Reaction("\uD83D\uDC4D", 2, listOf(1L, 2L), true),
+            Reaction("\uD83D\uDE00", 1, listOf(3L), false),
+        )
+        val legacy = list.joinToString(";") { Gson().toJson(it) }
+
+        val actual = underTest.convertToMessageReactionList(legacy)
+
+        assertThat(actual).isEqualTo(list)
+    }
+
+    @Test
+    internal fun `test that convertToMessageReactionList returns the valid reactions of a truncated value`() {
+        val list = listOf(
+            Reaction("\uD83D\uDC4D", 2, listOf(1L, 2L), true),
+            Reaction("\uD83D\uDE00", 1, listOf(3L), false),
+        )
+        val string = underTest.convertFromMessageReactionList(list)
+
+        val actual = underTest.convertToMessageReactionList(string.dropLast(3))
+
+        assertThat(actual).containsExactly(list.first())
+    }
+}
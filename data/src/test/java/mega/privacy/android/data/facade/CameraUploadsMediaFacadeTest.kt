@@ -10,13 +10,17 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaVolumeWatermark
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 
@@ -42,77 +46,147 @@ class CameraUploadsMediaFacadeTest {
     }
 
     @Test
-    fun test_that_getMediaQueue_returns_a_list_of_camera_uploads_media_fetch_from_the_media_store() =
+    fun test_that_scanMedia_returns_the_media_and_the_watermark_reached() =
         runTest {
             val uri = mock<Uri>()
-            val selectionQuery = null
-
-            val id = 1234L
-            val displayName = "display name"
-            val filePath = "file path"
-            val addedDate = 0L
-            val modifiedDate = 1L
-
-            val id2 = 5678L
-            val displayName2 = "display name 2"
-            val filePath2 = "file path 2"
-            val addedDate2 = 2L
-            val modifiedDate2 = 3L
-
-            val projection = arrayOf(
-                "_id",
-                "_display_name",
-                "_data",
-                "date_added",
-                "date_modified"
+            val selectionQuery = "selectionQuery"
+            val mockCursor = createMediaCursor()
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())
+                }.thenReturn(mockCursor)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            val actual = underTest.scanMedia(uri, selectionQuery, null)
+
+            assertThat(actual.media.map { it.mediaId }).containsExactly(1234L, 5678L)
+            assertThat(actual.watermark).isEqualTo(
+                CameraUploadsMediaWatermark(
+                    selection = selectionQuery,
+                    volumes = emptyMap(),
+                    lastModified = 3L,
+                    lastMediaId = 5678L,
+                )
             )
-            val mockCursor = mock<Cursor> {
-                on { getColumnIndexOrThrow(projection[0]) }.thenReturn(0)
-                on { getColumnIndexOrThrow(projection[1]) }.thenReturn(1)
-                on { getColumnIndexOrThrow(projection[2]) }.thenReturn(2)
-                on { getColumnIndexOrThrow(projection[3]) }.thenReturn(3)
-                on { getColumnIndexOrThrow(projection[4]) }.thenReturn(4)
-
-                on { getLong(0) }.thenReturn(id, id2)
-                on { getString(1) }.thenReturn(displayName, displayName2)
-                on { getString(2) }.thenReturn(filePath, filePath2)
-                on { getLong(3) }.thenReturn(addedDate, addedDate2)
-                on { getLong(4) }.thenReturn(modifiedDate, modifiedDate2)
-
-                on { moveToFirst() }.thenReturn(true)
-                on { moveToNext() }.thenReturn(true, false)
+        }
+
+    @Test
+    fun test_that_scanMedia_only_queries_the_media_after_a_valid_watermark() =
+        runTest {
+            val uri = mock<Uri>()
+            val selectionQuery = "selectionQuery"
+            val watermark = CameraUploadsMediaWatermark(
+                selection = selectionQuery,
+                volumes = emptyMap(),
+                lastModified = 2L,
+                lastMediaId = 1234L,
+            )
+            val mockCursor = createMediaCursor()
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())
+                }.thenReturn(mockCursor)
             }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            underTest.scanMedia(uri, selectionQuery, watermark)
+
+            verify(contentResolver).query(
+                anyOrNull(),
+                anyOrNull(),
+                eq(
+                    "($selectionQuery) AND (${MediaStore.MediaColumns.DATE_ADDED} >= 2" +
+                            " OR ${MediaStore.MediaColumns.DATE_MODIFIED} >= 2" +
+                            " OR ${MediaStore.MediaColumns._ID} > 1234)"
+                ),
+                anyOrNull(),
+                anyOrNull(),
+            )
+        }
 
+    @Test
+    fun test_that_scanMedia_performs_a_full_scan_if_the_selection_changed() =
+        runTest {
+            val uri = mock<Uri>()
+            val selectionQuery = "selectionQuery"
+            val watermark = CameraUploadsMediaWatermark(
+                selection = "oldSelectionQuery",
+                volumes = emptyMap(),
+                lastModified = 2L,
+                lastMediaId = 1234L,
+            )
+            val mockCursor = createMediaCursor()
             val contentResolver = mock<ContentResolver> {
                 on {
-                    query(
-                        anyOrNull(),
-                        anyOrNull(),
-                        anyOrNull(),
-                        anyOrNull(),
-                        anyOrNull()
-                    )
+                    query(anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())
                 }.thenReturn(mockCursor)
             }
             whenever(context.contentResolver).thenReturn(contentResolver)
 
-            val expected = listOf(
-                CameraUploadsMedia(
-                    mediaId = id,
-                    displayName = displayName,
-                    filePath = filePath,
-                    timestamp = modifiedDate * 1000,
+            underTest.scanMedia(uri, selectionQuery, watermark)
+
+            verify(contentResolver).query(
+                anyOrNull(),
+                anyOrNull(),
+                eq(selectionQuery),
+                anyOrNull(),
+                anyOrNull(),
+            )
+        }
+
+    @Test
+    fun test_that_scanMedia_performs_a_full_scan_if_no_volume_position_is_valid() =
+        runTest {
+            val uri = mock<Uri>()
+            val selectionQuery = "selectionQuery"
+            // The volume version cannot be read in unit tests, so the position is not valid
+            val watermark = CameraUploadsMediaWatermark(
+                selection = selectionQuery,
+                volumes = mapOf(
+                    "external_primary" to CameraUploadsMediaVolumeWatermark("version", 10L),
                 ),
-                CameraUploadsMedia(
-                    mediaId = id2,
-                    displayName = displayName2,
-                    filePath = filePath2,
-                    timestamp = modifiedDate2 * 1000,
-                )
+                lastModified = 2L,
+                lastMediaId = 1234L,
             )
-            assertThat(underTest.getMediaList(uri, selectionQuery)).isEqualTo(expected)
+            val mockCursor = createMediaCursor()
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())
+                }.thenReturn(mockCursor)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            val actual = underTest.scanMedia(uri, selectionQuery, watermark)
+
+            verify(contentResolver).query(
+                anyOrNull(),
+                anyOrNull(),
+                eq(selectionQuery),
+                anyOrNull(),
+                anyOrNull(),
+            )
+            assertThat(actual.watermark?.volumes).isEmpty()
         }
 
+    private fun createMediaCursor() = mock<Cursor> {
+        on { getColumnIndexOrThrow("_id") }.thenReturn(0)
+        on { getColumnIndexOrThrow("_display_name") }.thenReturn(1)
+        on { getColumnIndexOrThrow("_data") }.thenReturn(2)
+        on { getColumnIndexOrThrow("date_added") }.thenReturn(3)
+        on { getColumnIndexOrThrow("date_modified") }.thenReturn(4)
+        on { getColumnIndex(MediaStore.MediaColumns.VOLUME_NAME) }.thenReturn(-1)
+        on { getColumnIndex(MediaStore.MediaColumns.GENERATION_MODIFIED) }.thenReturn(-1)
+
+        on { getLong(0) }.thenReturn(1234L, 5678L)
+        on { getString(1) }.thenReturn("display name", "display name 2")
+        on { getString(2) }.thenReturn("file path", "file path 2")
+        on { getLong(3) }.thenReturn(0L, 2L)
+        on { getLong(4) }.thenReturn(1L, 3L)
+
+        on { moveToNext() }.thenReturn(true, true, false)
+    }
+
     @Test
     fun test_that_getMediaSelectionQuery_returns_the_correct_selection_query() =
         runTest {
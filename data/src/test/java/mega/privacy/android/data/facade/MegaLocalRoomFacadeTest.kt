@@ -54,8 +54,10 @@ import org.junit.jupiter.api.assertThrows
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -164,11 +166,8 @@ internal class MegaLocalRoomFacadeTest {
 
             whenever(completedTransferDao.getAllCompletedTransfers())
                 .thenReturn(flowOf(completedTransferEntities))
-            completedTransferEntities.forEachIndexed { index, completedTransferEntity ->
-                whenever(completedTransferModelMapper(completedTransferEntity)).thenReturn(
-                    completedTransfers[index]
-                )
-            }
+            whenever(completedTransferModelMapper(completedTransferEntities))
+                .thenReturn(completedTransfers)
 
             val expected =
                 listOf(completedTransfers[1], completedTransfers[0], completedTransfers[2])
@@ -182,18 +181,19 @@ internal class MegaLocalRoomFacadeTest {
         runTest {
             val expectedSize = 2
             val completedTransferEntities = listOf<CompletedTransferEntity>(
-                mock(), mock(), mock(), mock()
+                mock(), mock()
             )
 
-            whenever(completedTransferDao.getAllCompletedTransfers()).thenReturn(
+            whenever(completedTransferDao.getLatestCompletedTransfers(expectedSize)).thenReturn(
                 flowOf(completedTransferEntities)
             )
-            completedTransferEntities.forEach { entity ->
-                val completedTransfer = mock<CompletedTransfer> {
+            val completedTransfers = completedTransferEntities.map {
+                mock<CompletedTransfer> {
                     on { timestamp }.thenReturn(1684228012974)
                 }
-                whenever(completedTransferModelMapper(entity)).thenReturn(completedTransfer)
             }
+            whenever(completedTransferModelMapper(completedTransferEntities))
+                .thenReturn(completedTransfers)
 
             assertThat(underTest.getAllCompletedTransfers(expectedSize).single().size)
                 .isEqualTo(expectedSize)
@@ -209,12 +209,13 @@ internal class MegaLocalRoomFacadeTest {
             whenever(completedTransferDao.getAllCompletedTransfers()).thenReturn(
                 flowOf(completedTransferEntities)
             )
-            completedTransferEntities.forEach { entity ->
-                val completedTransfer = mock<CompletedTransfer> {
+            val completedTransfers = completedTransferEntities.map {
+                mock<CompletedTransfer> {
                     on { timestamp }.thenReturn(1684228012974)
                 }
-                whenever(completedTransferModelMapper(entity)).thenReturn(completedTransfer)
             }
+            whenever(completedTransferModelMapper(completedTransferEntities))
+                .thenReturn(completedTransfers)
 
             assertThat(underTest.getAllCompletedTransfers().single().size)
                 .isEqualTo(completedTransferEntities.size)
@@ -397,50 +398,24 @@ internal class MegaLocalRoomFacadeTest {
         }
 
     @Test
-    fun `test that delete entities correctly when deleteOldestCompletedTransfers is called`() =
+    fun `test that the oldest rows are deleted when deleteOldestCompletedTransfers is called with too many rows`() =
         runTest {
-            val completedTransfers = (1..110).map { id ->
-                CompletedTransferEntity(
-                    id = id,
-                    fileName = "2023-03-24 00.13.20_1.jpg",
-                    type = "1",
-                    state = "6",
-                    size = "3.57 MB",
-                    handle = "27169983390750",
-                    path = "Cloud drive/Camera uploads",
-                    isOffline = "false",
-                    timestamp = System.nanoTime().toString(),
-                    error = "No error",
-                    originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
-                    parentHandle = "11622336899311",
-                )
-            }
-            completedTransfers.forEach { entity ->
-                whenever(completedTransferModelMapper(entity)).thenReturn(
-                    CompletedTransfer(
-                        id = entity.id,
-                        fileName = entity.fileName.orEmpty(),
-                        type = entity.type.orEmpty().toInt(),
-                        state = entity.state.orEmpty().toInt(),
-                        size = entity.size.orEmpty(),
-                        handle = entity.handle.orEmpty().toLong(),
-                        path = entity.path.orEmpty(),
-                        isOffline = entity.isOffline.toBoolean(),
-                        timestamp = entity.timestamp.orEmpty().toLong(),
-                        error = entity.error,
-                        originalPath = entity.originalPath.orEmpty(),
-                        parentHandle = entity.parentHandle.orEmpty().toLong(),
-                    )
-                )
-            }
-            val deletedTransfers = completedTransfers.take(10)
-            whenever(completedTransferDao.getCompletedTransfersCount()) doReturn completedTransfers.size
-            whenever(completedTransferDao.getAllCompletedTransfers()) doReturn flowOf(
-                completedTransfers
-            )
+            whenever(completedTransferDao.getCompletedTransfersCount()) doReturn 110
+
             underTest.deleteOldestCompletedTransfers()
-            verify(completedTransferDao).deleteCompletedTransferByIds(deletedTransfers.mapNotNull { it.id }
-                .sortedDescending())
+
+            verify(completedTransferDao).deleteOldestCompletedTransfers(100)
+            verify(completedTransferDao, never()).getAllCompletedTransfers()
+        }
+
+    @Test
+    fun `test that no row is deleted when deleteOldestCompletedTransfers is called below the limit`() =
+        runTest {
+            whenever(completedTransferDao.getCompletedTransfersCount()) doReturn 100
+
+            underTest.deleteOldestCompletedTransfers()
+
+            verify(completedTransferDao, never()).deleteOldestCompletedTransfers(any())
         }
 
     @Test
@@ -0,0 +1,171 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.dao.OfflineDao
+import mega.privacy.android.data.database.entity.OfflineEntity
+import mega.privacy.android.data.mapper.offline.OfflineModelMapper
+import mega.privacy.android.domain.entity.Offline
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OfflineNodeIndexFacadeTest {
+
+    private val offlineDao = mock<OfflineDao>()
+    private val offlineModelMapper = mock<OfflineModelMapper>()
+
+    private val offlineTable = MutableStateFlow<List<OfflineEntity>>(emptyList())
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(offlineDao, offlineModelMapper)
+        offlineTable.value = emptyList()
+        whenever(offlineDao.monitorOffline()).thenReturn(offlineTable)
+        whenever(offlineModelMapper(any<OfflineEntity>())).thenAnswer {
+            val entity = it.arguments[0] as OfflineEntity
+            createOffline(entity.id ?: -1, entity.encryptedHandle.orEmpty())
+        }
+    }
+
+    private fun TestScope.createUnderTest() = OfflineNodeIndexFacade(
+        offlineDao = offlineDao,
+        offlineModelMapper = offlineModelMapper,
+        appScope = backgroundScope,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    @Test
+    fun `test that the nodes of the offline table are found by handle`() = runTest {
+        offlineTable.value = listOf(createEntity(id = 1, handle = 100L), createEntity(2, 200L))
+
+        val actual = createUnderTest().getOfflineNodes()
+
+        assertThat(actual.size).isEqualTo(2)
+        assertThat(actual[100L]?.id).isEqualTo(1)
+        assertThat(actual[200L]?.id).isEqualTo(2)
+        assertThat(actual[300L]).isNull()
+    }
+
+    @Test
+    fun `test that the index follows the changes of the offline table`() = runTest {
+        offlineTable.value = listOf(createEntity(id = 1, handle = 100L))
+        val underTest = createUnderTest()
+        underTest.getOfflineNodes()
+
+        offlineTable.value = listOf(createEntity(id = 2, handle = 200L))
+        advanceUntilIdle()
+
+        val actual = underTest.getOfflineNodes()
+        assertThat(actual[100L]).isNull()
+        assertThat(actual[200L]).isNotNull()
+    }
+
+    @Test
+    fun `test that only the changed rows are decrypted again`() = runTest {
+        val rows = (1..100).map { createEntity(id = it, handle = it * 10L) }
+        offlineTable.value = rows
+        val underTest = createUnderTest()
+        underTest.getOfflineNodes()
+
+        val changedRow = createEntity(id = 101, handle = 1010L)
+        offlineTable.value = rows + changedRow
+        advanceUntilIdle()
+        underTest.getOfflineNodes()
+
+        verify(offlineModelMapper, times(101)).invoke(any<OfflineEntity>())
+        verify(offlineModelMapper, times(1)).invoke(changedRow)
+    }
+
+    @Test
+    fun `test that the table is observed again by the next request after a failure`() = runTest {
+        offlineTable.value = listOf(createEntity(id = 1, handle = 100L))
+        whenever(offlineDao.monitorOffline()).thenReturn(
+            flow { throw IllegalStateException("Database closed") },
+            offlineTable,
+        )
+        val underTest = createUnderTest()
+
+        assertThat(underTest.getOfflineNodes().size).isEqualTo(0)
+        assertThat(underTest.getOfflineNodes()[100L]?.id).isEqualTo(1)
+        verify(offlineDao, times(2)).monitorOffline()
+    }
+
+    @Test
+    fun `test that the table is observed once while it does not fail`() = runTest {
+        val underTest = createUnderTest()
+
+        underTest.getOfflineNodes()
+        underTest.getOfflineNodes()
+
+        verify(offlineDao, times(1)).monitorOffline()
+    }
+
+    @Test
+    fun `test that rows without a valid handle are skipped`() = runTest {
+        offlineTable.value = listOf(
+            createEntity(id = 1, handle = 100L),
+            OfflineEntity(
+                id = 2,
+                encryptedHandle = "not a handle",
+                encryptedPath = null,
+                encryptedName = null,
+                parentId = null,
+                encryptedType = null,
+                incoming = null,
+                encryptedIncomingHandle = null,
+                lastModifiedTime = null,
+            ),
+        )
+
+        assertThat(createUnderTest().getOfflineNodes().size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that colliding handles are all found`() = runTest {
+        val handles = (0L until 1000L).map { it shl 32 }
+        offlineTable.value = handles.mapIndexed { index, handle -> createEntity(index, handle) }
+
+        val actual = createUnderTest().getOfflineNodes()
+
+        handles.forEachIndexed { index, handle -> assertThat(actual[handle]?.id).isEqualTo(index) }
+        assertThat(actual[1L]).isNull()
+    }
+
+    private fun createEntity(id: Int, handle: Long) = OfflineEntity(
+        id = id,
+        encryptedHandle = handle.toString(),
+        encryptedPath = "/",
+        encryptedName = "name$id",
+        parentId = -1,
+        encryptedType = Offline.FILE,
+        incoming = 0,
+        encryptedIncomingHandle = null,
+        lastModifiedTime = 0L,
+    )
+
+    private fun createOffline(id: Int, handle: String) = Offline(
+        id = id,
+        handle = handle,
+        path = "/",
+        name = "name$id",
+        parentId = -1,
+        type = Offline.FILE,
+        origin = 0,
+        handleIncoming = "",
+    )
+}
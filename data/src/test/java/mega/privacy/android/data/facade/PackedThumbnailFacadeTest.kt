@@ -0,0 +1,215 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PackedThumbnailFacadeTest {
+
+    private val cacheGateway = mock<CacheGateway>()
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    private lateinit var folder: File
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(cacheGateway)
+        folder = File(temporaryFolder, CacheFolderConstant.PACKED_THUMBNAIL_FOLDER).apply {
+            deleteRecursively()
+        }
+        whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.PACKED_THUMBNAIL_FOLDER))
+            .thenAnswer { folder.apply { mkdirs() } }
+    }
+
+    private fun createUnderTest(
+        segmentSize: Int = PackedThumbnailFacade.SEGMENT_SIZE,
+        maxSize: Long = PackedThumbnailFacade.MAX_SIZE,
+    ) = PackedThumbnailFacade(
+        cacheGateway = cacheGateway,
+        ioDispatcher = UnconfinedTestDispatcher(),
+        segmentSize = segmentSize,
+        maxSize = maxSize,
+    )
+
+    private fun thumbnailFile(name: String, bytes: ByteArray) =
+        File(temporaryFolder, name).apply { writeBytes(bytes) }
+
+    private fun ByteBuffer.toByteArray() = ByteArray(remaining()).also { duplicate().get(it) }
+
+    private fun bytes(size: Int, value: Int) = ByteArray(size) { (value + it).toByte() }
+
+    @Test
+    fun `test that a stored thumbnail is read back`() = runTest {
+        val underTest = createUnderTest()
+        val bytes = bytes(100, 1)
+
+        val stored = underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes))
+
+        assertThat(stored?.toByteArray()).isEqualTo(bytes)
+        assertThat(underTest.getThumbnail(1L)?.toByteArray()).isEqualTo(bytes)
+        assertThat(underTest.getThumbnail(2L)).isNull()
+    }
+
+    @Test
+    fun `test that the returned buffers are read only`() = runTest {
+        val underTest = createUnderTest()
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+
+        assertThat(underTest.getThumbnail(1L)?.isReadOnly).isTrue()
+    }
+
+    @Test
+    fun `test that a stored thumbnail replaces the previous one`() = runTest {
+        val underTest = createUnderTest()
+        val bytes = bytes(20, 2)
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes))
+
+        assertThat(underTest.getThumbnail(1L)?.toByteArray()).isEqualTo(bytes)
+    }
+
+    @Test
+    fun `test that the thumbnails are read back after the store is opened again`() = runTest {
+        val first = bytes(100, 1)
+        val second = bytes(200, 2)
+        createUnderTest().apply {
+            putThumbnail(1L, thumbnailFile("1.jpg", first))
+            putThumbnail(2L, thumbnailFile("2.jpg", second))
+            putThumbnail(3L, thumbnailFile("3.jpg", bytes(50, 3)))
+            removeThumbnail(3L)
+        }
+
+        val underTest = createUnderTest()
+
+        assertThat(underTest.getThumbnail(1L)?.toByteArray()).isEqualTo(first)
+        assertThat(underTest.getThumbnail(2L)?.toByteArray()).isEqualTo(second)
+        assertThat(underTest.getThumbnail(3L)).isNull()
+    }
+
+    @Test
+    fun `test that an incomplete record written last is dropped when the store is opened`() =
+        runTest {
+            val bytes = bytes(100, 1)
+            createUnderTest().apply {
+                putThumbnail(1L, thumbnailFile("1.jpg", bytes))
+                putThumbnail(2L, thumbnailFile("2.jpg", bytes(100, 2)))
+            }
+            val segment = folder.listFiles().orEmpty().single()
+            RandomAccessFile(segment, "rw").use { it.setLength(it.length() - 10) }
+
+            val underTest = createUnderTest()
+
+            assertThat(underTest.getThumbnail(1L)?.toByteArray()).isEqualTo(bytes)
+            assertThat(underTest.getThumbnail(2L)).isNull()
+            val third = bytes(30, 3)
+            underTest.putThumbnail(3L, thumbnailFile("3.jpg", third))
+            assertThat(createUnderTest().getThumbnail(3L)?.toByteArray()).isEqualTo(third)
+        }
+
+    @Test
+    fun `test that removed thumbnails are not read`() = runTest {
+        val underTest = createUnderTest()
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+
+        underTest.removeThumbnail(1L)
+
+        assertThat(underTest.getThumbnail(1L)).isNull()
+    }
+
+    @Test
+    fun `test that thumbnails bigger than a segment are not stored`() = runTest {
+        val underTest = createUnderTest(segmentSize = 100, maxSize = 1000)
+
+        assertThat(underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(100, 1)))).isNull()
+        assertThat(underTest.getThumbnail(1L)).isNull()
+    }
+
+    @Test
+    fun `test that the oldest segments are dropped when the store is full`() = runTest {
+        val underTest = createUnderTest(segmentSize = 100, maxSize = 250)
+
+        (1L..6L).forEach {
+            underTest.putThumbnail(it, thumbnailFile("$it.jpg", bytes(50, it.toInt())))
+        }
+
+        assertThat(folder.listFiles().orEmpty().sumOf { it.length() }).isAtMost(250L)
+        assertThat(underTest.getThumbnail(1L)).isNull()
+        assertThat(underTest.getThumbnail(6L)?.toByteArray()).isEqualTo(bytes(50, 6))
+    }
+
+    @Test
+    fun `test that segments mostly replaced are compacted`() = runTest {
+        val underTest = createUnderTest(segmentSize = 100, maxSize = 1000)
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(30, 1)))
+        underTest.putThumbnail(2L, thumbnailFile("2.jpg", bytes(30, 2)))
+        underTest.putThumbnail(3L, thumbnailFile("3.jpg", bytes(30, 3)))
+
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(30, 4)))
+
+        assertThat(folder.list().orEmpty().asList()).doesNotContain("0.pack")
+        assertThat(underTest.getThumbnail(1L)?.toByteArray()).isEqualTo(bytes(30, 4))
+        assertThat(underTest.getThumbnail(2L)?.toByteArray()).isEqualTo(bytes(30, 2))
+        assertThat(underTest.getThumbnail(3L)?.toByteArray()).isEqualTo(bytes(30, 3))
+    }
+
+    @Test
+    fun `test that a removal is kept while the removed thumbnail is in an older segment`() =
+        runTest {
+            createUnderTest(segmentSize = 100, maxSize = 1000).apply {
+                putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+                putThumbnail(2L, thumbnailFile("2.jpg", bytes(60, 2)))
+                putThumbnail(3L, thumbnailFile("3.jpg", bytes(60, 3)))
+                removeThumbnail(1L)
+                removeThumbnail(3L)
+                putThumbnail(4L, thumbnailFile("4.jpg", bytes(60, 4)))
+            }
+
+            val underTest = createUnderTest(segmentSize = 100, maxSize = 1000)
+
+            assertThat(underTest.getThumbnail(1L)).isNull()
+            assertThat(underTest.getThumbnail(2L)?.toByteArray()).isEqualTo(bytes(60, 2))
+            assertThat(underTest.getThumbnail(3L)).isNull()
+            assertThat(underTest.getThumbnail(4L)?.toByteArray()).isEqualTo(bytes(60, 4))
+        }
+
+    @Test
+    fun `test that cleared thumbnails are not read`() = runTest {
+        val underTest = createUnderTest()
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+
+        underTest.clear()
+
+        assertThat(underTest.getThumbnail(1L)).isNull()
+        assertThat(folder.listFiles().orEmpty()).isEmpty()
+    }
+
+    @Test
+    fun `test that thumbnails are stored again after the cache folder is deleted`() = runTest {
+        val underTest = createUnderTest()
+        underTest.putThumbnail(1L, thumbnailFile("1.jpg", bytes(10, 1)))
+        folder.deleteRecursively()
+
+        underTest.putThumbnail(2L, thumbnailFile("2.jpg", bytes(10, 2)))
+
+        assertThat(underTest.getThumbnail(1L)).isNull()
+        assertThat(createUnderTest().getThumbnail(2L)?.toByteArray()).isEqualTo(bytes(10, 2))
+    }
+}
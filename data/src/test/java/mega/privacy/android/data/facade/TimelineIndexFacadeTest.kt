@@ -0,0 +1,134 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.model.photos.TimelineIndexEntry
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TimelineIndexFacadeTest {
+
+    private lateinit var underTest: TimelineIndexFacade
+
+    private val cacheGateway = mock<CacheGateway>()
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(cacheGateway)
+        val folder = File(temporaryFolder, CacheFolderConstant.TIMELINE_FOLDER).apply {
+            deleteRecursively()
+            mkdirs()
+        }
+        whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.TIMELINE_FOLDER))
+            .thenReturn(folder)
+        underTest = TimelineIndexFacade(
+            cacheGateway = cacheGateway,
+            ioDispatcher = UnconfinedTestDispatcher(),
+        )
+    }
+
+    @Test
+    fun `test that the saved entries are read back`() = runTest {
+        val entries = listOf(
+            createEntry(id = 1L),
+            createEntry(id = 2L, isVideo = true, mimeType = "video/mp4", extension = "mp4"),
+            createEntry(id = 3L, thumbnailFileName = null, previewFileName = null),
+            createEntry(id = 4L, previewFileName = "other.jpg"),
+        )
+
+        underTest.setTimelineIndex(USER_HANDLE, entries)
+
+        assertThat(underTest.getTimelineIndex(USER_HANDLE)).isEqualTo(entries)
+    }
+
+    @Test
+    fun `test that the index of another user is not read`() = runTest {
+        underTest.setTimelineIndex(USER_HANDLE, listOf(createEntry(id = 1L)))
+
+        assertThat(underTest.getTimelineIndex(USER_HANDLE + 1)).isNull()
+    }
+
+    @Test
+    fun `test that null is returned when there is no index`() = runTest {
+        assertThat(underTest.getTimelineIndex(USER_HANDLE)).isNull()
+    }
+
+    @Test
+    fun `test that a truncated index is deleted`() = runTest {
+        underTest.setTimelineIndex(USER_HANDLE, List(10) { createEntry(id = it.toLong()) })
+        val file = File(temporaryFolder, CacheFolderConstant.TIMELINE_FOLDER).listFiles()!!.single()
+        file.writeBytes(file.readBytes().copyOf(file.length().toInt() / 2))
+
+        assertThat(underTest.getTimelineIndex(USER_HANDLE)).isNull()
+        assertThat(file.exists()).isFalse()
+    }
+
+    @Test
+    fun `test that clear deletes the index`() = runTest {
+        underTest.setTimelineIndex(USER_HANDLE, listOf(createEntry(id = 1L)))
+
+        underTest.clearTimelineIndex()
+
+        assertThat(underTest.getTimelineIndex(USER_HANDLE)).isNull()
+    }
+
+    @Test
+    fun `test that the index of a large library takes less than 100 bytes per photo`() = runTest {
+        underTest.setTimelineIndex(USER_HANDLE, createLargeLibrary())
+
+        assertThat(underTest.getTimelineIndex(USER_HANDLE)).hasSize(LARGE_LIBRARY_SIZE)
+        assertThat(getIndexFileSize() / LARGE_LIBRARY_SIZE).isLessThan(100L)
+    }
+
+    private fun createLargeLibrary() = List(LARGE_LIBRARY_SIZE) {
+        createEntry(id = it.toLong(), name = "IMG_$it.jpg", thumbnailFileName = "h$it.jpg")
+    }
+
+    private fun getIndexFileSize() =
+        File(temporaryFolder, CacheFolderConstant.TIMELINE_FOLDER).listFiles()!!.single().length()
+
+    private fun createEntry(
+        id: Long,
+        name: String = "photo.jpg",
+        isVideo: Boolean = false,
+        mimeType: String = "image/jpeg",
+        extension: String = "jpg",
+        thumbnailFileName: String? = "handle$id.jpg",
+        previewFileName: String? = thumbnailFileName,
+    ) = TimelineIndexEntry(
+        id = id,
+        parentId = 100L,
+        name = name,
+        isVideo = isVideo,
+        isFavourite = id % 2 == 0L,
+        isTakenDown = false,
+        creationTime = 1_700_000_000L + id,
+        modificationTime = 1_700_000_100L + id,
+        size = 1024L * id,
+        mimeType = mimeType,
+        extension = extension,
+        duration = if (isVideo) 30 else 0,
+        thumbnailFileName = thumbnailFileName,
+        previewFileName = previewFileName,
+    )
+
+    companion object {
+        private const val USER_HANDLE = 123456789L
+        private const val LARGE_LIBRARY_SIZE = 200_000
+    }
+}
@@ -3,11 +3,13 @@ package mega.privacy.android.data.mapper
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.node.FolderNodeMapper
+import mega.privacy.android.data.mapper.node.NodeField
 import mega.privacy.android.data.mapper.node.OfflineAvailabilityMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
@@ -23,9 +25,15 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
+import org.mockito.kotlin.clearInvocations
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.mockingDetails
 import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
+import java.io.File
 
 @OptIn(ExperimentalCoroutinesApi::class)
 class NodeMapperTest {
@@ -59,13 +67,18 @@ class NodeMapperTest {
     private val expectedSerializedString = "serializedString"
 
     private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
+    private val cacheGateway = mock<CacheGateway> {
+        onBlocking { getThumbnailCacheFolder() }.thenReturn(File("thumbnails"))
+        onBlocking { getPreviewCacheFolder() }.thenReturn(File("previews"))
+        onBlocking { getFullSizeCacheFolder() }.thenReturn(File("temp"))
+    }
     private val offlineAvailabilityMapper: OfflineAvailabilityMapper = mock()
 
     @BeforeEach
     internal fun setUp() {
         underTest = NodeMapper(
             fileNodeMapper = FileNodeMapper(
-                cacheGateway = mock(),
+                cacheGateway = cacheGateway,
                 megaApiGateway = megaApiGateway,
                 fileTypeInfoMapper = { PdfFileTypeInfo },
                 offlineAvailabilityMapper = offlineAvailabilityMapper,
@@ -152,6 +165,77 @@ class NodeMapperTest {
         assertThat(actual.serializedData).isNull()
     }
 
+    @Test
+    fun `test that the cache file paths are set from the cache folders`() = runTest {
+        val node = getMockNode(isFile = true)
+
+        val actual = underTest(megaNode = node) as DefaultFileNode
+
+        assertThat(actual.thumbnailPath)
+            .isEqualTo("thumbnails${File.separator}$expectedBase64Id.jpg")
+        assertThat(actual.previewPath).isEqualTo("previews${File.separator}$expectedBase64Id.jpg")
+    }
+
+    @Test
+    fun `test that the cache folders are resolved for every node`() = runTest {
+        clearInvocations(cacheGateway)
+
+        repeat(3) { underTest(megaNode = getMockNode(isFile = true)) }
+
+        verify(cacheGateway, times(3)).getThumbnailCacheFolder()
+        verify(cacheGateway, times(3)).getPreviewCacheFolder()
+        verify(cacheGateway, times(3)).getFullSizeCacheFolder()
+    }
+
+    @Test
+    fun `test that the fields not requested are not read and keep their empty value`() =
+        runTest {
+            val folder = getMockNode(isFile = false)
+            val file = getMockNode(isFile = true)
+            megaApiGateway.stub {
+                onBlocking { getNumChildFolders(folder) }.thenReturn(4)
+                onBlocking { isInRubbish(folder) }.thenReturn(true)
+            }
+            clearInvocations(megaApiGateway, cacheGateway)
+
+            val actualFolder =
+                underTest(megaNode = folder, fields = NodeField.IDENTITY) as DefaultFolderNode
+            val actualFile =
+                underTest(megaNode = file, fields = NodeField.IDENTITY) as DefaultFileNode
+
+            verifyNoInteractions(megaApiGateway, cacheGateway)
+            assertThat(actualFolder.id).isEqualTo(NodeId(expectedId))
+            assertThat(actualFolder.childFolderCount).isEqualTo(0)
+            assertThat(actualFolder.isInRubbishBin).isFalse()
+            assertThat(actualFile.versionCount).isEqualTo(0)
+            assertThat(actualFile.thumbnailPath).isNull()
+        }
+
+    @Test
+    fun `test that mapping a large folder by identity calls the sdk a fraction of the times`() =
+        runTest {
+            val file = getMockNode(isFile = true)
+            val folder = getMockNode(isFile = false)
+            val children = List(LARGE_FOLDER_SIZE) { if (it % 4 == 0) folder else file }
+
+            val allCalls = countGatewayCalls {
+                children.forEach { underTest(megaNode = it) }
+            }
+            val identityCalls = countGatewayCalls {
+                children.forEach { underTest(megaNode = it, fields = NodeField.IDENTITY) }
+            }
+
+            assertThat(allCalls).isAtLeast(LARGE_FOLDER_SIZE)
+            assertThat(identityCalls).isEqualTo(0)
+        }
+
+    private suspend fun countGatewayCalls(block: suspend () -> Unit): Int {
+        clearInvocations(megaApiGateway, cacheGateway)
+        block()
+        return listOf(megaApiGateway, cacheGateway)
+            .sumOf { mockingDetails(it).invocations.size }
+    }
+
     @Nested
     @DisplayName("Test that is exported data is correct")
     inner class Exported {
@@ -235,4 +319,8 @@ class NodeMapperTest {
         }
         return node
     }
+
+    companion object {
+        private const val LARGE_FOLDER_SIZE = 10_000
+    }
 }
@@ -17,10 +17,14 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.FOLDER_UNAVAILABLE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.NOT_ENOUGH_STORAGE
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.OUT_OF_SPACE
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PREPARATION_METRICS
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.PROGRESS
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STAGE_DURATION
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STATUS_INFO
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STORAGE_OVER_QUOTA
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TIME_TO_FIRST_RECORD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_COUNT
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_PREPARED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_TO_UPLOAD
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED_BYTES
@@ -28,6 +32,7 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTA
 import mega.privacy.android.domain.entity.Progress
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsFinishedReason
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsPreparationStage
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.TestInstance
@@ -160,6 +165,43 @@ class CameraUploadsStatusInfoMapperTest {
             WorkInfo.STOP_REASON_NOT_STOPPED,
             CameraUploadsStatusInfo.FolderUnavailable(CameraUploadFolderType.Secondary)
         ),
+        Arguments.of(
+            workDataOf(
+                STATUS_INFO to PREPARATION_METRICS,
+                TIME_TO_FIRST_RECORD to 1500L,
+                TOTAL_PREPARED to 200,
+                "${STAGE_DURATION}${CameraUploadsPreparationStage.Filter.name}" to 10L,
+                "${STAGE_DURATION}${CameraUploadsPreparationStage.ExistenceCheck.name}" to 2000L,
+                "${STAGE_DURATION}${CameraUploadsPreparationStage.Rename.name}" to 300L,
+                "${STAGE_DURATION}${CameraUploadsPreparationStage.GpsCoordinates.name}" to 4000L,
+            ),
+            WorkInfo.State.RUNNING,
+            WorkInfo.STOP_REASON_NOT_STOPPED,
+            CameraUploadsStatusInfo.PreparationMetrics(
+                stageDurations = mapOf(
+                    CameraUploadsPreparationStage.Filter to 10L,
+                    CameraUploadsPreparationStage.ExistenceCheck to 2000L,
+                    CameraUploadsPreparationStage.Rename to 300L,
+                    CameraUploadsPreparationStage.GpsCoordinates to 4000L,
+                ),
+                timeToFirstRecord = 1500L,
+                totalPrepared = 200,
+            )
+        ),
+        Arguments.of(
+            workDataOf(
+                STATUS_INFO to PREPARATION_METRICS,
+                TIME_TO_FIRST_RECORD to -1L,
+                TOTAL_PREPARED to 0,
+            ),
+            WorkInfo.State.RUNNING,
+            WorkInfo.STOP_REASON_NOT_STOPPED,
+            CameraUploadsStatusInfo.PreparationMetrics(
+                stageDurations = CameraUploadsPreparationStage.entries.associateWith { 0L },
+                timeToFirstRecord = null,
+                totalPrepared = 0,
+            )
+        ),
         Arguments.of(
             workDataOf(
                 STATUS_INFO to FINISHED,
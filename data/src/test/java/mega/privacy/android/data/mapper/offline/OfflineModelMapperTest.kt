@@ -9,6 +9,7 @@ import mega.privacy.android.domain.entity.Offline
 import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -51,4 +52,49 @@ internal class OfflineModelMapperTest {
         whenever(decryptData(model.encryptedIncomingHandle)).thenReturn(expected.handleIncoming)
         Truth.assertThat(underTest(model)).isEqualTo(expected)
     }
+
+    @Test
+    fun `test that the fields of a list of entities are decrypted in one call`() = runTest {
+        val entities = (1..3).map {
+            OfflineEntity(
+                id = it,
+                encryptedHandle = "handle$it",
+                encryptedName = "name$it",
+                encryptedPath = "path$it",
+                parentId = 1234,
+                encryptedType = "File",
+                incoming = 0,
+                encryptedIncomingHandle = "NO",
+                lastModifiedTime = it.toLong(),
+            )
+        }
+        val fields = entities.flatMap {
+            listOf(
+                it.encryptedHandle,
+                it.encryptedPath,
+                it.encryptedName,
+                it.encryptedType,
+                it.encryptedIncomingHandle,
+            )
+        }
+        whenever(decryptData(fields)).thenReturn(fields)
+
+        val actual = underTest(entities)
+
+        Truth.assertThat(actual.map { it.id }).containsExactly(1, 2, 3).inOrder()
+        Truth.assertThat(actual[1]).isEqualTo(
+            Offline(
+                id = 2,
+                handle = "handle2",
+                name = "name2",
+                path = "path2",
+                parentId = 1234,
+                type = "File",
+                origin = 0,
+                handleIncoming = "NO",
+                lastModifiedTime = 2,
+            )
+        )
+        verify(decryptData).invoke(fields)
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -169,4 +170,61 @@ internal class CompletedTransferModelMapperTest {
 
             Truth.assertThat(underTest(entity)).isEqualTo(expected)
         }
+
+    @Test
+    fun `test that the fields of a list of entities are decrypted in one call`() = runTest {
+        val entities = (1..3).map {
+            CompletedTransferEntity(
+                id = it,
+                fileName = "file$it.jpg",
+                type = "1",
+                state = "6",
+                size = "3.57 MB",
+                handle = "$it",
+                path = "Cloud drive/Camera uploads",
+                isOffline = "false",
+                timestamp = "168422801297$it",
+                error = null,
+                originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/file$it.jpg",
+                parentHandle = "11622336899311",
+            )
+        }
+        val fields = entities.flatMap {
+            listOf(
+                it.fileName,
+                it.type,
+                it.state,
+                it.size,
+                it.handle,
+                it.path,
+                it.isOffline,
+                it.timestamp,
+                it.error,
+                it.originalPath,
+                it.parentHandle,
+            )
+        }
+        whenever(decryptData(fields)).thenReturn(fields)
+
+        val actual = underTest(entities)
+
+        Truth.assertThat(actual.map { it.handle }).containsExactly(1L, 2L, 3L).inOrder()
+        Truth.assertThat(actual[2]).isEqualTo(
+            CompletedTransfer(
+                id = 3,
+                fileName = "file3.jpg",
+                type = 1,
+                state = 6,
+                size = "3.57 MB",
+                handle = 3L,
+                path = "Cloud drive/Camera uploads",
+                isOffline = false,
+                timestamp = 1684228012973L,
+                error = null,
+                originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/file3.jpg",
+                parentHandle = 11622336899311L,
+            )
+        )
+        verify(decryptData).invoke(fields)
+    }
 }
@@ -6,11 +6,12 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.audios.TypedAudioNodeMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.repository.AudioSectionRepository
 import nz.mega.sdk.MegaApiJava
@@ -35,7 +36,9 @@ class AudioSectionRepositoryImplTest {
     private val fileNodeMapper = mock<FileNodeMapper>()
     private val typedAudioNodeMapper = mock<TypedAudioNodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
-    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineNodeIndexGateway = mock<OfflineNodeIndexGateway> {
+        onBlocking { getOfflineNodes() }.thenReturn(OfflineNodes.EMPTY)
+    }
 
     @BeforeAll
     fun setUp() {
@@ -45,7 +48,7 @@ class AudioSectionRepositoryImplTest {
             fileNodeMapper = fileNodeMapper,
             typedAudioNodeMapper = typedAudioNodeMapper,
             cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineNodeIndexGateway = offlineNodeIndexGateway,
             ioDispatcher = UnconfinedTestDispatcher()
         )
     }
@@ -57,7 +60,6 @@ class AudioSectionRepositoryImplTest {
             sortOrderIntMapper,
             fileNodeMapper,
             typedAudioNodeMapper,
-            megaLocalRoomGateway
         )
     }
 
@@ -73,7 +75,6 @@ class AudioSectionRepositoryImplTest {
             .thenReturn(MegaApiJava.ORDER_DEFAULT_DESC)
         whenever(megaApiGateway.searchByType(any(), any(), any(), any()))
             .thenReturn(listOf(mock(), mock()))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
         whenever(typedAudioNodeMapper(any(), any())).thenReturn(mock())
 
         val actual = underTest.getAllAudios(SortOrder.ORDER_MODIFICATION_DESC)
@@ -4,6 +4,7 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CacheFolderGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -19,11 +20,13 @@ import java.io.File
 class CacheRepositoryImplTest {
     private val ioDispatcher = UnconfinedTestDispatcher()
     private val cacheFolderGateway: CacheFolderGateway = mock()
-    private val underTest = CacheRepositoryImpl(cacheFolderGateway, ioDispatcher)
+    private val packedThumbnailGateway: PackedThumbnailGateway = mock()
+    private val underTest =
+        CacheRepositoryImpl(cacheFolderGateway, packedThumbnailGateway, ioDispatcher)
 
     @BeforeEach
     fun resetMocks() {
-        reset(cacheFolderGateway)
+        reset(cacheFolderGateway, packedThumbnailGateway)
     }
 
     @Test
@@ -41,6 +44,12 @@ class CacheRepositoryImplTest {
         verify(cacheFolderGateway).clearCache()
     }
 
+    @Test
+    fun `test that the packed thumbnails are cleared when clear cache is invoked`() = runTest {
+        underTest.clearCache()
+        verify(packedThumbnailGateway).clear()
+    }
+
     @Test
     fun `test that cache file is same as expected and actual`() {
         val folderName = "folder"
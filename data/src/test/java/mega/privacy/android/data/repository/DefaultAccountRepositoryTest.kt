@@ -14,6 +14,7 @@ import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.api.MegaChatApiGateway
@@ -115,6 +116,7 @@ class DefaultAccountRepositoryTest {
     private val callsPreferencesGateway = mock<CallsPreferencesGateway>()
     private val accountPreferencesGateway = mock<AccountPreferencesGateway>()
     private val cacheGateway = mock<CacheGateway>()
+    private val packedThumbnailGateway = mock<PackedThumbnailGateway>()
     private val passwordStrengthMapper = mock<PasswordStrengthMapper>()
     private val myAccountCredentialsMapper = mock<MyAccountCredentialsMapper>()
     private val ephemeralCredentialsGateway = mock<EphemeralCredentialsGateway>()
@@ -174,6 +176,7 @@ class DefaultAccountRepositoryTest {
             callsPreferencesGateway,
             accountPreferencesGateway,
             cacheGateway,
+            packedThumbnailGateway,
             passwordStrengthMapper,
             appEventGateway,
             ephemeralCredentialsGateway,
@@ -212,6 +215,7 @@ class DefaultAccountRepositoryTest {
             callsPreferencesGateway = callsPreferencesGateway,
             accountPreferencesGateway = accountPreferencesGateway,
             cacheGateway = cacheGateway,
+            packedThumbnailGateway = packedThumbnailGateway,
             passwordStrengthMapper = passwordStrengthMapper,
             appEventGateway = appEventGateway,
             ephemeralCredentialsGateway = ephemeralCredentialsGateway,
@@ -1033,6 +1037,7 @@ class DefaultAccountRepositoryTest {
     fun `test that CacheFolderGateway is invoked when clearing app data and cache`() =
         runTest {
             underTest.clearAppDataAndCache()
+            verify(packedThumbnailGateway).clear()
             verify(cacheGateway).clearCacheDirectory()
             verify(cacheGateway).clearAppData()
             verify(cacheGateway).clearSdkCache()
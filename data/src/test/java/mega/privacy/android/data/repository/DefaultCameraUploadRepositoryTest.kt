@@ -35,7 +35,10 @@ import mega.privacy.android.data.mapper.camerauploads.UploadOptionIntMapper
 import mega.privacy.android.data.mapper.camerauploads.UploadOptionMapper
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.VideoQuality
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 import mega.privacy.android.domain.exception.MegaException
@@ -54,12 +57,10 @@ import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
-import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
-import java.util.LinkedList
 import kotlin.contracts.ExperimentalContracts
 import kotlin.test.assertFailsWith
 
@@ -202,28 +203,55 @@ class DefaultCameraUploadRepositoryTest {
             }
 
         @Test
-        fun `test that the correct media queues are retrieved by media store file type`() =
+        fun `test that the media are scanned from the given watermark by media store file type`() =
             runTest {
-                val result =
-                    LinkedList(listOf(CameraUploadsMedia(1234L, "displayName", "filePath", 1)))
-
-                whenever(
-                    cameraUploadsMediaGateway.getMediaList(
-                        uri = anyOrNull(),
-                        selectionQuery = any(),
-                    )
-                ).thenReturn(
-                    result
+                val watermark = mock<CameraUploadsMediaWatermark>()
+                val result = CameraUploadsMediaScan(
+                    media = listOf(CameraUploadsMedia(1234L, "displayName", "filePath", 1)),
+                    watermark = mock(),
                 )
+
                 whenever(mediaStoreFileTypeUriWrapper(any())).thenReturn(Uri.EMPTY)
+                whenever(cameraUploadsMediaGateway.scanMedia(Uri.EMPTY, "", watermark))
+                    .thenReturn(result)
 
-                val actual = underTest.getMediaList(
+                val actual = underTest.scanMedia(
                     mediaStoreFileType = MediaStoreFileType.IMAGES_INTERNAL,
                     selectionQuery = "",
+                    watermark = watermark,
                 )
                 assertThat(actual).isEqualTo(result)
             }
 
+        @Test
+        fun `test that the media watermark is retrieved by folder type and media store file type`() =
+            runTest {
+                val watermark = mock<CameraUploadsMediaWatermark>()
+                whenever(cameraUploadsSettingsPreferenceGateway.getMediaWatermark("Primary_IMAGES_EXTERNAL"))
+                    .thenReturn(watermark)
+
+                assertThat(
+                    underTest.getMediaWatermark(
+                        CameraUploadFolderType.Primary,
+                        MediaStoreFileType.IMAGES_EXTERNAL,
+                    )
+                ).isEqualTo(watermark)
+            }
+
+        @Test
+        fun `test that the media watermarks of the folder types are cleared when the records are cleared`() =
+            runTest {
+                underTest.clearRecords(listOf(CameraUploadFolderType.Secondary))
+
+                verify(megaLocalRoomGateway).deleteCameraUploadsRecords(
+                    listOf(CameraUploadFolderType.Secondary)
+                )
+                MediaStoreFileType.entries.forEach {
+                    verify(cameraUploadsSettingsPreferenceGateway)
+                        .setMediaWatermark("Secondary_${it.name}", null)
+                }
+            }
+
         @Test
         fun `test that getMediaSelectionQuery returns the result of cameraUploadsMediaGateway getMediaSelectionQuery`() =
             runTest {
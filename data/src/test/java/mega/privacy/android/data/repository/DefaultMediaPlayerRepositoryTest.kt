@@ -10,6 +10,7 @@ import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.preferences.AppPreferencesGateway
@@ -20,6 +21,7 @@ import mega.privacy.android.data.mapper.mediaplayer.RepeatToggleModeMapper
 import mega.privacy.android.data.mapper.mediaplayer.SubtitleFileInfoMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.videos.TypedVideoNodeMapper
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.mediaplayer.PlaybackInformation
 import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
 import mega.privacy.android.domain.repository.MediaPlayerRepository
@@ -52,6 +54,9 @@ class DefaultMediaPlayerRepositoryTest {
     private val subtitleFileInfoMapper = mock<SubtitleFileInfoMapper>()
     private val mediaPlayerPreferencesGateway = mock<MediaPlayerPreferencesGateway>()
     private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineNodeIndexGateway = mock<OfflineNodeIndexGateway> {
+        onBlocking { getOfflineNodes() }.thenReturn(OfflineNodes.EMPTY)
+    }
     private val fileNodeMapper = mock<FileNodeMapper>()
     private val typedAudioNodeMapper = mock<TypedAudioNodeMapper>()
     private val typedVideoNodeMapper = mock<TypedVideoNodeMapper>()
@@ -67,6 +72,7 @@ class DefaultMediaPlayerRepositoryTest {
             megaApi = megaApi,
             megaApiFolder = megaApiFolder,
             megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineNodeIndexGateway = offlineNodeIndexGateway,
             dbHandler = dbHandler,
             fileNodeMapper = fileNodeMapper,
             typedAudioNodeMapper = typedAudioNodeMapper,
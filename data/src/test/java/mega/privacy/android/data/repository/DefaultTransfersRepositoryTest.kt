@@ -123,6 +123,11 @@ class DefaultTransfersRepositoryTest {
             megaNodeMapper = megaNodeMapper,
             sdCardGateway = sdCardGateway,
             deviceGateway = deviceGateway,
+            pendingTransfersCounter = PendingTransfersCounter(
+                megaApiGateway = megaApiGateway,
+                scope = testScope,
+                ioDispatcher = UnconfinedTestDispatcher(),
+            ),
         )
     }
 
@@ -897,6 +902,11 @@ class DefaultTransfersRepositoryTest {
     @Nested
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     inner class PendingCounters {
+        @BeforeEach
+        fun setUp() = runTest {
+            underTest = createDefaultTransfersRepository()
+        }
+
         @Test
         fun `test that getNumPendingGeneralUploads returns correctly`() = runTest {
             stubUploadTransfers()
@@ -934,11 +944,13 @@ class DefaultTransfersRepositoryTest {
         }
 
         private fun stubUploadTransfers() = runTest {
+            var tag = 1
             val megaTransfers =
                 (1..3).flatMap { type ->
                     listOf(true, false).flatMap { paused ->
                         listOf(true, false).map { finished ->
                             val megaTransfer = mock<MegaTransfer>()
+                            whenever(megaTransfer.tag).thenReturn(tag++)
                             whenever(megaTransfer.isFinished).thenReturn(finished)
                             whenever(megaTransfer.state).thenReturn(if (paused) MegaTransfer.STATE_PAUSED else MegaTransfer.STATE_ACTIVE)
                             whenever(megaTransfer.appData).thenReturn(
@@ -954,6 +966,8 @@ class DefaultTransfersRepositoryTest {
                 }
             whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
                 .thenReturn(megaTransfers)
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                .thenReturn(emptyList())
         }
     }
 
@@ -4,10 +4,11 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.repository.DocumentSectionRepository
@@ -31,7 +32,9 @@ class DocumentSectionRepositoryImplTest {
     private val sortOrderIntMapper = mock<SortOrderIntMapper>()
     private val nodeMapper = mock<NodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
-    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineNodeIndexGateway = mock<OfflineNodeIndexGateway> {
+        onBlocking { getOfflineNodes() }.thenReturn(OfflineNodes.EMPTY)
+    }
 
     @BeforeAll
     fun setUp() {
@@ -40,7 +43,7 @@ class DocumentSectionRepositoryImplTest {
             sortOrderIntMapper = sortOrderIntMapper,
             nodeMapper = nodeMapper,
             cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineNodeIndexGateway = offlineNodeIndexGateway,
             ioDispatcher = UnconfinedTestDispatcher()
         )
     }
@@ -51,7 +54,6 @@ class DocumentSectionRepositoryImplTest {
             megaApiGateway,
             sortOrderIntMapper,
             nodeMapper,
-            megaLocalRoomGateway
         )
     }
 
@@ -67,7 +69,6 @@ class DocumentSectionRepositoryImplTest {
             .thenReturn(ORDER_DEFAULT_DESC)
         whenever(megaApiGateway.searchByType(any(), any(), any(), any()))
             .thenReturn(listOf(node, node))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
         whenever(nodeMapper(megaNode = node, offline = null)).thenReturn(fileNode)
 
         val actual = underTest.getAllDocuments(SortOrder.ORDER_MODIFICATION_DESC)
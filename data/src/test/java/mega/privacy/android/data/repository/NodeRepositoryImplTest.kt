@@ -3,11 +3,14 @@ package mega.privacy.android.data.repository
 import android.content.Context
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -32,11 +35,13 @@ import mega.privacy.android.data.mapper.node.label.NodeLabelIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
 import mega.privacy.android.domain.entity.ShareData
 import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFolderNode
 import mega.privacy.android.domain.entity.node.TypedImageNode
@@ -71,6 +76,7 @@ import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.never
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.stub
@@ -109,6 +115,9 @@ class NodeRepositoryImplTest {
     private val nodeShareKeyResultMapper = mock<NodeShareKeyResultMapper>()
     private val fetChildrenMapper = mock<FetchChildrenMapper>()
     private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
+    private val offlineNodeIndexGateway = mock<OfflineNodeIndexGateway> {
+        onBlocking { getOfflineNodes() }.thenReturn(OfflineNodes.EMPTY)
+    }
     private val offlineAvailabilityMapper: OfflineAvailabilityMapper = mock()
     private val megaNodeMapper = mock<MegaNodeMapper>()
     private val fileNodeMapper = FileNodeMapper(
@@ -156,6 +165,7 @@ class NodeRepositoryImplTest {
             nodeShareKeyResultMapper = nodeShareKeyResultMapper,
             accessPermissionIntMapper = accessPermissionIntMapper,
             megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineNodeIndexGateway = offlineNodeIndexGateway,
             megaNodeMapper = megaNodeMapper,
             nodeLabelIntMapper = nodeLabelIntMapper
         )
@@ -1033,6 +1043,107 @@ class NodeRepositoryImplTest {
             assertThat(actual?.serializedData).isEqualTo(serializedData)
         }
 
+    @Test
+    fun `test that getNodesByFingerprints queries the parent node and each fingerprint only once`() =
+        runTest {
+            val parentNodeId = NodeId(123456L)
+            val parentMegaNode = mock<MegaNode>()
+            val megaNode = mockMegaNodeForConversion()
+            val lookups = listOf(
+                NodeFingerprintLookup("originalFingerprint", "generatedFingerprint1", parentNodeId),
+                NodeFingerprintLookup("originalFingerprint", "generatedFingerprint2", parentNodeId),
+            )
+            whenever(megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue))
+                .thenReturn(parentMegaNode)
+            whenever(megaApiGateway.getChildrenByNode(parentMegaNode)).thenReturn(emptyList())
+            whenever(megaApiGateway.getNodesByOriginalFingerprint("originalFingerprint", null))
+                .thenReturn(null)
+            whenever(megaApiGateway.getNodeByFingerprintAndParentNode("originalFingerprint", null))
+                .thenReturn(megaNode)
+
+            val actual = underTest.getNodesByFingerprints(lookups, chunkSize = 1).toList()
+
+            assertThat(actual.map { chunk -> chunk.map { it?.id } })
+                .containsExactly(listOf(NodeId(987L)), listOf(NodeId(987L))).inOrder()
+            verify(megaApiGateway).getMegaNodeByHandle(parentNodeId.longValue)
+            verify(megaApiGateway).getChildrenByNode(parentMegaNode)
+            verify(megaApiGateway).getNodesByOriginalFingerprint("originalFingerprint", null)
+            verify(megaApiGateway).getNodeByFingerprintAndParentNode("originalFingerprint", null)
+            verify(megaApiGateway, never())
+                .getNodeByFingerprintAndParentNode(eq("generatedFingerprint1"), anyOrNull())
+        }
+
+    @Test
+    fun `test that getNodesByFingerprints resolves the lookups from the children of the parent node whatever its size`() =
+        runTest {
+            val parentNodeId = NodeId(123456L)
+            val parentMegaNode = mock<MegaNode>()
+            val megaNode = mockMegaNodeForConversion()
+            val lookup = NodeFingerprintLookup("originalFingerprint", "finger_print", parentNodeId)
+            whenever(megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue))
+                .thenReturn(parentMegaNode)
+            whenever(megaApiGateway.getNumChildFiles(parentMegaNode)).thenReturn(100_000)
+            whenever(megaApiGateway.getChildrenByNode(parentMegaNode)).thenReturn(listOf(megaNode))
+
+            val actual = underTest.getNodesByFingerprints(listOf(lookup), chunkSize = 1).toList()
+
+            assertThat(actual.single().single()?.id).isEqualTo(NodeId(987L))
+            verify(megaApiGateway, never()).getNodesByOriginalFingerprint(any(), anyOrNull())
+            verify(megaApiGateway, never()).getNodeByFingerprintAndParentNode(any(), anyOrNull())
+        }
+
+    @Test
+    fun `test that getNodesByFingerprints indexes the parent node once for all the chunks`() =
+        runTest {
+            val parentNodeId = NodeId(123456L)
+            val parentMegaNode = mock<MegaNode>()
+            val lookups = List(4) {
+                NodeFingerprintLookup("originalFingerprint$it", null, parentNodeId)
+            }
+            whenever(megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue))
+                .thenReturn(parentMegaNode)
+            whenever(megaApiGateway.getChildrenByNode(parentMegaNode)).thenReturn(emptyList())
+
+            val actual = underTest.getNodesByFingerprints(lookups, chunkSize = 1).toList()
+
+            assertThat(actual).hasSize(4)
+            verify(megaApiGateway, times(1)).getChildrenByNode(parentMegaNode)
+        }
+
+    @Test
+    fun `test that getNodesByFingerprints looks up the misses in the account before the first chunk`() =
+        runTest {
+            val parentNodeId = NodeId(123456L)
+            val parentMegaNode = mock<MegaNode>()
+            val megaNode = mockMegaNodeForConversion()
+            val lookups = listOf(
+                NodeFingerprintLookup("finger_print", null, parentNodeId),
+                NodeFingerprintLookup("originalFingerprint", null, parentNodeId),
+            )
+            whenever(megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue))
+                .thenReturn(parentMegaNode)
+            whenever(megaApiGateway.getChildrenByNode(parentMegaNode)).thenReturn(listOf(megaNode))
+
+            val actual = underTest.getNodesByFingerprints(lookups, chunkSize = 1).first()
+
+            assertThat(actual.single()?.id).isEqualTo(NodeId(987L))
+            verify(megaApiGateway).getNodesByOriginalFingerprint("originalFingerprint", null)
+            verify(megaApiGateway).getNodeByFingerprintAndParentNode("originalFingerprint", null)
+            verify(megaApiGateway, never())
+                .getNodeByFingerprintAndParentNode(eq("finger_print"), anyOrNull())
+        }
+
+    @Test
+    fun `test that getNodesByFingerprints returns null for the lookups without a node`() =
+        runTest {
+            val parentNodeId = NodeId(123456L)
+            val lookup = NodeFingerprintLookup("originalFingerprint", null, parentNodeId)
+            whenever(megaApiGateway.getMegaNodeByHandle(parentNodeId.longValue)).thenReturn(null)
+
+            assertThat(underTest.getNodesByFingerprints(listOf(lookup), chunkSize = 1).toList())
+                .containsExactly(listOf(null))
+        }
+
     @Test
     fun `test that does node exist returns true when node is found`() = runTest {
         val node = NodeId(1L)
@@ -0,0 +1,254 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.model.RequestEvent
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaRequest
+import nz.mega.sdk.MegaTransfer
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PendingTransfersCounterTest {
+
+    private val megaApiGateway = mock<MegaApiGateway>()
+
+    private val globalTransfer = MutableSharedFlow<GlobalTransfer>()
+    private val globalRequestEvents = MutableSharedFlow<RequestEvent>()
+
+    @BeforeEach
+    fun resetMocks() = runTest {
+        reset(megaApiGateway)
+        whenever(megaApiGateway.globalTransfer).thenReturn(globalTransfer)
+        whenever(megaApiGateway.globalRequestEvents).thenReturn(globalRequestEvents)
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)).thenReturn(emptyList())
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)).thenReturn(emptyList())
+    }
+
+    private fun TestScope.createUnderTest() = PendingTransfersCounter(
+        megaApiGateway = megaApiGateway,
+        scope = backgroundScope,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    @Test
+    fun `test that the first counts are the ones of the sdk transfers`() = runTest {
+        val downloads = listOf(
+            createTransfer(1, MegaTransfer.TYPE_DOWNLOAD),
+            createTransfer(2, MegaTransfer.TYPE_DOWNLOAD, paused = true),
+            createTransfer(3, MegaTransfer.TYPE_DOWNLOAD, finished = true),
+            createTransfer(4, MegaTransfer.TYPE_DOWNLOAD, appData = BACKGROUND),
+        )
+        val uploads = listOf(
+            createTransfer(5, MegaTransfer.TYPE_UPLOAD),
+            createTransfer(6, MegaTransfer.TYPE_UPLOAD, appData = CAMERA_UPLOAD, paused = true),
+            createTransfer(7, MegaTransfer.TYPE_UPLOAD, appData = CHAT_UPLOAD),
+            createTransfer(8, MegaTransfer.TYPE_UPLOAD, finished = true),
+        )
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)).thenReturn(downloads)
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)).thenReturn(uploads)
+
+        assertThat(createUnderTest().getCounts()).isEqualTo(
+            PendingTransfersCounter.Counts(
+                downloadsNonBackground = 2,
+                pausedDownloadsNonBackground = 1,
+                uploads = 3,
+                generalUploads = 1,
+                cameraUploads = 1,
+                chatUploads = 1,
+                pausedUploads = 1,
+                pausedCameraUploads = 1,
+            )
+        )
+    }
+
+    @Test
+    fun `test that transfer events update the counts without getting the sdk transfers`() =
+        runTest {
+            val underTest = createUnderTest()
+            underTest.getCounts()
+            val transfer = createTransfer(1, MegaTransfer.TYPE_UPLOAD, appData = CHAT_UPLOAD)
+
+            globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+            assertThat(underTest.getCounts())
+                .isEqualTo(PendingTransfersCounter.Counts(uploads = 1, chatUploads = 1))
+
+            whenever(transfer.state).thenReturn(MegaTransfer.STATE_PAUSED)
+            globalTransfer.emit(GlobalTransfer.OnTransferUpdate(transfer))
+            assertThat(underTest.getCounts()).isEqualTo(
+                PendingTransfersCounter.Counts(
+                    uploads = 1,
+                    chatUploads = 1,
+                    pausedUploads = 1,
+                    pausedChatUploads = 1,
+                )
+            )
+
+            globalTransfer.emit(GlobalTransfer.OnTransferFinish(transfer, mock()))
+            assertThat(underTest.getCounts()).isEqualTo(PendingTransfersCounter.Counts())
+            verify(megaApiGateway, times(1)).getTransfers(MegaTransfer.TYPE_UPLOAD)
+        }
+
+    @Test
+    fun `test that repeated events of a transfer are counted once`() = runTest {
+        val underTest = createUnderTest()
+        underTest.getCounts()
+        val transfer = createTransfer(1, MegaTransfer.TYPE_DOWNLOAD)
+
+        globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+        repeat(10) { globalTransfer.emit(GlobalTransfer.OnTransferUpdate(transfer)) }
+
+        assertThat(underTest.counts.value)
+            .isEqualTo(PendingTransfersCounter.Counts(downloadsNonBackground = 1))
+    }
+
+    @Test
+    fun `test that pausing a transfer updates the paused counts`() = runTest {
+        val transfer = createTransfer(1, MegaTransfer.TYPE_UPLOAD, appData = CAMERA_UPLOAD)
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)).thenReturn(listOf(transfer))
+        val underTest = createUnderTest()
+        underTest.getCounts()
+
+        globalRequestEvents.emit(createPauseRequestFinish(MegaRequest.TYPE_PAUSE_TRANSFER, 1))
+
+        assertThat(underTest.getCounts()).isEqualTo(
+            PendingTransfersCounter.Counts(
+                uploads = 1,
+                cameraUploads = 1,
+                pausedUploads = 1,
+                pausedCameraUploads = 1,
+            )
+        )
+    }
+
+    @Test
+    fun `test that pausing all transfers reconciles the counts`() = runTest {
+        val underTest = createUnderTest()
+        underTest.getCounts()
+        val transfer =
+            createTransfer(1, MegaTransfer.TYPE_DOWNLOAD, paused = true)
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)).thenReturn(listOf(transfer))
+
+        globalRequestEvents.emit(createPauseRequestFinish(MegaRequest.TYPE_PAUSE_TRANSFERS, 0))
+
+        assertThat(underTest.getCounts()).isEqualTo(
+            PendingTransfersCounter.Counts(
+                downloadsNonBackground = 1,
+                pausedDownloadsNonBackground = 1,
+            )
+        )
+    }
+
+    @Test
+    fun `test that missed events are corrected by the periodic reconciliation`() = runTest {
+        val underTest = createUnderTest()
+        underTest.getCounts()
+        val transfer = createTransfer(1, MegaTransfer.TYPE_UPLOAD)
+        whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)).thenReturn(listOf(transfer))
+
+        advanceTimeBy(RECONCILIATION_PERIOD_MILLIS)
+        runCurrent()
+
+        assertThat(underTest.counts.value)
+            .isEqualTo(PendingTransfersCounter.Counts(uploads = 1, generalUploads = 1))
+    }
+
+    @Test
+    fun `test that the events received while the sdk transfers are read are not lost`() =
+        runTest {
+            val underTest = createUnderTest()
+            underTest.getCounts()
+            val finished = createTransfer(1, MegaTransfer.TYPE_UPLOAD)
+            val started = createTransfer(2, MegaTransfer.TYPE_DOWNLOAD)
+            val eventsSent = CompletableDeferred<Unit>()
+            megaApiGateway.stub {
+                onBlocking { getTransfers(MegaTransfer.TYPE_UPLOAD) } doSuspendableAnswer {
+                    eventsSent.await()
+                    listOf(finished)
+                }
+            }
+
+            val reconciliation = async { underTest.reconcile() }
+            runCurrent()
+            globalTransfer.emit(GlobalTransfer.OnTransferFinish(finished, mock()))
+            globalTransfer.emit(GlobalTransfer.OnTransferStart(started))
+            eventsSent.complete(Unit)
+
+            val expected = PendingTransfersCounter.Counts(downloadsNonBackground = 1)
+            assertThat(reconciliation.await()).isEqualTo(expected)
+            assertThat(underTest.counts.value).isEqualTo(expected)
+        }
+
+    @Test
+    fun `test that the events are not replayed by the next reconciliation`() = runTest {
+        val underTest = createUnderTest()
+        underTest.getCounts()
+        val transfer = createTransfer(1, MegaTransfer.TYPE_UPLOAD)
+        val eventSent = CompletableDeferred<Unit>()
+        megaApiGateway.stub {
+            onBlocking { getTransfers(MegaTransfer.TYPE_UPLOAD) } doSuspendableAnswer {
+                eventSent.await()
+                emptyList()
+            }
+        }
+        val reconciliation = async { underTest.reconcile() }
+        runCurrent()
+        globalTransfer.emit(GlobalTransfer.OnTransferStart(transfer))
+        eventSent.complete(Unit)
+        reconciliation.await()
+
+        assertThat(underTest.reconcile()).isEqualTo(PendingTransfersCounter.Counts())
+    }
+
+    private fun createTransfer(
+        tag: Int,
+        type: Int,
+        appData: String? = null,
+        paused: Boolean = false,
+        finished: Boolean = false,
+    ) = mock<MegaTransfer> {
+        on { this.tag }.thenReturn(tag)
+        on { this.type }.thenReturn(type)
+        on { this.appData }.thenReturn(appData)
+        on { state }.thenReturn(if (paused) MegaTransfer.STATE_PAUSED else MegaTransfer.STATE_ACTIVE)
+        on { isFinished }.thenReturn(finished)
+    }
+
+    private fun createPauseRequestFinish(type: Int, transferTag: Int): RequestEvent {
+        val request = mock<MegaRequest> {
+            on { this.type }.thenReturn(type)
+            on { this.transferTag }.thenReturn(transferTag)
+            on { flag }.thenReturn(true)
+        }
+        val error = mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) }
+        return RequestEvent.OnRequestFinish(request, error)
+    }
+
+    companion object {
+        private const val RECONCILIATION_PERIOD_MILLIS = 60_000L
+        private const val BACKGROUND = "BACKGROUND_TRANSFER"
+        private val CAMERA_UPLOAD = AppDataTypeConstants.CameraUpload.sdkTypeValue
+        private val CHAT_UPLOAD = AppDataTypeConstants.ChatUpload.sdkTypeValue
+    }
+}
@@ -0,0 +1,119 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.concurrent.thread
+import kotlin.random.Random
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransferredBytesTest {
+
+    private lateinit var underTest: TransferredBytes
+
+    @BeforeEach
+    fun setUp() {
+        underTest = TransferredBytes()
+    }
+
+    @Test
+    fun `test that the last transferred bytes of each transfer are kept`() {
+        underTest.put(1, 100L)
+        underTest.put(2, 200L)
+        underTest.put(1, 150L)
+
+        assertThat(underTest[1]).isEqualTo(150L)
+        assertThat(underTest[2]).isEqualTo(200L)
+        assertThat(underTest[3]).isNull()
+        assertThat(underTest.snapshot()).containsExactly(1, 150L, 2, 200L)
+    }
+
+    @Test
+    fun `test that clear removes all the transfers`() {
+        (0 until 1000).forEach { underTest.put(it, it.toLong()) }
+
+        underTest.clear()
+
+        assertThat(underTest[1]).isNull()
+        assertThat(underTest.snapshot()).isEmpty()
+    }
+
+    @Test
+    fun `test that a snapshot is not modified by later updates`() {
+        underTest.put(1, 100L)
+        val snapshot = underTest.snapshot()
+
+        underTest.put(1, 200L)
+
+        assertThat(snapshot).containsExactly(1, 100L)
+    }
+
+    @Test
+    fun `test that snapshots are published at most once per period`() = runTest {
+        val snapshots = mutableListOf<Map<Int, Long>>()
+        val job = launch { underTest.sampledSnapshots(PERIOD).toList(snapshots) }
+        runCurrent()
+
+        repeat(10) { period ->
+            repeat(1000) { underTest.put(it, period * 1000L + it) }
+            advanceTimeBy(PERIOD)
+        }
+        runCurrent()
+        job.cancel()
+
+        assertThat(snapshots.size).isAtMost(11)
+        assertThat(snapshots.first()).isEmpty()
+        assertThat(snapshots.last()[999]).isEqualTo(9999L)
+    }
+
+    @Test
+    fun `test that one million transfer updates are all counted`() {
+        val random = Random(42)
+        val tags = IntArray(UPDATES) { random.nextInt(TRANSFERS) }
+        val expected = LongArray(TRANSFERS)
+
+        tags.forEachIndexed { update, tag ->
+            expected[tag] = update.toLong()
+            underTest.put(tag, update.toLong())
+        }
+
+        val snapshot = underTest.snapshot()
+        assertThat(snapshot.size).isEqualTo(tags.distinct().size)
+        snapshot.forEach { (tag, bytes) -> assertThat(bytes).isEqualTo(expected[tag]) }
+    }
+
+    @Test
+    fun `test that concurrent updates of different transfers are all kept`() {
+        val threads = List(THREADS) { index ->
+            thread {
+                repeat(UPDATES / THREADS) { update ->
+                    underTest.put(index * TRANSFERS + update % TRANSFERS, update.toLong())
+                }
+            }
+        }
+        threads.forEach { it.join() }
+
+        val snapshot = underTest.snapshot()
+        assertThat(snapshot.size).isEqualTo(THREADS * TRANSFERS)
+        val lastUpdate = UPDATES / THREADS - 1
+        (0 until THREADS).forEach { index ->
+            assertThat(snapshot[index * TRANSFERS + lastUpdate % TRANSFERS])
+                .isEqualTo(lastUpdate.toLong())
+        }
+    }
+
+    companion object {
+        private const val UPDATES = 1_000_000
+        private const val TRANSFERS = 5_000
+        private const val THREADS = 4
+        private const val PERIOD = 250L
+    }
+}
@@ -8,7 +8,7 @@ import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.gateway.OfflineNodeIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.UserSetMapper
@@ -16,6 +16,7 @@ import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.videos.TypedVideoNodeMapper
 import mega.privacy.android.data.mapper.videosection.VideoPlaylistMapper
 import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.model.node.OfflineNodes
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedVideoNode
@@ -54,7 +55,9 @@ class VideoSectionRepositoryImplTest {
     private val typedVideoNodeMapper = mock<TypedVideoNodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
     private val megaCancelToken = mock<MegaCancelToken>()
-    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineNodeIndexGateway = mock<OfflineNodeIndexGateway> {
+        onBlocking { getOfflineNodes() }.thenReturn(OfflineNodes.EMPTY)
+    }
     private val userSetMapper: UserSetMapper = ::createUserSet
     private val videoPlaylistMapper = mock<VideoPlaylistMapper>()
     private val nodeRepository = mock<NodeRepository>()
@@ -71,7 +74,7 @@ class VideoSectionRepositoryImplTest {
             fileNodeMapper = fileNodeMapper,
             typedVideoNodeMapper = typedVideoNodeMapper,
             cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineNodeIndexGateway = offlineNodeIndexGateway,
             userSetMapper = userSetMapper,
             videoPlaylistMapper = videoPlaylistMapper,
             nodeRepository = nodeRepository,
@@ -86,7 +89,6 @@ class VideoSectionRepositoryImplTest {
             sortOrderIntMapper,
             fileNodeMapper,
             typedVideoNodeMapper,
-            megaLocalRoomGateway,
             videoPlaylistMapper,
             nodeRepository
         )
@@ -104,7 +106,6 @@ class VideoSectionRepositoryImplTest {
             .thenReturn(ORDER_DEFAULT_DESC)
         whenever(megaApiGateway.searchByType(any(), any(), any(), any()))
             .thenReturn(listOf(mock(), mock()))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
         whenever(typedVideoNodeMapper(any(), any(), any())).thenReturn(mock())
 
         val actual = underTest.getAllVideos(SortOrder.ORDER_MODIFICATION_DESC)
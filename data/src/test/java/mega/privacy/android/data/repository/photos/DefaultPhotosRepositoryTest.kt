@@ -1,13 +1,21 @@
 package mega.privacy.android.data.repository.photos
 
+import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
+import mega.privacy.android.data.gateway.TimelineIndexGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.gateway.api.MegaChatApiGateway
@@ -17,11 +25,13 @@ import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.ImageMapper
 import mega.privacy.android.data.mapper.VideoMapper
 import mega.privacy.android.data.mapper.node.ImageNodeFileMapper
+import mega.privacy.android.data.mapper.node.ImageNodeMapper
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
 import mega.privacy.android.data.mapper.photos.ContentConsumptionMegaStringMapMapper
 import mega.privacy.android.data.mapper.photos.MegaStringMapSensitivesMapper
 import mega.privacy.android.data.mapper.photos.MegaStringMapSensitivesRetriever
 import mega.privacy.android.data.mapper.photos.TimelineFilterPreferencesJSONMapper
+import mega.privacy.android.data.model.photos.TimelineIndexEntry
 import mega.privacy.android.data.wrapper.DateUtilWrapper
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.GifFileTypeInfo
@@ -29,20 +39,32 @@ import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.UnknownFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.ImageNode
+import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.repository.NodeRepository
 import mega.privacy.android.domain.repository.PhotosRepository
 import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaStringMap
 import org.junit.Before
 import org.junit.Test
+import org.mockito.Mockito.mockStatic
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.argThat
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
 import kotlin.time.Duration.Companion.seconds
@@ -72,6 +94,8 @@ class DefaultPhotosRepositoryTest {
         mock()
     private val megaStringMapSensitivesMapper: MegaStringMapSensitivesMapper = mock()
     private val megaStringMapSensitivesRetriever: MegaStringMapSensitivesRetriever = mock()
+    private val timelineIndexGateway: TimelineIndexGateway = mock()
+    private val imageNodeMapper: ImageNodeMapper = mock()
 
     private val cameraUploadsSettingsPreferenceGateway =
         mock<CameraUploadsSettingsPreferenceGateway>()
@@ -80,6 +104,8 @@ class DefaultPhotosRepositoryTest {
 
     @Before
     fun setUp() {
+        whenever(megaApiGateway.myUserHandle).thenReturn(USER_HANDLE)
+
         whenever(nodeRepository.monitorNodeUpdates())
             .thenReturn(flowOf())
 
@@ -267,6 +293,104 @@ class DefaultPhotosRepositoryTest {
             .isEqualTo(expectedMegaStringMapValue.toString())
     }
 
+    @Test
+    fun `test that the photos of the timeline index are published before the media nodes are searched`() =
+        runTest {
+            val cancelTokenMock = mockCancelToken()
+            val search = CompletableDeferred<List<MegaNode>>()
+            megaApiGateway.stub {
+                onBlocking { searchByType(any(), any(), any(), any()) } doSuspendableAnswer {
+                    search.await()
+                }
+            }
+            whenever(timelineIndexGateway.getTimelineIndex(USER_HANDLE))
+                .thenReturn(listOf(createTimelineIndexEntry(id = 1L)))
+
+            underTest = createUnderTest(this)
+            val photos = underTest.monitorPhotos().first()
+
+            assertThat(photos.map { it.id }).containsExactly(1L)
+            search.complete(emptyList())
+            advanceUntilIdle()
+            cancelTokenMock.close()
+        }
+
+    @Test
+    fun `test that the timeline index is saved once the media nodes are searched`() = runTest {
+        val cancelTokenMock = mockCancelToken()
+        val megaNode = createMegaNode(handle = 1L, name = "file.image")
+        whenever(megaApiGateway.searchByType(any(), any(), any(), any()))
+            .thenReturn(listOf(megaNode))
+        whenever(nodeRepository.isNodeInRubbishBin(NodeId(any()))).thenReturn(false)
+
+        underTest = createUnderTest(this)
+        underTest.monitorPhotos()
+        advanceUntilIdle()
+
+        verify(timelineIndexGateway).setTimelineIndex(
+            eq(USER_HANDLE),
+            argThat { map { it.id } == listOf(1L) },
+        )
+        cancelTokenMock.close()
+    }
+
+    @Test
+    fun `test that the timeline index is saved while the node updates keep coming`() = runTest {
+        val cancelTokenMock = mockCancelToken()
+        whenever(megaApiGateway.searchByType(any(), any(), any(), any())).thenReturn(emptyList())
+        whenever(nodeRepository.isNodeInRubbishBin(NodeId(any()))).thenReturn(false)
+        whenever(nodeRepository.isNodeInCloudDrive(any())).thenReturn(true)
+        (1L..10L).forEach { handle ->
+            whenever(megaApiGateway.getMegaNodeByHandle(nodeHandle = handle))
+                .thenReturn(createMegaNode(handle = handle, name = "file.image"))
+        }
+        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+            flow {
+                (1L..10L).forEach { handle ->
+                    delay(1_000)
+                    emit(createImageNodeUpdate(handle))
+                }
+            }
+        )
+
+        underTest = createUnderTest(this)
+        underTest.monitorPhotos()
+        advanceTimeBy(100)
+        verify(timelineIndexGateway).setTimelineIndex(eq(USER_HANDLE), any())
+
+        // The save scheduled by the first update is not postponed by the next ones
+        advanceTimeBy(6_000)
+        verify(timelineIndexGateway, times(2)).setTimelineIndex(eq(USER_HANDLE), any())
+        advanceUntilIdle()
+        cancelTokenMock.close()
+    }
+
+    @Test
+    fun `test that the image nodes are published to a collector started before the search`() =
+        runTest {
+            val cancelTokenMock = mockCancelToken()
+            val search = CompletableDeferred<List<MegaNode>>()
+            megaApiGateway.stub {
+                onBlocking { searchByType(any(), any(), any(), any()) } doSuspendableAnswer {
+                    search.await()
+                }
+            }
+            whenever(nodeRepository.isNodeInRubbishBin(NodeId(any()))).thenReturn(false)
+            val imageNode = mock<ImageNode>()
+            whenever(imageNodeMapper(any(), any(), any(), anyOrNull())).thenReturn(imageNode)
+
+            underTest = createUnderTest(this)
+            underTest.monitorPhotos()
+            underTest.monitorImageNodes().test {
+                search.complete(listOf(createMegaNode(handle = 1L, name = "file.image")))
+
+                assertThat(awaitItem()).containsExactly(imageNode)
+                cancelAndIgnoreRemainingEvents()
+            }
+            advanceUntilIdle()
+            cancelTokenMock.close()
+        }
+
     private fun createUnderTest(coroutineScope: CoroutineScope) = DefaultPhotosRepository(
         nodeRepository = nodeRepository,
         megaApiFacade = megaApiGateway,
@@ -283,14 +407,44 @@ class DefaultPhotosRepositoryTest {
         megaChatApiGateway = megaChatApiGateway,
         timelineFilterPreferencesJSONMapper = timelineFilterPreferencesJSONMapper,
         contentConsumptionMegaStringMapMapper = contentConsumptionMegaStringMapMapper,
-        imageNodeMapper = mock(),
+        imageNodeMapper = imageNodeMapper,
         cameraUploadsSettingsPreferenceGateway = cameraUploadsSettingsPreferenceGateway,
         sortOrderIntMapper = mock(),
         megaNodeMapper = megaNodeMapper,
         sensitivesMapper = megaStringMapSensitivesMapper,
         sensitivesRetriever = megaStringMapSensitivesRetriever,
+        timelineIndexGateway = timelineIndexGateway,
     )
 
+    private fun mockCancelToken() = mockStatic(MegaCancelToken::class.java).apply {
+        `when`<MegaCancelToken> { MegaCancelToken.createInstance() }.thenReturn(mock())
+    }
+
+    private fun createTimelineIndexEntry(id: Long) = TimelineIndexEntry(
+        id = id,
+        parentId = 0L,
+        name = "$id.jpg",
+        isVideo = false,
+        isFavourite = false,
+        isTakenDown = false,
+        creationTime = 0L,
+        modificationTime = 0L,
+        size = 0L,
+        mimeType = "image/jpeg",
+        extension = "jpg",
+        duration = 0,
+        thumbnailFileName = null,
+        previewFileName = null,
+    )
+
+    private fun createImageNodeUpdate(handle: Long): NodeUpdate {
+        val node = mock<FileNode> {
+            on { id }.thenReturn(NodeId(handle))
+            on { type }.thenReturn(StaticImageFileTypeInfo(mimeType = "", extension = "image"))
+        }
+        return NodeUpdate(mapOf(node to listOf(NodeChanges.Attributes)))
+    }
+
     private fun createMegaNode(
         handle: Long = 0L,
         parentHandle: Long = 0L,
@@ -379,4 +533,8 @@ class DefaultPhotosRepositoryTest {
             return UnknownFileTypeInfo(mimeType = "", extension = "")
         }
     }
+
+    companion object {
+        private const val USER_HANDLE = 1234L
+    }
 }
@@ -0,0 +1,111 @@
+package mega.privacy.android.data.repository.photos
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.time.LocalDateTime
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaIndexTest {
+
+    private lateinit var underTest: MediaIndex
+
+    @BeforeEach
+    fun setUp() {
+        underTest = MediaIndex()
+    }
+
+    @Test
+    fun `test that entries are found by handle`() {
+        val entry = createEntry(1L)
+
+        underTest.put(1L, entry)
+
+        assertThat(underTest[1L]).isSameInstanceAs(entry)
+        assertThat(underTest[2L]).isNull()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that photos keep the insertion order when an entry is replaced`() {
+        (1L..3L).forEach { underTest.put(it, createEntry(it)) }
+
+        underTest.put(2L, createEntry(2L, name = "renamed"))
+
+        assertThat(underTest.photos().map { it.id }).containsExactly(1L, 2L, 3L).inOrder()
+        assertThat(underTest.photos()[1].name).isEqualTo("renamed")
+    }
+
+    @Test
+    fun `test that the photos snapshot is only rebuilt after a modification`() {
+        underTest.put(1L, createEntry(1L))
+        val snapshot = underTest.photos()
+
+        assertThat(underTest.photos()).isSameInstanceAs(snapshot)
+        underTest.remove(1L)
+        assertThat(underTest.photos()).isEmpty()
+    }
+
+    @Test
+    fun `test that removing an absent handle does not change the version`() {
+        underTest.put(1L, createEntry(1L))
+        val version = underTest.version
+
+        assertThat(underTest.remove(2L)).isFalse()
+        assertThat(underTest.version).isEqualTo(version)
+    }
+
+    @Test
+    fun `test that replace all drops the previous entries`() {
+        (1L..3L).forEach { underTest.put(it, createEntry(it)) }
+
+        underTest.replaceAll(listOf(4L to createEntry(4L), 5L to createEntry(5L)))
+
+        assertThat(underTest[1L]).isNull()
+        assertThat(underTest.photos().map { it.id }).containsExactly(4L, 5L).inOrder()
+    }
+
+    @Test
+    fun `test that the index matches a map after random modifications`() {
+        val random = Random(42)
+        val expected = LinkedHashMap<Long, MediaIndex.Entry>()
+        repeat(100_000) {
+            // Handles sharing their low bits, as node handles do
+            val handle = random.nextLong(2_000) shl 32
+            if (random.nextInt(3) == 0) {
+                assertThat(underTest.remove(handle)).isEqualTo(expected.remove(handle) != null)
+            } else {
+                val entry = createEntry(handle)
+                underTest.put(handle, entry)
+                expected[handle] = entry
+            }
+        }
+
+        assertThat(underTest.size).isEqualTo(expected.size)
+        expected.forEach { (handle, entry) -> assertThat(underTest[handle]).isSameInstanceAs(entry) }
+        assertThat(underTest.entries()).containsExactlyElementsIn(expected.values)
+    }
+
+    private fun createEntry(id: Long, name: String = "photo.jpg") = MediaIndex.Entry(
+        photo = Photo.Image(
+            id = id,
+            parentId = 0L,
+            name = name,
+            isFavourite = false,
+            creationTime = dateTime,
+            modificationTime = dateTime,
+            thumbnailFilePath = null,
+            previewFilePath = null,
+            fileTypeInfo = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg"),
+        ),
+        megaNode = null,
+    )
+
+    companion object {
+        private val dateTime = LocalDateTime.of(2024, 1, 1, 0, 0)
+    }
+}
@@ -0,0 +1,187 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.exception.MegaException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailDownloadSchedulerTest {
+
+    private val started = mutableListOf<Long>()
+    private val gates = mutableMapOf<Long, CompletableDeferred<File?>>()
+
+    private fun TestScope.initUnderTest(maxInFlight: Int): ThumbnailDownloadScheduler {
+        started.clear()
+        gates.clear()
+        return ThumbnailDownloadScheduler(
+            scope = backgroundScope,
+            ioDispatcher = StandardTestDispatcher(testScheduler),
+            maxInFlight = maxInFlight,
+        )
+    }
+
+    private fun TestScope.request(
+        underTest: ThumbnailDownloadScheduler,
+        handle: Long,
+        isPrefetch: Boolean = false,
+        isPublic: Boolean = false,
+    ) = async(SupervisorJob()) {
+        underTest.download(handle, isPublic, isPrefetch) {
+            started.add(handle)
+            gates.getOrPut(handle) { CompletableDeferred() }.await()
+        }
+    }
+
+    private fun finish(handle: Long) = gates.getValue(handle).complete(File("$handle.jpg"))
+
+    @Test
+    fun `test that concurrent requests for the same thumbnail download it once`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 2)
+        val first = request(underTest, 1L)
+        val second = request(underTest, 1L)
+        runCurrent()
+
+        finish(1L)
+        runCurrent()
+
+        assertThat(started).containsExactly(1L)
+        assertThat(first.await()).isEqualTo(File("1.jpg"))
+        assertThat(second.await()).isEqualTo(File("1.jpg"))
+        assertThat(underTest.metrics.hits).isEqualTo(1)
+        assertThat(underTest.metrics.misses).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the thumbnails of a folder link are downloaded apart from the account ones`() =
+        runTest {
+            val underTest = initUnderTest(maxInFlight = 2)
+            val account = request(underTest, 1L)
+            val folderLink = request(underTest, 1L, isPublic = true)
+            runCurrent()
+
+            finish(1L)
+            runCurrent()
+
+            assertThat(started).containsExactly(1L, 1L)
+            assertThat(account.await()).isEqualTo(File("1.jpg"))
+            assertThat(folderLink.await()).isEqualTo(File("1.jpg"))
+            assertThat(underTest.metrics.hits).isEqualTo(0)
+            assertThat(underTest.metrics.misses).isEqualTo(2)
+        }
+
+    @Test
+    fun `test that only the maximum number of downloads are in flight`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 2)
+        (1L..5L).forEach { request(underTest, it) }
+        runCurrent()
+
+        assertThat(started).hasSize(2)
+        assertThat(underTest.metrics.inFlight).isEqualTo(2)
+        assertThat(underTest.metrics.queued).isEqualTo(3)
+
+        finish(started.first())
+        runCurrent()
+
+        assertThat(started).hasSize(3)
+        assertThat(underTest.metrics.inFlight).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that the most recent requests are downloaded first and prefetches last`() =
+        runTest {
+            val underTest = initUnderTest(maxInFlight = 1)
+            request(underTest, 1L)
+            runCurrent()
+            request(underTest, 2L, isPrefetch = true)
+            request(underTest, 3L)
+            request(underTest, 4L)
+            runCurrent()
+
+            repeat(4) {
+                finish(started.last())
+                runCurrent()
+            }
+
+            assertThat(started).containsExactly(1L, 4L, 3L, 2L).inOrder()
+        }
+
+    @Test
+    fun `test that a prefetch requested on screen is no longer downloaded last`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 1)
+        request(underTest, 1L)
+        runCurrent()
+        request(underTest, 2L, isPrefetch = true)
+        request(underTest, 3L)
+        request(underTest, 2L)
+        runCurrent()
+
+        repeat(3) {
+            finish(started.last())
+            runCurrent()
+        }
+
+        assertThat(started).containsExactly(1L, 2L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that cancelled requests are never downloaded`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 1)
+        request(underTest, 1L)
+        val offScreen = request(underTest, 2L)
+        runCurrent()
+
+        offScreen.cancel()
+        runCurrent()
+        finish(1L)
+        runCurrent()
+
+        assertThat(started).containsExactly(1L)
+        assertThat(underTest.metrics.cancels).isEqualTo(1)
+        assertThat(underTest.metrics.queued).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a request is kept while another caller waits for it`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 1)
+        request(underTest, 1L)
+        val first = request(underTest, 2L)
+        val second = request(underTest, 2L)
+        runCurrent()
+
+        first.cancel()
+        finish(1L)
+        runCurrent()
+        finish(2L)
+        runCurrent()
+
+        assertThat(started).containsExactly(1L, 2L).inOrder()
+        assertThat(second.await()).isEqualTo(File("2.jpg"))
+        assertThat(underTest.metrics.cancels).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that download errors are thrown to all the callers`() = runTest {
+        val underTest = initUnderTest(maxInFlight = 1)
+        val first = request(underTest, 1L)
+        val second = request(underTest, 1L)
+        runCurrent()
+
+        gates.getValue(1L).completeExceptionally(MegaException(-9, null))
+        runCurrent()
+
+        assertThrows<MegaException> { first.await() }
+        assertThrows<MegaException> { second.await() }
+    }
+}
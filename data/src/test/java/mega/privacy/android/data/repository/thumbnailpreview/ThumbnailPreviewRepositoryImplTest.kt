@@ -1,12 +1,14 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.PackedThumbnailGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
@@ -23,6 +25,7 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
@@ -31,6 +34,7 @@ import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.io.File
+import java.nio.ByteBuffer
 
 @OptIn(ExperimentalCoroutinesApi::class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -43,6 +47,7 @@ class ThumbnailPreviewRepositoryImplTest {
     private val cacheGateway = mock<CacheGateway>()
     private val stringWrapper = mock<StringWrapper>()
     private val megaNodeMapper = mock<MegaNodeMapper>()
+    private val packedThumbnailGateway = mock<PackedThumbnailGateway>()
 
     private val cacheDir = File("cache")
     private val thumbnailName = "thumbnailName"
@@ -60,13 +65,26 @@ class ThumbnailPreviewRepositoryImplTest {
             ioDispatcher = UnconfinedTestDispatcher(),
             cacheGateway = cacheGateway,
             stringWrapper = stringWrapper,
-            megaNodeMapper = megaNodeMapper
+            megaNodeMapper = megaNodeMapper,
+            thumbnailDownloadScheduler = ThumbnailDownloadScheduler(
+                scope = CoroutineScope(UnconfinedTestDispatcher()),
+                ioDispatcher = UnconfinedTestDispatcher(),
+                maxInFlight = ThumbnailDownloadScheduler.MAX_IN_FLIGHT,
+            ),
+            packedThumbnailGateway = packedThumbnailGateway,
         )
     }
 
     @BeforeEach
     fun resetMocks() {
-        reset(megaApi, megaApiFolder, cacheGateway, stringWrapper, megaNodeMapper)
+        reset(
+            megaApi,
+            megaApiFolder,
+            cacheGateway,
+            stringWrapper,
+            megaNodeMapper,
+            packedThumbnailGateway,
+        )
     }
 
     @Test
@@ -310,4 +328,62 @@ class ThumbnailPreviewRepositoryImplTest {
         underTest.setPreview(nodeHandle, any())
         verify(megaApi, never()).setPreview(any(), any(), any())
     }
+
+    @Test
+    fun `test that the thumbnail file is deleted once packed`(@TempDir folder: File) = runTest {
+        val file = File(folder, thumbnailName).apply { writeBytes(byteArrayOf(1, 2, 3)) }
+        val expected = ByteBuffer.wrap(byteArrayOf(1, 2, 3))
+        whenever(packedThumbnailGateway.putThumbnail(nodeHandle, file)).thenReturn(expected)
+
+        assertThat(underTest.packThumbnail(nodeHandle, file)).isEqualTo(expected)
+        assertThat(file.exists()).isFalse()
+    }
+
+    @Test
+    fun `test that get thumbnail from local moves a packed thumbnail back to its file`(
+        @TempDir folder: File,
+    ) = runTest {
+        val file = File(folder, thumbnailName)
+        whenever(megaApi.handleToBase64(nodeHandle)).thenReturn(thumbnailName)
+        whenever(cacheGateway.getCacheFile(any(), anyOrNull())).thenReturn(file)
+        whenever(packedThumbnailGateway.getThumbnail(nodeHandle))
+            .thenReturn(ByteBuffer.wrap(byteArrayOf(1, 2, 3)).asReadOnlyBuffer())
+
+        assertThat(underTest.getThumbnailFromLocal(nodeHandle)).isEqualTo(file)
+        assertThat(file.readBytes()).isEqualTo(byteArrayOf(1, 2, 3))
+        verify(packedThumbnailGateway).removeThumbnail(nodeHandle)
+    }
+
+    @Test
+    fun `test that get thumbnail from local returns null if there is no file nor packed thumbnail`(
+        @TempDir folder: File,
+    ) = runTest {
+        val file = File(folder, thumbnailName)
+        whenever(megaApi.handleToBase64(nodeHandle)).thenReturn(thumbnailName)
+        whenever(cacheGateway.getCacheFile(any(), anyOrNull())).thenReturn(file)
+        whenever(packedThumbnailGateway.getThumbnail(nodeHandle)).thenReturn(null)
+
+        assertThat(underTest.getThumbnailFromLocal(nodeHandle)).isNull()
+        assertThat(file.exists()).isFalse()
+        verify(packedThumbnailGateway, never()).removeThumbnail(any())
+    }
+
+    @Test
+    fun `test that the thumbnail file is kept if it cannot be packed`(@TempDir folder: File) =
+        runTest {
+            val file = File(folder, thumbnailName).apply { writeBytes(byteArrayOf(1, 2, 3)) }
+            whenever(packedThumbnailGateway.putThumbnail(nodeHandle, file)).thenReturn(null)
+
+            assertThat(underTest.packThumbnail(nodeHandle, file)).isNull()
+            assertThat(file.exists()).isTrue()
+        }
+
+    @Test
+    fun `test that the packed thumbnail is removed when the thumbnail is deleted`() = runTest {
+        whenever(megaApi.handleToBase64(nodeHandle)).thenReturn(thumbnailName)
+
+        underTest.deleteThumbnail(nodeHandle)
+
+        verify(packedThumbnailGateway).removeThumbnail(nodeHandle)
+    }
 }
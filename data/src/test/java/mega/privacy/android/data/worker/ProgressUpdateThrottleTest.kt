@@ -0,0 +1,71 @@
+package mega.privacy.android.data.worker
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ProgressUpdateThrottleTest {
+
+    @Test
+    fun `test that the last value is emitted when the flow completes`() = runTest {
+        val counters = ProgressUpdateCounters()
+
+        val actual = flowOf(1, 2, 3, 4).throttleLatest(INTERVAL, counters).toList()
+
+        assertThat(actual.last()).isEqualTo(4)
+        assertThat(counters.received).isEqualTo(4)
+        assertThat(counters.published).isEqualTo(actual.size)
+    }
+
+    @Test
+    fun `test that values are emitted at most once per interval`() = runTest {
+        val counters = ProgressUpdateCounters()
+        val emissionTimes = mutableListOf<Long>()
+        val updates = flow {
+            repeat(UPDATES) {
+                emit(it)
+                delay(1)
+            }
+        }
+
+        val actual = updates.throttleLatest(INTERVAL, counters)
+            .onEach { emissionTimes.add(currentTime) }
+            .toList()
+
+        emissionTimes.zipWithNext().forEach { (previous, next) ->
+            assertThat(next - previous).isAtLeast(INTERVAL)
+        }
+        assertThat(actual.size).isAtMost((UPDATES / INTERVAL + 2).toInt())
+        assertThat(actual.last()).isEqualTo(UPDATES - 1)
+        assertThat(counters.dropped).isEqualTo(UPDATES - actual.size)
+    }
+
+    @Test
+    fun `test that values slower than the interval are all emitted`() = runTest {
+        val counters = ProgressUpdateCounters()
+        val updates = flow {
+            repeat(10) {
+                emit(it)
+                delay(INTERVAL * 2)
+            }
+        }
+
+        val actual = updates.throttleLatest(INTERVAL, counters).toList()
+
+        assertThat(actual).isEqualTo((0 until 10).toList())
+        assertThat(counters.dropped).isEqualTo(0)
+    }
+
+    companion object {
+        private const val INTERVAL = 500L
+        private const val UPDATES = 5_000
+    }
+}
@@ -0,0 +1,18 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Measures taken by the Camera Uploads over a sampling window, used to size its concurrency
+ *
+ * @property throughput the bytes uploaded per second during the window
+ * @property previousThroughput the bytes uploaded per second during the previous window, scaled
+ * to the current uploads if they were lowered since, or 0 if unknown
+ * @property temporaryErrors the number of transfer temporary errors received during the window
+ * @property deviceUploadsLimit the concurrent uploads limit allowed by the battery level
+ * and the thermal state of the device
+ */
+data class CameraUploadsConcurrencyFeedback(
+    val throughput: Long,
+    val previousThroughput: Long,
+    val temporaryErrors: Int,
+    val deviceUploadsLimit: Int,
+)
@@ -0,0 +1,10 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Number of operations the Camera Uploads can run in parallel
+ *
+ * @property uploads the number of concurrent uploads
+ */
+data class CameraUploadsConcurrencyLimits(
+    val uploads: Int,
+)
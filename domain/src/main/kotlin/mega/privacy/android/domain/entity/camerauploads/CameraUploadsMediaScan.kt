@@ -0,0 +1,13 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Result of a media store query for Camera Uploads
+ *
+ * @property media the media added or modified since the given watermark, or all the media if the
+ *                 watermark was not valid
+ * @property watermark the watermark to use on the next scan, null if it cannot be computed
+ */
+data class CameraUploadsMediaScan(
+    val media: List<CameraUploadsMedia>,
+    val watermark: CameraUploadsMediaWatermark?,
+)
@@ -0,0 +1,15 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import mega.privacy.android.domain.entity.MediaStoreFileType
+
+/**
+ * Records retrieved from the media store for a Camera Uploads folder
+ *
+ * @property records the new [CameraUploadsRecord] to save in the database
+ * @property watermarks the watermark reached for each scanned [MediaStoreFileType]
+ *                      They must only be saved once the records are saved in the database
+ */
+data class CameraUploadsMediaScanResult(
+    val records: List<CameraUploadsRecord>,
+    val watermarks: Map<MediaStoreFileType, CameraUploadsMediaWatermark?>,
+)
@@ -0,0 +1,15 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import kotlinx.serialization.Serializable
+
+/**
+ * Position reached by the last media store scan in a single media store volume
+ *
+ * @property version the opaque version of the volume, the generations are reset when it changes
+ * @property generation the highest media store generation seen in the volume
+ */
+@Serializable
+data class CameraUploadsMediaVolumeWatermark(
+    val version: String,
+    val generation: Long,
+)
@@ -0,0 +1,24 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import kotlinx.serialization.Serializable
+
+/**
+ * Position reached by the last media store scan of a Camera Uploads folder
+ *
+ * Only the media added or modified after this position need to be retrieved on the next scan.
+ * The watermark is invalidated, and a full scan is performed, if the selection changed since it
+ * was computed. A media store volume is fully scanned again if it has no position yet or if its
+ * version changed
+ *
+ * @property selection the selection query used for the scan
+ * @property volumes the position reached in each media store volume, by volume name
+ * @property lastModified the highest DATE_ADDED or DATE_MODIFIED value seen, in seconds
+ * @property lastMediaId the highest media id seen
+ */
+@Serializable
+data class CameraUploadsMediaWatermark(
+    val selection: String?,
+    val volumes: Map<String, CameraUploadsMediaVolumeWatermark>,
+    val lastModified: Long,
+    val lastMediaId: Long,
+)
@@ -0,0 +1,26 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Stages the camera uploads records go through before being uploaded
+ */
+enum class CameraUploadsPreparationStage {
+    /**
+     * Filter the records based on the video compression size condition
+     */
+    Filter,
+
+    /**
+     * Check the existence of a node corresponding to the record in the cloud
+     */
+    ExistenceCheck,
+
+    /**
+     * Generate the name of the file to upload
+     */
+    Rename,
+
+    /**
+     * Extract the gps coordinates of the file
+     */
+    GpsCoordinates,
+}
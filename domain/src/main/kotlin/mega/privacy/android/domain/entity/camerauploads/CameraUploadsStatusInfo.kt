@@ -39,6 +39,19 @@ sealed interface CameraUploadsStatusInfo {
         val areUploadsPaused: Boolean,
     ) : CameraUploadsStatusInfo
 
+    /**
+     *  class used to report how long the preparation of the files to upload took
+     *  @property stageDurations cumulated time spent in each stage, in milliseconds
+     *  @property timeToFirstRecord time until the first record was ready to upload, in milliseconds,
+     *  null if no record was prepared
+     *  @property totalPrepared number of records prepared for upload
+     */
+    data class PreparationMetrics(
+        val stageDurations: Map<CameraUploadsPreparationStage, Long>,
+        val timeToFirstRecord: Long?,
+        val totalPrepared: Int,
+    ) : CameraUploadsStatusInfo
+
     /**
      *  class for displaying a notification for video compression progress
      *  @property progress
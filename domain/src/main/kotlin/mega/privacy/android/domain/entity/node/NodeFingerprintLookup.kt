@@ -0,0 +1,14 @@
+package mega.privacy.android.domain.entity.node
+
+/**
+ * Fingerprints of a local file to look for in the cloud
+ *
+ * @property originalFingerprint fingerprint of the local file
+ * @property generatedFingerprint generated fingerprint of the local file, if any
+ * @property parentNodeId the folder in which the node is expected to be
+ */
+data class NodeFingerprintLookup(
+    val originalFingerprint: String,
+    val generatedFingerprint: String?,
+    val parentNodeId: NodeId,
+)
@@ -8,7 +8,8 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
-import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
@@ -250,17 +251,46 @@ interface CameraUploadRepository {
     suspend fun sendUpdateFolderDestinationBroadcast(nodeHandle: Long, isSecondary: Boolean)
 
     /**
-     * Get the media queue for a given media type
+     * Get the media added or modified in the media store since the given watermark
+     *
+     * A full scan is performed if the watermark is null or no longer valid
      *
      * @param mediaStoreFileType different media store file type
      * @param selectionQuery db query
+     * @param watermark the watermark reached by the previous scan
      *
-     * @return list of camera upload media
+     * @return the [CameraUploadsMediaScan] containing the media and the new watermark
      */
-    suspend fun getMediaList(
+    suspend fun scanMedia(
         mediaStoreFileType: MediaStoreFileType,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia>
+        watermark: CameraUploadsMediaWatermark?,
+    ): CameraUploadsMediaScan
+
+    /**
+     * Get the watermark reached by the last scan of the media store
+     *
+     * @param folderType the folder type (Primary or Secondary) scanned
+     * @param mediaStoreFileType the media store file type scanned
+     * @return the saved [CameraUploadsMediaWatermark], null if none
+     */
+    suspend fun getMediaWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+    ): CameraUploadsMediaWatermark?
+
+    /**
+     * Save the watermark reached by the last scan of the media store
+     *
+     * @param folderType the folder type (Primary or Secondary) scanned
+     * @param mediaStoreFileType the media store file type scanned
+     * @param watermark the [CameraUploadsMediaWatermark] to save, null to force a full scan next time
+     */
+    suspend fun setMediaWatermark(
+        folderType: CameraUploadFolderType,
+        mediaStoreFileType: MediaStoreFileType,
+        watermark: CameraUploadsMediaWatermark?,
+    )
 
     /**
      * Convert Base 64 string to handle
@@ -550,6 +580,7 @@ interface CameraUploadRepository {
 
     /**
      * Clear the camera uploads record given the folder types
+     * The media store watermarks of the folder types are cleared as well
      *
      * @param folderTypes a list of folder type (Primary, Secondary, or both)
      */
@@ -10,6 +10,7 @@ import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.node.TypedFolderNode
@@ -453,6 +454,24 @@ interface NodeRepository {
         parentNodeId: NodeId,
     ): UnTypedNode?
 
+    /**
+     * Get the [UnTypedNode] matching each lookup, chunk by chunk
+     *
+     * For each lookup, the node is searched in the parent folder by original fingerprint, then by
+     * fingerprint, then by generated fingerprint. The lookups without a match in their parent folder
+     * are searched in the same order in the whole account. Each parent folder is listed once and
+     * each fingerprint is queried at most once for all the chunks
+     *
+     * @param lookups the fingerprints to look for
+     * @param chunkSize the number of lookups resolved for each emission
+     * @return the flow of the nodes found for each chunk of lookups, in the order of the lookups,
+     *         null for the lookups without a node
+     */
+    fun getNodesByFingerprints(
+        lookups: List<NodeFingerprintLookup>,
+        chunkSize: Int,
+    ): Flow<List<UnTypedNode?>>
+
     /**
      * Get [UnTypedNode] by fingerprint only
      * @param fingerprint
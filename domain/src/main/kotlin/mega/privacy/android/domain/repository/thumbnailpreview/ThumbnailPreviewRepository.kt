@@ -3,6 +3,7 @@ package mega.privacy.android.domain.repository.thumbnailpreview
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.exception.MegaException
 import java.io.File
+import java.nio.ByteBuffer
 
 /**
  * Thumbnail preview repository.
@@ -10,14 +11,15 @@ import java.io.File
 interface ThumbnailPreviewRepository {
 
     /**
-     * Check thumbnail from local
+     * Check thumbnail from local, moving it out of the packed thumbnail store if it is there
      * @param handle node handle
      * @return thumbnail file
      */
     suspend fun getThumbnailFromLocal(handle: Long): File?
 
     /**
-     * Check public node thumbnail from local
+     * Check public node thumbnail from local, moving it out of the packed thumbnail store if it
+     * is there
      * @param handle node handle
      * @return thumbnail file
      */
@@ -26,18 +28,35 @@ interface ThumbnailPreviewRepository {
     /**
      * Check thumbnail from server
      * @param handle node handle
+     * @param isPrefetch true if the thumbnail is not on screen yet, so it is downloaded last
      * @return thumbnail file
      */
     @Throws(MegaException::class)
-    suspend fun getThumbnailFromServer(handle: Long): File?
+    suspend fun getThumbnailFromServer(handle: Long, isPrefetch: Boolean = false): File?
 
     /**
      * Check public node thumbnail from server
      * @param handle node handle
+     * @param isPrefetch true if the thumbnail is not on screen yet, so it is downloaded last
      * @return thumbnail file
      */
     @Throws(MegaException::class)
-    suspend fun getPublicNodeThumbnailFromServer(handle: Long): File?
+    suspend fun getPublicNodeThumbnailFromServer(handle: Long, isPrefetch: Boolean = false): File?
+
+    /**
+     * Get thumbnail from the packed thumbnail store
+     * @param handle node handle
+     * @return thumbnail bytes, or null if they are not in the store
+     */
+    suspend fun getPackedThumbnail(handle: Long): ByteBuffer?
+
+    /**
+     * Move a thumbnail file to the packed thumbnail store, deleting the file once stored
+     * @param handle node handle
+     * @param file thumbnail file
+     * @return thumbnail bytes, or null if they cannot be stored, in which case the file is kept
+     */
+    suspend fun packThumbnail(handle: Long, file: File): ByteBuffer?
 
     /**
      * Check preview from local
@@ -0,0 +1,54 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import javax.inject.Inject
+
+/**
+ * [CameraUploadsConcurrencyStrategy] sizing the concurrent uploads from the measured throughput,
+ * following an additive increase / multiplicative decrease scheme
+ *
+ * - Transfer temporary errors halve the number of concurrent uploads
+ * - A throughput drop reduces it by a quarter
+ * - A throughput gain means the extra upload paid off, so one more upload is tried
+ * - Otherwise, the throughput reached a plateau and the number of uploads is kept
+ *
+ * The uploads start at the limit allowed by the device conditions and never exceed it.
+ */
+class AdaptiveCameraUploadsConcurrencyStrategy @Inject constructor() :
+    CameraUploadsConcurrencyStrategy {
+
+    companion object {
+        internal const val MIN_UPLOADS = 1
+        private const val THROUGHPUT_GAIN_RATIO = 1.05
+        private const val THROUGHPUT_DROP_RATIO = 0.7
+    }
+
+    override fun initialLimits(deviceUploadsLimit: Int) =
+        CameraUploadsConcurrencyLimits(
+            uploads = deviceUploadsLimit.coerceAtLeast(MIN_UPLOADS),
+        )
+
+    override fun nextLimits(
+        current: CameraUploadsConcurrencyLimits,
+        feedback: CameraUploadsConcurrencyFeedback,
+    ): CameraUploadsConcurrencyLimits {
+        val uploads = with(feedback) {
+            when {
+                temporaryErrors > 0 -> current.uploads / 2
+                // Nothing was uploaded, there is nothing to learn from this window
+                throughput == 0L -> current.uploads
+                previousThroughput == 0L -> current.uploads + 1
+                throughput < previousThroughput * THROUGHPUT_DROP_RATIO -> current.uploads * 3 / 4
+                throughput >= previousThroughput * THROUGHPUT_GAIN_RATIO -> current.uploads + 1
+                else -> current.uploads
+            }
+        }
+        return CameraUploadsConcurrencyLimits(
+            uploads = uploads.coerceIn(
+                MIN_UPLOADS,
+                feedback.deviceUploadsLimit.coerceAtLeast(MIN_UPLOADS),
+            ),
+        )
+    }
+}
@@ -0,0 +1,33 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+
+/**
+ * Strategy sizing the number of concurrent uploads of the Camera Uploads
+ *
+ * The limits returned are coerced by [UploadCameraUploadsRecordsUseCase] between 1 and its
+ * maximum number of concurrent uploads
+ */
+interface CameraUploadsConcurrencyStrategy {
+
+    /**
+     * Get the limits to start the uploads with
+     *
+     * @param deviceUploadsLimit the concurrent uploads limit allowed by the device conditions
+     * @return the initial [CameraUploadsConcurrencyLimits]
+     */
+    fun initialLimits(deviceUploadsLimit: Int): CameraUploadsConcurrencyLimits
+
+    /**
+     * Get the limits to apply for the next sampling window
+     *
+     * @param current the limits applied during the last sampling window
+     * @param feedback the measures taken during the last sampling window
+     * @return the next [CameraUploadsConcurrencyLimits]
+     */
+    fun nextLimits(
+        current: CameraUploadsConcurrencyLimits,
+        feedback: CameraUploadsConcurrencyFeedback,
+    ): CameraUploadsConcurrencyLimits
+}
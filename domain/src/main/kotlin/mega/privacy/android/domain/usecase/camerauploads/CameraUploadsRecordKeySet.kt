@@ -0,0 +1,95 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+/**
+ * Set of (mediaId, timestamp) keys identifying the camera uploads records
+ *
+ * The keys are stored in primitive arrays with open addressing, to check in constant time and
+ * without boxing if a media has already been inserted in the database
+ *
+ * @param expectedSize the expected number of keys, used to size the set
+ */
+internal class CameraUploadsRecordKeySet(expectedSize: Int = DEFAULT_EXPECTED_SIZE) {
+
+    private var mediaIds = LongArray(capacityFor(expectedSize))
+    private var timestamps = LongArray(mediaIds.size)
+    private var occupied = BooleanArray(mediaIds.size)
+
+    /**
+     * Number of keys in the set
+     */
+    var size = 0
+        private set
+
+    /**
+     * Add a key to the set
+     *
+     * @param mediaId the media id of the record
+     * @param timestamp the timestamp of the record
+     * @return true if the key was added, false if it was already in the set
+     */
+    fun add(mediaId: Long, timestamp: Long): Boolean {
+        if ((size + 1) * 2 > mediaIds.size) grow()
+        val index = indexOf(mediaId, timestamp)
+        if (occupied[index]) return false
+        occupied[index] = true
+        mediaIds[index] = mediaId
+        timestamps[index] = timestamp
+        size++
+        return true
+    }
+
+    /**
+     * Check if a key is in the set
+     *
+     * @param mediaId the media id of the record
+     * @param timestamp the timestamp of the record
+     * @return true if the key is in the set
+     */
+    fun contains(mediaId: Long, timestamp: Long): Boolean =
+        occupied[indexOf(mediaId, timestamp)]
+
+    /**
+     * Get the slot of the key, or the empty slot where it would be inserted
+     */
+    private fun indexOf(mediaId: Long, timestamp: Long): Int {
+        val mask = mediaIds.size - 1
+        var index = hash(mediaId, timestamp) and mask
+        while (occupied[index] && (mediaIds[index] != mediaId || timestamps[index] != timestamp)) {
+            index = (index + 1) and mask
+        }
+        return index
+    }
+
+    private fun grow() {
+        val oldMediaIds = mediaIds
+        val oldTimestamps = timestamps
+        val oldOccupied = occupied
+        mediaIds = LongArray(oldMediaIds.size * 2)
+        timestamps = LongArray(mediaIds.size)
+        occupied = BooleanArray(mediaIds.size)
+        size = 0
+        oldOccupied.forEachIndexed { index, isOccupied ->
+            if (isOccupied) add(oldMediaIds[index], oldTimestamps[index])
+        }
+    }
+
+    private companion object {
+        const val DEFAULT_EXPECTED_SIZE = 16
+
+        /**
+         * Power of two capacity keeping the load factor below 0.5
+         */
+        fun capacityFor(expectedSize: Int): Int =
+            Integer.highestOneBit(maxOf(expectedSize, DEFAULT_EXPECTED_SIZE) * 4 - 1)
+
+        /**
+         * Mix both values so that sequential ids and timestamps spread over the table
+         */
+        fun hash(mediaId: Long, timestamp: Long): Int {
+            var h = mediaId * -0x61c8864680b583ebL + timestamp
+            h = (h xor (h ushr 33)) * -0xae502812aa7333L
+            h = (h xor (h ushr 33)) * -0x3b314601e57a13adL
+            return (h xor (h ushr 33)).toInt()
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Accumulate the bytes uploaded and the transfer temporary errors of the Camera Uploads
+ * between two samples
+ *
+ * Safe to update from concurrent uploads
+ */
+class CameraUploadsTransferMeter {
+
+    private val transferredBytes = AtomicLong()
+    private val temporaryErrors = AtomicInteger()
+
+    /**
+     * Measures accumulated since the previous sample
+     *
+     * @property transferredBytes the bytes uploaded
+     * @property temporaryErrors the number of transfer temporary errors
+     */
+    data class Sample(
+        val transferredBytes: Long,
+        val temporaryErrors: Int,
+    )
+
+    /**
+     * Add bytes uploaded
+     *
+     * @param bytes
+     */
+    fun addTransferredBytes(bytes: Long) {
+        if (bytes > 0) transferredBytes.addAndGet(bytes)
+    }
+
+    /**
+     * Add a transfer temporary error
+     */
+    fun addTemporaryError() {
+        temporaryErrors.incrementAndGet()
+    }
+
+    /**
+     * Get the measures accumulated since the previous sample and start a new one
+     *
+     * @return the [Sample]
+     */
+    fun sample() = Sample(
+        transferredBytes = transferredBytes.getAndSet(0),
+        temporaryErrors = temporaryErrors.getAndSet(0),
+    )
+}
@@ -0,0 +1,22 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import javax.inject.Inject
+
+/**
+ * [CameraUploadsConcurrencyStrategy] only following the device conditions
+ *
+ * Uploads as much as the device allows, whatever the measured throughput and errors
+ */
+class DeviceStateCameraUploadsConcurrencyStrategy @Inject constructor() :
+    CameraUploadsConcurrencyStrategy {
+
+    override fun initialLimits(deviceUploadsLimit: Int) =
+        CameraUploadsConcurrencyLimits(uploads = deviceUploadsLimit)
+
+    override fun nextLimits(
+        current: CameraUploadsConcurrencyLimits,
+        feedback: CameraUploadsConcurrencyFeedback,
+    ) = initialLimits(feedback.deviceUploadsLimit)
+}
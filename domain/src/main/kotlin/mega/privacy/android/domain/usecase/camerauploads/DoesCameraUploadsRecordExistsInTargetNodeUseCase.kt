@@ -1,7 +1,13 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
 import mega.privacy.android.domain.entity.node.NodeId
 import javax.inject.Inject
 
@@ -10,6 +16,7 @@ import javax.inject.Inject
  * except rubbish bin and set property `existsInTargetNode` and `existingNodeId` to the [CameraUploadsRecord]
  */
 class DoesCameraUploadsRecordExistsInTargetNodeUseCase @Inject constructor(
+    private val findNodesWithFingerprintInParentNodeUseCase: FindNodesWithFingerprintInParentNodeUseCase,
     private val findNodeWithFingerprintInParentNodeUseCase: FindNodeWithFingerprintInParentNodeUseCase,
 ) {
 
@@ -17,31 +24,64 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCase @Inject constructor(
      * Check if the record has already been updated in the target node or exists in a different folder,
      * except rubbish bin and set property `existsInTargetNode` and `existingNodeId` to the [CameraUploadsRecord]
      *
+     * All the records are looked up in a single batch, emitted chunk by chunk. If the batch fails,
+     * each remaining record is looked up on its own. Records that could not be checked are
+     * filtered out from the result
+     *
      * @param recordList
      * @param primaryUploadNodeId
      * @param secondaryUploadNodeId
-     * @return a list of [CameraUploadsRecord]
+     * @param chunkSize the number of records checked for each emission
+     * @return the flow of the checked [CameraUploadsRecord] of each chunk
      */
-    suspend operator fun invoke(
+    operator fun invoke(
         recordList: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord> =
-        recordList.mapNotNull { record ->
-            runCatching {
-                findNodeWithFingerprintInParentNodeUseCase(
-                    record.originalFingerprint,
-                    record.generatedFingerprint,
-                    when (record.folderType) {
-                        CameraUploadFolderType.Primary -> primaryUploadNodeId
-                        CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                    },
-                )
-            }.getOrNull()?.let { (existsInTargetNode, existingNodeId) ->
-                record.copy(
-                    existsInTargetNode = existsInTargetNode,
-                    existingNodeId = existingNodeId,
-                )
-            }
+        chunkSize: Int,
+    ): Flow<List<CameraUploadsRecord>> = flow {
+        val lookups = recordList.map { record ->
+            NodeFingerprintLookup(
+                originalFingerprint = record.originalFingerprint,
+                generatedFingerprint = record.generatedFingerprint,
+                parentNodeId = when (record.folderType) {
+                    CameraUploadFolderType.Primary -> primaryUploadNodeId
+                    CameraUploadFolderType.Secondary -> secondaryUploadNodeId
+                },
+            )
         }
+        var resolved = 0
+        emitAll(
+            findNodesWithFingerprintInParentNodeUseCase(lookups, chunkSize)
+                .map { results ->
+                    val chunk = recordList.subList(resolved, resolved + results.size)
+                    resolved += results.size
+                    chunk.zip(results).mapNotNull { (record, result) ->
+                        result?.let { record.withExistence(it) }
+                    }
+                }
+                .catch {
+                    lookups.subList(resolved, lookups.size).chunked(chunkSize)
+                        .forEach { chunk ->
+                            val chunkRecords = recordList.subList(resolved, resolved + chunk.size)
+                            resolved += chunk.size
+                            emit(chunkRecords.zip(chunk).mapNotNull { (record, lookup) ->
+                                runCatching {
+                                    findNodeWithFingerprintInParentNodeUseCase(
+                                        lookup.originalFingerprint,
+                                        lookup.generatedFingerprint,
+                                        lookup.parentNodeId,
+                                    )
+                                }.getOrNull()?.let { record.withExistence(it) }
+                            })
+                        }
+                }
+        )
+    }
+
+    private fun CameraUploadsRecord.withExistence(result: Pair<Boolean?, NodeId?>) =
+        copy(
+            existsInTargetNode = result.first,
+            existingNodeId = result.second,
+        )
 }
@@ -0,0 +1,52 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.usecase.node.IsNodeInRubbishBinUseCase
+import javax.inject.Inject
+
+/**
+ * Batch version of [FindNodeWithFingerprintInParentNodeUseCase]
+ */
+class FindNodesWithFingerprintInParentNodeUseCase @Inject constructor(
+    private val getNodesFromCloudUseCase: GetNodesFromCloudUseCase,
+    private val isNodeInRubbishBinUseCase: IsNodeInRubbishBinUseCase,
+) {
+
+    /**
+     * Find the nodes by fingerprint or original fingerprint and check if they exist in their
+     * parent folder or not (except the rubbish bin folder)
+     *
+     * @param lookups the fingerprints and parent folder of each file
+     * @param chunkSize the number of lookups resolved for each emission
+     * @return the flow of a Pair<Boolean?, NodeId?> for each chunk of lookups, in the order of the
+     *         lookups, with the same meaning as [FindNodeWithFingerprintInParentNodeUseCase].
+     *         A lookup whose rubbish bin check failed is null
+     */
+    operator fun invoke(
+        lookups: List<NodeFingerprintLookup>,
+        chunkSize: Int,
+    ): Flow<List<Pair<Boolean?, NodeId?>?>> = flow {
+        var resolved = 0
+        emitAll(getNodesFromCloudUseCase(lookups, chunkSize).map { nodes ->
+            val chunk = lookups.subList(resolved, resolved + nodes.size)
+            resolved += nodes.size
+            chunk.zip(nodes) { lookup, node ->
+                when {
+                    node == null -> Pair(false, null)
+                    node.parentId.longValue == lookup.parentNodeId.longValue ->
+                        Pair(true, node.id)
+
+                    else -> runCatching { isNodeInRubbishBinUseCase(node.id) }.getOrNull()
+                        ?.let { isNodeInRubbishBin ->
+                            Pair(if (isNodeInRubbishBin) null else false, node.id)
+                        }
+                }
+            }
+        })
+    }
+}
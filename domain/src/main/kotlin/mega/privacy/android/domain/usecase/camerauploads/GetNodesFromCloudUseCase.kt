@@ -0,0 +1,38 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.map
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import javax.inject.Inject
+
+/**
+ * Batch version of [GetNodeFromCloudUseCase]
+ *
+ * Resolves all the lookups through a single repository flow, so that the parent folders and the
+ * fingerprints shared between lookups are only queried once
+ */
+class GetNodesFromCloudUseCase @Inject constructor(
+    private val nodeRepository: NodeRepository,
+    private val addNodeType: AddNodeType,
+) {
+    /**
+     * @param lookups the fingerprints to look for
+     * @param chunkSize the number of lookups resolved for each emission
+     *
+     * @return the flow of the file node found for each chunk of lookups, in the order of the
+     *         lookups, null for the lookups without a file node
+     */
+    operator fun invoke(
+        lookups: List<NodeFingerprintLookup>,
+        chunkSize: Int,
+    ): Flow<List<TypedFileNode?>> {
+        if (lookups.isEmpty()) return emptyFlow()
+        return nodeRepository.getNodesByFingerprints(lookups, chunkSize).map { nodes ->
+            nodes.map { node -> node?.let { addNodeType(it) as? TypedFileNode } }
+        }
+    }
+}
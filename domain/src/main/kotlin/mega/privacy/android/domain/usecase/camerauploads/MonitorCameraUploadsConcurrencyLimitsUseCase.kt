@@ -0,0 +1,66 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.isActive
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrentUploadsLimit
+import javax.inject.Inject
+
+/**
+ * Monitor the number of Camera Uploads concurrent uploads
+ *
+ * Every sampling window, the measures of the [CameraUploadsTransferMeter] and the device
+ * conditions are given to the [CameraUploadsConcurrencyStrategy] to size the next window
+ */
+class MonitorCameraUploadsConcurrencyLimitsUseCase @Inject constructor(
+    private val cameraUploadsConcurrencyStrategy: CameraUploadsConcurrencyStrategy,
+    private val monitorConcurrentUploadsLimitUseCase: MonitorConcurrentUploadsLimitUseCase,
+) {
+
+    companion object {
+        internal const val SAMPLING_WINDOW_MILLIS = 2000L
+    }
+
+    /**
+     * Invoke
+     *
+     * @param transferMeter the meter fed by the uploads
+     * @return a flow of [CameraUploadsConcurrencyLimits], emitting each time they change
+     */
+    operator fun invoke(transferMeter: CameraUploadsTransferMeter) = channelFlow {
+        val deviceUploadsLimit =
+            monitorConcurrentUploadsLimitUseCase(CameraUploadsConcurrentUploadsLimit.Default.limit)
+                .stateIn(this)
+
+        var limits = cameraUploadsConcurrencyStrategy.initialLimits(deviceUploadsLimit.value)
+        send(limits)
+
+        var previousThroughput = 0L
+        while (isActive) {
+            delay(SAMPLING_WINDOW_MILLIS)
+            val sample = transferMeter.sample()
+            val throughput = sample.transferredBytes * 1000 / SAMPLING_WINDOW_MILLIS
+            val nextLimits = cameraUploadsConcurrencyStrategy.nextLimits(
+                current = limits,
+                feedback = CameraUploadsConcurrencyFeedback(
+                    throughput = throughput,
+                    previousThroughput = previousThroughput,
+                    temporaryErrors = sample.temporaryErrors,
+                    deviceUploadsLimit = deviceUploadsLimit.value,
+                ),
+            )
+            // Lowering the uploads is expected to lower the throughput as much, so the baseline is
+            // scaled to the next uploads for the next window to be compared with it
+            previousThroughput = if (nextLimits.uploads < limits.uploads) {
+                throughput * nextLimits.uploads / limits.uploads
+            } else {
+                throughput
+            }
+            limits = nextLimits
+            send(limits)
+        }
+    }.distinctUntilChanged()
+}
@@ -4,6 +4,7 @@ import kotlinx.coroutines.async
 import kotlinx.coroutines.coroutineScope
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
 import mega.privacy.android.domain.usecase.IsSecondaryFolderEnabled
 import javax.inject.Inject
 
@@ -16,6 +17,8 @@ import javax.inject.Inject
  * @property getMediaStoreFileTypesUseCase
  * @property isSecondaryFolderEnabled
  * @property retrieveMediaFromMediaStoreUseCase
+ * @property saveCameraUploadsRecordUseCase
+ * @property saveCameraUploadsMediaWatermarksUseCase
  */
 class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val getPrimaryFolderPathUseCase: GetPrimaryFolderPathUseCase,
@@ -24,6 +27,7 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val isSecondaryFolderEnabled: IsSecondaryFolderEnabled,
     private val retrieveMediaFromMediaStoreUseCase: RetrieveMediaFromMediaStoreUseCase,
     private val saveCameraUploadsRecordUseCase: SaveCameraUploadsRecordUseCase,
+    private val saveCameraUploadsMediaWatermarksUseCase: SaveCameraUploadsMediaWatermarksUseCase,
 ) {
 
     /**
@@ -45,7 +49,7 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
                     fileType = CameraUploadsRecordType.TYPE_PHOTO,
                     tempRoot = tempRoot,
                 )
-            } ?: emptyList()
+            } ?: emptyScanResult
         }
 
         val primaryVideoMedia = async {
@@ -57,7 +61,7 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
                     fileType = CameraUploadsRecordType.TYPE_VIDEO,
                     tempRoot = tempRoot,
                 )
-            } ?: emptyList()
+            } ?: emptyScanResult
         }
 
         val isSecondaryFolderEnabled = isSecondaryFolderEnabled()
@@ -74,7 +78,7 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
                             fileType = CameraUploadsRecordType.TYPE_PHOTO,
                             tempRoot = tempRoot,
                         )
-                    }.orEmpty()
+                    } ?: emptyScanResult
                 }
             } else null
 
@@ -89,16 +93,34 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
                             fileType = CameraUploadsRecordType.TYPE_VIDEO,
                             tempRoot = tempRoot,
                         )
-                    }.orEmpty()
+                    } ?: emptyScanResult
                 }
             } else null
 
+        val primaryScanResults = listOf(primaryPhotoMedia.await(), primaryVideoMedia.await())
+        val secondaryScanResults =
+            listOfNotNull(secondaryPhotoMedia?.await(), secondaryVideoMedia?.await())
+
         val combinedList = buildList {
-            addAll(primaryPhotoMedia.await())
-            addAll(primaryVideoMedia.await())
-            secondaryPhotoMedia?.let { addAll(it.await()) }
-            secondaryVideoMedia?.let { addAll(it.await()) }
+            primaryScanResults.forEach { addAll(it.records) }
+            secondaryScanResults.forEach { addAll(it.records) }
         }
         saveCameraUploadsRecordUseCase(combinedList)
+
+        saveCameraUploadsMediaWatermarksUseCase(
+            folderType = CameraUploadFolderType.Primary,
+            watermarks = primaryScanResults.flatMap { it.watermarks.entries }
+                .associate { it.key to it.value },
+        )
+        saveCameraUploadsMediaWatermarksUseCase(
+            folderType = CameraUploadFolderType.Secondary,
+            watermarks = secondaryScanResults.flatMap { it.watermarks.entries }
+                .associate { it.key to it.value },
+        )
     }
+
+    private val emptyScanResult = CameraUploadsMediaScanResult(
+        records = emptyList(),
+        watermarks = emptyMap(),
+    )
 }
@@ -41,36 +41,53 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
         recordList: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
+    ): List<CameraUploadsRecord> = invoke(
+        recordList,
+        primaryUploadNodeId,
+        secondaryUploadNodeId,
+        generatedFileNames = mutableMapOf(),
+    )
+
+    /**
+     * Invoke
+     *
+     * Used to rename a list of files processed in several batches
+     *
+     * @param recordList the list of files renamed
+     * @param primaryUploadNodeId primary cloud folder
+     * @param secondaryUploadNodeId secondary cloud folder
+     * @param generatedFileNames the names already given to the files of the previous batches,
+     *        per folder type. It is updated with the names given to the files of this batch
+     */
+    suspend operator fun invoke(
+        recordList: List<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+        generatedFileNames: MutableMap<CameraUploadFolderType, MutableSet<String>>,
     ): List<CameraUploadsRecord> = withContext(ioDispatcher) {
         val keepName = areUploadFileNamesKeptUseCase()
-        return@withContext buildList renamedRecordList@{
-            recordList.map { record ->
-                if (record.existsInTargetNode == true) {
-                    add(record)
-                } else {
-                    ensureActive()
-                    val parentNodeId = when (record.folderType) {
-                        CameraUploadFolderType.Primary -> primaryUploadNodeId
-                        CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                    }
-
-                    val originalFileName = getFileName(record, keepName)
-                    var generatedFileName = originalFileName
-                    var photoIndex = 0
-                    while (
-                        fileNameAlreadyExists(
-                            generatedFileName,
-                            parentNodeId,
-                            record.folderType,
-                            this@renamedRecordList
-                        )
-                    ) {
-                        ensureActive()
-                        generatedFileName = getFileNameWithIndex(originalFileName, photoIndex++)
-                    }
+        return@withContext recordList.map { record ->
+            val fileNames = generatedFileNames.getOrPut(record.folderType) { hashSetOf() }
+            if (record.existsInTargetNode == true) {
+                record.generatedFileName?.let { fileNames.add(it) }
+                record
+            } else {
+                ensureActive()
+                val parentNodeId = when (record.folderType) {
+                    CameraUploadFolderType.Primary -> primaryUploadNodeId
+                    CameraUploadFolderType.Secondary -> secondaryUploadNodeId
+                }
 
-                    add(record.copy(generatedFileName = generatedFileName))
+                val originalFileName = getFileName(record, keepName)
+                var generatedFileName = originalFileName
+                var photoIndex = 0
+                while (fileNameAlreadyExists(generatedFileName, parentNodeId, fileNames)) {
+                    ensureActive()
+                    generatedFileName = getFileNameWithIndex(originalFileName, photoIndex++)
                 }
+
+                fileNames.add(generatedFileName)
+                record.copy(generatedFileName = generatedFileName)
             }
         }
     }
@@ -118,18 +135,16 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      *
      * @param fileName
      * @param parentNodeId
-     * @param folderType
-     * @param recordList
+     * @param generatedFileNames the names given to the files of the same folder type
      * @return true if the [fileName] is already used
      */
     private suspend fun fileNameAlreadyExists(
         fileName: String,
         parentNodeId: NodeId,
-        folderType: CameraUploadFolderType,
-        recordList: List<CameraUploadsRecord>
+        generatedFileNames: Set<String>,
     ): Boolean =
         fileNameExistsInCloud(fileName, parentNodeId)
-                || fileNameExistsInList(fileName, recordList, folderType)
+                || generatedFileNames.contains(fileName)
 
     /**
      * Check if the [fileName] is already used for one of the node in the target folder on the Cloud drive
@@ -140,20 +155,4 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      */
     private suspend fun fileNameExistsInCloud(fileName: String, parentNodeId: NodeId): Boolean =
         getChildNodeUseCase(parentNodeId, fileName) != null
-
-    /**
-     * Check if the [fileName] is already used for one of the future node in the list that is being processed
-     *
-     * @param fileName
-     * @param recordList
-     * @param folderType
-     * @return true if the [fileName] is already used in the current list
-     */
-    private fun fileNameExistsInList(
-        fileName: String,
-        recordList: List<CameraUploadsRecord>,
-        folderType: CameraUploadFolderType
-    ): Boolean =
-        recordList
-            .any { it.folderType == folderType && it.generatedFileName == fileName }
 }
@@ -10,6 +10,8 @@ import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
@@ -26,10 +28,15 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
     /**
      * Retrieve a list of [CameraUploadsMedia] from the media store
      *
+     * Only the media added or modified since the last saved watermark of each type are retrieved.
+     * The watermarks reached are returned alongside the records, and must be saved once the
+     * records are saved in the database. The watermark of a type is not advanced if some of its
+     * media could not be mapped to a record
+     *
      * @param parentPath used for filtering the media contained in the parent path
      * @param types types of files that we want to retrieve. This types will be converted to proper Uri
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a [CameraUploadsMediaScanResult] with the list of [CameraUploadsRecord]
      */
     suspend operator fun invoke(
         parentPath: String,
@@ -37,58 +44,77 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
         folderType: CameraUploadFolderType,
         fileType: CameraUploadsRecordType,
         tempRoot: String,
-    ): List<CameraUploadsRecord> = coroutineScope {
+    ): CameraUploadsMediaScanResult = coroutineScope {
         val selectionQuery = cameraUploadRepository.getMediaSelectionQuery(parentPath)
 
-        val (recordsInPrimaryFolder, recordsInSecondaryFolder) =
-            cameraUploadRepository.getAllCameraUploadsRecords()
-                .partition { it.folderType == CameraUploadFolderType.Primary }
+        val existingRecords = getExistingRecordKeys(folderType)
 
-        val semaphore = Semaphore(8)
-        return@coroutineScope types.flatMap {
-            cameraUploadRepository.getMediaList(
-                mediaStoreFileType = it,
+        val semaphore = Semaphore(MAX_CONCURRENT_CHUNKS)
+        val watermarks = mutableMapOf<MediaStoreFileType, CameraUploadsMediaWatermark?>()
+        val records = types.flatMap { type ->
+            val watermark = cameraUploadRepository.getMediaWatermark(folderType, type)
+            val scan = cameraUploadRepository.scanMedia(
+                mediaStoreFileType = type,
                 selectionQuery = selectionQuery,
-            ).map {
-                async {
-                    semaphore.withPermit {
-                        yield()
-                        runCatching {
-                            val exists = checkCameraUploadsRecordAlreadyExists(
-                                cameraUploadsMedia = it,
-                                recordsToCheck =
-                                if (folderType == CameraUploadFolderType.Primary)
-                                    recordsInPrimaryFolder
-                                else recordsInSecondaryFolder,
-                            )
-                            if (!exists) {
-                                cameraUploadsRecordMapper(
-                                    media = it,
-                                    folderType = folderType,
-                                    fileType = fileType,
-                                    tempRoot = tempRoot,
-                                )
-                            } else null
-                        }.getOrNull()
+                watermark = watermark,
+            )
+            val media = scan.media.filterNot { existingRecords.contains(it.mediaId, it.timestamp) }
+            val typeRecords = media
+                .chunked(CHUNK_SIZE)
+                .map { chunk ->
+                    async {
+                        semaphore.withPermit {
+                            chunk.mapNotNull {
+                                yield()
+                                runCatching {
+                                    cameraUploadsRecordMapper(
+                                        media = it,
+                                        folderType = folderType,
+                                        fileType = fileType,
+                                        tempRoot = tempRoot,
+                                    )
+                                }.getOrNull()
+                            }
+                        }
                     }
-                }
-            }.awaitAll().filterNotNull()
+                }.awaitAll().flatten()
+            // Keep the previous watermark if some media could not be mapped, so that they are
+            // retrieved again on the next scan
+            watermarks[type] = if (typeRecords.size == media.size) scan.watermark else watermark
+            typeRecords
         }
+        return@coroutineScope CameraUploadsMediaScanResult(
+            records = records,
+            watermarks = watermarks,
+        )
     }
 
     /**
-     * Check if the camera uploads media has already been inserted in the database
+     * Get the keys of the camera uploads records already inserted in the database for a folder type
      *
-     * @param cameraUploadsMedia the [CameraUploadsMedia] to check
-     * @param recordsToCheck the list of [CameraUploadsRecord] saved in the database
+     * @param folderType the folder type (Primary or Secondary) of the records
+     * @return a [CameraUploadsRecordKeySet] of the (mediaId, timestamp) of the records
      */
-    private fun checkCameraUploadsRecordAlreadyExists(
-        cameraUploadsMedia: CameraUploadsMedia,
-        recordsToCheck: List<CameraUploadsRecord>,
-    ): Boolean {
-        return recordsToCheck.find {
-            it.mediaId == cameraUploadsMedia.mediaId && it.timestamp == cameraUploadsMedia.timestamp
-        } != null
+    private suspend fun getExistingRecordKeys(
+        folderType: CameraUploadFolderType,
+    ): CameraUploadsRecordKeySet {
+        val records = cameraUploadRepository.getAllCameraUploadsRecords()
+        return CameraUploadsRecordKeySet(records.size).apply {
+            records.forEach {
+                if (it.folderType == folderType) add(it.mediaId, it.timestamp)
+            }
+        }
     }
-}
 
+    private companion object {
+        /**
+         * Number of media mapped sequentially by a single coroutine
+         */
+        const val CHUNK_SIZE = 100
+
+        /**
+         * Maximum number of chunks mapped concurrently
+         */
+        const val MAX_CONCURRENT_CHUNKS = 8
+    }
+}
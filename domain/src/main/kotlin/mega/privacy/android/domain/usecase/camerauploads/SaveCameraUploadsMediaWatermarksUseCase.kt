@@ -0,0 +1,39 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import javax.inject.Inject
+
+/**
+ * Save the media store watermarks reached by the last scan of a Camera Uploads folder
+ *
+ * @param cameraUploadRepository
+ */
+class SaveCameraUploadsMediaWatermarksUseCase @Inject constructor(
+    private val cameraUploadRepository: CameraUploadRepository,
+) {
+
+    /**
+     * Save the media store watermarks of a folder type
+     *
+     * The watermarks of the [MediaStoreFileType] that were not scanned are cleared, so that
+     * the media added in the meantime are retrieved if the type is scanned again
+     *
+     * @param folderType the folder type (Primary or Secondary) scanned
+     * @param watermarks the watermark reached for each scanned [MediaStoreFileType]
+     */
+    suspend operator fun invoke(
+        folderType: CameraUploadFolderType,
+        watermarks: Map<MediaStoreFileType, CameraUploadsMediaWatermark?>,
+    ) {
+        MediaStoreFileType.entries.forEach { type ->
+            cameraUploadRepository.setMediaWatermark(
+                folderType = folderType,
+                mediaStoreFileType = type,
+                watermark = watermarks[type],
+            )
+        }
+    }
+}
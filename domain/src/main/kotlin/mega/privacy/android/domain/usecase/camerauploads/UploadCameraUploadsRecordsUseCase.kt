@@ -2,8 +2,10 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.DelicateCoroutinesApi
 import kotlinx.coroutines.channels.Channel.Factory.UNLIMITED
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.catch
@@ -90,7 +92,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
     private val fileSystemRepository: FileSystemRepository,
     private val monitorBatteryInfoUseCase: MonitorBatteryInfoUseCase,
     private val isChargingRequiredForVideoCompressionUseCase: IsChargingRequiredForVideoCompressionUseCase,
-    private val monitorConcurrentUploadsLimitUseCase: MonitorConcurrentUploadsLimitUseCase,
+    private val monitorCameraUploadsConcurrencyLimitsUseCase: MonitorCameraUploadsConcurrencyLimitsUseCase,
 ) {
 
     companion object {
@@ -105,17 +107,41 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
      * @param secondaryUploadNodeId The secondary upload node id
      * @param tempRoot The file path to the temporary folder to generate temp files
      */
-    @OptIn(DelicateCoroutinesApi::class)
     operator fun invoke(
         cameraUploadsRecords: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
+    ): Flow<CameraUploadsTransferProgress> = invoke(
+        cameraUploadsRecords.asFlow(),
+        primaryUploadNodeId,
+        secondaryUploadNodeId,
+        tempRoot,
+    )
+
+    /**
+     * Camera Uploads upload process
+     *
+     * The records are collected as they are emitted, so that the upload of the first records can
+     * start while the next ones are still being prepared. A record is only collected when
+     * an upload slot is available, so a slow upload applies back pressure to the records flow
+     *
+     * @param cameraUploadsRecords The flow of records to process
+     * @param primaryUploadNodeId The primary upload node id
+     * @param secondaryUploadNodeId The secondary upload node id
+     * @param tempRoot The file path to the temporary folder to generate temp files
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    operator fun invoke(
+        cameraUploadsRecords: Flow<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+        tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> = channelFlow {
         // Limit the number of concurrent uploads to [CONCURRENT_UPLOADS_LIMIT]
         val semaphore = Semaphore(CameraUploadsConcurrentUploadsLimit.Default.limit)
 
-        // Limit the number of concurrent uploads based on the device state
+        // Limit the number of concurrent uploads based on the device state and the measured throughput
         val deviceStateSemaphore = Semaphore(CameraUploadsConcurrentUploadsLimit.Default.limit)
 
         // Keep tracks of number of permits preempted in [deviceStateSemaphore]
@@ -126,153 +152,258 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
         // to not overload the memory and cache size of the app
         val videoCompressionSemaphore = Semaphore(CONCURRENT_VIDEO_COMPRESSION_LIMIT)
 
+        // Measure the throughput and the temporary errors of the uploads to size the concurrency
+        val transferMeter = CameraUploadsTransferMeter()
+
         val videoQuality = getUploadVideoQualityUseCase()
         val locationTagsDisabled = !areLocationTagsEnabledUseCase()
         val isChargingRequiredForVideoCompression = isChargingRequiredForVideoCompressionUseCase()
 
         launch {
-            monitorConcurrentUploadsLimitUseCase(CameraUploadsConcurrentUploadsLimit.Default.limit)
-                .collectLatest { concurrentUploadsLimit ->
-                    val permitsToRestrict =
-                        CameraUploadsConcurrentUploadsLimit.Default.limit - concurrentUploadsLimit
-                    while (permitsToRestrict != preemptedPermitsCount.get()) {
-                        when {
-                            preemptedPermitsCount.get() < permitsToRestrict -> {
-                                deviceStateSemaphore.acquire()
-                                preemptedPermitsCount.incrementAndGet()
-                            }
-
-                            else -> {
-                                deviceStateSemaphore.release()
-                                preemptedPermitsCount.decrementAndGet()
-                            }
-                        }
-                    }
+            monitorCameraUploadsConcurrencyLimitsUseCase(transferMeter)
+                .collectLatest { concurrencyLimits ->
+                    deviceStateSemaphore.restrictPermits(
+                        maxPermits = CameraUploadsConcurrentUploadsLimit.Default.limit,
+                        limit = concurrencyLimits.uploads,
+                        preemptedPermitsCount = preemptedPermitsCount,
+                    )
                 }
         }
 
-        cameraUploadsRecords.map { record ->
-            launch {
+        coroutineScope {
+            cameraUploadsRecords.collect { record ->
                 semaphore.acquire()
-                deviceStateSemaphore.acquire()
+                launch {
+                    deviceStateSemaphore.acquire()
 
-                yield()
+                    yield()
 
-                val parentNodeId =
-                    getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
+                    val parentNodeId =
+                        getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
 
-                when {
-                    // node does not exist => upload
-                    record.existingNodeId == null -> {
+                    when {
+                        // node does not exist => upload
+                        record.existingNodeId == null -> {
 
-                        val shouldRemoveLocationTags =
-                            record.type == CameraUploadsRecordType.TYPE_PHOTO && locationTagsDisabled
+                            val shouldRemoveLocationTags =
+                                record.type == CameraUploadsRecordType.TYPE_PHOTO && locationTagsDisabled
 
-                        val shouldCompressVideo =
-                            record.type == CameraUploadsRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
+                            val shouldCompressVideo =
+                                record.type == CameraUploadsRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
 
-                        yield()
+                            yield()
 
-                        // create temporary file
-                        if (shouldRemoveLocationTags) {
-                            createTempFileAndRemoveCoordinates(record, tempRoot)
-                                .catch {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = if (it is FileNotFoundException)
-                                            CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
-                                        else CameraUploadsRecordUploadStatus.FAILED
-                                    ).onFailure { error ->
-                                        trySend(CameraUploadsTransferProgress.Error(record, error))
+                            // create temporary file
+                            if (shouldRemoveLocationTags) {
+                                createTempFileAndRemoveCoordinates(record, tempRoot)
+                                    .catch {
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                        setCameraUploadsRecordUploadStatus(
+                                            record = record,
+                                            status = if (it is FileNotFoundException)
+                                                CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
+                                            else CameraUploadsRecordUploadStatus.FAILED
+                                        ).onFailure { error ->
+                                            trySend(CameraUploadsTransferProgress.Error(record, error))
+                                        }
                                     }
-                                }
-                                .singleOrNull()
-                                ?: run {
+                                    .singleOrNull()
+                                    ?: run {
+                                        deviceStateSemaphore.release()
+                                        semaphore.release()
+                                        return@launch
+                                    }
+                            }
+
+                            yield()
+
+                            // Compress Video
+                            if (shouldCompressVideo) {
+                                var isCompressionCancelled = false
+                                videoCompressionSemaphore.acquire()
+                                if (isChargingRequiredForVideoCompression
+                                    && monitorBatteryInfoUseCase().first().isCharging.not()
+                                ) {
+                                    videoCompressionSemaphore.release()
                                     deviceStateSemaphore.release()
                                     semaphore.release()
                                     return@launch
                                 }
-                        }
+                                channelFlow compression@{
+                                    launch {
+                                        flow {
+                                            emitAll(monitorBatteryInfoUseCase().map { it.isCharging })
+                                        }.collect { isCharging ->
+                                            if (isChargingRequiredForVideoCompression && !isCharging) {
+                                                isCompressionCancelled = true
+                                                send(VideoCompressionState.Cancel)
+                                                this@compression.close()
+                                            }
+                                        }
+                                    }
 
-                        yield()
-
-                        // Compress Video
-                        if (shouldCompressVideo) {
-                            var isCompressionCancelled = false
-                            videoCompressionSemaphore.acquire()
-                            if (isChargingRequiredForVideoCompression
-                                && monitorBatteryInfoUseCase().first().isCharging.not()
-                            ) {
-                                videoCompressionSemaphore.release()
-                                deviceStateSemaphore.release()
-                                semaphore.release()
-                                return@launch
-                            }
-                            channelFlow compression@{
-                                launch {
-                                    flow {
-                                        emitAll(monitorBatteryInfoUseCase().map { it.isCharging })
-                                    }.collect { isCharging ->
-                                        if (isChargingRequiredForVideoCompression && !isCharging) {
-                                            isCompressionCancelled = true
-                                            send(VideoCompressionState.Cancel)
-                                            this@compression.close()
+                                    launch {
+                                        compressVideo(
+                                            record,
+                                            tempRoot,
+                                            videoQuality
+                                        ).collect {
+                                            if (!isClosedForSend) {
+                                                send(it)
+                                                yield()
+                                            }
+                                            if (it is VideoCompressionState.Finished) {
+                                                this@compression.close()
+                                            }
                                         }
                                     }
-                                }
+                                }.catch {
+                                    emit(VideoCompressionState.Finished)
+                                    trySend(CameraUploadsTransferProgress.Error(record, it))
+                                }.onCompletion {
+                                    videoCompressionSemaphore.release()
+                                }.collect {
+                                    when (it) {
+                                        is VideoCompressionState.Progress -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Progress(
+                                                    record = record,
+                                                    progress = it.progress,
+                                                )
+                                            )
+                                        }
 
-                                launch {
-                                    compressVideo(
-                                        record,
-                                        tempRoot,
-                                        videoQuality
-                                    ).collect {
-                                        if (!isClosedForSend) {
-                                            send(it)
-                                            yield()
+                                        is VideoCompressionState.Successful -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Successful(
+                                                    record = record,
+                                                )
+                                            )
+                                        }
+
+                                        is VideoCompressionState.InsufficientStorage -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.InsufficientStorage(
+                                                    record = record,
+                                                )
+                                            )
                                         }
-                                        if (it is VideoCompressionState.Finished) {
-                                            this@compression.close()
+
+                                        is VideoCompressionState.Cancel -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Cancel(
+                                                    record = record,
+                                                )
+                                            )
                                         }
+
+                                        else -> Unit
                                     }
                                 }
-                            }.catch {
-                                emit(VideoCompressionState.Finished)
-                                trySend(CameraUploadsTransferProgress.Error(record, it))
-                            }.onCompletion {
-                                videoCompressionSemaphore.release()
-                            }.collect {
-                                when (it) {
-                                    is VideoCompressionState.Progress -> {
+                                if (isCompressionCancelled) {
+                                    deviceStateSemaphore.release()
+                                    semaphore.release()
+                                    return@launch
+                                }
+                            }
+
+                            yield()
+
+                            // generate fingerprint and save it
+                            // This step is important to check if a file exist in the cloud drive,
+                            // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
+                            val setGeneratedFingerprintJob = launch {
+                                setGeneratedFingerprint(record)
+                                    .onFailure {
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                    }
+                            }
+
+                            // retrieve path of file to upload
+                            val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
+
+                            yield()
+
+                            // upload
+                            var lastTransferredBytes = 0L
+                            startUploadUseCase(
+                                localPath = path,
+                                parentNodeId = parentNodeId,
+                                fileName = record.generatedFileName,
+                                modificationTime = record.timestamp / 1000,
+                                appData = TransferAppData.CameraUpload,
+                                isSourceTemporary = false,
+                                shouldStartFirst = false,
+                            ).collect { transferEvent ->
+                                when (transferEvent) {
+                                    is TransferEvent.TransferStartEvent -> {
+                                        // set status to STARTED
+                                        setCameraUploadsRecordUploadStatus(
+                                            record = record,
+                                            status = CameraUploadsRecordUploadStatus.STARTED,
+                                        ).onFailure {
+                                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                                        }
+
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Progress(
+                                            CameraUploadsTransferProgress.ToUpload(
                                                 record = record,
-                                                progress = it.progress,
+                                                transferEvent = transferEvent,
                                             )
                                         )
                                     }
 
-                                    is VideoCompressionState.Successful -> {
+                                    is TransferEvent.TransferFinishEvent -> {
+                                        transferMeter.addTransferredBytes(
+                                            transferEvent.transfer.transferredBytes - lastTransferredBytes
+                                        )
+                                        yield()
+                                        processTransferFinishEvent(record, transferEvent)
+                                            .collect {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
+
+                                        // Make sure that the generated fingerprint has complete
+                                        setGeneratedFingerprintJob.join()
+
+                                        // delete temp file
+                                        deleteTempFile(record)
+                                            .onFailure {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
+
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Successful(
+                                            CameraUploadsTransferProgress.Uploaded(
                                                 record = record,
+                                                transferEvent = transferEvent,
+                                                nodeId = NodeId(transferEvent.transfer.nodeHandle),
                                             )
                                         )
+
+                                        deviceStateSemaphore.release()
+                                        semaphore.release()
                                     }
 
-                                    is VideoCompressionState.InsufficientStorage -> {
+                                    is TransferEvent.TransferUpdateEvent -> {
+                                        val transferredBytes = transferEvent.transfer.transferredBytes
+                                        transferMeter.addTransferredBytes(
+                                            transferredBytes - lastTransferredBytes
+                                        )
+                                        lastTransferredBytes = transferredBytes
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.InsufficientStorage(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
                                                 record = record,
+                                                transferEvent = transferEvent,
                                             )
                                         )
                                     }
 
-                                    is VideoCompressionState.Cancel -> {
+                                    is TransferEvent.TransferTemporaryErrorEvent -> {
+                                        transferMeter.addTemporaryError()
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Cancel(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
                                                 record = record,
+                                                transferEvent = transferEvent,
                                             )
                                         )
                                     }
@@ -280,165 +411,94 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                                     else -> Unit
                                 }
                             }
-                            if (isCompressionCancelled) {
-                                deviceStateSemaphore.release()
-                                semaphore.release()
-                                return@launch
-                            }
-                        }
-
-                        yield()
-
-                        // generate fingerprint and save it
-                        // This step is important to check if a file exist in the cloud drive,
-                        // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
-                        val setGeneratedFingerprintJob = launch {
-                            setGeneratedFingerprint(record)
-                                .onFailure {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                }
                         }
 
-                        // retrieve path of file to upload
-                        val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
-
-                        yield()
-
-                        // upload
-                        startUploadUseCase(
-                            localPath = path,
-                            parentNodeId = parentNodeId,
-                            fileName = record.generatedFileName,
-                            modificationTime = record.timestamp / 1000,
-                            appData = TransferAppData.CameraUpload,
-                            isSourceTemporary = false,
-                            shouldStartFirst = false,
-                        ).collect { transferEvent ->
-                            when (transferEvent) {
-                                is TransferEvent.TransferStartEvent -> {
-                                    // set status to STARTED
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = CameraUploadsRecordUploadStatus.STARTED,
-                                    ).onFailure {
-                                        trySend(CameraUploadsTransferProgress.Error(record, it))
-                                    }
-
-                                    trySend(
-                                        CameraUploadsTransferProgress.ToUpload(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
-                                }
-
-                                is TransferEvent.TransferFinishEvent -> {
-                                    yield()
-                                    processTransferFinishEvent(record, transferEvent)
-                                        .collect {
-                                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                                        }
-
-                                    // Make sure that the generated fingerprint has complete
-                                    setGeneratedFingerprintJob.join()
-
-                                    // delete temp file
-                                    deleteTempFile(record)
-                                        .onFailure {
-                                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                                        }
-
-                                    trySend(
-                                        CameraUploadsTransferProgress.Uploaded(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                            nodeId = NodeId(transferEvent.transfer.nodeHandle),
-                                        )
-                                    )
-
-                                    deviceStateSemaphore.release()
-                                    semaphore.release()
-                                }
-
-                                is TransferEvent.TransferUpdateEvent -> {
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
-                                }
-
-                                is TransferEvent.TransferTemporaryErrorEvent ->
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
+                        // node exists but not in target folder => copy
+                        record.existsInTargetNode == false -> {
+                            trySend(
+                                CameraUploadsTransferProgress.ToCopy(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
+                            )
 
-                                else -> Unit
+                            copyNode(
+                                record = record,
+                                existingNodeId = record.existingNodeId,
+                                parentNodeId = parentNodeId,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
                             }
-                        }
-                    }
 
-                    // node exists but not in target folder => copy
-                    record.existsInTargetNode == false -> {
-                        trySend(
-                            CameraUploadsTransferProgress.ToCopy(
-                                record = record,
-                                nodeId = record.existingNodeId,
+                            trySend(
+                                CameraUploadsTransferProgress.Copied(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
                             )
-                        )
-
-                        copyNode(
-                            record = record,
-                            existingNodeId = record.existingNodeId,
-                            parentNodeId = parentNodeId,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                        }
 
-                        trySend(
-                            CameraUploadsTransferProgress.Copied(
+                            setCameraUploadsRecordUploadStatus(
                                 record = record,
-                                nodeId = record.existingNodeId,
-                            )
-                        )
+                                status = CameraUploadsRecordUploadStatus.COPIED
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
 
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.COPIED
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            deviceStateSemaphore.release()
+                            semaphore.release()
+                            return@launch
                         }
 
-                        deviceStateSemaphore.release()
-                        semaphore.release()
-                        return@launch
-                    }
+                        // node exists in target folder or is in rubbish bin => do nothing
+                        else -> {
+                            setCameraUploadsRecordUploadStatus(
+                                record = record,
+                                status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
 
-                    // node exists in target folder or is in rubbish bin => do nothing
-                    else -> {
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            deviceStateSemaphore.release()
+                            semaphore.release()
+                            return@launch
                         }
-
-                        deviceStateSemaphore.release()
-                        semaphore.release()
-                        return@launch
                     }
                 }
             }
-        }.joinAll()
+        }
         channel.close()
     }
         .buffer(UNLIMITED)
         .cancellable()
 
+    /**
+     * Preempt or give back permits of a semaphore so that only [limit] of them can be acquired
+     *
+     * @param maxPermits the number of permits the semaphore was created with
+     * @param limit the number of permits to leave available, coerced between 1 and [maxPermits]
+     * @param preemptedPermitsCount the number of permits currently preempted
+     */
+    private suspend fun Semaphore.restrictPermits(
+        maxPermits: Int,
+        limit: Int,
+        preemptedPermitsCount: AtomicInteger,
+    ) {
+        val permitsToRestrict = maxPermits - limit.coerceIn(1, maxPermits)
+        while (permitsToRestrict != preemptedPermitsCount.get()) {
+            when {
+                preemptedPermitsCount.get() < permitsToRestrict -> {
+                    acquire()
+                    preemptedPermitsCount.incrementAndGet()
+                }
+
+                else -> {
+                    release()
+                    preemptedPermitsCount.decrementAndGet()
+                }
+            }
+        }
+    }
+
     /**
      * Compress a video
      * Will emit a [VideoCompressionState.Finished] if an error is thrown
@@ -0,0 +1,36 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import java.nio.ByteBuffer
+import javax.inject.Inject
+
+/**
+ * The use case implementation class to get node thumbnail from the packed thumbnail store,
+ * moving it to the store once it is got as a file
+ * @param thumbnailPreviewRepository [ThumbnailPreviewRepository]
+ */
+class GetPackedThumbnailUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+    private val getThumbnailUseCase: GetThumbnailUseCase,
+    private val getPublicNodeThumbnailUseCase: GetPublicNodeThumbnailUseCase,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param nodeId [Long]
+     * @param isPublicNode true if the node is a public node
+     * @param isPrefetch true if the thumbnail is not on screen yet, so it is downloaded last
+     * @return thumbnail bytes, or null if the thumbnail cannot be got or stored
+     */
+    suspend operator fun invoke(
+        nodeId: Long,
+        isPublicNode: Boolean,
+        isPrefetch: Boolean = false,
+    ): ByteBuffer? = thumbnailPreviewRepository.getPackedThumbnail(nodeId)
+        ?: if (isPublicNode) {
+            getPublicNodeThumbnailUseCase(nodeId, true, isPrefetch)
+        } else {
+            getThumbnailUseCase(nodeId, true, isPrefetch)
+        }?.let { thumbnailPreviewRepository.packThumbnail(nodeId, it) }
+}
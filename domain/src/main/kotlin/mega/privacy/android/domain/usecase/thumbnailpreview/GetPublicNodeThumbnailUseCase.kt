@@ -13,12 +13,17 @@ class GetPublicNodeThumbnailUseCase @Inject constructor(
 ) {
     /**
      * get thumbnail from local if exist, from server otherwise
+     * @param isPrefetch true if the thumbnail is not on screen yet, so it is downloaded last
      * @return File
      */
-    suspend operator fun invoke(nodeId: Long, allowThrow: Boolean = false): File? {
+    suspend operator fun invoke(
+        nodeId: Long,
+        allowThrow: Boolean = false,
+        isPrefetch: Boolean = false,
+    ): File? {
         runCatching {
             thumbnailPreviewRepository.getPublicNodeThumbnailFromLocal(nodeId)
-                ?: thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(nodeId)
+                ?: thumbnailPreviewRepository.getPublicNodeThumbnailFromServer(nodeId, isPrefetch)
         }.fold(
             onSuccess = { return it },
             onFailure = {
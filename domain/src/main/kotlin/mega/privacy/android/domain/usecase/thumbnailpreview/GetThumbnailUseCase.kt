@@ -16,12 +16,18 @@ class GetThumbnailUseCase @Inject constructor(
      * Invoke
      *
      * @param nodeId [Long]
+     * @param allowThrow true to throw the errors instead of returning null
+     * @param isPrefetch true if the thumbnail is not on screen yet, so it is downloaded last
      * @return [File]
      */
-    suspend operator fun invoke(nodeId: Long, allowThrow: Boolean = false): File? {
+    suspend operator fun invoke(
+        nodeId: Long,
+        allowThrow: Boolean = false,
+        isPrefetch: Boolean = false,
+    ): File? {
         runCatching {
             thumbnailPreviewRepository.getThumbnailFromLocal(nodeId)
-                ?: thumbnailPreviewRepository.getThumbnailFromServer(nodeId)
+                ?: thumbnailPreviewRepository.getThumbnailFromServer(nodeId, isPrefetch)
         }.fold(
             onSuccess = { return it },
             onFailure = { e ->
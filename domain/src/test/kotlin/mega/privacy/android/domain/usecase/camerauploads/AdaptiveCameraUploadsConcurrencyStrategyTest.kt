@@ -0,0 +1,107 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.MethodSource
+import java.util.stream.Stream
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AdaptiveCameraUploadsConcurrencyStrategyTest {
+
+    private lateinit var underTest: AdaptiveCameraUploadsConcurrencyStrategy
+
+    private val current = CameraUploadsConcurrencyLimits(uploads = 4)
+
+    @BeforeAll
+    fun setUp() {
+        underTest = AdaptiveCameraUploadsConcurrencyStrategy()
+    }
+
+    @ParameterizedTest(name = "when the device limit is {0}")
+    @MethodSource("provideInitialLimitsParameters")
+    fun `test that the initial limits are the device limit`(
+        deviceUploadsLimit: Int,
+        expected: CameraUploadsConcurrencyLimits,
+    ) {
+        assertThat(underTest.initialLimits(deviceUploadsLimit)).isEqualTo(expected)
+    }
+
+    private fun provideInitialLimitsParameters() = Stream.of(
+        Arguments.of(8, CameraUploadsConcurrencyLimits(uploads = 8)),
+        Arguments.of(4, CameraUploadsConcurrencyLimits(uploads = 4)),
+        Arguments.of(0, CameraUploadsConcurrencyLimits(uploads = 1)),
+    )
+
+    @ParameterizedTest(name = "when throughput is {0}, previous throughput is {1} and temporary errors are {2}")
+    @MethodSource("provideNextUploadsParameters")
+    fun `test that the next uploads limit follows the feedback`(
+        throughput: Long,
+        previousThroughput: Long,
+        temporaryErrors: Int,
+        expectedUploads: Int,
+    ) {
+        val actual = underTest.nextLimits(
+            current = current,
+            feedback = CameraUploadsConcurrencyFeedback(
+                throughput = throughput,
+                previousThroughput = previousThroughput,
+                temporaryErrors = temporaryErrors,
+                deviceUploadsLimit = 8,
+            ),
+        )
+
+        assertThat(actual.uploads).isEqualTo(expectedUploads)
+    }
+
+    private fun provideNextUploadsParameters() = Stream.of(
+        // first measure
+        Arguments.of(1000L, 0L, 0, 5),
+        // throughput gain
+        Arguments.of(1100L, 1000L, 0, 5),
+        // plateau
+        Arguments.of(1020L, 1000L, 0, 4),
+        Arguments.of(900L, 1000L, 0, 4),
+        // throughput drop
+        Arguments.of(600L, 1000L, 0, 3),
+        // nothing uploaded
+        Arguments.of(0L, 1000L, 0, 4),
+        // temporary errors
+        Arguments.of(1100L, 1000L, 3, 2),
+    )
+
+    @Test
+    fun `test that the uploads never exceed the device limit`() {
+        val actual = underTest.nextLimits(
+            current = current,
+            feedback = CameraUploadsConcurrencyFeedback(
+                throughput = 1000L,
+                previousThroughput = 0L,
+                temporaryErrors = 0,
+                deviceUploadsLimit = 2,
+            ),
+        )
+
+        assertThat(actual).isEqualTo(CameraUploadsConcurrencyLimits(uploads = 2))
+    }
+
+    @Test
+    fun `test that the uploads never go below one`() {
+        val actual = underTest.nextLimits(
+            current = current.copy(uploads = 1),
+            feedback = CameraUploadsConcurrencyFeedback(
+                throughput = 1000L,
+                previousThroughput = 1000L,
+                temporaryErrors = 1,
+                deviceUploadsLimit = 8,
+            ),
+        )
+
+        assertThat(actual.uploads).isEqualTo(1)
+    }
+}
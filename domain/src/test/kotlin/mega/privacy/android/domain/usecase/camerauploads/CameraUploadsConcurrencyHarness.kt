@@ -0,0 +1,90 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.cancelChildren
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.stateIn
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrentUploadsLimit
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+/**
+ * Deterministic harness running [MonitorCameraUploadsConcurrencyLimitsUseCase] against a simulated
+ * network, to be used with the virtual time of runTest
+ *
+ * Every sampling window, the simulated uploads feed the [CameraUploadsTransferMeter] with the
+ * throughput allowed by the [NetworkConditions] of the window for the limits currently applied
+ *
+ * @param strategy the [CameraUploadsConcurrencyStrategy] under test
+ */
+internal class CameraUploadsConcurrencyHarness(strategy: CameraUploadsConcurrencyStrategy) {
+
+    /**
+     * Conditions of a sampling window
+     *
+     * @property capacity the bytes per second the link can carry
+     * @property uploadRate the bytes per second a single upload can reach
+     * @property maxUploadsWithoutErrors the number of concurrent uploads above which the server
+     * answers with temporary errors
+     * @property deviceUploadsLimit the device limit, reported at the end of the window
+     */
+    data class NetworkConditions(
+        val capacity: Long,
+        val uploadRate: Long,
+        val maxUploadsWithoutErrors: Int = Int.MAX_VALUE,
+        val deviceUploadsLimit: Int = CameraUploadsConcurrentUploadsLimit.Default.limit,
+    )
+
+    private val deviceUploadsLimit =
+        MutableStateFlow(CameraUploadsConcurrentUploadsLimit.Default.limit)
+
+    private val monitorConcurrentUploadsLimitUseCase = mock<MonitorConcurrentUploadsLimitUseCase> {
+        on { invoke(any()) } doReturn deviceUploadsLimit
+    }
+
+    private val monitorCameraUploadsConcurrencyLimitsUseCase =
+        MonitorCameraUploadsConcurrencyLimitsUseCase(
+            cameraUploadsConcurrencyStrategy = strategy,
+            monitorConcurrentUploadsLimitUseCase = monitorConcurrentUploadsLimitUseCase,
+        )
+
+    /**
+     * Run one sampling window per [NetworkConditions]
+     *
+     * @return the limits applied during each window
+     */
+    suspend fun simulate(conditions: List<NetworkConditions>): List<CameraUploadsConcurrencyLimits> =
+        coroutineScope {
+            val transferMeter = CameraUploadsTransferMeter()
+            deviceUploadsLimit.value = conditions.first().deviceUploadsLimit
+            val limits = monitorCameraUploadsConcurrencyLimitsUseCase(transferMeter).stateIn(this)
+
+            val appliedLimits = conditions.map { window ->
+                // Ticks are shifted by half a tick so they never coincide with a sample
+                delay(TICK_MILLIS / 2)
+                val current = limits.value
+                val throughput = minOf(current.uploads * window.uploadRate, window.capacity)
+                repeat(TICKS_PER_WINDOW) { tick ->
+                    if (tick > 0) delay(TICK_MILLIS)
+                    transferMeter.addTransferredBytes(throughput * TICK_MILLIS / 1000)
+                    if (current.uploads > window.maxUploadsWithoutErrors) {
+                        transferMeter.addTemporaryError()
+                    }
+                }
+                deviceUploadsLimit.value = window.deviceUploadsLimit
+                delay(TICK_MILLIS / 2)
+                current
+            }
+            coroutineContext.cancelChildren()
+            appliedLimits
+        }
+
+    companion object {
+        private const val TICK_MILLIS = 100L
+        private const val TICKS_PER_WINDOW =
+            (MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS / TICK_MILLIS).toInt()
+    }
+}
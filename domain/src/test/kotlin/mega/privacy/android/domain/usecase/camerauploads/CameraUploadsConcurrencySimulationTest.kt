@@ -0,0 +1,107 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import mega.privacy.android.domain.usecase.camerauploads.CameraUploadsConcurrencyHarness.NetworkConditions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+/**
+ * Run the concurrency strategies against simulated bandwidth and error profiles
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CameraUploadsConcurrencySimulationTest {
+
+    private val megabyte = 1024L * 1024L
+
+    private fun List<CameraUploadsConcurrencyLimits>.uploads() = map { it.uploads }
+
+    @Test
+    fun `test that the adaptive strategy starts at the device limit and holds while the link is saturated`() =
+        runTest {
+            val underTest = CameraUploadsConcurrencyHarness(AdaptiveCameraUploadsConcurrencyStrategy())
+
+            val applied = underTest.simulate(
+                List(12) { NetworkConditions(capacity = 10 * megabyte, uploadRate = 2 * megabyte) }
+            )
+
+            assertThat(applied.uploads())
+                .containsExactly(8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8)
+                .inOrder()
+        }
+
+    @Test
+    fun `test that the adaptive strategy backs off when the server returns temporary errors`() =
+        runTest {
+            val underTest = CameraUploadsConcurrencyHarness(AdaptiveCameraUploadsConcurrencyStrategy())
+
+            val applied = underTest.simulate(
+                List(12) {
+                    NetworkConditions(
+                        capacity = 100 * megabyte,
+                        uploadRate = 2 * megabyte,
+                        maxUploadsWithoutErrors = 4,
+                    )
+                }
+            )
+
+            assertThat(applied.uploads())
+                .containsExactly(8, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4)
+                .inOrder()
+        }
+
+    @Test
+    fun `test that the adaptive strategy lowers the uploads when the bandwidth drops`() = runTest {
+        val underTest = CameraUploadsConcurrencyHarness(AdaptiveCameraUploadsConcurrencyStrategy())
+
+        val applied = underTest.simulate(
+            List(8) { NetworkConditions(capacity = 10 * megabyte, uploadRate = 2 * megabyte) } +
+                    List(4) { NetworkConditions(capacity = 4 * megabyte, uploadRate = 2 * megabyte) }
+        )
+
+        assertThat(applied.uploads().takeLast(4)).containsExactly(8, 6, 7, 7).inOrder()
+    }
+
+    @Test
+    fun `test that the adaptive strategy follows the device limit`() = runTest {
+        val underTest = CameraUploadsConcurrencyHarness(AdaptiveCameraUploadsConcurrencyStrategy())
+
+        val applied = underTest.simulate(
+            List(6) { NetworkConditions(capacity = 10 * megabyte, uploadRate = 2 * megabyte) } +
+                    List(6) {
+                        NetworkConditions(
+                            capacity = 10 * megabyte,
+                            uploadRate = 2 * megabyte,
+                            deviceUploadsLimit = 2,
+                        )
+                    }
+        )
+
+        // The device limit of a window is only known when it ends
+        assertThat(applied.uploads())
+            .containsExactly(8, 8, 8, 8, 8, 8, 8, 2, 2, 2, 2, 2)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that the device state strategy only follows the device limit`() = runTest {
+        val underTest = CameraUploadsConcurrencyHarness(DeviceStateCameraUploadsConcurrencyStrategy())
+
+        val applied = underTest.simulate(
+            List(4) {
+                NetworkConditions(
+                    capacity = 4 * megabyte,
+                    uploadRate = 2 * megabyte,
+                    maxUploadsWithoutErrors = 2,
+                )
+            } + NetworkConditions(
+                capacity = 4 * megabyte,
+                uploadRate = 2 * megabyte,
+                deviceUploadsLimit = 4,
+            ) + NetworkConditions(capacity = 4 * megabyte, uploadRate = 2 * megabyte)
+        )
+
+        assertThat(applied.uploads()).containsExactly(8, 8, 8, 8, 8, 4).inOrder()
+    }
+}
@@ -0,0 +1,53 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+
+/**
+ * Test class for [CameraUploadsRecordKeySet]
+ */
+class CameraUploadsRecordKeySetTest {
+
+    @Test
+    fun `test that an added key is contained in the set`() {
+        val underTest = CameraUploadsRecordKeySet()
+
+        assertThat(underTest.add(1L, 1000L)).isTrue()
+
+        assertThat(underTest.contains(1L, 1000L)).isTrue()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that a key with the same media id but a different timestamp is not contained`() {
+        val underTest = CameraUploadsRecordKeySet()
+
+        underTest.add(1L, 1000L)
+
+        assertThat(underTest.contains(1L, 2000L)).isFalse()
+        assertThat(underTest.contains(2L, 1000L)).isFalse()
+    }
+
+    @Test
+    fun `test that adding an existing key does not change the set`() {
+        val underTest = CameraUploadsRecordKeySet()
+
+        underTest.add(1L, 1000L)
+
+        assertThat(underTest.add(1L, 1000L)).isFalse()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that all the keys are kept when the set grows beyond the expected size`() {
+        val underTest = CameraUploadsRecordKeySet(expectedSize = 1)
+        val keys = (0L until 10_000L).map { it to it * 1000 }
+
+        keys.forEach { (mediaId, timestamp) -> underTest.add(mediaId, timestamp) }
+
+        assertThat(underTest.size).isEqualTo(keys.size)
+        assertThat(keys.all { (mediaId, timestamp) -> underTest.contains(mediaId, timestamp) })
+            .isTrue()
+        assertThat(underTest.contains(10_000L, 10_000_000L)).isFalse()
+    }
+}
@@ -2,20 +2,26 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
 import mega.privacy.android.domain.entity.node.NodeId
-import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -25,11 +31,13 @@ import org.mockito.kotlin.whenever
 class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     private lateinit var underTest: DoesCameraUploadsRecordExistsInTargetNodeUseCase
 
+    private val findNodesWithFingerprintInParentNodeUseCase =
+        mock<FindNodesWithFingerprintInParentNodeUseCase>()
     private val findNodeWithFingerprintInParentNodeUseCase =
         mock<FindNodeWithFingerprintInParentNodeUseCase>()
 
-    private val primaryUploadNodeId = mock<NodeId>()
-    private val secondaryUploadNodeId = mock<NodeId>()
+    private val primaryUploadNodeId = NodeId(1111L)
+    private val secondaryUploadNodeId = NodeId(2222L)
 
     private val record = CameraUploadsRecord(
         mediaId = 1L,
@@ -47,6 +55,7 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     @BeforeAll
     fun setUp() {
         underTest = DoesCameraUploadsRecordExistsInTargetNodeUseCase(
+            findNodesWithFingerprintInParentNodeUseCase = findNodesWithFingerprintInParentNodeUseCase,
             findNodeWithFingerprintInParentNodeUseCase = findNodeWithFingerprintInParentNodeUseCase,
         )
     }
@@ -54,27 +63,33 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
     @BeforeEach
     fun resetMocks() {
         reset(
+            findNodesWithFingerprintInParentNodeUseCase,
             findNodeWithFingerprintInParentNodeUseCase,
         )
     }
 
+    private fun CameraUploadsRecord.toLookup() = NodeFingerprintLookup(
+        originalFingerprint = originalFingerprint,
+        generatedFingerprint = generatedFingerprint,
+        parentNodeId = when (folderType) {
+            CameraUploadFolderType.Primary -> primaryUploadNodeId
+            CameraUploadFolderType.Secondary -> secondaryUploadNodeId
+        },
+    )
+
     @ParameterizedTest
     @EnumSource(CameraUploadFolderType::class)
-    fun `test that findNodeWithFingerprintInParentNodeUseCase is invoked with correct target node `(
+    fun `test that findNodesWithFingerprintInParentNodeUseCase is invoked with correct target node `(
         type: CameraUploadFolderType,
     ) =
         runTest {
             val record = record.copy(folderType = type)
-            underTest(listOf(record), primaryUploadNodeId, secondaryUploadNodeId)
-            verify(findNodeWithFingerprintInParentNodeUseCase).invoke(
-                record.originalFingerprint,
-                record.generatedFingerprint,
-                when (type) {
-                    CameraUploadFolderType.Primary -> primaryUploadNodeId
-                    CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                }
-            )
-
+            whenever(findNodesWithFingerprintInParentNodeUseCase(any(), any()))
+                .thenReturn(emptyFlow())
+            underTest(listOf(record), primaryUploadNodeId, secondaryUploadNodeId, CHUNK_SIZE)
+                .toList()
+            verify(findNodesWithFingerprintInParentNodeUseCase)
+                .invoke(listOf(record.toLookup()), CHUNK_SIZE)
         }
 
     @ParameterizedTest(name = "when folder type is {0}")
@@ -83,53 +98,45 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
         type: CameraUploadFolderType,
     ) =
         runTest {
-            val expected = Pair(false, mock<NodeId>())
+            val expected = Pair(false, NodeId(1234L))
             val record = record.copy(folderType = type)
             val list = listOf(record)
-            whenever(
-                findNodeWithFingerprintInParentNodeUseCase(
-                    record.originalFingerprint,
-                    record.generatedFingerprint,
-                    when (type) {
-                        CameraUploadFolderType.Primary -> primaryUploadNodeId
-                        CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                    },
-                )
-            ).thenReturn(expected)
-
-            assertThat(
-                underTest(list, primaryUploadNodeId, secondaryUploadNodeId)[0].existsInTargetNode
-            ).isEqualTo(expected.first)
-            assertThat(
-                underTest(list, primaryUploadNodeId, secondaryUploadNodeId)[0].existingNodeId
-            ).isEqualTo(expected.second)
+            whenever(findNodesWithFingerprintInParentNodeUseCase(listOf(record.toLookup()), CHUNK_SIZE))
+                .thenReturn(flowOf(listOf(expected)))
+
+            val actual = underTest(list, primaryUploadNodeId, secondaryUploadNodeId, CHUNK_SIZE)
+                .toList().flatten()
+
+            assertThat(actual[0].existsInTargetNode).isEqualTo(expected.first)
+            assertThat(actual[0].existingNodeId).isEqualTo(expected.second)
         }
 
     @Test
-    fun `test that the size of the result returned is equals to the size of the list if no error is caught`() =
+    fun `test that the records are emitted by chunks in the order of the lookups`() =
         runTest {
-            val expected = 5
-            val list = List(expected) { index ->
+            val list = List(5) { index ->
                 record.copy(
                     mediaId = index.toLong(),
                     filePath = "filePath/$index"
                 )
             }
-            for (i in 0..<expected) {
-                whenever(
-                    findNodeWithFingerprintInParentNodeUseCase(
-                        list[i].originalFingerprint,
-                        list[i].generatedFingerprint,
-                        primaryUploadNodeId
+            whenever(findNodesWithFingerprintInParentNodeUseCase(list.map { it.toLookup() }, 2))
+                .thenReturn(
+                    flowOf(
+                        List(2) { Pair(false, null) },
+                        List(2) { Pair(false, null) },
+                        List(1) { Pair(false, null) },
                     )
-                ).thenReturn(mock())
-            }
-            assertThat(underTest(list, primaryUploadNodeId, secondaryUploadNodeId).size)
-                .isEqualTo(expected)
+                )
+
+            val actual = underTest(list, primaryUploadNodeId, secondaryUploadNodeId, 2).toList()
+
+            assertThat(actual.map { chunk -> chunk.map { it.mediaId } })
+                .containsExactly(listOf(0L, 1L), listOf(2L, 3L), listOf(4L)).inOrder()
         }
 
     @Test
-    fun `test that an error thrown when retrieving the target node is caught silently and record is filtered out from the result`() =
+    fun `test that a record which could not be checked is filtered out from the result`() =
         runTest {
             val size = 5
             val list = List(size) { index ->
@@ -140,20 +147,55 @@ class DoesCameraUploadsRecordExistsInTargetNodeUseCaseTest {
                     filePath = "filePath/$index",
                 )
             }
-            for (i in 0..<size) {
-                val stub = whenever(
-                    findNodeWithFingerprintInParentNodeUseCase(
-                        list[i].originalFingerprint,
-                        list[i].generatedFingerprint,
-                        primaryUploadNodeId
-                    )
-                )
-                if (i == 0)
-                    stub.thenThrow(RuntimeException::class.java)
-                else
-                    stub.thenReturn(Pair(false, null))
-            }
-            val result = underTest(list, primaryUploadNodeId, secondaryUploadNodeId)
+            whenever(findNodesWithFingerprintInParentNodeUseCase(list.map { it.toLookup() }, CHUNK_SIZE))
+                .thenReturn(flowOf(listOf(null) + List(size - 1) { Pair(false, null) }))
+            val result = underTest(list, primaryUploadNodeId, secondaryUploadNodeId, CHUNK_SIZE)
+                .toList().flatten()
             assertThat(result.size).isEqualTo(size - 1)
+            assertThat(result.map { it.mediaId }).doesNotContain(0L)
         }
+
+    @Test
+    fun `test that each remaining record is looked up on its own when the batch lookup fails`() =
+        runTest {
+            val checkedRecord = record.copy(mediaId = 0L, originalFingerprint = "checked")
+            val failingRecord = record.copy(mediaId = 2L, originalFingerprint = "failing")
+            val list = listOf(checkedRecord, record, failingRecord)
+            whenever(findNodesWithFingerprintInParentNodeUseCase(list.map { it.toLookup() }, 1))
+                .thenReturn(flow {
+                    emit(listOf(Pair(false, null)))
+                    throw RuntimeException()
+                })
+            whenever(
+                findNodeWithFingerprintInParentNodeUseCase(
+                    record.originalFingerprint,
+                    record.generatedFingerprint,
+                    primaryUploadNodeId,
+                )
+            ).thenReturn(Pair(true, NodeId(1234L)))
+            whenever(
+                findNodeWithFingerprintInParentNodeUseCase(
+                    failingRecord.originalFingerprint,
+                    failingRecord.generatedFingerprint,
+                    primaryUploadNodeId,
+                )
+            ).thenThrow(RuntimeException::class.java)
+
+            val result = underTest(list, primaryUploadNodeId, secondaryUploadNodeId, 1).toList()
+
+            assertThat(result).containsExactly(
+                listOf(checkedRecord.copy(existsInTargetNode = false, existingNodeId = null)),
+                listOf(record.copy(existsInTargetNode = true, existingNodeId = NodeId(1234L))),
+                emptyList<CameraUploadsRecord>(),
+            ).inOrder()
+            verify(findNodeWithFingerprintInParentNodeUseCase, never()).invoke(
+                checkedRecord.originalFingerprint,
+                checkedRecord.generatedFingerprint,
+                primaryUploadNodeId,
+            )
+        }
+
+    private companion object {
+        const val CHUNK_SIZE = 50
+    }
 }
@@ -0,0 +1,104 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.usecase.node.IsNodeInRubbishBinUseCase
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FindNodesWithFingerprintInParentNodeUseCaseTest {
+
+    private lateinit var underTest: FindNodesWithFingerprintInParentNodeUseCase
+
+    private val getNodesFromCloudUseCase = mock<GetNodesFromCloudUseCase>()
+    private val isNodeInRubbishBinUseCase = mock<IsNodeInRubbishBinUseCase>()
+
+    private val parentNodeId = NodeId(1111L)
+    private val otherParentNodeId = NodeId(2222L)
+
+    @BeforeAll
+    fun setUp() {
+        underTest = FindNodesWithFingerprintInParentNodeUseCase(
+            getNodesFromCloudUseCase = getNodesFromCloudUseCase,
+            isNodeInRubbishBinUseCase = isNodeInRubbishBinUseCase,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(
+            getNodesFromCloudUseCase,
+            isNodeInRubbishBinUseCase,
+        )
+    }
+
+    private fun fileNode(handle: Long, parentNodeId: NodeId) = mock<TypedFileNode> {
+        on { id }.thenReturn(NodeId(handle))
+        on { parentId }.thenReturn(parentNodeId)
+    }
+
+    @Test
+    fun `test that each lookup is mapped to whether its node exists in the parent folder`() =
+        runTest {
+            val inParent = NodeFingerprintLookup("inParent", null, parentNodeId)
+            val inOtherFolder = NodeFingerprintLookup("inOtherFolder", null, parentNodeId)
+            val inRubbishBin = NodeFingerprintLookup("inRubbishBin", null, parentNodeId)
+            val notFound = NodeFingerprintLookup("notFound", null, parentNodeId)
+            val lookups = listOf(inParent, inOtherFolder, inRubbishBin, notFound)
+            whenever(getNodesFromCloudUseCase(lookups, 2)).thenReturn(
+                flowOf(
+                    listOf(fileNode(1L, parentNodeId), fileNode(2L, otherParentNodeId)),
+                    listOf(fileNode(3L, otherParentNodeId), null),
+                )
+            )
+            whenever(isNodeInRubbishBinUseCase(NodeId(2L))).thenReturn(false)
+            whenever(isNodeInRubbishBinUseCase(NodeId(3L))).thenReturn(true)
+
+            assertThat(underTest(lookups, 2).toList()).containsExactly(
+                listOf(Pair(true, NodeId(1L)), Pair(false, NodeId(2L))),
+                listOf(Pair(null, NodeId(3L)), Pair(false, null)),
+            ).inOrder()
+        }
+
+    @Test
+    fun `test that the rubbish bin is not checked when the node is in the parent folder`() =
+        runTest {
+            val lookup = NodeFingerprintLookup("inParent", null, parentNodeId)
+            whenever(getNodesFromCloudUseCase(listOf(lookup), 2))
+                .thenReturn(flowOf(listOf(fileNode(1L, parentNodeId))))
+
+            underTest(listOf(lookup), 2).toList()
+
+            verifyNoInteractions(isNodeInRubbishBinUseCase)
+        }
+
+    @Test
+    fun `test that a lookup whose rubbish bin check fails is null`() = runTest {
+        val failing = NodeFingerprintLookup("failing", null, parentNodeId)
+        val succeeding = NodeFingerprintLookup("succeeding", null, parentNodeId)
+        val lookups = listOf(failing, succeeding)
+        whenever(getNodesFromCloudUseCase(lookups, 2)).thenReturn(
+            flowOf(listOf(fileNode(1L, otherParentNodeId), fileNode(2L, otherParentNodeId)))
+        )
+        whenever(isNodeInRubbishBinUseCase(NodeId(1L))).thenThrow(RuntimeException::class.java)
+        whenever(isNodeInRubbishBinUseCase(NodeId(2L))).thenReturn(false)
+
+        val actual = underTest(lookups, 2).toList()
+
+        assertThat(actual).containsExactly(listOf(null, Pair(false, NodeId(2L))))
+        verify(isNodeInRubbishBinUseCase).invoke(NodeId(2L))
+    }
+}
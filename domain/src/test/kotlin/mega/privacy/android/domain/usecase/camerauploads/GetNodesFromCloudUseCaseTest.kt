@@ -0,0 +1,84 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.NodeFingerprintLookup
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.entity.node.UnTypedNode
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetNodesFromCloudUseCaseTest {
+
+    private lateinit var underTest: GetNodesFromCloudUseCase
+
+    private val nodeRepository = mock<NodeRepository>()
+    private val addNodeType = mock<AddNodeType>()
+
+    private val parentNodeId = NodeId(1111L)
+
+    @BeforeAll
+    fun setUp() {
+        underTest = GetNodesFromCloudUseCase(
+            nodeRepository = nodeRepository,
+            addNodeType = addNodeType,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(
+            nodeRepository,
+            addNodeType,
+        )
+    }
+
+    @Test
+    fun `test that all the lookups are resolved in a single repository call`() = runTest {
+        val lookups = List(3) {
+            NodeFingerprintLookup("originalFingerprint$it", "generatedFingerprint$it", parentNodeId)
+        }
+        whenever(nodeRepository.getNodesByFingerprints(lookups, 2))
+            .thenReturn(flowOf(listOf(null, null), listOf(null)))
+
+        assertThat(underTest(lookups, 2).toList())
+            .containsExactly(listOf(null, null), listOf(null)).inOrder()
+        verify(nodeRepository).getNodesByFingerprints(lookups, 2)
+    }
+
+    @Test
+    fun `test that only the file nodes found are returned`() = runTest {
+        val fileLookup = NodeFingerprintLookup("file", null, parentNodeId)
+        val folderLookup = NodeFingerprintLookup("folder", null, parentNodeId)
+        val lookups = listOf(fileLookup, folderLookup)
+        val unTypedFileNode = mock<UnTypedNode>()
+        val unTypedFolderNode = mock<UnTypedNode>()
+        val fileNode = mock<TypedFileNode>()
+        whenever(nodeRepository.getNodesByFingerprints(lookups, 2))
+            .thenReturn(flowOf(listOf(unTypedFileNode, unTypedFolderNode)))
+        whenever(addNodeType(unTypedFileNode)).thenReturn(fileNode)
+        whenever(addNodeType(unTypedFolderNode)).thenReturn(mock<TypedFolderNode>())
+
+        assertThat(underTest(lookups, 2).toList()).containsExactly(listOf(fileNode, null))
+    }
+
+    @Test
+    fun `test that the repository is not called when there is nothing to look up`() = runTest {
+        assertThat(underTest(emptyList(), 2).toList()).isEmpty()
+        verifyNoInteractions(nodeRepository)
+    }
+}
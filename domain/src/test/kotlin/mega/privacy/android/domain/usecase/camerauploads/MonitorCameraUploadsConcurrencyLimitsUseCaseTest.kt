@@ -0,0 +1,146 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyFeedback
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonitorCameraUploadsConcurrencyLimitsUseCaseTest {
+
+    private lateinit var underTest: MonitorCameraUploadsConcurrencyLimitsUseCase
+
+    private val cameraUploadsConcurrencyStrategy = mock<CameraUploadsConcurrencyStrategy>()
+    private val monitorConcurrentUploadsLimitUseCase = mock<MonitorConcurrentUploadsLimitUseCase>()
+
+    private val initialLimits = CameraUploadsConcurrencyLimits(uploads = 6)
+
+    @BeforeAll
+    fun setUp() {
+        underTest = MonitorCameraUploadsConcurrencyLimitsUseCase(
+            cameraUploadsConcurrencyStrategy = cameraUploadsConcurrencyStrategy,
+            monitorConcurrentUploadsLimitUseCase = monitorConcurrentUploadsLimitUseCase,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(
+            cameraUploadsConcurrencyStrategy,
+            monitorConcurrentUploadsLimitUseCase,
+        )
+        whenever(monitorConcurrentUploadsLimitUseCase(any())).thenReturn(flowOf(6))
+        whenever(cameraUploadsConcurrencyStrategy.initialLimits(6)).thenReturn(initialLimits)
+    }
+
+    @Test
+    fun `test that the initial limits are emitted immediately`() = runTest {
+        whenever(cameraUploadsConcurrencyStrategy.nextLimits(any(), any())).thenReturn(initialLimits)
+
+        underTest(CameraUploadsTransferMeter()).test {
+            assertThat(awaitItem()).isEqualTo(initialLimits)
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
+    @Test
+    fun `test that the measures of the sampling window are given to the strategy`() = runTest {
+        val transferMeter = CameraUploadsTransferMeter()
+        val nextLimits = CameraUploadsConcurrencyLimits(uploads = 3)
+        whenever(cameraUploadsConcurrencyStrategy.nextLimits(any(), any())).thenReturn(nextLimits)
+
+        underTest(transferMeter).test {
+            assertThat(awaitItem()).isEqualTo(initialLimits)
+            transferMeter.addTransferredBytes(4000L)
+            transferMeter.addTemporaryError()
+            advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS + 1)
+            assertThat(awaitItem()).isEqualTo(nextLimits)
+            cancelAndIgnoreRemainingEvents()
+        }
+        verify(cameraUploadsConcurrencyStrategy).nextLimits(
+            current = initialLimits,
+            feedback = CameraUploadsConcurrencyFeedback(
+                throughput = 2000L,
+                previousThroughput = 0L,
+                temporaryErrors = 1,
+                deviceUploadsLimit = 6,
+            ),
+        )
+    }
+
+    @Test
+    fun `test that the previous throughput is kept when the uploads are not lowered`() = runTest {
+        val transferMeter = CameraUploadsTransferMeter()
+        whenever(cameraUploadsConcurrencyStrategy.nextLimits(any(), any())).thenReturn(initialLimits)
+
+        underTest(transferMeter).test {
+            assertThat(awaitItem()).isEqualTo(initialLimits)
+            transferMeter.addTransferredBytes(4000L)
+            advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS + 1)
+            transferMeter.addTransferredBytes(4000L)
+            advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS)
+            cancelAndIgnoreRemainingEvents()
+        }
+        verify(cameraUploadsConcurrencyStrategy).nextLimits(
+            current = initialLimits,
+            feedback = CameraUploadsConcurrencyFeedback(
+                throughput = 2000L,
+                previousThroughput = 2000L,
+                temporaryErrors = 0,
+                deviceUploadsLimit = 6,
+            ),
+        )
+    }
+
+    @Test
+    fun `test that the previous throughput is scaled to the uploads when they are lowered`() =
+        runTest {
+            val transferMeter = CameraUploadsTransferMeter()
+            val nextLimits = CameraUploadsConcurrencyLimits(uploads = 3)
+            whenever(cameraUploadsConcurrencyStrategy.nextLimits(any(), any()))
+                .thenReturn(nextLimits)
+
+            underTest(transferMeter).test {
+                assertThat(awaitItem()).isEqualTo(initialLimits)
+                transferMeter.addTransferredBytes(4000L)
+                advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS + 1)
+                assertThat(awaitItem()).isEqualTo(nextLimits)
+                transferMeter.addTransferredBytes(2000L)
+                advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS)
+                cancelAndIgnoreRemainingEvents()
+            }
+            verify(cameraUploadsConcurrencyStrategy).nextLimits(
+                current = nextLimits,
+                feedback = CameraUploadsConcurrencyFeedback(
+                    throughput = 1000L,
+                    previousThroughput = 1000L,
+                    temporaryErrors = 0,
+                    deviceUploadsLimit = 6,
+                ),
+            )
+        }
+
+    @Test
+    fun `test that unchanged limits are not emitted again`() = runTest {
+        whenever(cameraUploadsConcurrencyStrategy.nextLimits(any(), any())).thenReturn(initialLimits)
+
+        underTest(CameraUploadsTransferMeter()).test {
+            assertThat(awaitItem()).isEqualTo(initialLimits)
+            advanceTimeBy(MonitorCameraUploadsConcurrencyLimitsUseCase.SAMPLING_WINDOW_MILLIS * 5)
+            expectNoEvents()
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+}
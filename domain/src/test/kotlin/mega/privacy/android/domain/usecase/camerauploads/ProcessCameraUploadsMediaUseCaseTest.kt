@@ -4,6 +4,8 @@ import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.usecase.IsSecondaryFolderEnabled
 import org.junit.jupiter.api.BeforeAll
@@ -16,6 +18,7 @@ import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -34,6 +37,10 @@ class ProcessCameraUploadsMediaUseCaseTest {
     private val isSecondaryFolderEnabled = mock<IsSecondaryFolderEnabled>()
     private val retrieveMediaFromMediaStoreUseCase = mock<RetrieveMediaFromMediaStoreUseCase>()
     private val saveCameraUploadsRecordUseCase = mock<SaveCameraUploadsRecordUseCase>()
+    private val saveCameraUploadsMediaWatermarksUseCase =
+        mock<SaveCameraUploadsMediaWatermarksUseCase>()
+
+    private val emptyScanResult = CameraUploadsMediaScanResult(emptyList(), emptyMap())
 
     @BeforeAll
     fun setUp() {
@@ -44,6 +51,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isSecondaryFolderEnabled = isSecondaryFolderEnabled,
             retrieveMediaFromMediaStoreUseCase = retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase = saveCameraUploadsRecordUseCase,
+            saveCameraUploadsMediaWatermarksUseCase = saveCameraUploadsMediaWatermarksUseCase,
         )
     }
 
@@ -56,6 +64,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isSecondaryFolderEnabled,
             retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase,
+            saveCameraUploadsMediaWatermarksUseCase,
         )
     }
 
@@ -76,7 +85,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -110,7 +119,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -144,7 +153,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
 
             val types = mediaStoreFileType.partition { it.isImageFileType() }
@@ -177,7 +186,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(false)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -204,7 +213,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -240,7 +249,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -276,7 +285,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
             whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+                .thenReturn(emptyScanResult)
             whenever(isSecondaryFolderEnabled()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -345,7 +354,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         photoRecordType,
                         tempRoot
                     )
-                ).thenReturn(photoPrimaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(photoPrimaryRecordList, emptyMap()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         primaryFolderPath,
@@ -354,7 +363,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         videoRecordType,
                         tempRoot
                     )
-                ).thenReturn(videoPrimaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(videoPrimaryRecordList, emptyMap()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
@@ -363,7 +372,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         photoRecordType,
                         tempRoot
                     )
-                ).thenReturn(photoSecondaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(photoSecondaryRecordList, emptyMap()))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
@@ -372,7 +381,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         videoRecordType,
                         tempRoot
                     )
-                ).thenReturn(videoSecondaryRecordList)
+                ).thenReturn(CameraUploadsMediaScanResult(videoSecondaryRecordList, emptyMap()))
                 whenever(isSecondaryFolderEnabled()).thenReturn(true)
                 whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -382,6 +391,58 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 underTest.invoke(tempRoot)
                 verify(saveCameraUploadsRecordUseCase).invoke(expected)
             }
+
+        @ParameterizedTest(name = "when file type list is {0}")
+        @MethodSource("mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCaseTest#provideBothTypesMediaStoreFileTypeParameters")
+        fun `test that the watermarks are saved after the records`(
+            mediaStoreFileType: List<MediaStoreFileType>,
+        ) = runTest {
+            val primaryFolderPath = "primaryFolderPath"
+            val tempRoot = "tempRoot"
+            val types = mediaStoreFileType.partition { it.isImageFileType() }
+            val photoWatermark = mock<CameraUploadsMediaWatermark>()
+            val videoWatermark = mock<CameraUploadsMediaWatermark>()
+
+            whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
+            whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
+            whenever(
+                retrieveMediaFromMediaStoreUseCase(
+                    primaryFolderPath,
+                    types.first,
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_PHOTO,
+                    tempRoot,
+                )
+            ).thenReturn(
+                CameraUploadsMediaScanResult(emptyList(), mapOf(types.first[0] to photoWatermark))
+            )
+            whenever(
+                retrieveMediaFromMediaStoreUseCase(
+                    primaryFolderPath,
+                    types.second,
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_VIDEO,
+                    tempRoot,
+                )
+            ).thenReturn(
+                CameraUploadsMediaScanResult(emptyList(), mapOf(types.second[0] to videoWatermark))
+            )
+            whenever(isSecondaryFolderEnabled()).thenReturn(false)
+
+            underTest.invoke(tempRoot)
+
+            inOrder(saveCameraUploadsRecordUseCase, saveCameraUploadsMediaWatermarksUseCase) {
+                verify(saveCameraUploadsRecordUseCase).invoke(emptyList())
+                verify(saveCameraUploadsMediaWatermarksUseCase).invoke(
+                    CameraUploadFolderType.Primary,
+                    mapOf(types.first[0] to photoWatermark, types.second[0] to videoWatermark),
+                )
+                verify(saveCameraUploadsMediaWatermarksUseCase).invoke(
+                    CameraUploadFolderType.Secondary,
+                    emptyMap(),
+                )
+            }
+        }
     }
 
     companion object {
@@ -116,6 +116,34 @@ class RenameCameraUploadsRecordsUseCaseTest {
             assertThat(actual).isEqualTo(expected)
         }
 
+    @ParameterizedTest(name = "when folder type is {0}")
+    @MethodSource("provideFolderTypeParameters")
+    fun `test that a file name generated in a previous batch is not given again`(
+        folderType: CameraUploadFolderType,
+    ) = runTest {
+        val (firstRecord, secondRecord) = getRecordList(folderType)
+        val generatedFileNames = mutableMapOf<CameraUploadFolderType, MutableSet<String>>()
+        whenever(areUploadFileNamesKeptUseCase()).thenReturn(true)
+
+        val firstBatch = underTest(
+            listOf(firstRecord),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+            generatedFileNames,
+        )
+        val secondBatch = underTest(
+            listOf(secondRecord),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+            generatedFileNames,
+        )
+
+        assertThat(firstBatch[0].generatedFileName).isEqualTo("picture.jpg")
+        assertThat(secondBatch[0].generatedFileName).isEqualTo("picture_1.jpg")
+        assertThat(generatedFileNames[folderType])
+            .containsExactly("picture.jpg", "picture_1.jpg")
+    }
+
     @ParameterizedTest(name = "when folder type is {0}")
     @MethodSource("provideFolderTypeParameters")
     fun `test that if the user choose to keep name and the file name is not already used, the file name is kept`(
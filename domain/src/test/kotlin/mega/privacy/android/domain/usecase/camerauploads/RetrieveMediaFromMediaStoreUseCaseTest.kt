@@ -7,6 +7,8 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScan
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
@@ -15,7 +17,9 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 /**
@@ -63,17 +67,19 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadRepository.getMediaList(
+                cameraUploadRepository.scanMedia(
                     mediaStoreFileType1,
-                    selectionQuery
+                    selectionQuery,
+                    null,
                 )
-            ).thenReturn(cameraUploadsMediaList1)
+            ).thenReturn(CameraUploadsMediaScan(cameraUploadsMediaList1, null))
             whenever(
-                cameraUploadRepository.getMediaList(
+                cameraUploadRepository.scanMedia(
                     mediaStoreFileType2,
-                    selectionQuery
+                    selectionQuery,
+                    null,
                 )
-            ).thenReturn(cameraUploadsMediaList2)
+            ).thenReturn(CameraUploadsMediaScan(cameraUploadsMediaList2, null))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             val cameraUploadsRecordList2 = listOf<CameraUploadsRecord>(mock())
@@ -107,7 +113,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             val expected = cameraUploadsRecordList1 + cameraUploadsRecordList2
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot).records)
                 .isEqualTo(expected)
         }
 
@@ -128,17 +134,19 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadRepository.getMediaList(
+                cameraUploadRepository.scanMedia(
                     mediaStoreFileType1,
-                    selectionQuery
+                    selectionQuery,
+                    null,
                 )
-            ).thenReturn(cameraUploadsMediaList1)
+            ).thenReturn(CameraUploadsMediaScan(cameraUploadsMediaList1, null))
             whenever(
-                cameraUploadRepository.getMediaList(
+                cameraUploadRepository.scanMedia(
                     mediaStoreFileType2,
-                    selectionQuery
+                    selectionQuery,
+                    null,
                 )
-            ).thenReturn(cameraUploadsMediaList2)
+            ).thenReturn(CameraUploadsMediaScan(cameraUploadsMediaList2, null))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             cameraUploadsMediaList1.forEachIndexed { index, media ->
@@ -169,7 +177,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot).records)
                 .isEqualTo(cameraUploadsRecordList1)
         }
 
@@ -199,8 +207,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadRepository.scanMedia(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(CameraUploadsMediaScan(cameraUploadsMediaList1, null))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             cameraUploadsMediaList1.forEachIndexed { index, media ->
@@ -218,7 +226,118 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             val expected =
                 cameraUploadsRecordList1.filterNot { it.mediaId == 1111L && it.timestamp == 1234L }
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot).records)
                 .isEqualTo(expected)
         }
+
+    @Test
+    fun `test that only the media already inserted for the same folder type are filtered out`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+
+            val existingMedia = CameraUploadsMedia(1L, "existing", "existing", 10L)
+            val modifiedMedia = CameraUploadsMedia(1L, "existing", "existing", 20L)
+            val existingInSecondaryMedia = CameraUploadsMedia(2L, "secondary", "secondary", 10L)
+            val mediaList = listOf(existingMedia, modifiedMedia, existingInSecondaryMedia)
+
+            whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadRepository.scanMedia(mediaStoreFileType, selectionQuery, null))
+                .thenReturn(CameraUploadsMediaScan(mediaList, null))
+            whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(
+                listOf(
+                    mock {
+                        on { mediaId }.thenReturn(1L)
+                        on { timestamp }.thenReturn(10L)
+                        on { this.folderType }.thenReturn(CameraUploadFolderType.Primary)
+                    },
+                    mock {
+                        on { mediaId }.thenReturn(2L)
+                        on { timestamp }.thenReturn(10L)
+                        on { this.folderType }.thenReturn(CameraUploadFolderType.Secondary)
+                    },
+                )
+            )
+            val modifiedRecord = mock<CameraUploadsRecord>()
+            val secondaryRecord = mock<CameraUploadsRecord>()
+            whenever(cameraUploadsRecordMapper(modifiedMedia, folderType, fileType, tempRoot))
+                .thenReturn(modifiedRecord)
+            whenever(
+                cameraUploadsRecordMapper(existingInSecondaryMedia, folderType, fileType, tempRoot)
+            ).thenReturn(secondaryRecord)
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+                    .records
+            ).containsExactly(modifiedRecord, secondaryRecord).inOrder()
+            verify(cameraUploadsRecordMapper, never())
+                .invoke(existingMedia, folderType, fileType, tempRoot)
+        }
+
+    @Test
+    fun `test that the media are scanned from the saved watermark and the new watermark is returned`() =
+        runTest {
+            val parentPath = "parentPath"
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val savedWatermark = mock<CameraUploadsMediaWatermark>()
+            val newWatermark = mock<CameraUploadsMediaWatermark>()
+
+            whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadRepository.getMediaWatermark(folderType, mediaStoreFileType))
+                .thenReturn(savedWatermark)
+            whenever(
+                cameraUploadRepository.scanMedia(mediaStoreFileType, selectionQuery, savedWatermark)
+            ).thenReturn(CameraUploadsMediaScan(emptyList(), newWatermark))
+            whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+                    .watermarks
+            ).isEqualTo(mapOf(mediaStoreFileType to newWatermark))
+        }
+
+    @Test
+    fun `test that the saved watermark is kept if some media cannot be mapped to a record`() =
+        runTest {
+            val parentPath = "parentPath"
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val savedWatermark = mock<CameraUploadsMediaWatermark>()
+            val newWatermark = mock<CameraUploadsMediaWatermark>()
+            val mappedMedia = CameraUploadsMedia(1L, "mapped", "mapped", 10L)
+            val droppedMedia = CameraUploadsMedia(2L, "dropped", "dropped", 10L)
+            val record = mock<CameraUploadsRecord>()
+
+            whenever(cameraUploadRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadRepository.getMediaWatermark(folderType, mediaStoreFileType))
+                .thenReturn(savedWatermark)
+            whenever(
+                cameraUploadRepository.scanMedia(mediaStoreFileType, selectionQuery, savedWatermark)
+            ).thenReturn(CameraUploadsMediaScan(listOf(mappedMedia, droppedMedia), newWatermark))
+            whenever(cameraUploadRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRecordMapper(mappedMedia, folderType, fileType, tempRoot))
+                .thenReturn(record)
+            whenever(cameraUploadsRecordMapper(droppedMedia, folderType, fileType, tempRoot))
+                .thenReturn(null)
+
+            val actual =
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+
+            assertThat(actual.records).containsExactly(record)
+            assertThat(actual.watermarks).isEqualTo(mapOf(mediaStoreFileType to savedWatermark))
+        }
 }
@@ -0,0 +1,59 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaWatermark
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+
+/**
+ * Test class for [SaveCameraUploadsMediaWatermarksUseCase]
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SaveCameraUploadsMediaWatermarksUseCaseTest {
+
+    private lateinit var underTest: SaveCameraUploadsMediaWatermarksUseCase
+
+    private val cameraUploadRepository = mock<CameraUploadRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = SaveCameraUploadsMediaWatermarksUseCase(
+            cameraUploadRepository = cameraUploadRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(cameraUploadRepository)
+    }
+
+    @ParameterizedTest(name = "when folder type is {0}")
+    @EnumSource(CameraUploadFolderType::class)
+    fun `test that the watermarks of the scanned types are saved and the others are cleared`(
+        folderType: CameraUploadFolderType,
+    ) = runTest {
+        val watermark = mock<CameraUploadsMediaWatermark>()
+
+        underTest(folderType, mapOf(MediaStoreFileType.IMAGES_EXTERNAL to watermark))
+
+        verify(cameraUploadRepository).setMediaWatermark(
+            folderType,
+            MediaStoreFileType.IMAGES_EXTERNAL,
+            watermark,
+        )
+        MediaStoreFileType.entries
+            .filterNot { it == MediaStoreFileType.IMAGES_EXTERNAL }
+            .forEach {
+                verify(cameraUploadRepository).setMediaWatermark(folderType, it, null)
+            }
+    }
+}
@@ -16,6 +16,7 @@ import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.VideoCompressionState
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsConcurrencyLimits
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsTransferProgress
@@ -45,6 +46,7 @@ import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -87,7 +89,8 @@ class UploadCameraUploadsRecordsUseCaseTest {
     private val monitorBatteryInfoUseCase = mock<MonitorBatteryInfoUseCase>()
     private val isChargingRequiredForVideoCompressionUseCase: IsChargingRequiredForVideoCompressionUseCase =
         mock()
-    private val monitorConcurrentUploadsLimitUseCase: MonitorConcurrentUploadsLimitUseCase = mock()
+    private val monitorCameraUploadsConcurrencyLimitsUseCase: MonitorCameraUploadsConcurrencyLimitsUseCase =
+        mock()
 
     private val primaryUploadNodeId = NodeId(1111L)
     private val secondaryUploadNodeId = NodeId(2222L)
@@ -139,7 +142,7 @@ class UploadCameraUploadsRecordsUseCaseTest {
             getNodeByIdUseCase = getNodeByIdUseCase,
             monitorBatteryInfoUseCase = monitorBatteryInfoUseCase,
             isChargingRequiredForVideoCompressionUseCase = isChargingRequiredForVideoCompressionUseCase,
-            monitorConcurrentUploadsLimitUseCase = monitorConcurrentUploadsLimitUseCase,
+            monitorCameraUploadsConcurrencyLimitsUseCase = monitorCameraUploadsConcurrencyLimitsUseCase,
         )
     }
 
@@ -165,7 +168,7 @@ class UploadCameraUploadsRecordsUseCaseTest {
             fileSystemRepository,
             addCompletedTransferUseCase,
             getNodeByIdUseCase,
-            monitorConcurrentUploadsLimitUseCase,
+            monitorCameraUploadsConcurrencyLimitsUseCase,
         )
     }
 
@@ -174,7 +177,8 @@ class UploadCameraUploadsRecordsUseCaseTest {
         whenever(areLocationTagsEnabledUseCase()).thenReturn(true)
         whenever(isChargingRequiredForVideoCompressionUseCase()).thenReturn(false)
         whenever(monitorBatteryInfoUseCase()).thenReturn(flowOf(BatteryInfo(100, true)))
-        whenever(monitorConcurrentUploadsLimitUseCase(8)).thenReturn(flowOf(8))
+        whenever(monitorCameraUploadsConcurrencyLimitsUseCase(any()))
+            .thenReturn(flowOf(CameraUploadsConcurrencyLimits(uploads = 8)))
     }
 
     private fun getUploadNodeId(cameraUploadFolderType: CameraUploadFolderType) =
@@ -0,0 +1,74 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+import java.io.File
+import java.nio.ByteBuffer
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetPackedThumbnailUseCaseTest {
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+    private val getThumbnailUseCase = mock<GetThumbnailUseCase>()
+    private val getPublicNodeThumbnailUseCase = mock<GetPublicNodeThumbnailUseCase>()
+
+    private val underTest = GetPackedThumbnailUseCase(
+        thumbnailPreviewRepository = thumbnailPreviewRepository,
+        getThumbnailUseCase = getThumbnailUseCase,
+        getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase,
+    )
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(thumbnailPreviewRepository, getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+    }
+
+    @Test
+    fun `test that the packed thumbnail is returned if it exists`() = runTest {
+        val expected = ByteBuffer.wrap(byteArrayOf(1, 2, 3))
+        whenever(thumbnailPreviewRepository.getPackedThumbnail(1L)).thenReturn(expected)
+
+        assertThat(underTest(1L, isPublicNode = false)).isEqualTo(expected)
+        verifyNoInteractions(getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+    }
+
+    @Test
+    fun `test that the thumbnail is packed once got if it is not packed`() = runTest {
+        val file = File("1.jpg")
+        val expected = ByteBuffer.wrap(byteArrayOf(1, 2, 3))
+        whenever(thumbnailPreviewRepository.getPackedThumbnail(1L)).thenReturn(null)
+        whenever(getThumbnailUseCase(1L, true, true)).thenReturn(file)
+        whenever(thumbnailPreviewRepository.packThumbnail(1L, file)).thenReturn(expected)
+
+        assertThat(underTest(1L, isPublicNode = false, isPrefetch = true)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the public node thumbnail is got for public nodes`() = runTest {
+        val file = File("1.jpg")
+        whenever(thumbnailPreviewRepository.getPackedThumbnail(1L)).thenReturn(null)
+        whenever(getPublicNodeThumbnailUseCase(1L, true, false)).thenReturn(file)
+
+        underTest(1L, isPublicNode = true)
+
+        verify(thumbnailPreviewRepository).packThumbnail(1L, file)
+        verifyNoInteractions(getThumbnailUseCase)
+    }
+
+    @Test
+    fun `test that null is returned if the thumbnail cannot be got`() = runTest {
+        whenever(thumbnailPreviewRepository.getPackedThumbnail(1L)).thenReturn(null)
+        whenever(getThumbnailUseCase(any(), any(), any())).thenReturn(null)
+
+        assertThat(underTest(1L, isPublicNode = false)).isNull()
+    }
+}
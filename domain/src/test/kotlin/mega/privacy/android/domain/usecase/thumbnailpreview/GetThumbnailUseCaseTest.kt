@@ -38,7 +38,7 @@ class GetThumbnailUseCaseTest {
         runTest {
             val expected = mock<File>()
             whenever(thumbnailPreviewRepository.getThumbnailFromLocal(any())).thenReturn(null)
-            whenever(thumbnailPreviewRepository.getThumbnailFromServer(any())).thenReturn(expected)
+            whenever(thumbnailPreviewRepository.getThumbnailFromServer(any(), any())).thenReturn(expected)
 
             assertThat(underTest.invoke(any())).isEqualTo(expected)
         }
@@ -47,7 +47,7 @@ class GetThumbnailUseCaseTest {
     fun `test that if local thumbnail does not exist and an error is thrown when retrieving from server then return null`() =
         runTest {
             whenever(thumbnailPreviewRepository.getThumbnailFromLocal(any())).thenReturn(null)
-            whenever(thumbnailPreviewRepository.getThumbnailFromServer(any())).thenThrow(
+            whenever(thumbnailPreviewRepository.getThumbnailFromServer(any(), any())).thenThrow(
                 MegaException(
                     0,
                     null
@@ -56,4 +56,13 @@ class GetThumbnailUseCaseTest {
 
             assertThat(underTest.invoke(any())).isEqualTo(null)
         }
+
+    @Test
+    fun `test that prefetch requests are passed to the repository`() = runTest {
+        val expected = mock<File>()
+        whenever(thumbnailPreviewRepository.getThumbnailFromLocal(1L)).thenReturn(null)
+        whenever(thumbnailPreviewRepository.getThumbnailFromServer(1L, true)).thenReturn(expected)
+
+        assertThat(underTest(1L, isPrefetch = true)).isEqualTo(expected)
+    }
 }
\ No newline at end of file